@@ -1,10 +1,17 @@
 -- database: ../database/InkHarmony.sqlite
 -- Borrar tablas en orden seguro
+DROP TABLE IF EXISTS Contenido_Blob;
+DROP TABLE IF EXISTS Importacion_Archivo;
 DROP TABLE IF EXISTS Reproduccion;
 DROP TABLE IF EXISTS Playlist;
 DROP TABLE IF EXISTS Playlist_Cancion;
 DROP TABLE IF EXISTS playlist_elementos;
 DROP TABLE IF EXISTS Cancion_Genero;
+DROP TABLE IF EXISTS Conteo_Genero_Cancion;
+DROP TABLE IF EXISTS Conteo_Usuario;
+DROP TABLE IF EXISTS Conteo_Genero;
+DROP TABLE IF EXISTS Conteo_Artista;
+DROP TABLE IF EXISTS Conteo_Cancion;
 DROP TABLE IF EXISTS Cancion_Artista;
 DROP TABLE IF EXISTS Artista_Genero;
 DROP TABLE IF EXISTS Cancion;
@@ -38,7 +45,7 @@ CREATE TABLE Genero (
                              id_artista INTEGER PRIMARY KEY AUTOINCREMENT,
                              nombre VARCHAR(50) NOT NULL UNIQUE,
                              biografia TEXT NOT NULL,
-                             imagen BLOB -- o BLOB si quieres guardar bytes
+                             imagen BLOB -- hash de la imagen en Contenido_Blob
     );
 
 
@@ -56,10 +63,16 @@ CREATE TABLE Cancion (
                          id_cancion INTEGER PRIMARY KEY AUTOINCREMENT,
                          anio INTEGER,
                          titulo VARCHAR(20) NOT NULL,
-                         archivo_mp3 BLOB,
+                         archivo_mp3 BLOB, -- hash del MP3 en Contenido_Blob
                          duracion REAL,
                          fecha_registro DATETIME NOT NULL ,
-                         portada BLOB
+                         portada BLOB, -- hash de la imagen en Contenido_Blob
+                         portada_miniatura BLOB, -- JPEG de 128 px para listados (GeneradorMiniaturas)
+                         tabla_busqueda BLOB, -- índice de frames del MP3 (TablaBusqueda)
+                         bitrate INTEGER, -- kbps promedio, calculado con AnalizadorMP3
+                         frecuencia_muestreo INTEGER, -- Hz
+                         es_vbr INTEGER, -- 1 si el bitrate es variable
+                         total_frames INTEGER -- NULL mientras el audio no se haya analizado
 );
 
 -- Tabla Cancion_Genero (N:M)
@@ -87,7 +100,7 @@ CREATE TABLE Playlist (
                               titulo VARCHAR(50) NOT NULL,
                               fecha_creacion DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP,
                               descripcion TEXT,
-                              imagen_portada BLOB,
+                              imagen_portada BLOB, -- hash de la imagen en Contenido_Blob
                               FOREIGN KEY (id_propietario) REFERENCES Usuario(id_usuario)
 );
 
@@ -109,6 +122,86 @@ CREATE TABLE Reproduccion (
                               id_usuario INTEGER,
                               id_cancion INTEGER,
                               fecha_hora DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP,
+                              tipo_evento TEXT NOT NULL DEFAULT 'INICIO', -- INICIO, TREINTA_SEGUNDOS, COMPLETA, SALTADA
+                              posicion REAL,                             -- segundos reproducidos al ocurrir el evento
                               FOREIGN KEY (id_usuario) REFERENCES Usuario(id_usuario),
                               FOREIGN KEY (id_cancion) REFERENCES Cancion(id_cancion)
 );
+
+-- Índices para filtrar recomendaciones en SQL (CancionDAO.buscarResumenesPorCriterios)
+CREATE INDEX idx_cancion_genero_genero ON Cancion_Genero(id_genero, id_cancion);
+CREATE INDEX idx_cancion_artista_artista ON Cancion_Artista(id_artista, id_cancion);
+CREATE INDEX idx_cancion_fecha_registro ON Cancion(datetime(fecha_registro));
+
+-- Índice para el historial reciente de cada usuario (ReproduccionDAO)
+CREATE INDEX idx_reproduccion_usuario_fecha ON Reproduccion(id_usuario, fecha_hora);
+
+-- Conteos de reproducciones por periodo, mantenidos en cada lote de ReproduccionDAO.registrar.
+-- periodo: DIA (inicio = fecha), SEMANA (inicio = lunes de la semana) o TOTAL (inicio = '').
+-- Cuenta como reproducción llegar a los 30 segundos, o terminar una canción más corta.
+CREATE TABLE Conteo_Cancion (
+                                id_cancion INTEGER NOT NULL,
+                                periodo TEXT NOT NULL,
+                                inicio TEXT NOT NULL,
+                                reproducciones INTEGER NOT NULL,
+                                PRIMARY KEY (id_cancion, periodo, inicio)
+);
+
+CREATE TABLE Conteo_Artista (
+                                id_artista INTEGER NOT NULL,
+                                periodo TEXT NOT NULL,
+                                inicio TEXT NOT NULL,
+                                reproducciones INTEGER NOT NULL,
+                                PRIMARY KEY (id_artista, periodo, inicio)
+);
+
+CREATE TABLE Conteo_Genero (
+                               id_genero INTEGER NOT NULL,
+                               periodo TEXT NOT NULL,
+                               inicio TEXT NOT NULL,
+                               reproducciones INTEGER NOT NULL,
+                               PRIMARY KEY (id_genero, periodo, inicio)
+);
+
+CREATE TABLE Conteo_Usuario (
+                                id_usuario INTEGER NOT NULL,
+                                periodo TEXT NOT NULL,
+                                inicio TEXT NOT NULL,
+                                reproducciones INTEGER NOT NULL,
+                                PRIMARY KEY (id_usuario, periodo, inicio)
+);
+
+-- Ranking de canciones dentro de cada género ("populares en tus géneros")
+CREATE TABLE Conteo_Genero_Cancion (
+                                       id_genero INTEGER NOT NULL,
+                                       id_cancion INTEGER NOT NULL,
+                                       periodo TEXT NOT NULL,
+                                       inicio TEXT NOT NULL,
+                                       reproducciones INTEGER NOT NULL,
+                                       PRIMARY KEY (id_genero, periodo, inicio, id_cancion)
+);
+
+CREATE INDEX idx_conteo_cancion_ranking ON Conteo_Cancion(periodo, inicio, reproducciones DESC, id_cancion);
+CREATE INDEX idx_conteo_artista_ranking ON Conteo_Artista(periodo, inicio, reproducciones DESC, id_artista);
+CREATE INDEX idx_conteo_genero_ranking ON Conteo_Genero(periodo, inicio, reproducciones DESC, id_genero);
+CREATE INDEX idx_conteo_usuario_ranking ON Conteo_Usuario(periodo, inicio, reproducciones DESC, id_usuario);
+CREATE INDEX idx_conteo_genero_cancion_ranking ON Conteo_Genero_Cancion(id_genero, periodo, inicio, reproducciones DESC, id_cancion);
+
+-- Archivos ya registrados por la importación masiva (ImportadorBiblioteca). Se escribe en la
+-- misma transacción que sus canciones, así una importación interrumpida continúa donde quedó.
+CREATE TABLE Importacion_Archivo (
+                                     ruta TEXT PRIMARY KEY,
+                                     tamanio INTEGER NOT NULL,
+                                     modificado INTEGER NOT NULL, -- milisegundos desde 1970
+                                     id_cancion INTEGER NOT NULL,
+                                     fecha_importacion TEXT NOT NULL
+);
+
+-- Contenidos del almacén de blobs (audio e imágenes fuera de la base, ver AlmacenBlobs).
+-- Cancion.archivo_mp3, Cancion.portada, Artista.imagen y Playlist.imagen_portada guardan el
+-- hash SHA-256 del contenido como texto y esta tabla cuenta cuántas filas usan cada uno.
+CREATE TABLE Contenido_Blob (
+                                hash TEXT PRIMARY KEY,
+                                tamanio INTEGER NOT NULL, -- bytes
+                                referencias INTEGER NOT NULL
+);
@@ -0,0 +1,148 @@
+package BusinessLogic;
+
+import BusinessLogic.utilities.AnalizadorMP3;
+import DataAccessComponent.DAO.CancionDAO;
+import DataAccessComponent.DTO.MetadatosAudioDTO;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Clase que completa los datos técnicos del audio (duración exacta, bitrate, frecuencia de
+ * muestreo, VBR y cantidad de frames) de las canciones registradas antes de que existiera
+ * {@link AnalizadorMP3}.
+ *
+ * <p>Las canciones pendientes son las que tienen audio y {@code total_frames} en NULL. Se
+ * procesan por lotes de {@link #TAMANIO_LOTE}: los MP3 de cada lote se analizan en paralelo
+ * en un {@link ForkJoinPool} con un hilo por núcleo y los resultados se guardan con una sola
+ * transacción por lote. Como lo ya guardado deja de estar pendiente, si el proceso se
+ * interrumpe basta con volver a ejecutarlo; las canciones cuyo audio no es un MP3 válido
+ * siguen pendientes y se informan en {@link #resumen()}.</p>
+ *
+ * <p>Uso: {@code java BusinessLogic.ActualizadorMetadatosAudio [hilos]}</p>
+ *
+ * @author Grupo B
+ * @version 1.0
+ * @since 25-07-2025
+ *
+ * @see AnalizadorMP3
+ */
+public class ActualizadorMetadatosAudio {
+
+    /** Canciones analizadas antes de escribir en la base de datos */
+    public static final int TAMANIO_LOTE = 64;
+
+    /** Canciones que analiza una tarea sin volver a dividirse */
+    private static final int UMBRAL_DIVISION = 2;
+
+    private final CancionDAO cancionDAO = new CancionDAO();
+
+    /** Hilos del pool de análisis */
+    private final int paralelismo;
+
+    private final AtomicInteger analizadas = new AtomicInteger();
+    private final AtomicInteger invalidas = new AtomicInteger();
+    private int guardadas;
+
+    /**
+     * Constructor que usa un hilo por núcleo disponible.
+     */
+    public ActualizadorMetadatosAudio() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @param paralelismo Cantidad de hilos de análisis (al menos 1)
+     */
+    public ActualizadorMetadatosAudio(int paralelismo) {
+        this.paralelismo = Math.max(1, paralelismo);
+    }
+
+    public static void main(String[] args) throws Exception {
+        ActualizadorMetadatosAudio actualizador = args.length > 0
+                ? new ActualizadorMetadatosAudio(Integer.parseInt(args[0]))
+                : new ActualizadorMetadatosAudio();
+        long inicio = System.nanoTime();
+        actualizador.ejecutar();
+        System.out.println(actualizador.resumen() + String.format(" en %d ms", (System.nanoTime() - inicio) / 1_000_000));
+    }
+
+    /**
+     * Analiza y guarda los datos técnicos de todas las canciones pendientes.
+     *
+     * @return Cantidad de canciones actualizadas
+     * @throws Exception si ocurre un error al leer o escribir la base de datos
+     */
+    public int ejecutar() throws Exception {
+        List<Integer> pendientes = cancionDAO.buscarIdsSinMetadatosAudio();
+        ForkJoinPool pool = new ForkJoinPool(paralelismo);
+        try {
+            for (int desde = 0; desde < pendientes.size(); desde += TAMANIO_LOTE) {
+                List<Integer> lote = pendientes.subList(desde, Math.min(desde + TAMANIO_LOTE, pendientes.size()));
+                Map<Integer, MetadatosAudioDTO> resultados = new ConcurrentHashMap<>();
+                pool.invoke(new TareaAnalisis(lote, resultados));
+                guardadas += cancionDAO.guardarMetadatosAudio(resultados);
+                System.out.printf("Metadatos de audio: %d/%d canciones analizadas%n", analizadas.get(), pendientes.size());
+            }
+        } finally {
+            pool.shutdown();
+        }
+        return guardadas;
+    }
+
+    /**
+     * Divide un rango de IDs a la mitad hasta {@link #UMBRAL_DIVISION} canciones y analiza
+     * cada una en el hilo que la tomó.
+     */
+    private final class TareaAnalisis extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final List<Integer> ids;
+        private final Map<Integer, MetadatosAudioDTO> resultados;
+
+        private TareaAnalisis(List<Integer> ids, Map<Integer, MetadatosAudioDTO> resultados) {
+            this.ids = ids;
+            this.resultados = resultados;
+        }
+
+        @Override
+        protected void compute() {
+            if (ids.size() <= UMBRAL_DIVISION) {
+                ids.forEach(this::analizar);
+                return;
+            }
+            int mitad = ids.size() / 2;
+            invokeAll(new TareaAnalisis(ids.subList(0, mitad), resultados),
+                    new TareaAnalisis(ids.subList(mitad, ids.size()), resultados));
+        }
+
+        private void analizar(int idCancion) {
+            try {
+                byte[] audio = cancionDAO.cargarAudio(idCancion);
+                AnalizadorMP3.Resultado resultado = audio != null ? AnalizadorMP3.analizar(audio) : null;
+                if (resultado != null && resultado.esValido()) {
+                    resultados.put(idCancion, resultado.getMetadatos());
+                } else {
+                    invalidas.incrementAndGet();
+                }
+            } catch (Exception e) {
+                invalidas.incrementAndGet();
+                System.err.println("Error al analizar el audio de la canción " + idCancion + ": " + e.getMessage());
+            } finally {
+                analizadas.incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * @return Resumen legible de la última ejecución
+     */
+    public String resumen() {
+        return String.format("Metadatos de audio: analizadas=%d guardadas=%d sin audio válido=%d hilos=%d",
+                analizadas.get(), guardadas, invalidas.get(), paralelismo);
+    }
+}
@@ -2,6 +2,7 @@ package BusinessLogic;
 
 import DataAccessComponent.DTO.PerfilDTO;
 import DataAccessComponent.DTO.TipoUsuario;
+import DataAccessComponent.DAO.IPaginable;
 import DataAccessComponent.DAO.PerfilDAO;
 import java.util.List;
 
@@ -26,6 +27,28 @@ public class Administrador {
         return perfilDAO.listarTodos();
     }
 
+    /**
+     * Acceso por páginas a los usuarios, para listados que cargan solo las filas visibles.
+     *
+     * @return Fuente paginada de perfiles en orden de ID
+     */
+    public IPaginable<PerfilDTO> paginasUsuarios() {
+        return new PerfilDAO();
+    }
+
+    /**
+     * Busca los usuarios cuyo correo empieza con un texto.
+     *
+     * @param prefijo Comienzo del correo
+     * @param limite Cantidad máxima de usuarios
+     * @return Lista de perfiles de usuario, en orden de correo
+     * @throws Exception Si ocurre un error en la consulta
+     */
+    public List<PerfilDTO> buscarUsuariosPorCorreo(String prefijo, int limite) throws Exception {
+        PerfilDAO perfilDAO = new PerfilDAO();
+        return perfilDAO.buscarPorCorreoPrefijo(prefijo, limite);
+    }
+
     /**
      * Activa la cuenta de un usuario.
      *
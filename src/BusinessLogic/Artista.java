@@ -10,8 +10,10 @@ Descripción: Clase de lógica de negocio (BL) que gestiona operaciones sobre Ar
 package BusinessLogic;
 
 import DataAccessComponent.DAO.ArtistaDAO;
+import DataAccessComponent.DAO.IPaginable;
 import DataAccessComponent.DTO.ArtistaDTO;
 
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -38,6 +40,26 @@ public class Artista {
     public List<ArtistaDTO> buscarTodo() throws Exception {
         return artistaDAO.buscarTodo();
     }
+
+    /**
+     * Acceso por páginas a los artistas, para listados que cargan solo las filas visibles.
+     *
+     * @return Fuente paginada de artistas en orden de ID
+     */
+    public IPaginable<ArtistaDTO> paginas() {
+        return artistaDAO;
+    }
+
+    /**
+     * Recupera varios artistas en el orden de los IDs recibidos.
+     *
+     * @param ids IDs de los artistas; los que no existen se omiten
+     * @return Lista de artistas
+     * @throws Exception si ocurre un error en DAO
+     */
+    public List<ArtistaDTO> buscarPorIds(Collection<Integer> ids) throws Exception {
+        return artistaDAO.buscarPorIds(ids);
+    }
     /**
      * Recupera un artista específico por su ID.
      *
@@ -63,7 +85,11 @@ public class Artista {
     public boolean registrar(String nombre, List<Genero> generos,
                              String biografia, byte[] imagen) throws Exception {
         ArtistaDTO nuevoArtista = new ArtistaDTO(nombre, generos, biografia, imagen);
-        return artistaDAO.registrar(nuevoArtista);
+        boolean registrado = artistaDAO.registrar(nuevoArtista);
+        if (registrado) {
+            MotorBusqueda.getInstancia().invalidar(MotorBusqueda.Tipo.ARTISTA);
+        }
+        return registrado;
     }
 
     /**
@@ -74,7 +100,14 @@ public class Artista {
      * @throws Exception si ocurre un error en DAO
      */
     public boolean actualizar(ArtistaDTO artistaDTO) throws Exception {
-        return artistaDAO.actualizar(artistaDTO);
+        boolean actualizado = artistaDAO.actualizar(artistaDTO);
+        if (actualizado) {
+            // Los géneros del artista forman parte del vector de sus canciones
+            IndiceSimilitud.getInstancia().invalidar();
+            // y su nombre, del texto por el que se buscan
+            MotorBusqueda.getInstancia().invalidar(MotorBusqueda.Tipo.ARTISTA, MotorBusqueda.Tipo.CANCION);
+        }
+        return actualizado;
     }
 
     /**
@@ -85,6 +118,11 @@ public class Artista {
      * @throws Exception si ocurre un error
      */
     public boolean eliminar(int idArtista) throws Exception {
-        return artistaDAO.eliminar(idArtista);
+        boolean eliminado = artistaDAO.eliminar(idArtista);
+        if (eliminado) {
+            IndiceSimilitud.getInstancia().invalidar();
+            MotorBusqueda.getInstancia().invalidar(MotorBusqueda.Tipo.ARTISTA, MotorBusqueda.Tipo.CANCION);
+        }
+        return eliminado;
     }
 }
@@ -0,0 +1,188 @@
+package BusinessLogic;
+
+import DataAccessComponent.BenchmarkConsultas;
+import BusinessLogic.utilities.NormalizadorTexto;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Programa de medición de {@link MotorBusqueda} sobre un catálogo sintético.
+ *
+ * <p>Crea una base temporal con el esquema de {@code scriptsBD/DDL_InkHarmony.sql} y un
+ * catálogo (100 000 canciones por defecto) cuyos títulos mezclan palabras comunes en español,
+ * con y sin tildes, y palabras inventadas que agrandan el diccionario. Mide la construcción
+ * del índice y, para consultas exactas, sin tildes, por prefijo, con errores de tipeo y de
+ * varias palabras, el tiempo promedio y el percentil 99 de {@link MotorBusqueda#buscar}.</p>
+ *
+ * <p>También verifica que la consulta sin tildes y la que tiene un error de tipeo devuelvan
+ * primero una canción con la palabra buscada; si no, el programa termina con error.</p>
+ *
+ * <p>Uso: {@code java BusinessLogic.BenchmarkBusqueda [canciones] [ruta del DDL]}</p>
+ *
+ * @author Grupo F - InkHarmony Team
+ */
+public class BenchmarkBusqueda {
+
+    private static final int ARTISTAS = 5000;
+    private static final int PALABRAS_INVENTADAS = 20_000;
+    private static final int CALENTAMIENTO = 50;
+    private static final int REPETICIONES = 300;
+    private static final int LIMITE = 50;
+
+    private static final String[] PALABRAS = {
+            "amor", "corazón", "canción", "noche", "día", "sol", "luna", "mar", "fuego", "cielo",
+            "vida", "tiempo", "camino", "sueño", "adiós", "mañana", "ciudad", "corazones", "baile", "fiesta",
+            "lágrimas", "recuerdo", "estrella", "viento", "lluvia", "verano", "invierno", "otoño", "primavera", "río",
+            "montaña", "bésame", "mucho", "siempre", "nunca", "solo", "contigo", "sin", "ti", "por",
+            "la", "el", "de", "en", "mi", "tu", "un", "una", "del", "los",
+            "azul", "rojo", "negro", "blanco", "dorado", "último", "primer", "nuevo", "viejo", "eterno",
+            "pasión", "ilusión", "corazón", "canción", "melodía", "guitarra", "ritmo", "silencio", "alegría", "tristeza"
+    };
+
+    private static final String[] NOMBRES = {"Ana", "José", "Lucía", "Martín", "Sofía", "Andrés", "Camila", "Julián",
+            "Valeria", "Tomás", "Inés", "Raúl", "Elena", "Óscar", "Irene", "Mateo"};
+    private static final String[] APELLIDOS = {"García", "Pérez", "Muñoz", "López", "Núñez", "Sánchez", "Ramírez",
+            "Jiménez", "Álvarez", "Ortega", "Castro", "Vega", "Rojas", "Herrera", "Molina", "Suárez"};
+
+    private static final String[] SILABAS = {"ka", "lo", "mi", "ra", "te", "su", "no", "vi", "ze", "po", "qui",
+            "bra", "tel", "mon", "dar", "sen", "gu", "fa", "chi", "rro"};
+
+    public static void main(String[] args) throws Exception {
+        int canciones = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        Path ddl = Path.of(args.length > 1 ? args[1] : "scriptsBD/DDL_InkHarmony.sql");
+        Path base = Files.createTempFile("inkharmony-busqueda", ".sqlite");
+        String url = "jdbc:sqlite:" + base.toAbsolutePath();
+        // Debe establecerse antes de que se cargue SQLiteDataHelper
+        System.setProperty("inkharmony.db", url);
+
+        try (Connection conn = DriverManager.getConnection(url)) {
+            BenchmarkConsultas.crearEsquema(conn, Files.readString(ddl));
+            poblar(conn, canciones);
+
+            MotorBusqueda motor = MotorBusqueda.getInstancia();
+            long inicio = System.nanoTime();
+            motor.buscar(MotorBusqueda.Tipo.CANCION, "amor", 1);
+            System.out.printf("Construcción del índice de %d canciones: %d ms%n", canciones, (System.nanoTime() - inicio) / 1_000_000);
+
+            System.out.printf("%-28s %10s %10s %10s%n", "Consulta", "Resultados", "Prom. ms", "p99 ms");
+            medir(motor, "Exacta \"corazón\"", "corazón");
+            medir(motor, "Sin tildes \"corazon\"", "corazon");
+            medir(motor, "Prefijo \"cora\"", "cora");
+            medir(motor, "Prefijo corto \"m\"", "m");
+            medir(motor, "Error de tipeo \"corazn\"", "corazn");
+            medir(motor, "Letras cambiadas \"cancoin\"", "cancoin");
+            medir(motor, "Varias palabras \"noche de lu\"", "noche de lu");
+            medir(motor, "Artista \"lucia nunez\"", "lucia nunez");
+            medir(motor, "Género \"rock alt\"", "rock alt");
+            medir(motor, "Sin resultados \"xyzzy\"", "xyzzy");
+
+            verificarPrimero(motor, "corazon", "corazon");
+            verificarPrimero(motor, "corazn", "corazon");
+            verificarPrimero(motor, "melodai", "melodia");
+            System.out.println(motor.resumen());
+        } finally {
+            Files.deleteIfExists(base);
+        }
+    }
+
+    private static void medir(MotorBusqueda motor, String nombre, String consulta) throws Exception {
+        int resultados = 0;
+        for (int i = 0; i < CALENTAMIENTO; i++) {
+            resultados = motor.buscar(MotorBusqueda.Tipo.CANCION, consulta, LIMITE).size();
+        }
+        long[] tiempos = new long[REPETICIONES];
+        for (int i = 0; i < REPETICIONES; i++) {
+            long inicio = System.nanoTime();
+            motor.buscar(MotorBusqueda.Tipo.CANCION, consulta, LIMITE);
+            tiempos[i] = System.nanoTime() - inicio;
+        }
+        Arrays.sort(tiempos);
+        double promedio = Arrays.stream(tiempos).average().orElse(0) / 1e6;
+        double p99 = tiempos[(int) (REPETICIONES * 0.99) - 1] / 1e6;
+        System.out.printf("%-28s %10d %10.3f %10.3f%n", nombre, resultados, promedio, p99);
+    }
+
+    /**
+     * Comprueba que el primer resultado de una consulta contenga una palabra en el título.
+     */
+    private static void verificarPrimero(MotorBusqueda motor, String consulta, String palabra) throws Exception {
+        List<Integer> ids = motor.buscar(MotorBusqueda.Tipo.CANCION, consulta, 1);
+        String titulo = ids.isEmpty() ? "" : new Cancion().buscarPorId(ids.get(0)).getTitulo();
+        if (!NormalizadorTexto.palabras(titulo).contains(palabra)) {
+            System.err.printf("ERROR: \"%s\" devolvió primero \"%s\", sin la palabra \"%s\"%n", consulta, titulo, palabra);
+            System.exit(1);
+        }
+    }
+
+    private static void poblar(Connection conn, int canciones) throws Exception {
+        Random azar = new Random(42);
+        String[] inventadas = new String[PALABRAS_INVENTADAS];
+        for (int i = 0; i < inventadas.length; i++) {
+            StringBuilder sb = new StringBuilder();
+            for (int s = 2 + azar.nextInt(3); s > 0; s--) {
+                sb.append(SILABAS[azar.nextInt(SILABAS.length)]);
+            }
+            inventadas[i] = sb.toString();
+        }
+        int generos = Genero.values().length;
+
+        conn.setAutoCommit(false);
+        try (PreparedStatement artista = conn.prepareStatement(
+                "INSERT INTO Artista(id_artista, nombre, biografia) VALUES (?, ?, ?)");
+             PreparedStatement cancion = conn.prepareStatement(
+                     "INSERT INTO Cancion(id_cancion, titulo, duracion, anio, fecha_registro) VALUES (?, ?, 180, 2025, '2025-07-18 00:00:00')");
+             PreparedStatement cancionArtista = conn.prepareStatement(
+                     "INSERT OR IGNORE INTO Cancion_Artista(id_cancion, id_artista) VALUES (?, ?)");
+             PreparedStatement cancionGenero = conn.prepareStatement(
+                     "INSERT OR IGNORE INTO Cancion_Genero(id_cancion, id_genero) VALUES (?, ?)")) {
+            for (int id = 1; id <= ARTISTAS; id++) {
+                artista.setInt(1, id);
+                artista.setString(2, NOMBRES[azar.nextInt(NOMBRES.length)] + " " + APELLIDOS[azar.nextInt(APELLIDOS.length)] + " " + id);
+                artista.setString(3, "Artista de " + PALABRAS[azar.nextInt(PALABRAS.length)]);
+                artista.addBatch();
+            }
+            artista.executeBatch();
+
+            for (int id = 1; id <= canciones; id++) {
+                StringBuilder titulo = new StringBuilder();
+                for (int p = 1 + azar.nextInt(4); p > 0; p--) {
+                    if (titulo.length() > 0) {
+                        titulo.append(' ');
+                    }
+                    titulo.append(azar.nextInt(10) < 3 ? inventadas[azar.nextInt(inventadas.length)]
+                            : PALABRAS[azar.nextInt(PALABRAS.length)]);
+                }
+                cancion.setInt(1, id);
+                cancion.setString(2, titulo.toString());
+                cancion.addBatch();
+
+                cancionArtista.setInt(1, id);
+                cancionArtista.setInt(2, 1 + azar.nextInt(ARTISTAS));
+                cancionArtista.addBatch();
+
+                cancionGenero.setInt(1, id);
+                cancionGenero.setInt(2, 1 + azar.nextInt(generos));
+                cancionGenero.addBatch();
+
+                if (id % 10_000 == 0) {
+                    cancion.executeBatch();
+                    cancionArtista.executeBatch();
+                    cancionGenero.executeBatch();
+                }
+            }
+            cancion.executeBatch();
+            cancionArtista.executeBatch();
+            cancionGenero.executeBatch();
+            conn.commit();
+        } finally {
+            conn.setAutoCommit(true);
+        }
+    }
+}
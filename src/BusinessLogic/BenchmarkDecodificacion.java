@@ -0,0 +1,149 @@
+package BusinessLogic;
+
+import BusinessLogic.utilities.AdvancedPlayerAcc;
+import BusinessLogic.utilities.HistogramaLatencias;
+import BusinessLogic.utilities.MetricasReproduccion;
+import javazoom.jl.player.AudioDeviceBase;
+
+import java.lang.management.ManagementFactory;
+import java.nio.file.Path;
+
+/**
+ * Programa de medición del ciclo de decodificación de {@link AdvancedPlayerAcc}.
+ *
+ * <p>Reproduce un MP3 varias veces sobre un dispositivo de audio que descarta las muestras,
+ * así que el ritmo lo marca la decodificación. Tras unas pasadas de calentamiento informa
+ * los frames por segundo, el tiempo de decodificar un frame (promedio y percentil 99) y los
+ * bytes que reservan por frame el hilo decodificador y el de salida, medidos con
+ * {@code com.sun.management.ThreadMXBean} entre el frame {@link #FRAME_INICIAL} y la mitad de
+ * la canción, cuando ambos hilos siguen vivos.</p>
+ *
+ * <p>Si después del calentamiento algún frame reserva memoria, el programa termina con error:
+ * en una sesión larga esas reservas llenarían la generación joven y provocarían pausas del
+ * recolector durante la reproducción.</p>
+ *
+ * <p>Uso: {@code java BusinessLogic.BenchmarkDecodificacion <archivo.mp3> [pasadas]}</p>
+ *
+ * @author Grupo F - InkHarmony Team
+ */
+public class BenchmarkDecodificacion {
+
+    private static final int CALENTAMIENTO = 5;
+
+    /** Primer frame medido; antes se crean el anillo y el hilo decodificador */
+    private static final int FRAME_INICIAL = 20;
+
+    /** Frames medidos como mínimo por pasada */
+    private static final int FRAMES_MINIMOS = 50;
+
+    private static final com.sun.management.ThreadMXBean HILOS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    public static void main(String[] args) throws Exception {
+        if (args.length == 0) {
+            System.err.println("Uso: java BusinessLogic.BenchmarkDecodificacion <archivo.mp3> [pasadas]");
+            System.exit(2);
+        }
+        int pasadas = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+        if (!HILOS.isThreadAllocatedMemorySupported()) {
+            System.err.println("La JVM no informa la memoria reservada por hilo");
+            System.exit(2);
+        }
+        HILOS.setThreadAllocatedMemoryEnabled(true);
+        FuenteAudio fuente = FuenteAudio.deArchivo(Path.of(args[0]));
+
+        // La primera pasada cuenta los frames para saber dónde termina la medición
+        int totalFrames = reproducir(fuente, Integer.MAX_VALUE).frames;
+        int frameFinal = totalFrames / 2;
+        if (frameFinal - FRAME_INICIAL < FRAMES_MINIMOS) {
+            System.err.printf("El archivo tiene %d frames; se necesitan al menos %d%n", totalFrames,
+                    2 * (FRAME_INICIAL + FRAMES_MINIMOS));
+            System.exit(2);
+        }
+        for (int i = 1; i < CALENTAMIENTO; i++) {
+            reproducir(fuente, frameFinal);
+        }
+
+        HistogramaLatencias decodificacion = HistogramaLatencias.de("reproduccion.decodificacion");
+        MetricasReproduccion.getInstancia().reiniciar();
+        long bytes = 0;
+        long framesMedidos = 0;
+        long nanos = 0;
+        long framesReproducidos = 0;
+        for (int i = 0; i < pasadas; i++) {
+            long inicio = System.nanoTime();
+            DispositivoSilencioso dispositivo = reproducir(fuente, frameFinal);
+            nanos += System.nanoTime() - inicio;
+            framesReproducidos += dispositivo.frames;
+            bytes += dispositivo.bytesReservados;
+            framesMedidos += frameFinal - FRAME_INICIAL;
+        }
+
+        double bytesPorFrame = (double) bytes / framesMedidos;
+        System.out.printf("Archivo: %s (%d frames)%n", args[0], totalFrames);
+        System.out.printf("Pasadas medidas: %d, %.0f frames/s%n", pasadas, framesReproducidos / (nanos / 1e9));
+        System.out.printf("Decodificación por frame: prom=%.3f ms p99=%.3f ms%n",
+                decodificacion.promedioMs(), decodificacion.percentilMs(99));
+        System.out.printf("Memoria reservada por frame: %.2f bytes (%d bytes en %d frames)%n",
+                bytesPorFrame, bytes, framesMedidos);
+        if (bytes > 0) {
+            System.err.println("ERROR: el ciclo de decodificación reserva memoria después del calentamiento");
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Reproduce el archivo completo sobre un dispositivo silencioso.
+     *
+     * @param frameFinal Frame de salida en que termina la medición de memoria
+     * @return Dispositivo con los frames escritos y los bytes medidos
+     */
+    private static DispositivoSilencioso reproducir(FuenteAudio fuente, int frameFinal) throws Exception {
+        DispositivoSilencioso dispositivo = new DispositivoSilencioso(frameFinal);
+        new AdvancedPlayerAcc(fuente.abrir(0), dispositivo).play(Integer.MAX_VALUE);
+        return dispositivo;
+    }
+
+    /**
+     * Dispositivo que descarta las muestras y mide la memoria reservada por los hilos de
+     * decodificación y de salida entre dos frames.
+     */
+    private static final class DispositivoSilencioso extends AudioDeviceBase {
+
+        private final int frameFinal;
+        private int frames;
+        private long hiloDecodificador = -1;
+        private long reservadosAlInicio;
+        private long bytesReservados;
+
+        private DispositivoSilencioso(int frameFinal) {
+            this.frameFinal = frameFinal;
+        }
+
+        @Override
+        protected void writeImpl(short[] muestras, int desde, int cantidad) {
+            frames++;
+            if (frames == FRAME_INICIAL) {
+                // Buscar el hilo reserva memoria, así que se hace antes de tomar la medición
+                for (Thread hilo : Thread.getAllStackTraces().keySet()) {
+                    if ("decodificador-mp3".equals(hilo.getName())) {
+                        hiloDecodificador = hilo.getId();
+                    }
+                }
+                reservadosAlInicio = reservados();
+            } else if (frames == frameFinal && hiloDecodificador >= 0) {
+                bytesReservados = reservados() - reservadosAlInicio;
+            }
+        }
+
+        private long reservados() {
+            return HILOS.getThreadAllocatedBytes(Thread.currentThread().getId())
+                    + HILOS.getThreadAllocatedBytes(hiloDecodificador);
+        }
+
+        @Override
+        public int getPosition() {
+            return 0;
+        }
+    }
+}
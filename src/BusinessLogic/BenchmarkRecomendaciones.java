@@ -0,0 +1,252 @@
+package BusinessLogic;
+
+import DataAccessComponent.BenchmarkConsultas;
+import DataAccessComponent.DTO.CancionResumenDTO;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Programa de medición que compara las dos formas de resolver una cadena de recomendación:
+ * la consulta armada con {@code Recomendador.criterios()} y el filtrado en memoria de
+ * {@code Recomendador.recomendar()} sobre el catálogo completo.
+ *
+ * <p>Crea una base temporal con el esquema de {@code scriptsBD/DDL_InkHarmony.sql} y un
+ * catálogo sintético (100 000 canciones por defecto) con géneros, artistas y fechas de
+ * registro variados; una de cada veinte canciones es un estreno de los últimos días. Para
+ * cada combinación de filtros imprime el tiempo de ambos caminos y verifica que devuelvan
+ * exactamente las mismas canciones; si no coinciden, el programa termina con error.</p>
+ *
+ * <p>Después mide {@link IndiceSimilitud}: el tiempo de construirlo, el top 50 por canción
+ * y por historial, y el orden por parecido aplicado a un resultado filtrado.</p>
+ *
+ * <p>Uso: {@code java BusinessLogic.BenchmarkRecomendaciones [canciones] [ruta del DDL]}</p>
+ *
+ * @author Grupo F - InkHarmony Team
+ */
+public class BenchmarkRecomendaciones {
+
+    /** Artistas distintos del catálogo sintético */
+    private static final int ARTISTAS = 2000;
+
+    /** Repeticiones de cada medición; se informa la mejor */
+    private static final int REPETICIONES = 3;
+
+    private static final DateTimeFormatter FORMATO_FECHA = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    public static void main(String[] args) throws Exception {
+        int canciones = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        Path ddl = Path.of(args.length > 1 ? args[1] : "scriptsBD/DDL_InkHarmony.sql");
+        Path base = Files.createTempFile("inkharmony-recomendaciones", ".sqlite");
+        String url = "jdbc:sqlite:" + base.toAbsolutePath();
+        // Debe establecerse antes de que se cargue SQLiteDataHelper
+        System.setProperty("inkharmony.db", url);
+
+        try (Connection conn = DriverManager.getConnection(url)) {
+            BenchmarkConsultas.crearEsquema(conn, Files.readString(ddl));
+            poblar(conn, canciones);
+
+            ServicioRecomendaciones servicio = new ServicioRecomendaciones();
+            System.out.printf("%-40s %10s %10s %10s%n", "Filtros", "Canciones", "SQL ms", "Memoria ms");
+            comparar(servicio, "Todo el catálogo", new RecomendadorCanciones());
+            comparar(servicio, "Género ROCK",
+                    new FiltroGenero(new RecomendadorCanciones(), Genero.ROCK));
+            comparar(servicio, "Artista \"ista 12\"",
+                    new FiltroArtista(new RecomendadorCanciones(), "ista 12"));
+            comparar(servicio, "Estrenos",
+                    new FiltroEstreno(new RecomendadorCanciones()));
+            comparar(servicio, "Preferencias POP/JAZZ/K_POP",
+                    preferencias(EnumSet.of(Genero.POP, Genero.JAZZ, Genero.K_POP)));
+            comparar(servicio, "Preferencias + género POP + estrenos",
+                    new FiltroEstreno(new FiltroGenero(preferencias(EnumSet.of(Genero.POP, Genero.JAZZ)), Genero.POP)));
+            comparar(servicio, "Género ROCK + artista \"artista 7\"",
+                    new FiltroArtista(new FiltroGenero(new RecomendadorCanciones(), Genero.ROCK), "Artista 7"));
+
+            similitud(servicio, canciones);
+        } finally {
+            Files.deleteIfExists(base);
+        }
+    }
+
+    /**
+     * Mide el índice de similitud: construcción, top 50 por semilla y por historial sobre
+     * todo el catálogo, y la etapa de orden sobre un resultado filtrado. Verifica el top 50
+     * de una semilla contra el orden completo de todas las similitudes.
+     */
+    private static void similitud(ServicioRecomendaciones servicio, int canciones) throws Exception {
+        IndiceSimilitud indice = IndiceSimilitud.getInstancia();
+        Random azar = new Random(7);
+        List<Integer> semilla = List.of(1 + azar.nextInt(canciones));
+        List<Integer> historial = azar.ints(20, 1, canciones + 1).boxed().collect(Collectors.toList());
+
+        long inicio = System.nanoTime();
+        List<Integer> primeras = indice.masSimilares(semilla, RecomendadorSimilitud.CANTIDAD_POR_DEFECTO, null);
+        System.out.printf("%nPrimera consulta (construye el índice): %d ms%n", (System.nanoTime() - inicio) / 1_000_000);
+        System.out.println(indice.resumen());
+
+        List<Integer> esperadas = IntStream.rangeClosed(1, canciones).boxed()
+                .filter(id -> id != semilla.get(0))
+                .sorted(Comparator.comparingDouble((Integer id) -> -similitud(indice, semilla.get(0), id))
+                        .thenComparing(id -> id))
+                .limit(RecomendadorSimilitud.CANTIDAD_POR_DEFECTO)
+                .collect(Collectors.toList());
+        if (!primeras.equals(esperadas)) {
+            throw new IllegalStateException("El top 50 no coincide con el orden completo de similitudes");
+        }
+
+        System.out.printf("%-40s %10s %10s%n", "Similitud", "Canciones", "ms (mejor)");
+        medirSimilitud("Top 50 por canción", () -> new RecomendadorSimilitud(semilla, 50).recomendar());
+        medirSimilitud("Top 50 por historial de 20", () -> new RecomendadorSimilitud(historial, 50).recomendar());
+        medirSimilitud("Solo índice, top 50 por canción", () -> {
+            try {
+                return indice.masSimilares(semilla, 50, null);
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        medirSimilitud("Género ROCK ordenado por historial",
+                () -> servicio.recomendar(false, Genero.ROCK, null, false, new RecomendadorSimilitud(historial, 50)));
+    }
+
+    private static float similitud(IndiceSimilitud indice, int a, int b) {
+        try {
+            return indice.similitud(a, b);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void medirSimilitud(String nombre, Supplier<List<?>> operacion) {
+        long mejor = Long.MAX_VALUE;
+        int tamanio = 0;
+        for (int i = 0; i < 20; i++) {
+            long inicio = System.nanoTime();
+            tamanio = operacion.get().size();
+            mejor = Math.min(mejor, System.nanoTime() - inicio);
+        }
+        System.out.printf("%-40s %10d %10.2f%n", nombre, tamanio, mejor / 1_000_000.0);
+    }
+
+    private static Recomendador preferencias(EnumSet<Genero> generos) {
+        return new FiltroPreferencias(new RecomendadorCanciones(), generos);
+    }
+
+    /**
+     * Mide la cadena por ambos caminos y falla si los resultados difieren.
+     */
+    private static void comparar(ServicioRecomendaciones servicio, String nombre, Recomendador cadena) {
+        Resultado sql = medir(() -> servicio.recomendar(cadena));
+        Resultado memoria = medir(cadena::recomendar);
+        if (!sql.ids.equals(memoria.ids)) {
+            throw new IllegalStateException("Los resultados de \"" + nombre + "\" no coinciden: SQL="
+                    + sql.ids.size() + " memoria=" + memoria.ids.size());
+        }
+        System.out.printf("%-40s %10d %10d %10d%n", nombre, sql.ids.size(), sql.ms, memoria.ms);
+    }
+
+    private static Resultado medir(Supplier<List<CancionResumenDTO>> operacion) {
+        Resultado mejor = null;
+        for (int i = 0; i < REPETICIONES; i++) {
+            long inicio = System.nanoTime();
+            List<Integer> ids = operacion.get().stream()
+                    .map(CancionResumenDTO::getIdCancion)
+                    .sorted()
+                    .collect(Collectors.toList());
+            long ms = (System.nanoTime() - inicio) / 1_000_000;
+            if (mejor == null || ms < mejor.ms) {
+                mejor = new Resultado(ids, ms);
+            }
+        }
+        return mejor;
+    }
+
+    private static final class Resultado {
+        private final List<Integer> ids;
+        private final long ms;
+
+        private Resultado(List<Integer> ids, long ms) {
+            this.ids = ids;
+            this.ms = ms;
+        }
+    }
+
+    /**
+     * Registra {@link #ARTISTAS} artistas y las canciones {@code 1..canciones}, cada una con
+     * uno o dos géneros, uno o dos artistas y una fecha de registro de los últimos dos años.
+     */
+    private static void poblar(Connection conn, int canciones) throws Exception {
+        Random azar = new Random(42);
+        int generos = Genero.values().length;
+        LocalDateTime ahora = LocalDateTime.now().withNano(0);
+        conn.setAutoCommit(false);
+        try (PreparedStatement artista = conn.prepareStatement(
+                "INSERT INTO Artista(id_artista, nombre, biografia) VALUES (?, ?, '')");
+             PreparedStatement cancion = conn.prepareStatement(
+                     "INSERT INTO Cancion(id_cancion, titulo, duracion, anio, fecha_registro) VALUES (?, ?, 180, 2025, ?)");
+             PreparedStatement cancionArtista = conn.prepareStatement(
+                     "INSERT OR IGNORE INTO Cancion_Artista(id_cancion, id_artista) VALUES (?, ?)");
+             PreparedStatement cancionGenero = conn.prepareStatement(
+                     "INSERT OR IGNORE INTO Cancion_Genero(id_cancion, id_genero) VALUES (?, ?)")) {
+            for (int id = 1; id <= ARTISTAS; id++) {
+                artista.setInt(1, id);
+                artista.setString(2, "Artista " + id);
+                artista.addBatch();
+            }
+            artista.executeBatch();
+
+            for (int id = 1; id <= canciones; id++) {
+                // Una de cada veinte canciones es un estreno de los últimos cinco días
+                LocalDateTime registro = id % 20 == 0
+                        ? ahora.minusMinutes(azar.nextInt(5 * 24 * 60))
+                        : ahora.minusDays(8 + azar.nextInt(720)).minusMinutes(azar.nextInt(24 * 60));
+                cancion.setInt(1, id);
+                cancion.setString(2, "Cancion " + id);
+                // Mezcla los dos formatos que existen en la tabla: el de registrar() y el de los scripts
+                cancion.setString(3, id % 2 == 0 ? registro.toString() : registro.format(FORMATO_FECHA));
+                cancion.addBatch();
+
+                cancionArtista.setInt(1, id);
+                cancionArtista.setInt(2, 1 + azar.nextInt(ARTISTAS));
+                cancionArtista.addBatch();
+                if (azar.nextInt(4) == 0) {
+                    cancionArtista.setInt(1, id);
+                    cancionArtista.setInt(2, 1 + azar.nextInt(ARTISTAS));
+                    cancionArtista.addBatch();
+                }
+
+                cancionGenero.setInt(1, id);
+                cancionGenero.setInt(2, 1 + azar.nextInt(generos));
+                cancionGenero.addBatch();
+                if (azar.nextInt(3) == 0) {
+                    cancionGenero.setInt(1, id);
+                    cancionGenero.setInt(2, 1 + azar.nextInt(generos));
+                    cancionGenero.addBatch();
+                }
+
+                if (id % 10_000 == 0) {
+                    cancion.executeBatch();
+                    cancionArtista.executeBatch();
+                    cancionGenero.executeBatch();
+                }
+            }
+            cancion.executeBatch();
+            cancionArtista.executeBatch();
+            cancionGenero.executeBatch();
+            conn.commit();
+        } finally {
+            conn.setAutoCommit(true);
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package BusinessLogic;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+
+import BusinessLogic.utilities.MetricasReproduccion;
+
+/**
+ * Clase que resuelve bajo demanda el audio de la cola de reproducción.
+ *
+ * <p>El audio se guarda en disco con {@link CacheAudioDisco}, que extrae cada canción de la
+ * base de datos una sola vez por sesión. Esta clase decide qué pedirle: la canción que va a
+ * sonar ({@link #obtener(int)}) y, por adelantado, la siguiente de la cola
+ * ({@link #precargar(Integer)}). Ambas quedan protegidas para que la caché no las expulse
+ * mientras se usan.</p>
+ *
+ * <p>Ningún método espera a la base de datos: las lecturas se hacen con {@link EjecutorDatos}
+ * y se entregan como {@link CompletableFuture}, y el monitor de la clase solo protege el
+ * estado de la cola, así que una precarga lenta no detiene a quien llame después.</p>
+ *
+ * @author Grupo B
+ * @version 1.1
+ * @since 25-07-2025
+ *
+ * @see ReproductorMP3
+ * @see GestorPlaylist
+ * @see CacheAudioDisco
+ */
+public class BufferAudio {
+
+    /** ID de la pista que se está reproduciendo. */
+    private Integer actual;
+
+    /** ID de la pista precargada para la siguiente canción. */
+    private Integer siguiente;
+
+    /** Extracción en curso o terminada de la pista siguiente. */
+    private CompletableFuture<Path> archivoSiguiente;
+
+    /** Veces que la canción pedida ya estaba precargada. */
+    private long aciertosPrecarga;
+
+    /** Veces que hubo que resolver la canción en el momento de reproducirla. */
+    private long cargasDirectas;
+
+    /** Milisegundos entre la última llamada a {@link #obtener(int)} y la entrega del archivo. */
+    private volatile long ultimaEsperaMs;
+
+    /**
+     * Convierte una canción en la pista actual y entrega su archivo de audio cuando esté
+     * listo. No bloquea: si la canción estaba precargada se reutiliza esa lectura, y si no,
+     * se lee en segundo plano.
+     *
+     * @param idCancion ID de la canción a reproducir
+     * @return Futuro con el archivo MP3 en disco, o con null si la canción no tiene audio;
+     *         falla si ocurre un error al leer el audio
+     */
+    public CompletableFuture<File> obtener(int idCancion) {
+        long inicio = System.nanoTime();
+        CompletableFuture<Path> ruta;
+        synchronized (this) {
+            if (siguiente != null && siguiente == idCancion) {
+                ruta = archivoSiguiente;
+                siguiente = null;
+                archivoSiguiente = null;
+                aciertosPrecarga++;
+            } else {
+                ruta = leer(idCancion);
+                cargasDirectas++;
+            }
+            actual = idCancion;
+            proteger();
+        }
+        return ruta.thenApply(archivo -> {
+            long nanos = System.nanoTime() - inicio;
+            ultimaEsperaMs = nanos / 1_000_000;
+            MetricasReproduccion.getInstancia().registrarEsperaAudio(nanos);
+            return archivo != null ? archivo.toFile() : null;
+        });
+    }
+
+    /**
+     * Empieza a extraer en segundo plano el audio de la canción que sonará a continuación.
+     * Si ya está en la caché de disco, no se lee la base de datos. Si la canción ya se estaba
+     * precargando, se reutiliza esa lectura.
+     *
+     * @param idCancion ID de la siguiente canción; null no hace nada
+     * @return Futuro con el archivo MP3 precargado, o con null si no hay nada que precargar
+     *         (sin canción, la misma que suena o sin audio)
+     */
+    public synchronized CompletableFuture<File> precargar(Integer idCancion) {
+        if (idCancion == null || idCancion.equals(actual)) {
+            return CompletableFuture.completedFuture(null);
+        }
+        if (!idCancion.equals(siguiente)) {
+            siguiente = idCancion;
+            archivoSiguiente = leer(idCancion);
+            proteger();
+        }
+        return archivoSiguiente.thenApply(archivo -> archivo != null ? archivo.toFile() : null);
+    }
+
+    /**
+     * Olvida las pistas actual y precargada. Sus archivos quedan en la caché de disco,
+     * pero ya pueden expulsarse.
+     */
+    public synchronized void liberar() {
+        actual = null;
+        siguiente = null;
+        archivoSiguiente = null;
+        try {
+            CacheAudioDisco.getInstancia().proteger();
+        } catch (Exception e) {
+            System.err.println("Error al preparar la caché de audio: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Extrae en segundo plano el audio de una canción a la caché de disco.
+     */
+    private static CompletableFuture<Path> leer(int idCancion) {
+        return EjecutorDatos.getInstancia().enSegundoPlano("audio.cancion",
+                () -> CacheAudioDisco.getInstancia().obtener(idCancion));
+    }
+
+    /**
+     * Marca en la caché de disco las pistas actual y siguiente para que no se expulsen.
+     */
+    private void proteger() {
+        try {
+            CacheAudioDisco.getInstancia().proteger(actual, siguiente);
+        } catch (Exception e) {
+            System.err.println("Error al preparar la caché de audio: " + e.getMessage());
+        }
+    }
+
+    /**
+     * @return Veces que la canción pedida ya estaba precargada
+     */
+    public synchronized long getAciertosPrecarga() {
+        return aciertosPrecarga;
+    }
+
+    /**
+     * @return Veces que hubo que resolver el audio en el momento de reproducir
+     */
+    public synchronized long getCargasDirectas() {
+        return cargasDirectas;
+    }
+
+    /**
+     * @return Milisegundos que tardó la última entrega de audio
+     */
+    public long getUltimaEsperaMs() {
+        return ultimaEsperaMs;
+    }
+}
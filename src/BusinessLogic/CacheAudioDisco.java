@@ -0,0 +1,296 @@
+package BusinessLogic;
+
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.stream.Stream;
+
+/**
+ * Clase que conserva en disco el audio ya extraído de la base de datos durante la sesión.
+ *
+ * <p>Si el audio de la canción ya está en el almacén de blobs, se reproduce directamente ese
+ * archivo, sin copiarlo. Si aún está en línea en la columna {@code archivo_mp3} (bases sin
+ * migrar), se copia una sola vez a un archivo {@code <id>.mp3} dentro de un directorio
+ * temporal de la sesión, y las reproducciones siguientes de la misma canción (volver a ella,
+ * reiniciarla, repetir la playlist) abren directamente ese archivo sin tocar SQLite.</p>
+ *
+ * <p>El espacio ocupado se limita a {@code -Dinkharmony.audio.cache.mb} megabytes (512 por
+ * defecto). Al superarlo se borran las canciones usadas hace más tiempo, excepto las que
+ * {@link BufferAudio} marcó como protegidas (la actual y la siguiente).</p>
+ *
+ * <p>Utiliza el patrón {@code Singleton}: todo el proceso comparte un único directorio.</p>
+ *
+ * @author Grupo B
+ * @version 1.0
+ * @since 25-07-2025
+ *
+ * @see BufferAudio
+ */
+public final class CacheAudioDisco {
+
+    /** Capacidad por defecto en megabytes */
+    private static final long CAPACIDAD_MB_POR_DEFECTO = 512;
+
+    /** Instancia única (patrón Singleton). */
+    private static CacheAudioDisco instancia;
+
+    /** Archivo guardado en el directorio de la caché. */
+    private static final class Entrada {
+        private final Path ruta;
+        private final long bytes;
+
+        private Entrada(Path ruta, long bytes) {
+            this.ruta = ruta;
+            this.bytes = bytes;
+        }
+    }
+
+    /** Lógica de negocio de canciones, usada para leer el audio. */
+    private final Cancion cancionBL = new Cancion();
+
+    /** Directorio de la sesión donde se guardan los MP3 */
+    private final Path directorio;
+
+    /** Bytes máximos que puede ocupar la caché */
+    private final long capacidadBytes;
+
+    /** Canciones en disco, en orden de uso (la primera es la menos usada) */
+    private final LinkedHashMap<Integer, Entrada> entradas = new LinkedHashMap<>(64, 0.75f, true);
+
+    /** Extracciones en curso, para que dos hilos no copien la misma canción a la vez */
+    private final Map<Integer, CompletableFuture<Path>> enCurso = new HashMap<>();
+
+    /** Canciones que no se pueden expulsar porque están sonando o precargadas */
+    private final Set<Integer> protegidas = new HashSet<>();
+
+    private long bytesEnDisco;
+    private long aciertos;
+    private long directos;
+    private long extracciones;
+    private long expulsiones;
+
+    private CacheAudioDisco(Path directorio, long capacidadBytes) {
+        this.directorio = directorio;
+        this.capacidadBytes = capacidadBytes;
+    }
+
+    /**
+     * Devuelve la caché de audio de la sesión, creando su directorio la primera vez.
+     *
+     * @return Instancia única de la caché
+     * @throws Exception si no se puede crear el directorio temporal
+     */
+    public static synchronized CacheAudioDisco getInstancia() throws Exception {
+        if (instancia == null) {
+            Path directorio = Files.createTempDirectory("inkharmony-audio");
+            long capacidadMb = Long.getLong("inkharmony.audio.cache.mb", CAPACIDAD_MB_POR_DEFECTO);
+            instancia = new CacheAudioDisco(directorio, capacidadMb * 1024 * 1024);
+            Runtime.getRuntime().addShutdownHook(new Thread(instancia::borrarDirectorio, "limpieza-audio"));
+        }
+        return instancia;
+    }
+
+    /**
+     * Devuelve el archivo MP3 de una canción: el del almacén de blobs o, si el audio sigue en
+     * la base de datos, una copia extraída la primera vez que se pide en la sesión.
+     *
+     * @param idCancion ID de la canción
+     * @return Ruta del MP3 en disco, o null si la canción no tiene audio. Los archivos del
+     *         almacén no deben modificarse.
+     * @throws Exception si ocurre un error al leer la base de datos o al escribir el archivo
+     */
+    public Path obtener(int idCancion) throws Exception {
+        // El archivo del almacén no ocupa espacio de la caché ni se borra al expulsar
+        Path almacenado = cancionBL.rutaAudio(idCancion);
+        if (almacenado != null) {
+            synchronized (this) {
+                directos++;
+            }
+            return almacenado;
+        }
+
+        CompletableFuture<Path> tarea;
+        synchronized (this) {
+            Entrada entrada = entradas.get(idCancion);
+            if (entrada != null && Files.exists(entrada.ruta)) {
+                aciertos++;
+                return entrada.ruta;
+            }
+            if (entrada != null) {
+                // El archivo se borró por fuera; se vuelve a extraer
+                quitar(idCancion);
+            }
+            tarea = enCurso.get(idCancion);
+            if (tarea == null) {
+                tarea = new CompletableFuture<>();
+                enCurso.put(idCancion, tarea);
+                extracciones++;
+            } else {
+                return esperar(tarea);
+            }
+        }
+
+        try {
+            Path ruta = extraer(idCancion);
+            synchronized (this) {
+                enCurso.remove(idCancion);
+                if (ruta != null) {
+                    long bytes = Files.size(ruta);
+                    entradas.put(idCancion, new Entrada(ruta, bytes));
+                    bytesEnDisco += bytes;
+                    recortar();
+                }
+            }
+            tarea.complete(ruta);
+            return ruta;
+        } catch (Exception e) {
+            synchronized (this) {
+                enCurso.remove(idCancion);
+            }
+            tarea.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    /**
+     * Indica qué canciones no deben expulsarse aunque se supere la capacidad.
+     *
+     * @param idsCanciones IDs protegidos (los null se ignoran); reemplazan a los anteriores
+     */
+    public synchronized void proteger(Integer... idsCanciones) {
+        protegidas.clear();
+        for (Integer id : idsCanciones) {
+            if (id != null) {
+                protegidas.add(id);
+            }
+        }
+        recortar();
+    }
+
+    /**
+     * Descarta el audio guardado de una canción, por ejemplo porque se reemplazó su MP3.
+     *
+     * @param idCancion ID de la canción
+     */
+    public synchronized void invalidar(int idCancion) {
+        quitar(idCancion);
+    }
+
+    /**
+     * Copia el audio a un archivo provisional y lo renombra al terminar, para que nunca
+     * se reproduzca un archivo a medio escribir.
+     */
+    private Path extraer(int idCancion) throws Exception {
+        Path destino = directorio.resolve(idCancion + ".mp3");
+        Path provisional = Files.createTempFile(directorio, idCancion + "_", ".parcial");
+        try {
+            long bytes;
+            try (OutputStream salida = Files.newOutputStream(provisional)) {
+                bytes = cancionBL.copiarAudio(idCancion, salida);
+            }
+            if (bytes <= 0) {
+                return null;
+            }
+            return Files.move(provisional, destino, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(provisional);
+        }
+    }
+
+    /**
+     * Expulsa las canciones menos usadas hasta quedar dentro de la capacidad.
+     */
+    private void recortar() {
+        Iterator<Map.Entry<Integer, Entrada>> it = entradas.entrySet().iterator();
+        while (bytesEnDisco > capacidadBytes && it.hasNext()) {
+            Map.Entry<Integer, Entrada> mayor = it.next();
+            if (protegidas.contains(mayor.getKey())) {
+                continue;
+            }
+            it.remove();
+            bytesEnDisco -= mayor.getValue().bytes;
+            expulsiones++;
+            borrar(mayor.getValue().ruta);
+        }
+    }
+
+    private void quitar(int idCancion) {
+        Entrada entrada = entradas.remove(idCancion);
+        if (entrada != null) {
+            bytesEnDisco -= entrada.bytes;
+            borrar(entrada.ruta);
+        }
+    }
+
+    private static Path esperar(CompletableFuture<Path> tarea) throws Exception {
+        try {
+            return tarea.get();
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+        }
+    }
+
+    private static void borrar(Path ruta) {
+        try {
+            Files.deleteIfExists(ruta);
+        } catch (Exception ignored) {
+            // Si el sistema operativo lo tiene abierto se elimina al cerrar la sesión
+        }
+    }
+
+    private void borrarDirectorio() {
+        try (Stream<Path> archivos = Files.walk(directorio)) {
+            archivos.sorted(Comparator.reverseOrder()).forEach(CacheAudioDisco::borrar);
+        } catch (Exception ignored) {
+            // El directorio está en la carpeta temporal del sistema
+        }
+    }
+
+    // --------------------------
+    // Métricas
+    // --------------------------
+
+    /** @return Veces que una canción ya estaba en disco */
+    public synchronized long getAciertos() {
+        return aciertos;
+    }
+
+    /** @return Veces que se entregó directamente el archivo del almacén de blobs */
+    public synchronized long getDirectos() {
+        return directos;
+    }
+
+    /** @return Veces que hubo que leer una canción de la base de datos */
+    public synchronized long getExtracciones() {
+        return extracciones;
+    }
+
+    /** @return Canciones borradas por superar la capacidad */
+    public synchronized long getExpulsiones() {
+        return expulsiones;
+    }
+
+    /** @return Bytes que ocupa actualmente la caché */
+    public synchronized long getBytesEnDisco() {
+        return bytesEnDisco;
+    }
+
+    /**
+     * @return Resumen legible del estado de la caché
+     */
+    public synchronized String resumen() {
+        return String.format("Caché de audio: %d canciones, %.1f/%d MB, aciertos=%d directos=%d extracciones=%d expulsiones=%d",
+                entradas.size(), bytesEnDisco / (1024.0 * 1024.0), capacidadBytes / (1024 * 1024),
+                aciertos, directos, extracciones, expulsiones);
+    }
+}
@@ -0,0 +1,336 @@
+package BusinessLogic;
+
+import BusinessLogic.utilities.GeneradorMiniaturas;
+import DataAccessComponent.DTO.PlaylistDTO;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import javafx.application.Platform;
+import javafx.scene.image.Image;
+import javafx.scene.image.ImageView;
+
+/**
+ * Clase que entrega las portadas ya decodificadas a las pantallas, con una caché en memoria.
+ *
+ * <p>Cada imagen se guarda por entidad, ID y lado en píxeles ({@code "cancion:12:40"}), ya
+ * reducida a ese tamaño. Las celdas de las tablas y listas la piden con
+ * {@link #mostrarPortadaCancion} o {@link #mostrarPortadaPlaylist}: si está en memoria se
+ * asigna en el momento; si no, el {@link ImageView} muestra la imagen por defecto y la
+ * portada se lee y decodifica en un hilo de fondo, nunca en el hilo de JavaFX. Como las
+ * celdas se reutilizan al desplazarse, el resultado solo se aplica si la vista sigue
+ * esperando la misma imagen.</p>
+ *
+ * <p>Para lados de hasta {@link GeneradorMiniaturas#LADO_MINIATURA} píxeles las canciones se
+ * decodifican desde su miniatura guardada ({@code portada_miniatura}), no desde la portada
+ * original. La memoria usada se limita a {@code -Dinkharmony.imagenes.cache.mb} megabytes
+ * (32 por defecto) y, al superarla, se descartan las imágenes usadas hace más tiempo. Las
+ * imágenes fijas de los recursos se cargan una sola vez con {@link #recurso(String)}.</p>
+ *
+ * <p>Utiliza el patrón {@code Singleton}: todas las pantallas comparten la misma caché.</p>
+ *
+ * @author Grupo B
+ * @version 1.0
+ * @since 25-07-2025
+ *
+ * @see GeneradorMiniaturas
+ */
+public final class CacheImagenes {
+
+    /** Capacidad por defecto en megabytes */
+    private static final long CAPACIDAD_MB_POR_DEFECTO = 32;
+
+    /** Hilos dedicados a leer y decodificar imágenes */
+    private static final int HILOS_DECODIFICACION = 2;
+
+    /** Propiedad del ImageView donde se anota la imagen que está esperando */
+    private static final String CLAVE_VISTA = "inkharmony.imagen";
+
+    /** Instancia única (patrón Singleton). */
+    private static CacheImagenes instancia;
+
+    /** Lógica de negocio de canciones, usada para leer portadas y miniaturas. */
+    private final Cancion cancionBL = new Cancion();
+
+    /** Hilos de fondo que leen y decodifican las imágenes. */
+    private final ExecutorService decodificador = Executors.newFixedThreadPool(HILOS_DECODIFICACION, tarea -> {
+        Thread hilo = new Thread(tarea, "decodificacion-imagenes");
+        hilo.setDaemon(true);
+        return hilo;
+    });
+
+    /** Bytes máximos que pueden ocupar las imágenes decodificadas */
+    private final long capacidadBytes;
+
+    /** Imágenes decodificadas, en orden de uso (la primera es la menos usada) */
+    private final LinkedHashMap<String, Image> imagenes = new LinkedHashMap<>(128, 0.75f, true);
+
+    /** Claves cuya entidad no tiene imagen o no se pudo decodificar */
+    private final Set<String> sinImagen = new HashSet<>();
+
+    /** Decodificaciones en curso, para no leer dos veces la misma imagen */
+    private final Map<String, CompletableFuture<Image>> enCurso = new HashMap<>();
+
+    /** Imágenes fijas de los recursos de la aplicación */
+    private final Map<String, Image> recursos = new ConcurrentHashMap<>();
+
+    private long bytesEnMemoria;
+    private long aciertos;
+    private long fallos;
+    private long expulsiones;
+
+    private CacheImagenes(long capacidadBytes) {
+        this.capacidadBytes = capacidadBytes;
+    }
+
+    /**
+     * Devuelve la caché de imágenes de la aplicación.
+     *
+     * @return Instancia única de la caché
+     */
+    public static synchronized CacheImagenes getInstancia() {
+        if (instancia == null) {
+            long capacidadMb = Long.getLong("inkharmony.imagenes.cache.mb", CAPACIDAD_MB_POR_DEFECTO);
+            instancia = new CacheImagenes(capacidadMb * 1024 * 1024);
+        }
+        return instancia;
+    }
+
+    /**
+     * Devuelve una imagen de los recursos de la aplicación, cargándola solo la primera vez.
+     *
+     * @param ruta Ruta del recurso, por ejemplo {@code "/UserInterface/Resources/img/portada-generica.jpg"}
+     * @return Imagen, o null si el recurso no existe
+     */
+    public Image recurso(String ruta) {
+        Image imagen = recursos.get(ruta);
+        if (imagen != null) {
+            return imagen;
+        }
+        try (InputStream stream = CacheImagenes.class.getResourceAsStream(ruta)) {
+            if (stream == null) {
+                return null;
+            }
+            imagen = new Image(stream);
+        } catch (Exception e) {
+            return null;
+        }
+        Image previa = recursos.putIfAbsent(ruta, imagen);
+        return previa != null ? previa : imagen;
+    }
+
+    /**
+     * Muestra la portada de una canción con el tamaño ({@code fitWidth}/{@code fitHeight})
+     * configurado en la vista.
+     *
+     * @param vista Vista donde se muestra; debe llamarse desde el hilo de JavaFX
+     * @param idCancion ID de la canción
+     * @param porDefecto Imagen mientras se carga o si la canción no tiene portada
+     */
+    public void mostrarPortadaCancion(ImageView vista, int idCancion, Image porDefecto) {
+        mostrarPortadaCancion(vista, idCancion, ladoDe(vista), porDefecto);
+    }
+
+    /**
+     * Muestra la portada de una canción en una vista, sin bloquear el hilo de JavaFX.
+     *
+     * @param vista Vista donde se muestra; debe llamarse desde el hilo de JavaFX
+     * @param idCancion ID de la canción
+     * @param lado Lado en píxeles con que se muestra
+     * @param porDefecto Imagen mientras se carga o si la canción no tiene portada
+     */
+    public void mostrarPortadaCancion(ImageView vista, int idCancion, double lado, Image porDefecto) {
+        int pixeles = (int) Math.ceil(lado);
+        mostrar(vista, "cancion:" + idCancion + ":" + pixeles, porDefecto,
+                () -> pixeles <= GeneradorMiniaturas.LADO_MINIATURA
+                        ? cancionBL.cargarMiniatura(idCancion)
+                        : cancionBL.cargarPortada(idCancion),
+                pixeles);
+    }
+
+    /**
+     * Muestra la portada de una playlist con el tamaño configurado en la vista.
+     *
+     * @param vista Vista donde se muestra; debe llamarse desde el hilo de JavaFX
+     * @param playlist Playlist con su imagen ya cargada
+     * @param porDefecto Imagen mientras se carga o si la playlist no tiene portada
+     */
+    public void mostrarPortadaPlaylist(ImageView vista, PlaylistDTO playlist, Image porDefecto) {
+        mostrarPortadaPlaylist(vista, playlist, ladoDe(vista), porDefecto);
+    }
+
+    /**
+     * Muestra la portada de una playlist en una vista, sin bloquear el hilo de JavaFX.
+     *
+     * @param vista Vista donde se muestra; debe llamarse desde el hilo de JavaFX
+     * @param playlist Playlist con su imagen ya cargada
+     * @param lado Lado en píxeles con que se muestra
+     * @param porDefecto Imagen mientras se carga o si la playlist no tiene portada
+     */
+    public void mostrarPortadaPlaylist(ImageView vista, PlaylistDTO playlist, double lado, Image porDefecto) {
+        byte[] portada = playlist.getImagenPortada();
+        if (portada == null || portada.length == 0) {
+            vista.getProperties().remove(CLAVE_VISTA);
+            vista.setImage(porDefecto);
+            return;
+        }
+        int pixeles = (int) Math.ceil(lado);
+        mostrar(vista, "playlist:" + playlist.getIdPlaylist() + ":" + pixeles, porDefecto, () -> portada, pixeles);
+    }
+
+    /**
+     * Descarta las imágenes de una canción, por ejemplo porque se cambió su portada.
+     *
+     * @param idCancion ID de la canción
+     */
+    public void invalidarCancion(int idCancion) {
+        invalidar("cancion:" + idCancion + ":");
+    }
+
+    /**
+     * Descarta las imágenes de una playlist, por ejemplo porque se cambió su portada.
+     *
+     * @param idPlaylist ID de la playlist
+     */
+    public void invalidarPlaylist(int idPlaylist) {
+        invalidar("playlist:" + idPlaylist + ":");
+    }
+
+    private void mostrar(ImageView vista, String clave, Image porDefecto, Callable<byte[]> origen, int lado) {
+        vista.getProperties().put(CLAVE_VISTA, clave);
+        CompletableFuture<Image> tarea;
+        synchronized (this) {
+            Image imagen = imagenes.get(clave);
+            if (imagen != null || sinImagen.contains(clave)) {
+                aciertos++;
+                vista.setImage(imagen != null ? imagen : porDefecto);
+                return;
+            }
+            tarea = enCurso.get(clave);
+            if (tarea == null) {
+                fallos++;
+                tarea = CompletableFuture.supplyAsync(() -> decodificar(origen, lado), decodificador);
+                enCurso.put(clave, tarea);
+                tarea.whenComplete((resultado, error) -> guardar(clave, resultado));
+            }
+        }
+        vista.setImage(porDefecto);
+        tarea.whenComplete((resultado, error) -> Platform.runLater(() -> {
+            // La celda pudo reutilizarse para otra fila mientras se decodificaba
+            if (clave.equals(vista.getProperties().get(CLAVE_VISTA))) {
+                vista.setImage(resultado != null ? resultado : porDefecto);
+            }
+        }));
+    }
+
+    /**
+     * Lee y decodifica una imagen ya reducida al lado pedido. Se ejecuta en un hilo de fondo.
+     */
+    private static Image decodificar(Callable<byte[]> origen, int lado) {
+        try {
+            byte[] datos = origen.call();
+            if (datos == null || datos.length == 0) {
+                return null;
+            }
+            Image imagen = new Image(new ByteArrayInputStream(datos), lado, lado, true, true);
+            return imagen.isError() ? null : imagen;
+        } catch (Exception e) {
+            System.err.println("Error al decodificar imagen: " + e.getMessage());
+            return null;
+        }
+    }
+
+    private synchronized void guardar(String clave, Image imagen) {
+        enCurso.remove(clave);
+        if (imagen == null) {
+            sinImagen.add(clave);
+            return;
+        }
+        Image anterior = imagenes.put(clave, imagen);
+        if (anterior != null) {
+            bytesEnMemoria -= bytes(anterior);
+        }
+        bytesEnMemoria += bytes(imagen);
+        recortar();
+    }
+
+    /**
+     * Descarta las imágenes menos usadas hasta quedar dentro de la capacidad.
+     */
+    private void recortar() {
+        Iterator<Image> it = imagenes.values().iterator();
+        while (bytesEnMemoria > capacidadBytes && it.hasNext()) {
+            bytesEnMemoria -= bytes(it.next());
+            it.remove();
+            expulsiones++;
+        }
+    }
+
+    private synchronized void invalidar(String prefijo) {
+        Iterator<Map.Entry<String, Image>> it = imagenes.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<String, Image> entrada = it.next();
+            if (entrada.getKey().startsWith(prefijo)) {
+                bytesEnMemoria -= bytes(entrada.getValue());
+                it.remove();
+            }
+        }
+        sinImagen.removeIf(clave -> clave.startsWith(prefijo));
+    }
+
+    /** @return Lado mayor configurado en la vista, o el de las miniaturas si no tiene */
+    private static double ladoDe(ImageView vista) {
+        double lado = Math.max(vista.getFitWidth(), vista.getFitHeight());
+        return lado > 0 ? lado : GeneradorMiniaturas.LADO_MINIATURA;
+    }
+
+    /** @return Memoria aproximada de una imagen decodificada (4 bytes por píxel) */
+    private static long bytes(Image imagen) {
+        return (long) imagen.getWidth() * (long) imagen.getHeight() * 4;
+    }
+
+    // --------------------------
+    // Métricas
+    // --------------------------
+
+    /** @return Veces que la imagen pedida ya estaba decodificada */
+    public synchronized long getAciertos() {
+        return aciertos;
+    }
+
+    /** @return Veces que hubo que leer y decodificar la imagen */
+    public synchronized long getFallos() {
+        return fallos;
+    }
+
+    /** @return Proporción de pedidos resueltos desde memoria (0 a 1) */
+    public synchronized double getTasaAciertos() {
+        long total = aciertos + fallos;
+        return total == 0 ? 0 : (double) aciertos / total;
+    }
+
+    /** @return Imágenes descartadas por superar la capacidad */
+    public synchronized long getExpulsiones() {
+        return expulsiones;
+    }
+
+    /**
+     * @return Resumen legible del estado de la caché
+     */
+    public synchronized String resumen() {
+        return String.format("Caché de imágenes: %d imágenes, %.1f/%d MB, aciertos=%d fallos=%d (%.0f%%) expulsiones=%d",
+                imagenes.size(), bytesEnMemoria / (1024.0 * 1024.0), capacidadBytes / (1024 * 1024),
+                aciertos, fallos, getTasaAciertos() * 100, expulsiones);
+    }
+}
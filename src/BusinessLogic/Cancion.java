@@ -1,15 +1,22 @@
 package BusinessLogic;
 
 import DataAccessComponent.DAO.CancionDAO;
+import DataAccessComponent.DAO.IPaginable;
 import DataAccessComponent.DTO.ArtistaDTO;
 import DataAccessComponent.DTO.CancionDTO;
+import DataAccessComponent.DTO.CancionResumenDTO;
+import DataAccessComponent.DTO.MetadatosAudioDTO;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.ArrayList;
-import javazoom.jl.decoder.Bitstream;
-import javazoom.jl.decoder.Header;
-import java.io.ByteArrayInputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import BusinessLogic.utilities.AnalizadorMP3;
+import BusinessLogic.utilities.GeneradorMiniaturas;
+import BusinessLogic.utilities.TablaBusqueda;
 
 /**
  * Clase CancionBL que representa la lógica de negocio relacionada con canciones.
@@ -49,6 +56,118 @@ public class Cancion implements ComponentePlaylist{
         return cancionDAO.buscarTodo();
     }
 
+    /**
+     * Recupera la metadata de todas las canciones sin cargar audio ni portada.
+     *
+     * <p>Es el método que deben usar las pantallas de listado; los datos binarios se
+     * obtienen después con {@link #cargarAudio(int)} o {@link #cargarPortada(int)}.</p>
+     *
+     * @return Lista de {@link CancionResumenDTO}.
+     * @throws Exception si ocurre un error en la operación DAO.
+     */
+    public List<CancionResumenDTO> buscarResumenes() throws Exception {
+        return cancionDAO.buscarResumenes();
+    }
+
+    /**
+     * Acceso por páginas al catálogo, para listados que cargan solo las filas visibles.
+     *
+     * @return Fuente paginada de {@link CancionResumenDTO} en orden de ID.
+     */
+    public IPaginable<CancionResumenDTO> paginas() {
+        return cancionDAO;
+    }
+
+    /**
+     * Recupera la metadata de varias canciones en el orden de los IDs recibidos, por ejemplo
+     * los resultados de {@link MotorBusqueda}.
+     *
+     * @param ids IDs de las canciones; los que no existen se omiten.
+     * @return Lista de {@link CancionResumenDTO}.
+     * @throws Exception si ocurre un error en la operación DAO.
+     */
+    public List<CancionResumenDTO> buscarResumenesPorIds(Collection<Integer> ids) throws Exception {
+        return cancionDAO.buscarResumenesPorIds(ids);
+    }
+
+    /**
+     * Recupera el archivo MP3 de una canción en el momento en que se va a reproducir.
+     *
+     * @param idCancion ID de la canción.
+     * @return Bytes del archivo MP3, o null si no existe.
+     * @throws Exception si ocurre un error en la operación DAO.
+     */
+    public byte[] cargarAudio(int idCancion) throws Exception {
+        return cancionDAO.cargarAudio(idCancion);
+    }
+
+    /**
+     * Copia el archivo MP3 de una canción hacia un flujo, por bloques y sin cargarlo completo en memoria.
+     *
+     * @param idCancion ID de la canción.
+     * @param destino Flujo de salida; no se cierra.
+     * @return Bytes copiados, o -1 si la canción no tiene audio.
+     * @throws Exception si ocurre un error en la operación DAO.
+     */
+    public long copiarAudio(int idCancion, OutputStream destino) throws Exception {
+        return cancionDAO.copiarAudio(idCancion, destino);
+    }
+
+    /**
+     * Obtiene el archivo del almacén de blobs con el MP3 de una canción.
+     *
+     * @param idCancion ID de la canción.
+     * @return Ruta del MP3, o null si no tiene audio o su audio aún no se trasladó al almacén.
+     * @throws Exception si ocurre un error en la operación DAO.
+     */
+    public Path rutaAudio(int idCancion) throws Exception {
+        return cancionDAO.rutaAudio(idCancion);
+    }
+
+    /**
+     * Recupera la duración guardada al registrar la canción, sin leer su audio.
+     *
+     * @param idCancion ID de la canción.
+     * @return Duración en segundos, o 0 si no existe.
+     * @throws Exception si ocurre un error en la operación DAO.
+     */
+    public double buscarDuracion(int idCancion) throws Exception {
+        return cancionDAO.obtenerDuracion(idCancion);
+    }
+
+    /**
+     * Recupera la portada de una canción en el momento en que se va a mostrar.
+     *
+     * @param idCancion ID de la canción.
+     * @return Bytes de la imagen de portada, o null si no tiene.
+     * @throws Exception si ocurre un error en la operación DAO.
+     */
+    public byte[] cargarPortada(int idCancion) throws Exception {
+        return cancionDAO.cargarPortada(idCancion);
+    }
+
+    /**
+     * Recupera la miniatura de la portada de una canción para mostrarla en un listado.
+     *
+     * <p>Las canciones registradas antes de que existieran las miniaturas no la tienen: en
+     * ese caso se genera una vez a partir de la portada y se guarda.</p>
+     *
+     * @param idCancion ID de la canción.
+     * @return Miniatura en JPEG, o null si la canción no tiene portada legible.
+     * @throws Exception si ocurre un error en la operación DAO.
+     */
+    public byte[] cargarMiniatura(int idCancion) throws Exception {
+        byte[] miniatura = cancionDAO.cargarMiniatura(idCancion);
+        if (miniatura != null) {
+            return miniatura;
+        }
+        miniatura = GeneradorMiniaturas.generar(cancionDAO.cargarPortada(idCancion));
+        if (miniatura != null) {
+            cancionDAO.guardarMiniatura(idCancion, miniatura);
+        }
+        return miniatura;
+    }
+
     /**
      * Recupera una canción por su identificador único.
      *
@@ -95,7 +214,7 @@ public class Cancion implements ComponentePlaylist{
      *
      * @param titulo     Título de la canción.
      * @param anio       Año de lanzamiento (en formato texto).
-     * @param duracion   Duración en formato "mm:ss".
+     * @param duracion   Duración en formato "mm:ss"; solo se usa si el MP3 no se puede analizar.
      * @param generos    Lista de géneros musicales asociados.
      * @param letra      Letra de la canción.
      * @param portada    Portada de la canción (formato byte array).
@@ -140,7 +259,15 @@ public class Cancion implements ComponentePlaylist{
                 .reduce((a, b) -> a + ", " + b)
                 .orElse("Sin artistas"));
 
-        return cancionDAO.registrar(nuevaCancion);
+        completarDatosDeAudio(nuevaCancion);
+        nuevaCancion.setPortadaMiniatura(GeneradorMiniaturas.generar(portada));
+
+        boolean registrado = cancionDAO.registrar(nuevaCancion);
+        if (registrado) {
+            IndiceSimilitud.getInstancia().invalidar();
+            MotorBusqueda.getInstancia().invalidar(MotorBusqueda.Tipo.CANCION);
+        }
+        return registrado;
     }
 
     /**
@@ -151,7 +278,24 @@ public class Cancion implements ComponentePlaylist{
      * @throws Exception si ocurre un error en la actualización.
      */
     public boolean actualizar(CancionDTO cancionDTO) throws Exception {
-        return cancionDAO.actualizar(cancionDTO);
+        if (cancionDTO.getArchivoMP3() != null && cancionDTO.getMetadatosAudio() == null) {
+            completarDatosDeAudio(cancionDTO);
+        }
+        if (cancionDTO.getPortada() != null && cancionDTO.getPortadaMiniatura() == null) {
+            cancionDTO.setPortadaMiniatura(GeneradorMiniaturas.generar(cancionDTO.getPortada()));
+        }
+        boolean actualizado = cancionDAO.actualizar(cancionDTO);
+        if (actualizado && cancionDTO.getArchivoMP3() != null) {
+            CacheAudioDisco.getInstancia().invalidar(cancionDTO.getIdCancion());
+        }
+        if (actualizado && cancionDTO.getPortada() != null) {
+            CacheImagenes.getInstancia().invalidarCancion(cancionDTO.getIdCancion());
+        }
+        if (actualizado) {
+            IndiceSimilitud.getInstancia().invalidar();
+            MotorBusqueda.getInstancia().invalidar(MotorBusqueda.Tipo.CANCION);
+        }
+        return actualizado;
     }
 
     /**
@@ -162,7 +306,14 @@ public class Cancion implements ComponentePlaylist{
      * @throws Exception si ocurre un error durante el proceso.
      */
     public boolean eliminar(int idCancion) throws Exception {
-        return cancionDAO.eliminar(idCancion);
+        boolean eliminado = cancionDAO.eliminar(idCancion);
+        if (eliminado) {
+            CacheAudioDisco.getInstancia().invalidar(idCancion);
+            CacheImagenes.getInstancia().invalidarCancion(idCancion);
+            IndiceSimilitud.getInstancia().invalidar();
+            MotorBusqueda.getInstancia().invalidar(MotorBusqueda.Tipo.CANCION);
+        }
+        return eliminado;
     }
 
     /**
@@ -177,33 +328,98 @@ public class Cancion implements ComponentePlaylist{
     }
 
     /**
-     * Calcula la duración de un archivo MP3 utilizando su encabezado.
+     * Devuelve el índice de frames de una canción para posicionarse en ella con exactitud.
+     *
+     * <p>Las canciones subidas antes de que existiera la tabla no la tienen: en ese caso se
+     * calcula una vez a partir del audio (ya en la caché de disco si se está reproduciendo)
+     * y se guarda para las siguientes veces.</p>
+     *
+     * @param idCancion ID de la canción.
+     * @return Tabla de búsqueda, o null si la canción no tiene audio legible.
+     * @throws Exception si ocurre un error en la operación DAO.
+     */
+    public TablaBusqueda obtenerTablaBusqueda(int idCancion) throws Exception {
+        TablaBusqueda tabla = TablaBusqueda.leer(cancionDAO.cargarTablaBusqueda(idCancion));
+        if (tabla != null) {
+            return tabla;
+        }
+        Path audio = CacheAudioDisco.getInstancia().obtener(idCancion);
+        if (audio == null) {
+            return null;
+        }
+        byte[] datos = construirTablaBusqueda(Files.readAllBytes(audio));
+        if (datos == null) {
+            return null;
+        }
+        cancionDAO.guardarTablaBusqueda(idCancion, datos);
+        return TablaBusqueda.leer(datos);
+    }
+
+    /**
+     * Recupera los datos técnicos del audio de una canción calculados al registrarla.
      *
-     * Utiliza la librería JLayer para analizar los fotogramas del MP3
-     * y calcular la duración total en segundos.
+     * @param idCancion ID de la canción.
+     * @return Metadatos del audio, o null si aún no se analizó.
+     * @throws Exception si ocurre un error en la operación DAO.
+     */
+    public MetadatosAudioDTO buscarMetadatosAudio(int idCancion) throws Exception {
+        return cancionDAO.cargarMetadatosAudio(idCancion);
+    }
+
+    /**
+     * Analiza los encabezados de un MP3 sin decodificarlo: duración exacta, bitrate,
+     * frecuencia de muestreo, VBR y cantidad de frames.
      *
      * @param mp3Data Arreglo de bytes correspondiente al archivo de audio.
-     * @return Duración estimada en segundos; retorna 0 si ocurre un error.
+     * @return Metadatos del audio, o null si no hay audio o no es un MP3 válido.
      */
-    private double obtenerDuracionDesdeMP3(byte[] mp3Data) {
-        try {
-            Bitstream bitstream = new Bitstream(new ByteArrayInputStream(mp3Data));
-            Header header = bitstream.readFrame();
-            if (header == null) return 0;
+    public MetadatosAudioDTO analizarAudio(byte[] mp3Data) {
+        AnalizadorMP3.Resultado resultado = analizar(mp3Data);
+        return resultado != null ? resultado.getMetadatos() : null;
+    }
 
-            int frames = 0;
-            double duration = 0;
+    /**
+     * Completa la tabla de búsqueda y los datos técnicos de una canción a partir de su MP3,
+     * en una sola pasada por los encabezados. Si el audio se puede analizar, su duración
+     * reemplaza a la ingresada por el usuario.
+     *
+     * @param cancionDTO Canción con el archivo MP3 cargado.
+     */
+    private void completarDatosDeAudio(CancionDTO cancionDTO) {
+        AnalizadorMP3.Resultado resultado = analizar(cancionDTO.getArchivoMP3());
+        if (resultado == null) {
+            cancionDTO.setTablaBusqueda(null);
+            cancionDTO.setMetadatosAudio(null);
+            return;
+        }
+        cancionDTO.setTablaBusqueda(resultado.getTablaBusqueda().serializar());
+        cancionDTO.setMetadatosAudio(resultado.getMetadatos());
+        cancionDTO.setDuracion(resultado.getMetadatos().getDuracion());
+    }
 
-            while (header != null) {
-                duration += header.ms_per_frame();
-                frames++;
-                bitstream.closeFrame();
-                header = bitstream.readFrame();
-            }
+    /**
+     * Construye la tabla de búsqueda de un MP3 leyendo los encabezados de sus frames.
+     *
+     * @param mp3Data Arreglo de bytes correspondiente al archivo de audio.
+     * @return Tabla serializada; null si no hay audio o no se puede analizar.
+     */
+    private byte[] construirTablaBusqueda(byte[] mp3Data) {
+        AnalizadorMP3.Resultado resultado = analizar(mp3Data);
+        return resultado != null ? resultado.getTablaBusqueda().serializar() : null;
+    }
 
-            return duration / 1000.0; // convertir a segundos
+    /**
+     * @return Resultado del análisis, o null si no hay audio o no contiene frames válidos
+     */
+    private static AnalizadorMP3.Resultado analizar(byte[] mp3Data) {
+        if (mp3Data == null) {
+            return null;
+        }
+        try {
+            AnalizadorMP3.Resultado resultado = AnalizadorMP3.analizar(mp3Data);
+            return resultado.esValido() ? resultado : null;
         } catch (Exception e) {
-            return 0;
+            return null;
         }
     }
 
@@ -0,0 +1,98 @@
+package BusinessLogic;
+
+import DataAccessComponent.DAO.UsuarioDAO;
+import DataAccessComponent.DTO.ArtistaDTO;
+import DataAccessComponent.DTO.CancionDTO;
+import DataAccessComponent.DTO.CancionResumenDTO;
+import DataAccessComponent.DTO.PlaylistDTO;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Versión asíncrona de las consultas de {@link Cancion}, {@link Playlist}, {@link Artista} y
+ * {@link ServicioRecomendaciones} que usan las pantallas.
+ *
+ * <p>Cada método se ejecuta en {@link EjecutorDatos} y devuelve un {@link CompletableFuture};
+ * las pantallas lo entregan en el hilo de JavaFX con {@link EjecutorDatos#alTerminar}. Los
+ * objetos de lógica de negocio con estado, como {@link Playlist}, se crean en cada llamada
+ * para que dos consultas simultáneas no compartan datos.</p>
+ *
+ * @author Grupo F - InkHarmony Team
+ */
+public class DatosAsincronos {
+
+    private final EjecutorDatos ejecutor = EjecutorDatos.getInstancia();
+    private final Cancion cancionBL = new Cancion();
+    private final Artista artistaBL = new Artista();
+    private final ServicioRecomendaciones recomendaciones = new ServicioRecomendaciones();
+
+    /**
+     * @return Metadata de todas las canciones, sin audio ni portada
+     * @see Cancion#buscarResumenes()
+     */
+    public CompletableFuture<List<CancionResumenDTO>> buscarResumenesCanciones() {
+        return ejecutor.enSegundoPlano("canciones.resumenes", cancionBL::buscarResumenes);
+    }
+
+    /**
+     * @return Todos los artistas con sus géneros
+     * @see Artista#buscarTodo()
+     */
+    public CompletableFuture<List<ArtistaDTO>> buscarArtistas() {
+        return ejecutor.enSegundoPlano("artistas", artistaBL::buscarTodo);
+    }
+
+    /**
+     * @param idPlaylist ID de la playlist
+     * @return La playlist con los IDs de sus canciones, o null si no existe
+     * @see Playlist#buscarPorId(int)
+     */
+    public CompletableFuture<PlaylistDTO> buscarPlaylist(int idPlaylist) {
+        return ejecutor.enSegundoPlano("playlist", () -> new Playlist().buscarPorId(idPlaylist));
+    }
+
+    /**
+     * @param idPlaylist ID de la playlist
+     * @return Canciones de la playlist en su orden, con portada y sin audio
+     * @see Playlist#obtenerCancionesSinAudio(int)
+     */
+    public CompletableFuture<List<CancionDTO>> buscarCancionesDePlaylist(int idPlaylist) {
+        return ejecutor.enSegundoPlano("playlist.canciones", () -> new Playlist().obtenerCancionesSinAudio(idPlaylist));
+    }
+
+    /**
+     * Busca las playlists de un usuario a partir de su correo y, si se indica un filtro, deja
+     * solo las que coinciden con él según {@link MotorBusqueda}.
+     *
+     * @param correo Correo del usuario
+     * @param filtro Texto a buscar; null o vacío para devolver todas
+     * @return Playlists del usuario, de la más a la menos relevante si hay filtro; el futuro
+     *         falla si el correo no corresponde a un usuario
+     * @see Playlist#obtenerPlaylistPorUsuario(int)
+     */
+    public CompletableFuture<List<PlaylistDTO>> buscarPlaylistsDeUsuario(String correo, String filtro) {
+        return ejecutor.enSegundoPlano("playlists.usuario", () -> {
+            int idUsuario = new UsuarioDAO().obtenerIdUsuarioPorCorreo(correo);
+            if (idUsuario <= 0) {
+                throw new Exception("No se pudo identificar al usuario con correo " + correo);
+            }
+            List<PlaylistDTO> playlists = new Playlist().obtenerPlaylistPorUsuario(idUsuario);
+            if (filtro == null || filtro.isBlank()) {
+                return playlists;
+            }
+            return MotorBusqueda.getInstancia().filtrar(MotorBusqueda.Tipo.PLAYLIST, filtro,
+                    playlists, PlaylistDTO::getIdPlaylist);
+        });
+    }
+
+    /**
+     * @return Canciones recomendadas según los filtros
+     * @see ServicioRecomendaciones#recomendar(boolean, Genero, String, boolean)
+     */
+    public CompletableFuture<List<CancionResumenDTO>> recomendar(boolean usarPreferencias, Genero genero,
+                                                                 String artista, boolean estrenos) {
+        return ejecutor.enSegundoPlano("recomendaciones",
+                () -> recomendaciones.recomendar(usarPreferencias, genero, artista, estrenos));
+    }
+}
@@ -0,0 +1,211 @@
+package BusinessLogic;
+
+import BusinessLogic.utilities.HistogramaLatencias;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import javafx.application.Platform;
+
+/**
+ * Ejecutor compartido por toda la aplicación para las consultas a la base de datos que
+ * piden las pantallas, de modo que el hilo de JavaFX nunca espere a SQLite.
+ *
+ * <p>Una pantalla pide los datos con {@link #cargar} (o con los métodos de
+ * {@link DatosAsincronos}) y recibe el resultado en el hilo de JavaFX:</p>
+ * <ul>
+ *   <li>La consulta se ejecuta en un hilo de fondo y su duración se registra en
+ *       {@link HistogramaLatencias#de(String)} con el nombre {@code datos.<nombre>}.</li>
+ *   <li>El resultado, o el error, se entrega con {@code Platform.runLater}. Si ese paso
+ *       ocupa el hilo de JavaFX más de {@link #UMBRAL_HILO_FX_MS} ms (un cuadro a 60 Hz) se
+ *       informa por consola con el nombre de la consulta.</li>
+ * </ul>
+ *
+ * <p>Si la JVM tiene hilos virtuales (Java 21 o superior) cada consulta usa uno; si no, se
+ * usa un grupo fijo de {@code -Dinkharmony.datos.hilos} hilos (4 por defecto, igual que las
+ * conexiones de lectura del pool). En ambos casos la cantidad de consultas simultáneas la
+ * limita el pool de conexiones.</p>
+ *
+ * <p>Utiliza el patrón {@code Singleton}.</p>
+ *
+ * @author Grupo B
+ * @version 1.0
+ * @since 25-07-2025
+ */
+public final class EjecutorDatos {
+
+    /** Tiempo máximo que una tarea puede ocupar el hilo de JavaFX sin informarse */
+    public static final long UMBRAL_HILO_FX_MS = Long.getLong("inkharmony.fx.umbral.ms", 16);
+
+    /** Hilos del grupo fijo cuando no hay hilos virtuales */
+    private static final int HILOS = Integer.getInteger("inkharmony.datos.hilos", 4);
+
+    /**
+     * Consulta que se ejecuta en segundo plano.
+     *
+     * @param <T> Tipo del resultado
+     */
+    @FunctionalInterface
+    public interface Consulta<T> {
+        T ejecutar() throws Exception;
+    }
+
+    /** Instancia única (patrón Singleton). */
+    private static EjecutorDatos instancia;
+
+    private final ExecutorService ejecutor;
+    private final boolean hilosVirtuales;
+    private final HistogramaLatencias tareasHiloFx = HistogramaLatencias.de("hilo-fx.tareas");
+    private final AtomicLong consultas = new AtomicLong();
+    private final AtomicLong fallidas = new AtomicLong();
+    private final AtomicLong lentasHiloFx = new AtomicLong();
+
+    private EjecutorDatos() {
+        ExecutorService virtuales = crearEjecutorVirtual();
+        this.hilosVirtuales = virtuales != null;
+        this.ejecutor = virtuales != null ? virtuales : Executors.newFixedThreadPool(HILOS, tarea -> {
+            Thread hilo = new Thread(tarea, "datos");
+            hilo.setDaemon(true);
+            return hilo;
+        });
+    }
+
+    /**
+     * Devuelve el ejecutor de la aplicación.
+     *
+     * @return Instancia única del ejecutor
+     */
+    public static synchronized EjecutorDatos getInstancia() {
+        if (instancia == null) {
+            instancia = new EjecutorDatos();
+        }
+        return instancia;
+    }
+
+    /**
+     * Ejecuta una consulta en segundo plano.
+     *
+     * @param nombre Nombre de la consulta, para el histograma de latencias
+     * @param consulta Consulta a ejecutar; no debe tocar controles de JavaFX
+     * @param <T> Tipo del resultado
+     * @return Futuro con el resultado; si la consulta lanza una excepción, el futuro termina
+     *         con una {@link CompletionException} que la contiene
+     */
+    public <T> CompletableFuture<T> enSegundoPlano(String nombre, Consulta<T> consulta) {
+        HistogramaLatencias latencias = HistogramaLatencias.de("datos." + nombre);
+        consultas.incrementAndGet();
+        return CompletableFuture.supplyAsync(() -> {
+            long inicio = System.nanoTime();
+            try {
+                return consulta.ejecutar();
+            } catch (Exception e) {
+                fallidas.incrementAndGet();
+                throw new CompletionException(e);
+            } finally {
+                latencias.registrar(System.nanoTime() - inicio);
+            }
+        }, ejecutor);
+    }
+
+    /**
+     * Ejecuta una consulta en segundo plano y entrega el resultado en el hilo de JavaFX.
+     *
+     * @param nombre Nombre de la consulta
+     * @param consulta Consulta a ejecutar; no debe tocar controles de JavaFX
+     * @param mostrar Acción que recibe el resultado en el hilo de JavaFX
+     * @param alFallar Acción que recibe el error en el hilo de JavaFX
+     * @param <T> Tipo del resultado
+     */
+    public <T> void cargar(String nombre, Consulta<T> consulta, Consumer<T> mostrar, Consumer<Exception> alFallar) {
+        alTerminar(enSegundoPlano(nombre, consulta), nombre, mostrar, alFallar);
+    }
+
+    /**
+     * Entrega en el hilo de JavaFX el resultado de un futuro, por ejemplo uno de
+     * {@link DatosAsincronos}.
+     *
+     * @param futuro Futuro de la consulta
+     * @param nombre Nombre con el que se informa si la entrega es lenta
+     * @param mostrar Acción que recibe el resultado en el hilo de JavaFX
+     * @param alFallar Acción que recibe el error en el hilo de JavaFX
+     * @param <T> Tipo del resultado
+     */
+    public <T> void alTerminar(CompletableFuture<T> futuro, String nombre, Consumer<T> mostrar, Consumer<Exception> alFallar) {
+        futuro.whenCompleteAsync((resultado, error) -> {
+            try {
+                if (error == null) {
+                    mostrar.accept(resultado);
+                } else {
+                    alFallar.accept(causa(error));
+                }
+            } catch (RuntimeException e) {
+                // Sin esto el error quedaría guardado en un futuro que nadie consulta
+                System.err.println("Error al mostrar \"" + nombre + "\": " + e.getMessage());
+                e.printStackTrace();
+            }
+        }, hiloFx(nombre));
+    }
+
+    /**
+     * Devuelve un {@link Executor} que ejecuta las tareas en el hilo de JavaFX, para
+     * encadenar con {@code thenAcceptAsync} y similares. Las tareas que ocupan el hilo más
+     * de {@link #UMBRAL_HILO_FX_MS} ms se informan con el nombre indicado.
+     *
+     * @param nombre Nombre con el que se informan las tareas lentas
+     * @return Ejecutor sobre el hilo de JavaFX
+     */
+    public Executor hiloFx(String nombre) {
+        return tarea -> Platform.runLater(() -> {
+            long inicio = System.nanoTime();
+            try {
+                tarea.run();
+            } finally {
+                long nanos = System.nanoTime() - inicio;
+                tareasHiloFx.registrar(nanos);
+                if (nanos > UMBRAL_HILO_FX_MS * 1_000_000) {
+                    lentasHiloFx.incrementAndGet();
+                    System.err.printf("Hilo de JavaFX ocupado %.1f ms al mostrar \"%s\"%n", nanos / 1e6, nombre);
+                }
+            }
+        });
+    }
+
+    /**
+     * Obtiene la excepción original de un error de {@link CompletableFuture}.
+     *
+     * @param error Error recibido por el futuro
+     * @return La excepción que lanzó la consulta
+     */
+    public static Exception causa(Throwable error) {
+        Throwable causa = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        return causa instanceof Exception ? (Exception) causa : new Exception(causa);
+    }
+
+    /**
+     * @return Resumen legible con el tipo de hilos, las consultas y las tareas lentas en el hilo de JavaFX
+     */
+    public String resumen() {
+        return String.format("EjecutorDatos[%s]: consultas=%d fallidas=%d lentasHiloFx=%d; %s",
+                hilosVirtuales ? "hilos virtuales" : HILOS + " hilos", consultas.get(), fallidas.get(),
+                lentasHiloFx.get(), tareasHiloFx.resumen());
+    }
+
+    /**
+     * Crea un ejecutor con un hilo virtual por tarea si la JVM lo permite. Se busca por
+     * reflexión porque la aplicación también se compila y ejecuta con Java 17.
+     *
+     * @return El ejecutor, o null si la JVM no tiene hilos virtuales
+     */
+    private static ExecutorService crearEjecutorVirtual() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+}
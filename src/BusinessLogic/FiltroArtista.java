@@ -1,6 +1,8 @@
 package BusinessLogic;
 
-import DataAccessComponent.DTO.CancionDTO;
+import BusinessLogic.utilities.NormalizadorTexto;
+import DataAccessComponent.DTO.CancionResumenDTO;
+import DataAccessComponent.DTO.CriteriosRecomendacionDTO;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -10,13 +12,13 @@ import java.util.stream.Collectors;
  * 
  * <p>Forma parte de la cadena de filtros basada en el patrón Decorator.
  * Este filtro buscará coincidencias parciales en los nombres de artistas,
- * sin importar mayúsculas o minúsculas.</p>
+ * sin importar mayúsculas, minúsculas ni tildes.</p>
  *
  * @author Grupo F - InkHarmony Team
  */
 public class FiltroArtista extends FiltroRecomendador {
 
-    /** Nombre del artista ingresado por el usuario en minúsculas */
+    /** Nombre del artista ingresado por el usuario, normalizado con {@link NormalizadorTexto} */
     private final String nombreArtista;
 
     /**
@@ -27,7 +29,7 @@ public class FiltroArtista extends FiltroRecomendador {
      */
     public FiltroArtista(Recomendador siguiente, String nombreArtista) {
         super(siguiente);
-        this.nombreArtista = nombreArtista.toLowerCase();
+        this.nombreArtista = NormalizadorTexto.normalizar(nombreArtista);
     }
 
     /**
@@ -37,11 +39,25 @@ public class FiltroArtista extends FiltroRecomendador {
      * @return lista filtrada de canciones que cumplen con el criterio de artista
      */
     @Override
-    public List<CancionDTO> recomendar() {
+    public List<CancionResumenDTO> recomendar() {
         return siguiente.recomendar().stream()
                 .filter(c -> c.getArtistas() != null &&
                              c.getArtistas().stream()
-                                 .anyMatch(a -> a.getNombre().toLowerCase().contains(nombreArtista)))
+                                 .anyMatch(a -> NormalizadorTexto.normalizar(a.getNombre()).contains(nombreArtista)))
                 .collect(Collectors.toList());
     }
+
+    /**
+     * Agrega la condición de que algún artista contenga el texto ingresado.
+     *
+     * @return criterios del siguiente con esta condición, o null si el siguiente no los admite
+     */
+    @Override
+    public CriteriosRecomendacionDTO criterios() {
+        CriteriosRecomendacionDTO criterios = siguiente.criterios();
+        if (criterios != null) {
+            criterios.agregarArtista(nombreArtista);
+        }
+        return criterios;
+    }
 }
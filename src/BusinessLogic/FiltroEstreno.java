@@ -1,6 +1,7 @@
 package BusinessLogic;
 
-import DataAccessComponent.DTO.CancionDTO;
+import DataAccessComponent.DTO.CancionResumenDTO;
+import DataAccessComponent.DTO.CriteriosRecomendacionDTO;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -36,11 +37,25 @@ public class FiltroEstreno extends FiltroRecomendador {
      * @return lista filtrada de canciones recientes
      */
     @Override
-    public List<CancionDTO> recomendar() {
+    public List<CancionResumenDTO> recomendar() {
         LocalDateTime limite = LocalDateTime.now().minusDays(diasEstreno);
         return siguiente.recomendar().stream()
                 .filter(c -> c.getFechaRegistro() != null &&
                              c.getFechaRegistro().isAfter(limite))
                 .collect(Collectors.toList());
     }
+
+    /**
+     * Agrega la condición de haberse registrado dentro del periodo de estrenos.
+     *
+     * @return criterios del siguiente con esta condición, o null si el siguiente no los admite
+     */
+    @Override
+    public CriteriosRecomendacionDTO criterios() {
+        CriteriosRecomendacionDTO criterios = siguiente.criterios();
+        if (criterios != null) {
+            criterios.registradasDespuesDe(LocalDateTime.now().minusDays(diasEstreno));
+        }
+        return criterios;
+    }
 }
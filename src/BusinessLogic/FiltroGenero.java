@@ -1,6 +1,7 @@
 package BusinessLogic;
 
-import DataAccessComponent.DTO.CancionDTO;
+import DataAccessComponent.DTO.CancionResumenDTO;
+import DataAccessComponent.DTO.CriteriosRecomendacionDTO;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -35,9 +36,23 @@ public class FiltroGenero extends FiltroRecomendador {
      * @return lista filtrada de canciones según el género
      */
     @Override
-    public List<CancionDTO> recomendar() {
+    public List<CancionResumenDTO> recomendar() {
         return siguiente.recomendar().stream()
                 .filter(c -> c.getGeneros() != null && c.getGeneros().contains(genero))
                 .collect(Collectors.toList());
     }
+
+    /**
+     * Agrega la condición de pertenecer al género indicado.
+     *
+     * @return criterios del siguiente con esta condición, o null si el siguiente no los admite
+     */
+    @Override
+    public CriteriosRecomendacionDTO criterios() {
+        CriteriosRecomendacionDTO criterios = siguiente.criterios();
+        if (criterios != null) {
+            criterios.agregarGeneros(List.of(genero.ordinal() + 1)); // ID en BD según el orden del enum
+        }
+        return criterios;
+    }
 }
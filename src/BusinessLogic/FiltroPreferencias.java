@@ -48,6 +48,18 @@ public class FiltroPreferencias extends FiltroRecomendador {
                                     .collect(Collectors.toSet());
     }
 
+    /**
+     * Construye el filtro con un conjunto de géneros dado, sin consultar la sesión.
+     *
+     * @param siguiente el recomendador al que se delega
+     * @param preferidos géneros que se consideran preferidos
+     * @throws NullPointerException si el filtro siguiente es nulo
+     */
+    public FiltroPreferencias(Recomendador siguiente, Set<Genero> preferidos) {
+        super(Objects.requireNonNull(siguiente, "El filtro siguiente no puede ser null"));
+        this.preferidos = Set.copyOf(preferidos);
+    }
+
     /**
      * Devuelve una lista de canciones que coinciden con los géneros musicales preferidos del usuario.
      * Si no hay preferencias registradas, se delega la recomendación al siguiente filtro.
@@ -55,7 +67,7 @@ public class FiltroPreferencias extends FiltroRecomendador {
      * @return lista filtrada de canciones recomendadas según las preferencias del usuario
      */
     @Override
-    public List<CancionDTO> recomendar() {
+    public List<CancionResumenDTO> recomendar() {
         if (preferidos.isEmpty())
             return siguiente.recomendar();
         return siguiente.recomendar().stream()
@@ -63,4 +75,18 @@ public class FiltroPreferencias extends FiltroRecomendador {
                                     c.getGeneros().stream().anyMatch(preferidos::contains))
                        .collect(Collectors.toList());
     }
+
+    /**
+     * Agrega la condición de pertenecer a alguno de los géneros preferidos; sin preferencias no agrega nada.
+     *
+     * @return criterios del siguiente con esta condición, o null si el siguiente no los admite
+     */
+    @Override
+    public CriteriosRecomendacionDTO criterios() {
+        CriteriosRecomendacionDTO criterios = siguiente.criterios();
+        if (criterios != null && !preferidos.isEmpty()) {
+            criterios.agregarGeneros(preferidos.stream().map(g -> g.ordinal() + 1).collect(Collectors.toList()));
+        }
+        return criterios;
+    }
 }
@@ -1,6 +1,6 @@
 package BusinessLogic;
 
-import DataAccessComponent.DTO.CancionDTO;
+import DataAccessComponent.DTO.CancionResumenDTO;
 import java.util.List;
 
 /**
@@ -10,6 +10,10 @@ import java.util.List;
  * recomendador. Cada subclase debe sobrescribir el método {@code recomendar()} para aplicar
  * su lógica de filtrado específica.</p>
  *
+ * <p>Para que la cadena se pueda resolver en SQL, cada subclase sobrescribe también
+ * {@code criterios()} agregando su condición a la del siguiente. Si no lo hace, hereda la
+ * implementación por defecto (null) y la cadena se filtra en memoria.</p>
+ *
  * @author Grupo F - InkHarmony Team
  */
 public abstract class FiltroRecomendador implements Recomendador {
@@ -33,7 +37,7 @@ public abstract class FiltroRecomendador implements Recomendador {
      * @return lista de canciones recomendadas
      */
     @Override
-    public List<CancionDTO> recomendar() {
+    public List<CancionResumenDTO> recomendar() {
         return siguiente.recomendar();
     }
 }
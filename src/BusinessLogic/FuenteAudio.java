@@ -0,0 +1,102 @@
+package BusinessLogic;
+
+import BusinessLogic.utilities.FlujoBuffer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Clase que representa el audio MP3 de una canción listo para entregarlo al decodificador.
+ *
+ * <p>El audio se mapea en memoria desde su archivo en disco (el del almacén de blobs o el
+ * extraído por {@link CacheAudioDisco} en bases sin migrar), así que el heap no guarda una
+ * copia de la canción sin importar su duración: las páginas las carga el sistema operativo a
+ * medida que el decodificador avanza. {@link #abrir(int)} entrega un {@link FlujoBuffer} sobre
+ * ese mapeo, que {@link javazoom.jl.decoder.Bitstream} lee directamente.</p>
+ *
+ * <p>Una misma fuente puede abrirse varias veces (por ejemplo, al reanudar desde otro frame)
+ * sin volver a leer el archivo. En Linux y macOS el mapeo sigue siendo válido aunque la caché
+ * borre el archivo mientras suena.</p>
+ *
+ * @author Grupo B
+ * @version 1.0
+ * @since 25-07-2025
+ *
+ * @see MotorReproduccion
+ */
+public final class FuenteAudio {
+
+    /** Audio completo; nunca se modifica su posición */
+    private final ByteBuffer audio;
+
+    private FuenteAudio(ByteBuffer audio) {
+        this.audio = audio;
+    }
+
+    /**
+     * Obtiene el audio de una canción desde su archivo en disco.
+     *
+     * @param idCancion ID de la canción
+     * @return Fuente del audio, o null si la canción no tiene audio
+     * @throws Exception si ocurre un error al leer el audio
+     */
+    public static FuenteAudio deCancion(int idCancion) throws Exception {
+        Path ruta = CacheAudioDisco.getInstancia().obtener(idCancion);
+        return ruta != null ? deArchivo(ruta) : null;
+    }
+
+    /**
+     * Mapea en memoria un archivo MP3 de solo lectura.
+     *
+     * @param archivo Archivo MP3
+     * @return Fuente del audio
+     * @throws IOException si no se puede abrir o mapear el archivo
+     */
+    public static FuenteAudio deArchivo(Path archivo) throws IOException {
+        try (FileChannel canal = FileChannel.open(archivo, StandardOpenOption.READ)) {
+            // El mapeo sigue siendo válido después de cerrar el canal
+            return new FuenteAudio(canal.map(FileChannel.MapMode.READ_ONLY, 0, canal.size()));
+        }
+    }
+
+    /**
+     * Usa como fuente un audio que ya está en memoria, sin copiarlo.
+     *
+     * @param mp3 Bytes del MP3
+     * @return Fuente del audio
+     */
+    public static FuenteAudio deBytes(byte[] mp3) {
+        return new FuenteAudio(ByteBuffer.wrap(mp3));
+    }
+
+    /**
+     * Abre un flujo de lectura del audio desde un byte dado.
+     *
+     * @param offset Byte desde el que se lee (por ejemplo, el inicio de un frame según la
+     *               {@link BusinessLogic.utilities.TablaBusqueda}); se limita al tamaño del audio
+     * @return Flujo independiente de los demás flujos abiertos de la misma fuente
+     */
+    public InputStream abrir(int offset) {
+        ByteBuffer vista = audio.duplicate();
+        vista.position(Math.min(Math.max(offset, 0), vista.limit()));
+        return new FlujoBuffer(vista);
+    }
+
+    /**
+     * @return Tamaño del audio en bytes
+     */
+    public int getTamanio() {
+        return audio.capacity();
+    }
+
+    /**
+     * @return true si el audio está mapeado desde un archivo y no ocupa heap
+     */
+    public boolean isMapeada() {
+        return audio.isDirect();
+    }
+}
@@ -1,38 +1,56 @@
 package BusinessLogic;
 
+import java.util.ArrayList;
 import java.util.List;
 
 /**
- * Clase encargada de gestionar una lista de reproducción de canciones en formato byte[].
+ * Clase encargada de gestionar la cola de reproducción como una lista de IDs de canciones.
  *
  * Permite navegar entre canciones (siguiente, anterior), reiniciar la lista,
  * y obtener o modificar la canción actual y la lista completa.
  *
- * Es utilizada por el reproductor MP3 para acceder a las canciones que se van a reproducir.
+ * La cola no guarda el audio: el reproductor MP3 lo resuelve bajo demanda con
+ * {@link BufferAudio} a partir del ID actual y del siguiente, de modo que la memoria
+ * usada no depende del largo de la cola.
  */
 public class GestorPlaylist {
-    /** Lista de canciones en formato byte[]. */
-    private List<byte[]> canciones;
+    /** IDs de las canciones en el orden de reproducción. */
+    private List<Integer> idsCanciones;
 
     /** Índice de la canción que se está reproduciendo actualmente. */
     private int indiceActual = 0;
 
     /**
-     * Constructor que inicializa la lista de canciones.
+     * Constructor que inicializa la cola de reproducción.
      *
-     * @param canciones Lista de canciones en formato byte[]
+     * @param idsCanciones IDs de las canciones en orden de reproducción
      */
-    public GestorPlaylist(List<byte[]> canciones) {
-        this.canciones = canciones;
+    public GestorPlaylist(List<Integer> idsCanciones) {
+        this.idsCanciones = idsCanciones != null ? idsCanciones : new ArrayList<>();
     }
 
     /**
-     * Devuelve la canción actual en reproducción.
+     * Devuelve el ID de la canción actual.
      *
-     * @return Arreglo de bytes correspondiente a la canción actual
+     * @return ID de la canción actual, o null si la cola está vacía
      */
-    public byte[] obtenerCancionActual() {
-        return canciones.get(indiceActual);
+    public Integer obtenerIdCancionActual() {
+        if (idsCanciones.isEmpty() || indiceActual < 0 || indiceActual >= idsCanciones.size()) {
+            return null;
+        }
+        return idsCanciones.get(indiceActual);
+    }
+
+    /**
+     * Devuelve el ID de la canción que sonará después de la actual, para precargar su audio.
+     *
+     * @return ID de la siguiente canción (circular), o null si la cola está vacía
+     */
+    public Integer obtenerIdCancionSiguiente() {
+        if (idsCanciones.isEmpty()) {
+            return null;
+        }
+        return idsCanciones.get((indiceActual + 1) % idsCanciones.size());
     }
 
     /**
@@ -40,7 +58,9 @@ public class GestorPlaylist {
      * Si está en la última, vuelve al inicio (comportamiento circular).
      */
     public void siguiente() {
-        indiceActual = (indiceActual + 1) % canciones.size();
+        if (!idsCanciones.isEmpty()) {
+            indiceActual = (indiceActual + 1) % idsCanciones.size();
+        }
     }
 
     /**
@@ -48,7 +68,9 @@ public class GestorPlaylist {
      * Si está en la primera, salta a la última (comportamiento circular).
      */
     public void anterior() {
-        indiceActual = (indiceActual - 1 + canciones.size()) % canciones.size();
+        if (!idsCanciones.isEmpty()) {
+            indiceActual = (indiceActual - 1 + idsCanciones.size()) % idsCanciones.size();
+        }
     }
 
     /**
@@ -77,21 +99,21 @@ public class GestorPlaylist {
     }
 
     /**
-     * Devuelve la lista completa de canciones.
+     * Devuelve los IDs de la cola de reproducción.
      *
-     * @return Lista de canciones en formato byte[]
+     * @return Lista de IDs de canciones
      */
-    public List<byte[]> getCanciones() {
-        return canciones;
+    public List<Integer> getIdsCanciones() {
+        return idsCanciones;
     }
 
     /**
-     * Reemplaza la lista de canciones y reinicia la posición actual.
+     * Reemplaza la cola de reproducción y reinicia la posición actual.
      *
-     * @param nuevaLista Nueva lista de canciones
+     * @param nuevaLista Nuevos IDs de canciones; null equivale a una cola vacía
      */
-    public void setCanciones(List<byte[]> nuevaLista) {
-        this.canciones = nuevaLista;
+    public void setIdsCanciones(List<Integer> nuevaLista) {
+        this.idsCanciones = nuevaLista != null ? nuevaLista : new ArrayList<>();
         reiniciar();
     }
 }
@@ -0,0 +1,492 @@
+package BusinessLogic;
+
+import BusinessLogic.utilities.AnalizadorMP3;
+import BusinessLogic.utilities.GeneradorMiniaturas;
+import BusinessLogic.utilities.HistogramaLatencias;
+import BusinessLogic.utilities.LectorID3;
+import BusinessLogic.utilities.NormalizadorTexto;
+import DataAccessComponent.DAO.ArtistaDAO;
+import DataAccessComponent.DAO.ImportacionDAO;
+import DataAccessComponent.DTO.ArchivoImportadoDTO;
+import DataAccessComponent.DTO.ArtistaDTO;
+import DataAccessComponent.DTO.CancionDTO;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Clase que importa a la base de datos todos los MP3 de una carpeta y sus subcarpetas, sin
+ * pasar por la pantalla de subida de canciones.
+ *
+ * <p>La importación es una tubería de tres etapas unidas por colas acotadas, para que la
+ * memoria usada no dependa del tamaño de la biblioteca:</p>
+ * <ol>
+ *     <li>Un {@link ForkJoinPool} recorre los directorios en paralelo y encola los archivos
+ *     {@code .mp3} que no se importaron antes.</li>
+ *     <li>Varios hilos lectores cargan cada archivo, leen sus etiquetas ID3 con
+ *     {@link LectorID3} (título, artistas, año, géneros y portada) y lo analizan con
+ *     {@link AnalizadorMP3}; los archivos que no son un MP3 válido se descartan.</li>
+ *     <li>El hilo que llamó a {@link #ejecutar(Path)} junta las canciones en lotes de hasta
+ *     {@link #TAMANIO_LOTE} canciones o {@link #BYTES_LOTE} bytes de audio, crea los artistas
+ *     que aún no existen y guarda cada lote en una sola transacción con
+ *     {@link ImportacionDAO#registrarLote(List)}.</li>
+ * </ol>
+ *
+ * <p>Cada archivo queda registrado en la misma transacción que su canción, así que si el
+ * proceso se interrumpe basta con volver a ejecutarlo: los archivos ya importados se omiten.
+ * Los que cambiaron desde entonces también se omiten, para no duplicar la canción, y se
+ * informan en {@link #resumen()}.</p>
+ *
+ * <p>Uso: {@code java BusinessLogic.ImportadorBiblioteca carpeta [hilos]}</p>
+ *
+ * @author Grupo B
+ * @version 1.0
+ * @since 25-07-2025
+ *
+ * @see ActualizadorMetadatosAudio
+ */
+public class ImportadorBiblioteca {
+
+    /** Canciones por transacción */
+    public static final int TAMANIO_LOTE = 200;
+
+    /** Bytes de audio por transacción; un lote se guarda antes si los supera */
+    public static final long BYTES_LOTE = 64L * 1024 * 1024;
+
+    /** Archivos encontrados que esperan a un lector */
+    private static final int CAPACIDAD_ARCHIVOS = 1024;
+
+    /** Artista de las canciones cuya etiqueta no trae ninguno */
+    private static final String ARTISTA_DESCONOCIDO = "Artista desconocido";
+
+    /** Marca de fin en las colas; se compara por identidad */
+    private static final ArchivoImportadoDTO FIN = new ArchivoImportadoDTO("", 0, 0, null);
+
+    /**
+     * Nombres de géneros ID3 habituales (normalizados con {@link NormalizadorTexto}) que no
+     * coinciden con el nombre de ningún {@link Genero}.
+     */
+    private static final Map<String, Genero> SINONIMOS_GENERO = new HashMap<>();
+
+    static {
+        SINONIMOS_GENERO.put("alternative", Genero.ROCK_ALTERNATIVO);
+        SINONIMOS_GENERO.put("alternrock", Genero.ROCK_ALTERNATIVO);
+        SINONIMOS_GENERO.put("alternative rock", Genero.ROCK_ALTERNATIVO);
+        SINONIMOS_GENERO.put("indie rock", Genero.ROCK_ALTERNATIVO);
+        SINONIMOS_GENERO.put("grunge", Genero.ROCK_ALTERNATIVO);
+        SINONIMOS_GENERO.put("classic rock", Genero.ROCK);
+        SINONIMOS_GENERO.put("hard rock", Genero.ROCK);
+        SINONIMOS_GENERO.put("southern rock", Genero.ROCK);
+        SINONIMOS_GENERO.put("rock roll", Genero.ROCK);
+        SINONIMOS_GENERO.put("soundtrack", Genero.MOVIE_OST);
+        SINONIMOS_GENERO.put("showtunes", Genero.MOVIE_OST);
+        SINONIMOS_GENERO.put("game", Genero.GAME_OST);
+        SINONIMOS_GENERO.put("video game", Genero.GAME_OST);
+        SINONIMOS_GENERO.put("classical", Genero.CLASICA);
+        SINONIMOS_GENERO.put("hip hop", Genero.RAP);
+        SINONIMOS_GENERO.put("gangsta", Genero.RAP);
+        SINONIMOS_GENERO.put("christian rap", Genero.RAP);
+        SINONIMOS_GENERO.put("kpop", Genero.K_POP);
+        SINONIMOS_GENERO.put("jpop", Genero.J_POP);
+        SINONIMOS_GENERO.put("symphonic metal", Genero.METAL_SINFONICO);
+        SINONIMOS_GENERO.put("waltz", Genero.VALS);
+        SINONIMOS_GENERO.put("regional mexican", Genero.REGIONAL_MEXICANA);
+        SINONIMOS_GENERO.put("reggaeton", Genero.REGGAETON);
+        SINONIMOS_GENERO.put("latin trap", Genero.TRAP_LATINO);
+        SINONIMOS_GENERO.put("top 40", Genero.POP);
+    }
+
+    private final ImportacionDAO importacionDAO = new ImportacionDAO();
+    private final ArtistaDAO artistaDAO = new ArtistaDAO();
+    private final HistogramaLatencias histogramaLotes = HistogramaLatencias.de("importacion.lote");
+
+    /** Hilos del recorrido de directorios y cantidad de lectores */
+    private final int paralelismo;
+
+    /** Se activa si el guardado falla, para que el recorrido y los lectores terminen */
+    private volatile boolean detenido;
+
+    /** IDs de los artistas ya resueltos, por nombre en minúsculas */
+    private final Map<String, Integer> idsArtistas = new HashMap<>();
+
+    private final AtomicInteger encontrados = new AtomicInteger();
+    private final AtomicInteger omitidos = new AtomicInteger();
+    private final AtomicInteger modificados = new AtomicInteger();
+    private final AtomicInteger invalidos = new AtomicInteger();
+    private int importadas;
+    private int artistasCreados;
+    private long bytesImportados;
+    private long nanosTotales;
+
+    /**
+     * Constructor que usa un hilo por núcleo disponible.
+     */
+    public ImportadorBiblioteca() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @param paralelismo Cantidad de hilos lectores (al menos 1)
+     */
+    public ImportadorBiblioteca(int paralelismo) {
+        this.paralelismo = Math.max(1, paralelismo);
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length == 0) {
+            System.err.println("Uso: java BusinessLogic.ImportadorBiblioteca carpeta [hilos]");
+            System.exit(1);
+        }
+        ImportadorBiblioteca importador = args.length > 1
+                ? new ImportadorBiblioteca(Integer.parseInt(args[1]))
+                : new ImportadorBiblioteca();
+        importador.ejecutar(Paths.get(args[0]));
+        System.out.println(importador.resumen());
+        System.out.println(importador.histogramaLotes.resumen());
+    }
+
+    /**
+     * Importa todos los MP3 de una carpeta que no se hayan importado antes.
+     *
+     * @param carpeta Carpeta raíz de la biblioteca
+     * @return Cantidad de canciones importadas en esta ejecución
+     * @throws Exception si la carpeta no existe o si ocurre un error al escribir en la base
+     *                   de datos; los lotes guardados antes del error se conservan
+     */
+    public int ejecutar(Path carpeta) throws Exception {
+        if (!Files.isDirectory(carpeta)) {
+            throw new Exception("La carpeta " + carpeta + " no existe");
+        }
+        Map<String, String> importados = importacionDAO.buscarArchivosImportados();
+        BlockingQueue<ArchivoImportadoDTO> archivos = new ArrayBlockingQueue<>(CAPACIDAD_ARCHIVOS);
+        BlockingQueue<ArchivoImportadoDTO> leidos = new ArrayBlockingQueue<>(2 * paralelismo);
+        long inicio = System.nanoTime();
+        int importadasAntes = importadas;
+
+        ForkJoinPool recorrido = new ForkJoinPool(paralelismo);
+        Thread recorredor = new Thread(() -> {
+            try {
+                recorrido.invoke(new TareaRecorrido(carpeta.toAbsolutePath().normalize(), importados, archivos));
+            } catch (Exception e) {
+                System.err.println("Error al recorrer " + carpeta + ": " + e.getMessage());
+            } finally {
+                for (int i = 0; i < paralelismo; i++) {
+                    poner(archivos, FIN);
+                }
+            }
+        }, "importacion-recorrido");
+        recorredor.setDaemon(true);
+
+        ExecutorService lectores = Executors.newFixedThreadPool(paralelismo, tarea -> {
+            Thread hilo = new Thread(tarea, "importacion-lector");
+            hilo.setDaemon(true);
+            return hilo;
+        });
+
+        try {
+            recorredor.start();
+            for (int i = 0; i < paralelismo; i++) {
+                lectores.execute(() -> leerArchivos(archivos, leidos));
+            }
+
+            List<ArchivoImportadoDTO> lote = new ArrayList<>();
+            long bytesLote = 0;
+            int lectoresTerminados = 0;
+            while (lectoresTerminados < paralelismo) {
+                ArchivoImportadoDTO leido = leidos.take();
+                if (leido == FIN) {
+                    lectoresTerminados++;
+                    continue;
+                }
+                lote.add(leido);
+                bytesLote += leido.getTamanio();
+                if (lote.size() >= TAMANIO_LOTE || bytesLote >= BYTES_LOTE) {
+                    guardar(lote, bytesLote, inicio);
+                    lote.clear();
+                    bytesLote = 0;
+                }
+            }
+            guardar(lote, bytesLote, inicio);
+        } catch (Exception e) {
+            detenido = true;
+            throw new Exception("Error al importar la biblioteca: " + e.getMessage(), e);
+        } finally {
+            nanosTotales += System.nanoTime() - inicio;
+            lectores.shutdownNow();
+            recorrido.shutdownNow();
+            if (importadas > importadasAntes) {
+                IndiceSimilitud.getInstancia().invalidar();
+                MotorBusqueda.getInstancia().invalidar(MotorBusqueda.Tipo.CANCION, MotorBusqueda.Tipo.ARTISTA);
+            }
+        }
+        return importadas - importadasAntes;
+    }
+
+    /**
+     * Recorre un directorio: encola sus archivos MP3 y reparte sus subdirectorios en tareas
+     * propias.
+     */
+    private final class TareaRecorrido extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final Path directorio;
+        private final Map<String, String> importados;
+        private final BlockingQueue<ArchivoImportadoDTO> archivos;
+
+        private TareaRecorrido(Path directorio, Map<String, String> importados,
+                               BlockingQueue<ArchivoImportadoDTO> archivos) {
+            this.directorio = directorio;
+            this.importados = importados;
+            this.archivos = archivos;
+        }
+
+        @Override
+        protected void compute() {
+            List<TareaRecorrido> subdirectorios = new ArrayList<>();
+            try (DirectoryStream<Path> entradas = Files.newDirectoryStream(directorio)) {
+                for (Path entrada : entradas) {
+                    if (detenido) {
+                        return;
+                    }
+                    BasicFileAttributes atributos = Files.readAttributes(entrada, BasicFileAttributes.class);
+                    if (atributos.isDirectory()) {
+                        subdirectorios.add(new TareaRecorrido(entrada, importados, archivos));
+                    } else if (atributos.isRegularFile() && esMP3(entrada)) {
+                        encolar(entrada.toString(), atributos);
+                    }
+                }
+            } catch (IOException e) {
+                System.err.println("Error al leer el directorio " + directorio + ": " + e.getMessage());
+            }
+            invokeAll(subdirectorios);
+        }
+
+        private void encolar(String ruta, BasicFileAttributes atributos) {
+            encontrados.incrementAndGet();
+            long modificado = atributos.lastModifiedTime().toMillis();
+            String huellaAnterior = importados.get(ruta);
+            if (huellaAnterior != null) {
+                omitidos.incrementAndGet();
+                if (!huellaAnterior.equals(ImportacionDAO.huella(atributos.size(), modificado))) {
+                    modificados.incrementAndGet();
+                }
+                return;
+            }
+            poner(archivos, new ArchivoImportadoDTO(ruta, atributos.size(), modificado, null));
+        }
+    }
+
+    /**
+     * Ciclo de un hilo lector: toma archivos hasta encontrar la marca de fin y entrega sus
+     * canciones a la cola de guardado.
+     */
+    private void leerArchivos(BlockingQueue<ArchivoImportadoDTO> archivos, BlockingQueue<ArchivoImportadoDTO> leidos) {
+        try {
+            while (!detenido) {
+                ArchivoImportadoDTO archivo = archivos.poll(100, TimeUnit.MILLISECONDS);
+                if (archivo == FIN) {
+                    break;
+                }
+                if (archivo != null) {
+                    ArchivoImportadoDTO leido = leer(archivo);
+                    if (leido != null) {
+                        poner(leidos, leido);
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            poner(leidos, FIN);
+        }
+    }
+
+    /**
+     * Carga un archivo y arma su canción a partir de las etiquetas ID3. Si la etiqueta no
+     * trae título se usa el nombre del archivo.
+     *
+     * @return El archivo con su canción, o null si no se puede leer o no es un MP3 válido
+     */
+    private ArchivoImportadoDTO leer(ArchivoImportadoDTO archivo) {
+        try {
+            byte[] audio = Files.readAllBytes(Paths.get(archivo.getRuta()));
+            AnalizadorMP3.Resultado resultado = AnalizadorMP3.analizar(audio);
+            if (!resultado.esValido()) {
+                invalidos.incrementAndGet();
+                return null;
+            }
+            LectorID3.Etiquetas etiquetas = LectorID3.leer(audio);
+            String titulo = etiquetas.getTitulo();
+            if (titulo == null || titulo.isBlank()) {
+                String nombre = Paths.get(archivo.getRuta()).getFileName().toString();
+                titulo = nombre.substring(0, nombre.length() - ".mp3".length());
+            }
+            List<Genero> generos = convertirGeneros(etiquetas.getGeneros());
+            List<ArtistaDTO> artistas = new ArrayList<>();
+            for (String nombre : separarArtistas(etiquetas.getArtistas())) {
+                artistas.add(new ArtistaDTO(nombre, generos, "", null));
+            }
+
+            CancionDTO cancion = new CancionDTO(titulo.trim(), resultado.getMetadatos().getDuracion(),
+                    etiquetas.getAnio() != null ? etiquetas.getAnio() : 0, LocalDateTime.now(), audio,
+                    etiquetas.getPortada(), artistas, generos);
+            cancion.setTablaBusqueda(resultado.getTablaBusqueda().serializar());
+            cancion.setMetadatosAudio(resultado.getMetadatos());
+            cancion.setPortadaMiniatura(GeneradorMiniaturas.generar(etiquetas.getPortada()));
+            return new ArchivoImportadoDTO(archivo.getRuta(), archivo.getTamanio(), archivo.getModificado(), cancion);
+        } catch (Exception e) {
+            invalidos.incrementAndGet();
+            System.err.println("Error al leer " + archivo.getRuta() + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Crea los artistas nuevos del lote, lo guarda e informa el avance.
+     */
+    private void guardar(List<ArchivoImportadoDTO> lote, long bytesLote, long inicio) throws Exception {
+        if (lote.isEmpty()) {
+            return;
+        }
+        long inicioLote = System.nanoTime();
+        for (ArchivoImportadoDTO archivo : lote) {
+            CancionDTO cancion = archivo.getCancion();
+            // Un mismo artista repetido en la etiqueta se asocia una sola vez
+            Map<Integer, ArtistaDTO> artistas = new LinkedHashMap<>();
+            for (ArtistaDTO artista : cancion.getArtistas()) {
+                artistas.putIfAbsent(resolverArtista(artista), artista);
+            }
+            cancion.setArtistas(new ArrayList<>(artistas.values()));
+        }
+        importadas += importacionDAO.registrarLote(lote);
+        bytesImportados += bytesLote;
+        long ahora = System.nanoTime();
+        histogramaLotes.registrar(ahora - inicioLote);
+
+        double segundos = Math.max(ahora - inicio, 1) / 1e9;
+        System.out.printf(Locale.ROOT, "Importación: %d canciones (%d omitidas, %d no válidas) - %.1f canciones/s, %.1f MB/s%n",
+                importadas, omitidos.get(), invalidos.get(), importadas / segundos,
+                bytesImportados / (1024.0 * 1024) / segundos);
+    }
+
+    /**
+     * Busca el artista por nombre y, si no existe, lo registra con los géneros de la canción.
+     *
+     * @return ID del artista, que además queda asignado en el DTO
+     */
+    private int resolverArtista(ArtistaDTO artista) throws Exception {
+        String clave = artista.getNombre().toLowerCase(Locale.ROOT);
+        Integer id = idsArtistas.get(clave);
+        if (id == null) {
+            ArtistaDTO existente = artistaDAO.buscarPorNombre(artista.getNombre());
+            if (existente != null) {
+                id = existente.getId();
+            } else {
+                artistaDAO.registrar(artista);
+                artistasCreados++;
+                id = artista.getId();
+            }
+            idsArtistas.put(clave, id);
+        }
+        artista.setId(id);
+        return id;
+    }
+
+    /**
+     * Separa los artistas que vienen juntos en un mismo valor ({@code "A; B"} o {@code "A / B"}).
+     *
+     * @return Nombres sin repetir; {@link #ARTISTA_DESCONOCIDO} si no hay ninguno
+     */
+    private static List<String> separarArtistas(List<String> valores) {
+        List<String> nombres = new ArrayList<>();
+        for (String valor : valores) {
+            for (String nombre : valor.split(";|\\s/\\s")) {
+                String limpio = nombre.trim();
+                if (!limpio.isEmpty() && !nombres.contains(limpio)) {
+                    nombres.add(limpio);
+                }
+            }
+        }
+        if (nombres.isEmpty()) {
+            nombres.add(ARTISTA_DESCONOCIDO);
+        }
+        return nombres;
+    }
+
+    /**
+     * Convierte los géneros de la etiqueta a {@link Genero}, por su nombre o por
+     * {@link #SINONIMOS_GENERO}. Los que no corresponden a ninguno se ignoran.
+     */
+    private static List<Genero> convertirGeneros(List<String> nombres) {
+        List<Genero> generos = new ArrayList<>();
+        for (String nombre : nombres) {
+            String normalizado = NormalizadorTexto.normalizar(nombre);
+            Genero genero = SINONIMOS_GENERO.get(normalizado);
+            if (genero == null) {
+                for (Genero candidato : Genero.values()) {
+                    String nombreCandidato = NormalizadorTexto.normalizar(candidato.name());
+                    if (nombreCandidato.equals(normalizado) || nombreCandidato.replace(" ", "").equals(normalizado)) {
+                        genero = candidato;
+                        break;
+                    }
+                }
+            }
+            if (genero != null && !generos.contains(genero)) {
+                generos.add(genero);
+            }
+        }
+        return generos;
+    }
+
+    private static boolean esMP3(Path archivo) {
+        return archivo.getFileName().toString().toLowerCase(Locale.ROOT).endsWith(".mp3");
+    }
+
+    /**
+     * Encola esperando a que haya espacio, salvo que la importación se detenga.
+     *
+     * @return true si se encoló
+     */
+    private <T> boolean poner(BlockingQueue<T> cola, T elemento) {
+        try {
+            while (!detenido) {
+                if (cola.offer(elemento, 100, TimeUnit.MILLISECONDS)) {
+                    return true;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return false;
+    }
+
+    /**
+     * @return Resumen legible de lo importado por esta instancia
+     */
+    public String resumen() {
+        double segundos = Math.max(nanosTotales, 1) / 1e9;
+        return String.format(Locale.ROOT, "Importación: encontrados=%d importadas=%d omitidos=%d (modificados=%d) "
+                        + "no válidos=%d artistas creados=%d hilos=%d - %.1f canciones/s, %.1f MB/s en %d ms",
+                encontrados.get(), importadas, omitidos.get(), modificados.get(), invalidos.get(), artistasCreados,
+                paralelismo, importadas / segundos, bytesImportados / (1024.0 * 1024) / segundos, nanosTotales / 1_000_000);
+    }
+}
@@ -0,0 +1,329 @@
+package BusinessLogic;
+
+import BusinessLogic.utilities.MejoresK;
+import DataAccessComponent.DAO.CancionDAO;
+import DataAccessComponent.DTO.RasgosCancionDTO;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Índice en memoria con un vector de rasgos por canción para recomendar por similitud.
+ *
+ * <p>Cada canción se describe con {@link #DIMENSIONES} valores: sus géneros, los géneros de
+ * sus artistas, sus artistas (repartidos en {@link #CUBETAS_ARTISTA} cubetas), el año y la
+ * duración. El año y la duración se codifican como un ángulo, de modo que dos canciones
+ * cercanas en el tiempo o en duración suman más que dos lejanas. Los vectores se normalizan,
+ * así que el producto punto entre dos de ellos es su similitud coseno.</p>
+ *
+ * <p>Todos los vectores viven en un único {@code float[]} de {@code canciones × DIMENSIONES}
+ * posiciones, contiguo en memoria. Una consulta recorre solo las dimensiones no nulas del
+ * vector de consulta, reparte las filas entre los núcleos y cada parte conserva sus
+ * mejores {@code k} en un montículo; al final se combinan los montículos. No se ordena el
+ * catálogo completo.</p>
+ *
+ * <p>El índice se construye la primera vez que se consulta, con las tres consultas de
+ * {@link CancionDAO#buscarRasgos()}, y se descarta con {@link #invalidar()} cuando cambia el
+ * catálogo; la siguiente consulta lo vuelve a construir. Una construcción solo se publica si
+ * no hubo invalidaciones mientras leía los rasgos, así que un cambio del catálogo durante la
+ * lectura no queda oculto tras una matriz vieja.</p>
+ *
+ * @author Grupo F - InkHarmony Team
+ */
+public final class IndiceSimilitud {
+
+    /** Cubetas en que se reparten los artistas */
+    public static final int CUBETAS_ARTISTA = 16;
+
+    private static final int GENEROS = Genero.values().length;
+    private static final int INICIO_GENEROS_ARTISTAS = GENEROS;
+    private static final int INICIO_ARTISTAS = INICIO_GENEROS_ARTISTAS + GENEROS;
+    private static final int INICIO_ANIO = INICIO_ARTISTAS + CUBETAS_ARTISTA;
+    private static final int INICIO_DURACION = INICIO_ANIO + 2;
+
+    /** Valores por canción */
+    public static final int DIMENSIONES = INICIO_DURACION + 2;
+
+    /** Peso de cada grupo de rasgos antes de normalizar */
+    private static final float PESO_GENEROS = 1.0f;
+    private static final float PESO_GENEROS_ARTISTAS = 0.6f;
+    private static final float PESO_ARTISTAS = 0.8f;
+    private static final float PESO_ANIO = 0.4f;
+    private static final float PESO_DURACION = 0.3f;
+
+    private static final int ANIO_MINIMO = 1950;
+    private static final int ANIO_MAXIMO = 2030;
+    private static final double DURACION_MAXIMA = 600.0;
+
+    /** Filas por debajo de las cuales no conviene repartir el cálculo entre hilos */
+    private static final int UMBRAL_PARALELO = 20_000;
+
+    private static final IndiceSimilitud INSTANCIA = new IndiceSimilitud();
+
+    private final CancionDAO cancionDAO = new CancionDAO();
+
+    /** Matriz vigente, o null si debe reconstruirse */
+    private volatile Matriz matriz;
+
+    /** Aumenta con cada invalidación; una matriz solo se publica si no cambió mientras se construía */
+    private long version;
+
+    /** Serializa las construcciones sin bloquear a {@link #invalidar()} mientras se leen los rasgos */
+    private final Object construccion = new Object();
+
+    private int construcciones;
+    private long msUltimaConstruccion;
+
+    private IndiceSimilitud() {
+    }
+
+    /**
+     * @return Instancia única del índice
+     */
+    public static IndiceSimilitud getInstancia() {
+        return INSTANCIA;
+    }
+
+    /**
+     * Descarta los vectores actuales; se recalculan en la siguiente consulta.
+     */
+    public synchronized void invalidar() {
+        version++;
+        matriz = null;
+    }
+
+    /**
+     * Busca las canciones más parecidas a un conjunto de canciones semilla.
+     *
+     * <p>Con una semilla se compara contra su vector; con varias (por ejemplo, el historial
+     * del usuario) contra el promedio de sus vectores. Las semillas nunca forman parte del
+     * resultado.</p>
+     *
+     * @param semillas IDs de las canciones de referencia; los que no existen se ignoran
+     * @param cantidad Cantidad máxima de canciones a devolver
+     * @param candidatas IDs entre los que se busca, o null para buscar en todo el catálogo
+     * @return IDs de canción de la más a la menos parecida; vacía si ninguna semilla existe
+     * @throws Exception si no se pueden leer los rasgos del catálogo
+     */
+    public List<Integer> masSimilares(Collection<Integer> semillas, int cantidad, Collection<Integer> candidatas) throws Exception {
+        Matriz m = matriz();
+        float[] consulta = new float[DIMENSIONES];
+        BitSet excluidas = new BitSet(m.ids.length);
+        for (Integer semilla : semillas) {
+            int fila = m.fila(semilla);
+            if (fila >= 0 && !excluidas.get(fila)) {
+                excluidas.set(fila);
+                for (int d = 0; d < DIMENSIONES; d++) {
+                    consulta[d] += m.vectores[fila * DIMENSIONES + d];
+                }
+            }
+        }
+        if (excluidas.isEmpty() || cantidad <= 0 || normalizar(consulta, 0, DIMENSIONES, 1f) == 0) {
+            return new ArrayList<>();
+        }
+
+        BitSet permitidas = null;
+        if (candidatas != null) {
+            permitidas = new BitSet(m.ids.length);
+            for (Integer id : candidatas) {
+                int fila = m.fila(id);
+                if (fila >= 0) {
+                    permitidas.set(fila);
+                }
+            }
+            permitidas.andNot(excluidas);
+        }
+
+        int[] dimensiones = IntStream.range(0, DIMENSIONES).filter(d -> consulta[d] != 0).toArray();
+        int filas = m.ids.length;
+        int partes = filas < UMBRAL_PARALELO ? 1 : Runtime.getRuntime().availableProcessors() * 4;
+        int porParte = (filas + partes - 1) / partes;
+        BitSet filtro = permitidas;
+
+        MejoresK mejores = IntStream.range(0, partes).parallel()
+                .mapToObj(p -> m.puntuar(consulta, dimensiones, p * porParte, Math.min(filas, (p + 1) * porParte),
+                        filtro, excluidas, cantidad))
+                .reduce(MejoresK::combinar)
+                .orElseGet(() -> new MejoresK(cantidad));
+
+        List<Integer> ids = new ArrayList<>(cantidad);
+        for (int fila : mejores.filasOrdenadas()) {
+            ids.add(m.ids[fila]);
+        }
+        return ids;
+    }
+
+    /**
+     * Calcula la similitud coseno entre dos canciones.
+     *
+     * @return Valor entre 0 y 1, o NaN si alguna no existe
+     * @throws Exception si no se pueden leer los rasgos del catálogo
+     */
+    public float similitud(int idA, int idB) throws Exception {
+        Matriz m = matriz();
+        int a = m.fila(idA);
+        int b = m.fila(idB);
+        if (a < 0 || b < 0) {
+            return Float.NaN;
+        }
+        float suma = 0;
+        for (int d = 0; d < DIMENSIONES; d++) {
+            suma += m.vectores[a * DIMENSIONES + d] * m.vectores[b * DIMENSIONES + d];
+        }
+        return suma;
+    }
+
+    /**
+     * @return Resumen legible del índice
+     */
+    public synchronized String resumen() {
+        Matriz m = matriz;
+        return String.format("Índice de similitud: canciones=%d dimensiones=%d memoria=%d KB construcciones=%d última=%d ms",
+                m != null ? m.ids.length : 0, DIMENSIONES, m != null ? m.vectores.length * 4L / 1024 : 0,
+                construcciones, msUltimaConstruccion);
+    }
+
+    private Matriz matriz() throws Exception {
+        Matriz m = matriz;
+        if (m != null) {
+            return m;
+        }
+        synchronized (construccion) {
+            long versionLectura;
+            synchronized (this) {
+                if (matriz != null) {
+                    return matriz;
+                }
+                versionLectura = version;
+            }
+            long inicio = System.nanoTime();
+            m = construir(cancionDAO.buscarRasgos());
+            synchronized (this) {
+                construcciones++;
+                msUltimaConstruccion = (System.nanoTime() - inicio) / 1_000_000;
+                if (versionLectura == version) {
+                    matriz = m;
+                }
+            }
+            // Si se invalidó mientras tanto, esta consulta usa lo leído y la siguiente reconstruye
+            return m;
+        }
+    }
+
+    private static Matriz construir(List<RasgosCancionDTO> rasgos) {
+        int[] ids = new int[rasgos.size()];
+        float[] vectores = new float[rasgos.size() * DIMENSIONES];
+        for (int fila = 0; fila < ids.length; fila++) {
+            RasgosCancionDTO r = rasgos.get(fila);
+            ids[fila] = r.getIdCancion();
+            vectorizar(r, vectores, fila * DIMENSIONES);
+        }
+        return new Matriz(ids, vectores);
+    }
+
+    /**
+     * Escribe el vector normalizado de una canción a partir de la posición indicada.
+     */
+    private static void vectorizar(RasgosCancionDTO r, float[] v, int base) {
+        for (int genero : r.getGeneros()) {
+            if (genero >= 1 && genero <= GENEROS) {
+                v[base + genero - 1] = 1;
+            }
+        }
+        normalizar(v, base, GENEROS, PESO_GENEROS);
+
+        for (int genero : r.getGenerosArtistas()) {
+            if (genero >= 1 && genero <= GENEROS) {
+                v[base + INICIO_GENEROS_ARTISTAS + genero - 1]++;
+            }
+        }
+        normalizar(v, base + INICIO_GENEROS_ARTISTAS, GENEROS, PESO_GENEROS_ARTISTAS);
+
+        for (int artista : r.getArtistas()) {
+            // Multiplicación de Fibonacci para repartir IDs consecutivos entre las cubetas
+            v[base + INICIO_ARTISTAS + ((artista * 0x9E3779B1) >>> 28)]++;
+        }
+        normalizar(v, base + INICIO_ARTISTAS, CUBETAS_ARTISTA, PESO_ARTISTAS);
+
+        if (r.getAnio() > 0) {
+            angulo(v, base + INICIO_ANIO, (double) (r.getAnio() - ANIO_MINIMO) / (ANIO_MAXIMO - ANIO_MINIMO), PESO_ANIO);
+        }
+        if (r.getDuracion() > 0) {
+            angulo(v, base + INICIO_DURACION, r.getDuracion() / DURACION_MAXIMA, PESO_DURACION);
+        }
+        normalizar(v, base, DIMENSIONES, 1f);
+    }
+
+    /**
+     * Codifica un valor entre 0 y 1 como un punto del primer cuadrante de radio {@code peso}.
+     */
+    private static void angulo(float[] v, int posicion, double valor, float peso) {
+        double theta = Math.max(0, Math.min(1, valor)) * Math.PI / 2;
+        v[posicion] = (float) (peso * Math.cos(theta));
+        v[posicion + 1] = (float) (peso * Math.sin(theta));
+    }
+
+    /**
+     * Escala un tramo del arreglo para que su norma sea {@code norma}.
+     *
+     * @return Norma original del tramo
+     */
+    private static float normalizar(float[] v, int desde, int largo, float norma) {
+        double suma = 0;
+        for (int i = desde; i < desde + largo; i++) {
+            suma += v[i] * v[i];
+        }
+        float original = (float) Math.sqrt(suma);
+        if (original > 0) {
+            float escala = norma / original;
+            for (int i = desde; i < desde + largo; i++) {
+                v[i] *= escala;
+            }
+        }
+        return original;
+    }
+
+    /**
+     * Vectores del catálogo en un momento dado; no se modifica después de construirse.
+     */
+    private static final class Matriz {
+        /** IDs de canción en orden ascendente; la fila i corresponde a ids[i] */
+        private final int[] ids;
+        private final float[] vectores;
+
+        private Matriz(int[] ids, float[] vectores) {
+            this.ids = ids;
+            this.vectores = vectores;
+        }
+
+        private int fila(int idCancion) {
+            int fila = Arrays.binarySearch(ids, idCancion);
+            return fila >= 0 ? fila : -1;
+        }
+
+        /**
+         * Puntúa las filas {@code desde..hasta-1} y conserva las mejores.
+         */
+        private MejoresK puntuar(float[] consulta, int[] dimensiones, int desde, int hasta,
+                                 BitSet permitidas, BitSet excluidas, int cantidad) {
+            MejoresK mejores = new MejoresK(cantidad);
+            int fila = permitidas != null ? permitidas.nextSetBit(desde) : desde;
+            while (fila >= 0 && fila < hasta) {
+                if (permitidas != null || !excluidas.get(fila)) {
+                    int base = fila * DIMENSIONES;
+                    float puntaje = 0;
+                    for (int d : dimensiones) {
+                        puntaje += vectores[base + d] * consulta[d];
+                    }
+                    mejores.ofrecer(fila, puntaje);
+                }
+                fila = permitidas != null ? permitidas.nextSetBit(fila + 1) : fila + 1;
+            }
+            return mejores;
+        }
+    }
+}
@@ -0,0 +1,546 @@
+package BusinessLogic;
+
+import BusinessLogic.utilities.MejoresK;
+import BusinessLogic.utilities.NormalizadorTexto;
+import DataAccessComponent.DAO.ArtistaDAO;
+import DataAccessComponent.DAO.CancionDAO;
+import DataAccessComponent.DAO.PlaylistDAO;
+import DataAccessComponent.DTO.DocumentoBusquedaDTO;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.ToIntFunction;
+
+/**
+ * Índice invertido en memoria para buscar canciones, artistas y playlists por texto.
+ *
+ * <p>Cada elemento se indexa con tres campos de {@link DocumentoBusquedaDTO} (título,
+ * detalle y etiquetas) normalizados con {@link NormalizadorTexto}, de modo que la búsqueda
+ * no distingue tildes ni mayúsculas. Por cada palabra distinta se guarda la lista de filas
+ * y campos donde aparece; las palabras se ordenan alfabéticamente para encontrar por
+ * búsqueda binaria todas las que empiezan con lo que se lleva escrito.</p>
+ *
+ * <p>Cada palabra de la consulta se compara contra el diccionario de tres formas, de mayor
+ * a menor puntaje:</p>
+ * <ul>
+ *   <li>Exacta: la palabra existe tal cual.</li>
+ *   <li>Prefijo: la palabra es el comienzo de otra ("cora" encuentra "corazón"); cuanto
+ *       más completa, más puntaje.</li>
+ *   <li>Aproximada: si la palabra no existe y tiene al menos {@link #LARGO_MINIMO_APROXIMADO}
+ *       letras, se aceptan palabras a una edición (dos desde {@link #LARGO_DOS_EDICIONES}
+ *       letras), contando como una sola edición el intercambio de dos letras vecinas.</li>
+ * </ul>
+ *
+ * <p>Un resultado debe contener todas las palabras de la consulta en alguno de sus campos.
+ * Su puntaje suma, por cada palabra, la mejor coincidencia multiplicada por el peso del
+ * campo según {@link Tipo}; si el título empieza con la consulta completa recibe además
+ * {@link #BONO_INICIO_TITULO}. Los mejores se eligen con un montículo, sin ordenar todas
+ * las coincidencias.</p>
+ *
+ * <p>Cada índice se construye la primera vez que se consulta su tipo, con una sola consulta
+ * sin datos binarios, o antes con {@link #precargar()}. {@link #invalidar(Tipo...)} lo
+ * descarta cuando cambia el catálogo y la siguiente consulta lo vuelve a construir.</p>
+ *
+ * @author Grupo F - InkHarmony Team
+ */
+public final class MotorBusqueda {
+
+    /**
+     * Elementos que se pueden buscar, con el peso de cada uno de sus campos.
+     */
+    public enum Tipo {
+        /** Título, artistas y géneros */
+        CANCION(3f, 2f, 1f),
+        /** Nombre, biografía y géneros */
+        ARTISTA(3f, 0.5f, 1f),
+        /** Título y descripción */
+        PLAYLIST(3f, 0.5f, 0f);
+
+        private final float[] pesos;
+
+        Tipo(float titulo, float detalle, float etiquetas) {
+            this.pesos = new float[]{titulo, detalle, etiquetas};
+        }
+    }
+
+    /** Campos de cada documento; ocupan los dos bits bajos de cada aparición */
+    private static final int CAMPO_TITULO = 0;
+    private static final int CAMPO_DETALLE = 1;
+    private static final int CAMPO_ETIQUETAS = 2;
+    private static final int BITS_CAMPO = 2;
+
+    private static final float CALIDAD_EXACTA = 1f;
+    /** Una palabra que solo es prefijo vale entre 0.5 y 0.8 según qué parte cubre */
+    private static final float CALIDAD_PREFIJO = 0.5f;
+    private static final float CALIDAD_PREFIJO_COBERTURA = 0.3f;
+    /** Calidad de una coincidencia aproximada a una y a dos ediciones */
+    private static final float[] CALIDAD_APROXIMADA = {0f, 0.45f, 0.3f};
+
+    private static final float BONO_INICIO_TITULO = 1f;
+
+    /** Letras a partir de las cuales se aceptan errores de tipeo */
+    public static final int LARGO_MINIMO_APROXIMADO = 4;
+    public static final int LARGO_DOS_EDICIONES = 8;
+
+    private static final MotorBusqueda INSTANCIA = new MotorBusqueda();
+
+    private final CancionDAO cancionDAO = new CancionDAO();
+    private final ArtistaDAO artistaDAO = new ArtistaDAO();
+    private final PlaylistDAO playlistDAO = new PlaylistDAO();
+
+    /** Índices vigentes; un tipo ausente debe reconstruirse */
+    private final Map<Tipo, Indice> indices = new ConcurrentHashMap<>();
+
+    /** Aumenta con cada invalidación para no publicar un índice leído antes de ella */
+    private final AtomicInteger generacion = new AtomicInteger();
+
+    private final AtomicLong consultas = new AtomicLong();
+    private final AtomicLong nanosConsultas = new AtomicLong();
+    private int construcciones;
+    private long msUltimaConstruccion;
+
+    private MotorBusqueda() {
+    }
+
+    /**
+     * @return Instancia única del motor
+     */
+    public static MotorBusqueda getInstancia() {
+        return INSTANCIA;
+    }
+
+    /**
+     * Descarta los índices de los tipos indicados, o todos si no se indica ninguno.
+     */
+    public void invalidar(Tipo... tipos) {
+        generacion.incrementAndGet();
+        if (tipos.length == 0) {
+            indices.clear();
+        }
+        for (Tipo tipo : tipos) {
+            indices.remove(tipo);
+        }
+    }
+
+    /**
+     * Construye en segundo plano los índices que falten, para que la primera búsqueda de
+     * una pantalla no tenga que esperarlos.
+     */
+    public void precargar() {
+        Thread hilo = new Thread(() -> {
+            for (Tipo tipo : Tipo.values()) {
+                try {
+                    indice(tipo);
+                } catch (Exception e) {
+                    System.err.println("Error al precargar el índice de búsqueda " + tipo + ": " + e.getMessage());
+                }
+            }
+        }, "motor-busqueda");
+        hilo.setDaemon(true);
+        hilo.start();
+    }
+
+    /**
+     * Busca elementos de un tipo por texto.
+     *
+     * @param tipo Tipo de elemento
+     * @param consulta Texto ingresado por el usuario
+     * @param limite Cantidad máxima de resultados
+     * @return IDs del más al menos relevante; vacía si la consulta no tiene palabras o si el
+     *         hilo se interrumpe durante la búsqueda (una búsqueda superada por otra)
+     * @throws Exception si no se pueden leer los textos del catálogo
+     */
+    public List<Integer> buscar(Tipo tipo, String consulta, int limite) throws Exception {
+        List<String> palabras = NormalizadorTexto.palabras(consulta);
+        if (palabras.isEmpty() || limite <= 0) {
+            return new ArrayList<>();
+        }
+        Indice indice = indice(tipo);
+        long inicio = System.nanoTime();
+        int[] filas = indice.buscar(palabras, String.join(" ", palabras), tipo.pesos, limite);
+        List<Integer> ids = new ArrayList<>(filas.length);
+        for (int fila : filas) {
+            ids.add(indice.ids[fila]);
+        }
+        consultas.incrementAndGet();
+        nanosConsultas.addAndGet(System.nanoTime() - inicio);
+        return ids;
+    }
+
+    /**
+     * Busca por texto dentro de una lista ya cargada y devuelve sus elementos en orden de
+     * relevancia. Los elementos que el índice no conoce quedan fuera.
+     *
+     * @param tipo Tipo de los elementos
+     * @param consulta Texto ingresado por el usuario
+     * @param elementos Elementos entre los que se busca
+     * @param id Función que obtiene el ID de cada elemento
+     * @return Elementos que coinciden, del más al menos relevante
+     * @throws Exception si no se pueden leer los textos del catálogo
+     */
+    public <T> List<T> filtrar(Tipo tipo, String consulta, List<T> elementos, ToIntFunction<T> id) throws Exception {
+        Map<Integer, T> porId = new HashMap<>(elementos.size() * 2);
+        for (T elemento : elementos) {
+            porId.putIfAbsent(id.applyAsInt(elemento), elemento);
+        }
+        List<T> resultado = new ArrayList<>();
+        for (Integer encontrado : buscar(tipo, consulta, Integer.MAX_VALUE)) {
+            T elemento = porId.get(encontrado);
+            if (elemento != null) {
+                resultado.add(elemento);
+            }
+        }
+        return resultado;
+    }
+
+    /**
+     * Compara un texto suelto con una consulta usando las mismas reglas que el índice, para
+     * listas pequeñas que no justifican uno (por ejemplo, los nombres de los géneros).
+     *
+     * @param texto Texto donde se busca
+     * @param consulta Texto ingresado por el usuario
+     * @return true si cada palabra de la consulta coincide exacta, como prefijo o de forma
+     *         aproximada con alguna palabra del texto; true si la consulta está vacía
+     */
+    public static boolean coincide(String texto, String consulta) {
+        List<String> palabrasTexto = NormalizadorTexto.palabras(texto);
+        for (String palabra : NormalizadorTexto.palabras(consulta)) {
+            int maximo = edicionesPermitidas(palabra);
+            int[][] filas = new int[3][palabra.length() + maximo + 1];
+            boolean encontrada = false;
+            for (String candidata : palabrasTexto) {
+                if (candidata.startsWith(palabra)
+                        || (maximo > 0 && distancia(palabra, candidata, maximo, filas) <= maximo)) {
+                    encontrada = true;
+                    break;
+                }
+            }
+            if (!encontrada) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return Resumen legible del motor
+     */
+    public synchronized String resumen() {
+        StringBuilder sb = new StringBuilder("Motor de búsqueda:");
+        for (Tipo tipo : Tipo.values()) {
+            Indice indice = indices.get(tipo);
+            sb.append(String.format(" %s=%d/%d", tipo.name().toLowerCase(),
+                    indice != null ? indice.ids.length : 0, indice != null ? indice.terminos.length : 0));
+        }
+        long total = consultas.get();
+        return sb.append(String.format(" (documentos/términos) consultas=%d promedio=%.2f ms construcciones=%d última=%d ms",
+                total, total > 0 ? nanosConsultas.get() / 1e6 / total : 0.0, construcciones, msUltimaConstruccion)).toString();
+    }
+
+    private Indice indice(Tipo tipo) throws Exception {
+        Indice indice = indices.get(tipo);
+        if (indice != null) {
+            return indice;
+        }
+        synchronized (this) {
+            indice = indices.get(tipo);
+            if (indice == null) {
+                int generacionLeida = generacion.get();
+                long inicio = System.nanoTime();
+                indice = Indice.construir(documentos(tipo));
+                // Si el catálogo cambió mientras se leía, se usa para esta consulta pero no se guarda
+                if (generacion.get() == generacionLeida) {
+                    indices.put(tipo, indice);
+                }
+                construcciones++;
+                msUltimaConstruccion = (System.nanoTime() - inicio) / 1_000_000;
+            }
+            return indice;
+        }
+    }
+
+    private List<DocumentoBusquedaDTO> documentos(Tipo tipo) throws Exception {
+        switch (tipo) {
+            case CANCION:
+                return cancionDAO.buscarDocumentosBusqueda();
+            case ARTISTA:
+                return artistaDAO.buscarDocumentosBusqueda();
+            default:
+                return playlistDAO.buscarDocumentosBusqueda();
+        }
+    }
+
+    /**
+     * @return Ediciones que se toleran en una palabra de la consulta
+     */
+    private static int edicionesPermitidas(String palabra) {
+        if (palabra.length() >= LARGO_DOS_EDICIONES) {
+            return 2;
+        }
+        return palabra.length() >= LARGO_MINIMO_APROXIMADO ? 1 : 0;
+    }
+
+    /**
+     * Distancia de edición entre dos palabras (inserción, borrado, sustitución o intercambio
+     * de dos letras vecinas), acotada: deja de calcular en cuanto supera {@code maximo}.
+     *
+     * @param filas Tres filas de trabajo de al menos {@code b.length() + 1} posiciones
+     * @return Distancia, o {@code maximo + 1} si es mayor que {@code maximo}
+     */
+    private static int distancia(String a, String b, int maximo, int[][] filas) {
+        int la = a.length();
+        int lb = b.length();
+        if (Math.abs(la - lb) > maximo) {
+            return maximo + 1;
+        }
+        int[] antepenultima = filas[0];
+        int[] anterior = filas[1];
+        int[] actual = filas[2];
+        for (int j = 0; j <= lb; j++) {
+            anterior[j] = j;
+        }
+        for (int i = 1; i <= la; i++) {
+            char ca = a.charAt(i - 1);
+            actual[0] = i;
+            int minimoFila = i;
+            for (int j = 1; j <= lb; j++) {
+                char cb = b.charAt(j - 1);
+                int valor = Math.min(Math.min(anterior[j] + 1, actual[j - 1] + 1), anterior[j - 1] + (ca == cb ? 0 : 1));
+                if (i > 1 && j > 1 && ca == b.charAt(j - 2) && a.charAt(i - 2) == cb) {
+                    valor = Math.min(valor, antepenultima[j - 2] + 1);
+                }
+                actual[j] = valor;
+                minimoFila = Math.min(minimoFila, valor);
+            }
+            if (minimoFila > maximo) {
+                return maximo + 1;
+            }
+            int[] libre = antepenultima;
+            antepenultima = anterior;
+            anterior = actual;
+            actual = libre;
+        }
+        return Math.min(anterior[lb], maximo + 1);
+    }
+
+    /**
+     * Índice de un tipo en un momento dado; no se modifica después de construirse.
+     */
+    private static final class Indice {
+        /** IDs en el orden en que se leyeron; la fila i corresponde a ids[i] */
+        private final int[] ids;
+        /** Título normalizado de cada fila */
+        private final String[] titulos;
+        /** Diccionario en orden alfabético */
+        private final String[] terminos;
+        /** Por término, sus apariciones {@code fila << BITS_CAMPO | campo} en orden de fila */
+        private final int[][] apariciones;
+        /** Por largo, las posiciones en {@link #terminos} de las palabras con ese largo */
+        private final int[][] porLargo;
+
+        private Indice(int[] ids, String[] titulos, String[] terminos, int[][] apariciones, int[][] porLargo) {
+            this.ids = ids;
+            this.titulos = titulos;
+            this.terminos = terminos;
+            this.apariciones = apariciones;
+            this.porLargo = porLargo;
+        }
+
+        private static Indice construir(List<DocumentoBusquedaDTO> documentos) {
+            int[] ids = new int[documentos.size()];
+            String[] titulos = new String[documentos.size()];
+            Map<String, ListaApariciones> mapa = new HashMap<>();
+            for (int fila = 0; fila < ids.length; fila++) {
+                DocumentoBusquedaDTO documento = documentos.get(fila);
+                ids[fila] = documento.getId();
+                titulos[fila] = NormalizadorTexto.normalizar(documento.getTitulo());
+                agregar(mapa, titulos[fila], fila, CAMPO_TITULO);
+                agregar(mapa, NormalizadorTexto.normalizar(documento.getDetalle()), fila, CAMPO_DETALLE);
+                agregar(mapa, NormalizadorTexto.normalizar(documento.getEtiquetas()), fila, CAMPO_ETIQUETAS);
+            }
+
+            String[] terminos = mapa.keySet().toArray(new String[0]);
+            Arrays.sort(terminos);
+            int[][] apariciones = new int[terminos.length][];
+            int largoMaximo = 0;
+            for (int i = 0; i < terminos.length; i++) {
+                apariciones[i] = mapa.get(terminos[i]).comoArreglo();
+                largoMaximo = Math.max(largoMaximo, terminos[i].length());
+            }
+
+            int[] cantidadPorLargo = new int[largoMaximo + 1];
+            for (String termino : terminos) {
+                cantidadPorLargo[termino.length()]++;
+            }
+            int[][] porLargo = new int[largoMaximo + 1][];
+            for (int largo = 0; largo <= largoMaximo; largo++) {
+                porLargo[largo] = new int[cantidadPorLargo[largo]];
+                cantidadPorLargo[largo] = 0;
+            }
+            for (int i = 0; i < terminos.length; i++) {
+                int largo = terminos[i].length();
+                porLargo[largo][cantidadPorLargo[largo]++] = i;
+            }
+            return new Indice(ids, titulos, terminos, apariciones, porLargo);
+        }
+
+        private static void agregar(Map<String, ListaApariciones> mapa, String normalizado, int fila, int campo) {
+            int inicio = 0;
+            while (inicio < normalizado.length()) {
+                int fin = normalizado.indexOf(' ', inicio);
+                if (fin < 0) {
+                    fin = normalizado.length();
+                }
+                if (fin > inicio) {
+                    mapa.computeIfAbsent(normalizado.substring(inicio, fin), t -> new ListaApariciones())
+                            .agregar(fila << BITS_CAMPO | campo);
+                }
+                inicio = fin + 1;
+            }
+        }
+
+        /**
+         * Puntúa las filas que contienen todas las palabras y devuelve las mejores.
+         */
+        private int[] buscar(List<String> palabras, String consulta, float[] pesos, int limite) {
+            int filas = ids.length;
+            float[] total = new float[filas];
+            float[] mejorPalabra = new float[filas];
+            // Cantidad de palabras de la consulta ya encontradas en cada fila
+            int[] cubiertas = new int[filas];
+            int[] candidatas = new int[64];
+            int cantidadCandidatas = 0;
+
+            for (int p = 0; p < palabras.size(); p++) {
+                if (Thread.currentThread().isInterrupted()) {
+                    return new int[0];
+                }
+                Expansion expansion = expandir(palabras.get(p));
+                for (int e = 0; e < expansion.cantidad; e++) {
+                    float calidad = expansion.calidades[e];
+                    for (int aparicion : apariciones[expansion.terminos[e]]) {
+                        int fila = aparicion >>> BITS_CAMPO;
+                        if (cubiertas[fila] < p) {
+                            continue;
+                        }
+                        float puntaje = calidad * pesos[aparicion & ((1 << BITS_CAMPO) - 1)];
+                        if (cubiertas[fila] == p) {
+                            cubiertas[fila] = p + 1;
+                            mejorPalabra[fila] = puntaje;
+                            total[fila] += puntaje;
+                            if (p == 0) {
+                                if (cantidadCandidatas == candidatas.length) {
+                                    candidatas = Arrays.copyOf(candidatas, cantidadCandidatas * 2);
+                                }
+                                candidatas[cantidadCandidatas++] = fila;
+                            }
+                        } else if (puntaje > mejorPalabra[fila]) {
+                            total[fila] += puntaje - mejorPalabra[fila];
+                            mejorPalabra[fila] = puntaje;
+                        }
+                    }
+                }
+                if (cantidadCandidatas == 0) {
+                    return new int[0];
+                }
+            }
+
+            MejoresK mejores = new MejoresK(Math.min(limite, cantidadCandidatas));
+            for (int i = 0; i < cantidadCandidatas; i++) {
+                int fila = candidatas[i];
+                if (cubiertas[fila] == palabras.size()) {
+                    float puntaje = total[fila];
+                    if (titulos[fila].startsWith(consulta)) {
+                        puntaje += BONO_INICIO_TITULO;
+                    }
+                    mejores.ofrecer(fila, puntaje);
+                }
+            }
+            return mejores.filasOrdenadas();
+        }
+
+        /**
+         * Términos del diccionario que coinciden con una palabra de la consulta y su calidad.
+         */
+        private Expansion expandir(String palabra) {
+            Expansion expansion = new Expansion();
+            int desde = Arrays.binarySearch(terminos, palabra);
+            boolean exacta = desde >= 0;
+            if (!exacta) {
+                desde = -desde - 1;
+            }
+            for (int i = desde; i < terminos.length && terminos[i].startsWith(palabra); i++) {
+                expansion.agregar(i, i == desde && exacta ? CALIDAD_EXACTA
+                        : CALIDAD_PREFIJO + CALIDAD_PREFIJO_COBERTURA * palabra.length() / terminos[i].length());
+            }
+
+            int maximo = edicionesPermitidas(palabra);
+            if (exacta || maximo == 0) {
+                return expansion;
+            }
+            int[][] filas = new int[3][palabra.length() + maximo + 1];
+            for (int largo = Math.max(1, palabra.length() - maximo);
+                 largo <= Math.min(porLargo.length - 1, palabra.length() + maximo); largo++) {
+                for (int i : porLargo[largo]) {
+                    String termino = terminos[i];
+                    // Los que empiezan con la palabra ya se agregaron como prefijo
+                    if (termino.startsWith(palabra)) {
+                        continue;
+                    }
+                    int d = distancia(palabra, termino, maximo, filas);
+                    if (d <= maximo) {
+                        expansion.agregar(i, CALIDAD_APROXIMADA[d]);
+                    }
+                }
+            }
+            return expansion;
+        }
+    }
+
+    /**
+     * Términos encontrados para una palabra de la consulta.
+     */
+    private static final class Expansion {
+        private int[] terminos = new int[16];
+        private float[] calidades = new float[16];
+        private int cantidad;
+
+        private void agregar(int termino, float calidad) {
+            if (cantidad == terminos.length) {
+                terminos = Arrays.copyOf(terminos, cantidad * 2);
+                calidades = Arrays.copyOf(calidades, cantidad * 2);
+            }
+            terminos[cantidad] = termino;
+            calidades[cantidad++] = calidad;
+        }
+    }
+
+    /**
+     * Lista creciente de apariciones de un término durante la construcción.
+     */
+    private static final class ListaApariciones {
+        private int[] datos = new int[4];
+        private int cantidad;
+
+        private void agregar(int aparicion) {
+            // La misma palabra repetida en un campo cuenta una vez
+            if (cantidad > 0 && datos[cantidad - 1] == aparicion) {
+                return;
+            }
+            if (cantidad == datos.length) {
+                datos = Arrays.copyOf(datos, cantidad * 2);
+            }
+            datos[cantidad++] = aparicion;
+        }
+
+        private int[] comoArreglo() {
+            return Arrays.copyOf(datos, cantidad);
+        }
+    }
+}
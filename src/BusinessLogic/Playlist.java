@@ -9,6 +9,7 @@ Implementa el patrón Composite para manejar componentes de playlist.
 */
 package BusinessLogic;
 
+import DataAccessComponent.DAO.IPaginable;
 import DataAccessComponent.DAO.PlaylistDAO;
 import DataAccessComponent.DAO.CancionDAO;
 import DataAccessComponent.DTO.PlaylistDTO;
@@ -92,6 +93,7 @@ public class Playlist implements ComponentePlaylist {
 
         boolean resultado = playlistDAO.registrar(nuevaPlaylist);
         if (resultado) {
+            MotorBusqueda.getInstancia().invalidar(MotorBusqueda.Tipo.PLAYLIST);
             this.playlistDTO = nuevaPlaylist;
             cargarComponentes();
         }
@@ -110,6 +112,15 @@ public class Playlist implements ComponentePlaylist {
         return playlistDAO.buscarTodo();
     }
 
+    /**
+     * Acceso por páginas a todas las playlists del sistema.
+     *
+     * @return fuente paginada de {@code PlaylistDTO} en orden de ID
+     */
+    public IPaginable<PlaylistDTO> paginas() {
+        return playlistDAO;
+    }
+
     /**
      * Busca una playlist por su ID.
      *
@@ -148,6 +159,17 @@ public class Playlist implements ComponentePlaylist {
         return playlistDAO.obtenerPlaylistPorUsuario(idUsuario);
     }
 
+    /**
+     * Obtiene las canciones de una playlist en su orden, con portada pero sin el audio.
+     *
+     * @param idPlaylist identificador de la playlist
+     * @return lista de {@code CancionDTO} con {@code archivoMP3} en null
+     * @throws Exception si ocurre un error en la consulta
+     */
+    public List<CancionDTO> obtenerCancionesSinAudio(int idPlaylist) throws Exception {
+        return playlistDAO.obtenerCancionesSinAudioDePlaylist(idPlaylist);
+    }
+
     /**
      * Actualiza los datos de una playlist.
      *
@@ -158,6 +180,8 @@ public class Playlist implements ComponentePlaylist {
     public boolean actualizar(PlaylistDTO playlist) throws Exception {
         boolean resultado = playlistDAO.actualizar(playlist);
         if (resultado) {
+            CacheImagenes.getInstancia().invalidarPlaylist(playlist.getIdPlaylist());
+            MotorBusqueda.getInstancia().invalidar(MotorBusqueda.Tipo.PLAYLIST);
             this.playlistDTO = playlist;
             cargarComponentes();
         }
@@ -172,7 +196,12 @@ public class Playlist implements ComponentePlaylist {
      * @throws Exception si ocurre un error
      */
     public boolean eliminar(int idPlaylist) throws Exception {
-        return playlistDAO.eliminar(idPlaylist);
+        boolean eliminada = playlistDAO.eliminar(idPlaylist);
+        if (eliminada) {
+            CacheImagenes.getInstancia().invalidarPlaylist(idPlaylist);
+            MotorBusqueda.getInstancia().invalidar(MotorBusqueda.Tipo.PLAYLIST);
+        }
+        return eliminada;
     }
 
     /**
@@ -220,38 +249,32 @@ public class Playlist implements ComponentePlaylist {
     }
 
     /**
-     * Obtiene los archivos de audio de las canciones asociadas a la playlist.
+     * Obtiene la cola de reproducción de la playlist.
+     *
+     * <p>Solo devuelve los IDs en el orden de la playlist; el reproductor lee el audio de
+     * cada canción cuando le toca sonar, así que iniciar la reproducción no depende del
+     * tamaño de la playlist.</p>
      *
-     * @return lista de arreglos de bytes con los archivos MP3
+     * @return lista de IDs de canciones en orden de reproducción
      * @throws Exception si ocurre un error
      */
-    public List<byte[]> obtenerCancionesParaReproduccion() throws Exception {
-        if (playlistDTO == null) {
+    public List<Integer> obtenerCancionesParaReproduccion() throws Exception {
+        if (playlistDTO == null || playlistDTO.getCancionesIds() == null) {
             return new ArrayList<>();
         }
-
-        List<byte[]> cancionesBytes = new ArrayList<>();
-        List<CancionDTO> canciones = playlistDAO.obtenerCancionesCompletasDePlaylist(playlistDTO.getIdPlaylist());
-
-        for (CancionDTO cancion : canciones) {
-            if (cancion.getArchivoMP3() != null) {
-                cancionesBytes.add(cancion.getArchivoMP3());
-            }
-        }
-
-        return cancionesBytes;
+        return new ArrayList<>(playlistDTO.getCancionesIds());
     }
 
     /**
-     * Reproduce la playlist usando un reproductor MP3 si contiene canciones válidas.
+     * Reproduce la playlist usando un reproductor MP3 si contiene canciones.
      *
      * @throws Exception si no hay canciones o ocurre un error
      */
 
     public void reproducir() throws Exception {
-        List<byte[]> cancionesBytes = obtenerCancionesParaReproduccion();
-        if (!cancionesBytes.isEmpty()) {
-            ReproductorMP3 reproductor = ReproductorMP3.getInstancia(cancionesBytes);
+        List<Integer> idsCanciones = obtenerCancionesParaReproduccion();
+        if (!idsCanciones.isEmpty()) {
+            ReproductorMP3 reproductor = ReproductorMP3.getInstancia(idsCanciones);
             reproductor.reproducir();
         } else {
             throw new Exception("La playlist está vacía o no tiene archivos de audio");
@@ -275,10 +298,7 @@ public class Playlist implements ComponentePlaylist {
         double duracionTotal = 0;
         try {
             if (playlistDTO != null) {
-                List<CancionDTO> canciones = playlistDAO.obtenerCancionesCompletasDePlaylist(playlistDTO.getIdPlaylist());
-                for (CancionDTO cancion : canciones) {
-                    duracionTotal += cancion.getDuracion();
-                }
+                duracionTotal = playlistDAO.obtenerDuracionTotal(playlistDTO.getIdPlaylist());
             }
         } catch (Exception e) {
             System.err.println("Error al calcular duración: " + e.getMessage());
@@ -1,6 +1,7 @@
 package BusinessLogic;
 
-import DataAccessComponent.DTO.CancionDTO;
+import DataAccessComponent.DTO.CancionResumenDTO;
+import DataAccessComponent.DTO.CriteriosRecomendacionDTO;
 import java.util.List;
 
 /**
@@ -9,6 +10,10 @@ import java.util.List;
  * <p>Permite obtener una lista de canciones recomendadas, ya sea de forma directa
  * o a través de filtros encadenados que aplican criterios específicos.</p>
  *
+ * <p>Además de filtrar en memoria con {@link #recomendar()}, cada eslabón puede describir su
+ * condición con {@link #criterios()} para que {@link ServicioRecomendaciones} resuelva toda la
+ * cadena con una sola consulta en la base de datos.</p>
+ *
  * @author Grupo F - InkHarmony Team
  */
 public interface Recomendador {
@@ -18,5 +23,17 @@ public interface Recomendador {
      *
      * @return lista de canciones recomendadas
      */
-    List<CancionDTO> recomendar();
+    List<CancionResumenDTO> recomendar();
+
+    /**
+     * Describe las condiciones de la cadena hasta este eslabón para aplicarlas en SQL.
+     *
+     * <p>Por defecto devuelve null: un recomendador que solo sabe filtrar en memoria obliga
+     * a que toda la cadena se resuelva con {@link #recomendar()}.</p>
+     *
+     * @return criterios acumulados, o null si la cadena no se puede expresar como consulta
+     */
+    default CriteriosRecomendacionDTO criterios() {
+        return null;
+    }
 }
@@ -1,14 +1,16 @@
 package BusinessLogic;
 
 import DataAccessComponent.DAO.CancionDAO;
-import DataAccessComponent.DTO.CancionDTO;
+import DataAccessComponent.DTO.CancionResumenDTO;
+import DataAccessComponent.DTO.CriteriosRecomendacionDTO;
 import java.util.List;
 
 /**
  * Implementación base del recomendador que proporciona todas las canciones disponibles.
  *
  * <p>Este recomendador actúa como punto de partida para la aplicación de filtros en cadena.
- * Accede directamente a la base de datos para obtener la lista completa de canciones.</p>
+ * Accede directamente a la base de datos para obtener la metadata de todas las canciones,
+ * sin cargar audio ni portadas.</p>
  *
  * @author Grupo F - InkHarmony Team
  */
@@ -23,12 +25,22 @@ public class RecomendadorCanciones implements Recomendador {
      * @return lista de canciones recuperadas o una lista vacía si ocurre un error
      */
     @Override
-    public List<CancionDTO> recomendar() {
+    public List<CancionResumenDTO> recomendar() {
         try {
-            return cancionDAO.buscarTodo();
+            return cancionDAO.buscarResumenes();
         } catch (Exception e) {
             e.printStackTrace();
             return List.of();
         }
     }
+
+    /**
+     * Punto de partida de los criterios: sin condiciones equivale a todo el catálogo.
+     *
+     * @return criterios vacíos
+     */
+    @Override
+    public CriteriosRecomendacionDTO criterios() {
+        return new CriteriosRecomendacionDTO();
+    }
 }
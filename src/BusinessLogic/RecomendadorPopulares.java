@@ -0,0 +1,104 @@
+package BusinessLogic;
+
+import DataAccessComponent.DAO.CancionDAO;
+import DataAccessComponent.DAO.ConteoReproduccionDAO;
+import DataAccessComponent.DAO.UsuarioDAO;
+import DataAccessComponent.DTO.AgregadoReproduccion;
+import DataAccessComponent.DTO.CancionResumenDTO;
+import DataAccessComponent.DTO.ConteoReproduccionDTO;
+import DataAccessComponent.DTO.GeneroDTO;
+import DataAccessComponent.DTO.PerfilDTO;
+import DataAccessComponent.DTO.PeriodoConteo;
+import DataAccessComponent.DTO.UsuarioDTO;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Recomendador de las canciones más escuchadas en los géneros que le gustan al usuario
+ * ("populares en tus géneros").
+ *
+ * <p>Responde desde los conteos que mantiene {@link ConteoReproduccionDAO} en cada lote de
+ * reproducciones: lee las primeras canciones de cada género por índice, sin recorrer el
+ * historial, por lo que su costo no crece con la cantidad de reproducciones. Sin géneros
+ * devuelve las más escuchadas de todo el catálogo.</p>
+ *
+ * @author Grupo F - InkHarmony Team
+ */
+public class RecomendadorPopulares implements Recomendador {
+
+    /** Cantidad de canciones que se devuelven si no se indica otra */
+    public static final int CANTIDAD_POR_DEFECTO = 50;
+
+    private final ConteoReproduccionDAO conteoDAO = new ConteoReproduccionDAO();
+    private final CancionDAO cancionDAO = new CancionDAO();
+
+    /** Géneros de interés; vacío para todo el catálogo */
+    private final Set<Genero> generos;
+
+    /** Día, semana o total */
+    private final PeriodoConteo periodo;
+
+    /** Cantidad máxima de canciones recomendadas */
+    private final int cantidad;
+
+    /**
+     * @param generos géneros de interés; vacío para todo el catálogo
+     * @param periodo periodo de los conteos (se usa el que contiene la fecha actual)
+     * @param cantidad cantidad máxima de canciones recomendadas
+     */
+    public RecomendadorPopulares(Set<Genero> generos, PeriodoConteo periodo, int cantidad) {
+        this.generos = Set.copyOf(generos);
+        this.periodo = periodo;
+        this.cantidad = cantidad;
+    }
+
+    /**
+     * Crea el recomendador de la semana en curso con las preferencias del usuario en sesión.
+     *
+     * @return recomendador de populares en los géneros preferidos del usuario
+     * @throws IllegalStateException si no hay un usuario autenticado en sesión
+     */
+    public static RecomendadorPopulares paraUsuarioActual() {
+        PerfilDTO perfil = Sesion.getSesion().obtenerUsuarioActual();
+        if (perfil == null) {
+            throw new IllegalStateException("No hay usuario en sesión: no se pueden cargar preferencias");
+        }
+        List<GeneroDTO> preferencias = perfil instanceof UsuarioDTO u && u.getPreferenciasMusicales() != null
+                ? u.getPreferenciasMusicales()
+                : new UsuarioDAO().obtenerPreferencias(perfil);
+        Set<Genero> generos = preferencias.stream()
+                .map(GeneroDTO::getNombreGenero)
+                .map(Genero::valueOf)
+                .collect(Collectors.toSet());
+        return new RecomendadorPopulares(generos, PeriodoConteo.SEMANA, CANTIDAD_POR_DEFECTO);
+    }
+
+    /**
+     * Devuelve las canciones más reproducidas del periodo en los géneros indicados.
+     *
+     * @return canciones de más a menos reproducida, o una lista vacía si ocurre un error
+     */
+    @Override
+    public List<CancionResumenDTO> recomendar() {
+        try {
+            LocalDate hoy = LocalDate.now();
+            List<ConteoReproduccionDTO> conteos = generos.isEmpty()
+                    ? conteoDAO.buscarMasReproducidos(AgregadoReproduccion.CANCION, periodo, hoy, cantidad)
+                    : conteoDAO.buscarMasReproducidasEnGeneros(
+                            generos.stream().map(g -> g.ordinal() + 1).collect(Collectors.toList()), // ID en BD según el orden del enum
+                            periodo, hoy, cantidad);
+            List<Integer> ids = new ArrayList<>(conteos.size());
+            for (ConteoReproduccionDTO conteo : conteos) {
+                ids.add(conteo.getId());
+            }
+            return cancionDAO.buscarResumenesPorIds(ids);
+        } catch (Exception e) {
+            e.printStackTrace();
+            return List.of();
+        }
+    }
+}
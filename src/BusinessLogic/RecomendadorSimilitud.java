@@ -0,0 +1,137 @@
+package BusinessLogic;
+
+import DataAccessComponent.DAO.CancionDAO;
+import DataAccessComponent.DAO.ReproduccionDAO;
+import DataAccessComponent.DAO.UsuarioDAO;
+import DataAccessComponent.DTO.CancionResumenDTO;
+import DataAccessComponent.DTO.PerfilDTO;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Recomendador que ordena canciones por parecido con una canción semilla o con el historial
+ * de reproducciones del usuario, usando los vectores de {@link IndiceSimilitud}.
+ *
+ * <p>Se puede usar de dos formas:</p>
+ * <ul>
+ *   <li>Como recomendador independiente: {@link #recomendar()} devuelve las canciones más
+ *       parecidas de todo el catálogo.</li>
+ *   <li>Como etapa de orden después de una cadena de filtros: {@link #ordenar(List)} deja
+ *       solo las más parecidas de la lista recibida, de mayor a menor parecido. Así lo usa
+ *       {@link ServicioRecomendaciones}.</li>
+ * </ul>
+ *
+ * @author Grupo F - InkHarmony Team
+ */
+public class RecomendadorSimilitud implements Recomendador {
+
+    /** Cantidad de canciones que se devuelven si no se indica otra */
+    public static final int CANTIDAD_POR_DEFECTO = 50;
+
+    /** Reproducciones recientes que forman el perfil del usuario */
+    public static final int TAMANIO_HISTORIAL = 50;
+
+    private final CancionDAO cancionDAO = new CancionDAO();
+
+    /** IDs de las canciones de referencia */
+    private final List<Integer> semillas;
+
+    /** Cantidad máxima de canciones recomendadas */
+    private final int cantidad;
+
+    /**
+     * @param semillas IDs de las canciones de referencia
+     * @param cantidad Cantidad máxima de canciones recomendadas
+     */
+    public RecomendadorSimilitud(List<Integer> semillas, int cantidad) {
+        this.semillas = List.copyOf(semillas);
+        this.cantidad = cantidad;
+    }
+
+    /**
+     * Crea un recomendador de canciones parecidas a una canción.
+     *
+     * @param idCancion ID de la canción semilla
+     * @return recomendador de las {@link #CANTIDAD_POR_DEFECTO} más parecidas
+     */
+    public static RecomendadorSimilitud paraCancion(int idCancion) {
+        return new RecomendadorSimilitud(List.of(idCancion), CANTIDAD_POR_DEFECTO);
+    }
+
+    /**
+     * Crea un recomendador a partir de lo que el usuario escuchó recientemente.
+     *
+     * @param idUsuario ID del usuario
+     * @return recomendador de las {@link #CANTIDAD_POR_DEFECTO} más parecidas a su historial
+     * @throws Exception si no se puede leer el historial
+     */
+    public static RecomendadorSimilitud paraHistorial(int idUsuario) throws Exception {
+        return new RecomendadorSimilitud(new ReproduccionDAO().buscarIdsRecientes(idUsuario, TAMANIO_HISTORIAL),
+                CANTIDAD_POR_DEFECTO);
+    }
+
+    /**
+     * Crea un recomendador a partir del historial del usuario en sesión.
+     *
+     * @return recomendador basado en el historial del usuario actual
+     * @throws IllegalStateException si no hay un usuario autenticado en sesión
+     * @throws Exception si no se puede leer el historial
+     */
+    public static RecomendadorSimilitud paraUsuarioActual() throws Exception {
+        PerfilDTO perfil = Sesion.getSesion().obtenerUsuarioActual();
+        if (perfil == null) {
+            throw new IllegalStateException("No hay usuario en sesión: no se puede cargar su historial");
+        }
+        return paraHistorial(new UsuarioDAO().obtenerIdUsuarioPorCorreo(perfil.getCorreo()));
+    }
+
+    /**
+     * Devuelve las canciones del catálogo más parecidas a las semillas.
+     *
+     * @return canciones de mayor a menor parecido, o una lista vacía si no hay semillas o
+     *         ocurre un error
+     */
+    @Override
+    public List<CancionResumenDTO> recomendar() {
+        try {
+            return cancionDAO.buscarResumenesPorIds(IndiceSimilitud.getInstancia().masSimilares(semillas, cantidad, null));
+        } catch (Exception e) {
+            e.printStackTrace();
+            return List.of();
+        }
+    }
+
+    /**
+     * Ordena una lista de candidatas por parecido con las semillas y conserva las primeras.
+     *
+     * @param candidatas canciones ya filtradas
+     * @return hasta {@code cantidad} candidatas, de mayor a menor parecido; si no hay
+     *         semillas o ocurre un error se devuelven las candidatas sin cambios
+     */
+    public List<CancionResumenDTO> ordenar(List<CancionResumenDTO> candidatas) {
+        if (semillas.isEmpty() || candidatas.isEmpty()) {
+            return candidatas;
+        }
+        Map<Integer, CancionResumenDTO> porId = new HashMap<>();
+        for (CancionResumenDTO cancion : candidatas) {
+            porId.put(cancion.getIdCancion(), cancion);
+        }
+        try {
+            List<Integer> ids = IndiceSimilitud.getInstancia().masSimilares(semillas, cantidad, porId.keySet());
+            if (ids.isEmpty()) {
+                return candidatas;
+            }
+            List<CancionResumenDTO> ordenadas = new ArrayList<>(ids.size());
+            for (Integer id : ids) {
+                ordenadas.add(porId.get(id));
+            }
+            return ordenadas;
+        } catch (Exception e) {
+            e.printStackTrace();
+            return candidatas;
+        }
+    }
+}
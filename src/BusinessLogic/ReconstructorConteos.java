@@ -0,0 +1,52 @@
+package BusinessLogic;
+
+import DataAccessComponent.DAO.ConteoReproduccionDAO;
+
+import java.util.Map;
+
+/**
+ * Programa que comprueba los conteos incrementales de reproducciones contra un cálculo
+ * completo desde la tabla Reproduccion y, si se pide, los reconstruye desde cero.
+ *
+ * <p>Con {@code verificar} (por defecto) solo compara e informa las filas distintas de cada
+ * tabla {@code Conteo_*}; termina con código 1 si alguna difiere. Con {@code reconstruir}
+ * borra y recalcula todos los conteos en una transacción y después verifica el resultado.
+ * Es necesario reconstruir tras cambiar los artistas o géneros de canciones ya escuchadas,
+ * porque los conteos incrementales conservan los que tenían al reproducirse.</p>
+ *
+ * <p>Uso: {@code java BusinessLogic.ReconstructorConteos [verificar|reconstruir]}</p>
+ *
+ * @author Grupo B
+ * @version 1.0
+ * @since 25-07-2025
+ */
+public class ReconstructorConteos {
+
+    public static void main(String[] args) throws Exception {
+        String accion = args.length > 0 ? args[0] : "verificar";
+        ConteoReproduccionDAO conteoDAO = new ConteoReproduccionDAO();
+
+        if ("reconstruir".equals(accion)) {
+            long inicio = System.nanoTime();
+            int filas = conteoDAO.reconstruir();
+            System.out.printf("Conteos reconstruidos: %d filas en %d ms%n", filas, (System.nanoTime() - inicio) / 1_000_000);
+        } else if (!"verificar".equals(accion)) {
+            System.err.println("Uso: java BusinessLogic.ReconstructorConteos [verificar|reconstruir]");
+            System.exit(2);
+        }
+
+        long inicio = System.nanoTime();
+        Map<String, Integer> diferencias = conteoDAO.verificar();
+        int total = 0;
+        for (Map.Entry<String, Integer> diferencia : diferencias.entrySet()) {
+            System.out.printf("%-25s %s%n", diferencia.getKey(),
+                    diferencia.getValue() == 0 ? "correcto" : diferencia.getValue() + " filas distintas");
+            total += diferencia.getValue();
+        }
+        System.out.printf("Verificación en %d ms: %s%n", (System.nanoTime() - inicio) / 1_000_000,
+                total == 0 ? "los conteos coinciden con el historial" : "hay diferencias; ejecute con 'reconstruir'");
+        if (total != 0) {
+            System.exit(1);
+        }
+    }
+}
@@ -0,0 +1,319 @@
+package BusinessLogic;
+
+import BusinessLogic.utilities.BufferCircular;
+import DataAccessComponent.DAO.ReproduccionDAO;
+import DataAccessComponent.DAO.UsuarioDAO;
+import DataAccessComponent.DTO.EventoReproduccionDTO;
+import DataAccessComponent.DTO.PerfilDTO;
+import DataAccessComponent.DTO.TipoEventoReproduccion;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Registro de los eventos de reproducción (inicio, 30 segundos, fin y salto) en la tabla
+ * Reproduccion sin que el hilo de JavaFX espere a SQLite.
+ *
+ * <p>{@link #registrar(int, TipoEventoReproduccion, double)} solo anota el usuario en sesión,
+ * deja el evento en un {@link BufferCircular} sin bloqueos y vuelve. Un hilo de fondo saca los eventos y los
+ * escribe con {@link ReproduccionDAO#registrar(List)}, una transacción por lote, cuando se
+ * juntan {@code inkharmony.reproducciones.lote} eventos (64 por defecto) o cada
+ * {@code inkharmony.reproducciones.intervalo.ms} milisegundos (2000 por defecto), lo que
+ * ocurra primero. Si la aplicación se cae, solo se pierden los eventos que aún no
+ * completaban un lote; al cerrarse normalmente se escriben todos.</p>
+ *
+ * <p>Si el buffer se llena (la base no responde), los eventos nuevos se descartan y se
+ * cuentan en {@link #getDescartados()}: reproducir música nunca se detiene por el
+ * historial. Un lote que no se pudo escribir, o cuyo usuario no se pudo identificar, se
+ * reintenta en la siguiente ronda. Tras {@code inkharmony.reproducciones.intentos} intentos
+ * (5 por defecto) se escribe evento por evento: los que vuelven a fallar (por ejemplo, de
+ * una canción eliminada) se informan por consola, se cuentan en {@link #getRechazados()} y
+ * se descartan, para que un solo evento no detenga el historial.</p>
+ *
+ * @author Grupo B
+ * @version 1.0
+ * @since 25-07-2025
+ */
+public final class RegistroReproducciones {
+
+    /** Eventos que caben en memoria a la espera de escribirse */
+    public static final int CAPACIDAD = 4096;
+
+    private static final int LOTE_POR_DEFECTO = 64;
+    private static final long INTERVALO_MS_POR_DEFECTO = 2000;
+    private static final int INTENTOS_POR_DEFECTO = 5;
+
+    /** Instancia única (patrón Singleton). */
+    private static RegistroReproducciones instancia;
+
+    private final ReproduccionDAO reproduccionDAO = new ReproduccionDAO();
+    private final UsuarioDAO usuarioDAO = new UsuarioDAO();
+
+    /** Eventos capturados que aún no se escriben */
+    private final BufferCircular<Evento> buffer = new BufferCircular<>(CAPACIDAD);
+
+    /** Eventos por transacción */
+    private final int tamanioLote;
+
+    /** Espera máxima entre escrituras */
+    private final long intervaloMs;
+
+    /** Intentos de escribir un lote completo antes de escribirlo evento por evento */
+    private final int intentosMaximos;
+
+    /** Hilo que escribe los lotes */
+    private final Thread escritor;
+
+    /** Lote sacado del buffer que todavía no se pudo escribir; solo lo usa {@link #vaciar()} */
+    private final List<Evento> pendiente = new ArrayList<>();
+
+    /** Intentos fallidos de escribir {@link #pendiente} */
+    private int intentosPendiente;
+
+    /** IDs de usuario ya resueltos por correo; solo los usa {@link #vaciar()} */
+    private final Map<String, Integer> idsUsuarios = new HashMap<>();
+
+    private final AtomicLong registrados = new AtomicLong();
+    private final AtomicLong descartados = new AtomicLong();
+    private long escritos;
+    private long lotes;
+    private long lotesFallidos;
+    private long rechazados;
+    private long ultimoLoteMs;
+
+    /**
+     * Evento tal como se captura en el hilo de JavaFX. Guarda el usuario en sesión en ese
+     * momento: su ID si el perfil lo trae o, si no, su correo, que se resuelve al escribir.
+     */
+    private static final class Evento {
+        private final int idUsuario;
+        private final String correo;
+        private final int idCancion;
+        private final TipoEventoReproduccion tipo;
+        private final LocalDateTime fechaHora;
+        private final double posicion;
+
+        private Evento(PerfilDTO perfil, int idCancion, TipoEventoReproduccion tipo, LocalDateTime fechaHora, double posicion) {
+            this.idUsuario = perfil != null ? perfil.getIdUsuario() : 0;
+            this.correo = perfil != null ? perfil.getCorreo() : null;
+            this.idCancion = idCancion;
+            this.tipo = tipo;
+            this.fechaHora = fechaHora;
+            this.posicion = posicion;
+        }
+    }
+
+    private RegistroReproducciones(int tamanioLote, long intervaloMs, int intentosMaximos) {
+        this.tamanioLote = Math.max(1, tamanioLote);
+        this.intervaloMs = Math.max(1, intervaloMs);
+        this.intentosMaximos = Math.max(1, intentosMaximos);
+        escritor = new Thread(this::escribirPeriodicamente, "registro-reproducciones");
+        escritor.setDaemon(true);
+        escritor.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(this::vaciarAlCerrar, "registro-reproducciones-cierre"));
+    }
+
+    /**
+     * Devuelve el registro de reproducciones de la aplicación.
+     *
+     * @return Instancia única del registro
+     */
+    public static synchronized RegistroReproducciones getInstancia() {
+        if (instancia == null) {
+            instancia = new RegistroReproducciones(
+                    Integer.getInteger("inkharmony.reproducciones.lote", LOTE_POR_DEFECTO),
+                    Long.getLong("inkharmony.reproducciones.intervalo.ms", INTERVALO_MS_POR_DEFECTO),
+                    Integer.getInteger("inkharmony.reproducciones.intentos", INTENTOS_POR_DEFECTO));
+        }
+        return instancia;
+    }
+
+    /**
+     * Captura un evento de la canción indicada para el usuario en sesión. No accede a la
+     * base de datos ni bloquea.
+     *
+     * @param idCancion ID de la canción
+     * @param tipo Momento de la reproducción
+     * @param posicion Segundos reproducidos al ocurrir el evento
+     * @return false si el buffer estaba lleno y el evento se descartó
+     */
+    public boolean registrar(int idCancion, TipoEventoReproduccion tipo, double posicion) {
+        // El usuario se toma ahora: al escribir el lote puede haber otra sesión
+        Evento evento = new Evento(Sesion.getSesion().obtenerUsuarioActual(), idCancion, tipo,
+                LocalDateTime.now(), Math.max(0, posicion));
+        if (!buffer.ofrecer(evento)) {
+            descartados.incrementAndGet();
+            return false;
+        }
+        registrados.incrementAndGet();
+        if (buffer.tamanio() >= tamanioLote) {
+            LockSupport.unpark(escritor);
+        }
+        return true;
+    }
+
+    /**
+     * Escribe todos los eventos capturados hasta ahora, en lotes de una transacción.
+     *
+     * @return Cantidad de eventos escritos
+     */
+    public synchronized int vaciar() {
+        int escritosAhora = 0;
+        while (true) {
+            if (pendiente.isEmpty()) {
+                if (buffer.drenar(pendiente, tamanioLote) == 0) {
+                    return escritosAhora;
+                }
+                intentosPendiente = 0;
+            }
+            long inicio = System.nanoTime();
+            try {
+                List<EventoReproduccionDTO> lote = new ArrayList<>(pendiente.size());
+                for (Evento evento : pendiente) {
+                    lote.add(aDTO(evento));
+                }
+                int filas = reproduccionDAO.registrar(lote);
+                escritos += filas;
+                escritosAhora += filas;
+                lotes++;
+                ultimoLoteMs = (System.nanoTime() - inicio) / 1_000_000;
+                pendiente.clear();
+            } catch (Exception e) {
+                lotesFallidos++;
+                intentosPendiente++;
+                if (intentosPendiente < intentosMaximos) {
+                    // Se conserva el lote para la siguiente ronda; mientras tanto el buffer absorbe los nuevos
+                    System.err.println("No se pudo guardar el historial de reproducción (intento "
+                            + intentosPendiente + " de " + intentosMaximos + "): " + e.getMessage());
+                    return escritosAhora;
+                }
+                escritosAhora += escribirUnoPorUno();
+                pendiente.clear();
+            }
+        }
+    }
+
+    /**
+     * Escribe el lote pendiente evento por evento, descartando los que fallan. Se usa cuando
+     * el lote completo agotó sus intentos, para que un evento que nunca podrá escribirse no
+     * retenga a los demás.
+     *
+     * @return Eventos escritos
+     */
+    private int escribirUnoPorUno() {
+        int escritosAhora = 0;
+        for (Evento evento : pendiente) {
+            try {
+                int filas = reproduccionDAO.registrar(List.of(aDTO(evento)));
+                escritos += filas;
+                escritosAhora += filas;
+            } catch (Exception e) {
+                rechazados++;
+                System.err.println("Evento de reproducción descartado (usuario=" + (evento.idUsuario > 0
+                        ? String.valueOf(evento.idUsuario) : evento.correo) + ", canción=" + evento.idCancion
+                        + ", " + evento.tipo + ", " + evento.fechaHora + "): " + e.getMessage());
+            }
+        }
+        return escritosAhora;
+    }
+
+    /**
+     * Convierte un evento capturado en la fila que se guarda.
+     *
+     * @throws Exception si el evento tiene usuario y no se pudo identificar
+     */
+    private EventoReproduccionDTO aDTO(Evento evento) throws Exception {
+        return new EventoReproduccionDTO(idUsuario(evento), evento.idCancion, evento.tipo,
+                evento.fechaHora, evento.posicion);
+    }
+
+    /**
+     * Resuelve el ID del usuario que estaba en sesión al capturar el evento. Si el perfil no
+     * traía el ID se busca por correo, consultando la base solo la primera vez; se hace al
+     * escribir para que el hilo de JavaFX nunca espere a la base.
+     *
+     * @return ID del usuario, o null si no había sesión
+     * @throws Exception si no se pudo identificar al usuario; el evento no se guarda sin él
+     */
+    private Integer idUsuario(Evento evento) throws Exception {
+        if (evento.idUsuario > 0) {
+            return evento.idUsuario;
+        }
+        String correo = evento.correo;
+        if (correo == null) {
+            return null;
+        }
+        Integer id = idsUsuarios.get(correo);
+        if (id == null) {
+            id = usuarioDAO.obtenerIdUsuarioPorCorreo(correo);
+            if (id <= 0) {
+                // No se guarda en el mapa: puede ser un error pasajero de la base
+                throw new Exception("No se pudo identificar al usuario " + correo);
+            }
+            idsUsuarios.put(correo, id);
+        }
+        return id;
+    }
+
+    private void escribirPeriodicamente() {
+        while (true) {
+            // Despierta al cumplirse el intervalo o antes, si registrar() juntó un lote completo
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(intervaloMs));
+            if (buffer.tamanio() > 0 || !pendienteVacio()) {
+                vaciar();
+            }
+        }
+    }
+
+    private synchronized boolean pendienteVacio() {
+        return pendiente.isEmpty();
+    }
+
+    private void vaciarAlCerrar() {
+        int escritosAlCerrar = vaciar();
+        if (escritosAlCerrar > 0) {
+            System.out.println("Historial de reproducción: " + escritosAlCerrar + " eventos guardados al cerrar");
+        }
+    }
+
+    /** @return Eventos capturados desde que inició la aplicación */
+    public long getRegistrados() {
+        return registrados.get();
+    }
+
+    /** @return Eventos descartados por tener el buffer lleno */
+    public long getDescartados() {
+        return descartados.get();
+    }
+
+    /** @return Eventos descartados porque no se pudieron escribir tras agotar los intentos */
+    public synchronized long getRechazados() {
+        return rechazados;
+    }
+
+    /** @return Eventos escritos en la base de datos */
+    public synchronized long getEscritos() {
+        return escritos;
+    }
+
+    /** @return Eventos capturados que aún no se escriben */
+    public int getEnEspera() {
+        return buffer.tamanio();
+    }
+
+    /**
+     * @return Resumen legible del registro
+     */
+    public synchronized String resumen() {
+        return String.format("Historial de reproducción: registrados=%d escritos=%d en espera=%d descartados=%d "
+                        + "rechazados=%d lotes=%d fallidos=%d último lote=%d ms (lote=%d, intervalo=%d ms)",
+                registrados.get(), escritos, buffer.tamanio() + pendiente.size(), descartados.get(),
+                rechazados, lotes, lotesFallidos, ultimoLoteMs, tamanioLote, intervaloMs);
+    }
+}
@@ -1,436 +1,830 @@
-package BusinessLogic;
-
-import java.io.File;
-import java.io.FileOutputStream;
-import java.util.List;
-import java.util.function.Consumer;
-
-import javafx.scene.media.Media;
-import javafx.scene.media.MediaPlayer;
-import javafx.application.Platform;
-import javafx.util.Duration;
-
-/**
- * Clase principal que representa el controlador de reproducción de audio MP3.
- *
- * <p>Utiliza el patrón de diseño {@code Singleton} para asegurar una única instancia global,
- * y el patrón {@code State} para manejar dinámicamente el comportamiento del reproductor
- * según su estado actual (detenido, reproduciendo o pausado).</p>
- *
- * <p>Gestiona la reproducción de una lista de canciones representadas como arreglos de bytes,
- * usando JavaFX MediaPlayer para la reproducción de audio.</p>
- *
- * @author Grupo B
- * @version 2.0
- * @since 25-07-2025
- *
- * @see EstadoReproductor
- * @see EstadoReproduciendo
- * @see EstadoPausado
- * @see EstadoDetenido
- * @see GestorPlaylist
- */
-public class ReproductorMP3 {
-
-    /** Instancia única del reproductor (patrón Singleton). */
-    private static ReproductorMP3 instancia;
-
-    /** Gestor de la lista de reproducción. */
-    private GestorPlaylist playlist;
-
-    /** Motor que controla la reproducción de audio (mantenido para compatibilidad). */
-    private MotorReproduccion motor;
-
-    /** Estado actual del reproductor (patrón State). */
-    private EstadoReproductor estadoActual;
-
-    /** MediaPlayer de JavaFX para reproducción de audio */
-    private MediaPlayer mediaPlayer;
-
-    /** Archivo temporal actual para reproducción */
-    private File archivoTemporal;
-
-    /** Callback para cuando termina una canción */
-    private Runnable onCancionTerminada;
-
-    /**
-     * Constructor privado. Se invoca solo una vez mediante {@link #getInstancia(List)}.
-     *
-     * @param canciones Lista de canciones (en formato byte[])
-     */
-    private ReproductorMP3(List<byte[]> canciones) {
-        this.playlist = new GestorPlaylist(canciones);
-        this.motor = new MotorReproduccion(); // Mantenido para compatibilidad
-        this.estadoActual = new EstadoDetenido(this);
-    }
-
-    /**
-     * Devuelve la instancia única del reproductor MP3 (Singleton).
-     * Si no existe, la crea con la lista de canciones proporcionada.
-     *
-     * @param canciones Lista de canciones para inicializar el reproductor
-     * @return Instancia única del reproductor
-     */
-    public static ReproductorMP3 getInstancia(List<byte[]> canciones) {
-        if (instancia == null) {
-            instancia = new ReproductorMP3(canciones);
-        }
-        return instancia;
-    }
-
-    // --------------------------
-    // Métodos públicos del estado
-    // --------------------------
-
-    /**
-     * Inicia la reproducción desde el estado actual.
-     */
-    public void reproducir() {
-        estadoActual.reproducir();
-    }
-
-    /**
-     * Pausa la reproducción actual.
-     */
-    public void pausar() {
-        estadoActual.pausar();
-    }
-
-    /**
-     * Reanuda la reproducción desde el punto en que fue pausada.
-     */
-    public void reanudar() {
-        estadoActual.reanudar();
-    }
-
-    /**
-     * Detiene completamente la reproducción.
-     */
-    public void detener() {
-        estadoActual.detener();
-    }
-
-    /**
-     * Reproduce la siguiente canción en la lista.
-     */
-    public void siguiente() {
-        estadoActual.siguiente();
-        notificarCambioCancion();
-    }
-
-    /**
-     * Reproduce la canción anterior en la lista.
-     */
-    public void anterior() {
-        estadoActual.anterior();
-        notificarCambioCancion();
-    }
-
-    // --------------------------
-    // Métodos internos actualizados con JavaFX Media
-    // --------------------------
-
-    /**
-     * Inicia la reproducción de la canción actual usando JavaFX MediaPlayer.
-     * Si la canción termina, automáticamente avanza a la siguiente.
-     *
-     * @param frameInicial Frame desde el cual comenzar (convertido a tiempo)
-     */
-    public void iniciarReproduccionDesde(int frameInicial) {
-        try {
-            byte[] cancion = playlist.obtenerCancionActual();
-            if (cancion == null) {
-                System.out.println("No se encontró la canción.");
-                return;
-            }
-
-            // Detener reproducción anterior si existe
-            detenerMediaPlayer();
-
-            // Crear archivo temporal
-            archivoTemporal = File.createTempFile("cancion_temp", ".mp3");
-            archivoTemporal.deleteOnExit();
-
-            try (FileOutputStream fos = new FileOutputStream(archivoTemporal)) {
-                fos.write(cancion);
-            }
-
-            // Crear Media y MediaPlayer
-            Media media = new Media(archivoTemporal.toURI().toString());
-            mediaPlayer = new MediaPlayer(media);
-
-            // Configurar eventos
-            mediaPlayer.setOnReady(() -> {
-                // Cambiar el estado a Reproduciendo
-                setEstado(new EstadoReproduciendo(this));
-
-                // Si hay un frame inicial específico, posicionarse ahí
-                if (frameInicial > 0) {
-                    double segundos = frameInicial / 26.0; // Conversión aproximada frame->segundos
-                    mediaPlayer.seek(Duration.seconds(segundos));
-                }
-
-                // Iniciar reproducción
-                mediaPlayer.play();
-                System.out.println("Reproducción iniciada");
-            });
-
-            mediaPlayer.setOnEndOfMedia(() -> {
-                System.out.println("Canción terminada, avanzando a la siguiente");
-                // Callback para avanzar automáticamente
-                Platform.runLater(() -> {
-                    iniciarReproduccionDesde(0);
-                    siguiente();
-                });
-            });
-
-            mediaPlayer.setOnError(() -> {
-                System.err.println("Error en MediaPlayer: " + mediaPlayer.getError());
-                setEstado(new EstadoDetenido(this));
-            });
-
-        } catch (Exception e) {
-            System.err.println("Error al iniciar reproducción: " + e.getMessage());
-            e.printStackTrace();
-            setEstado(new EstadoDetenido(this));
-        }
-    }
-
-    /**
-     * Pausa el MediaPlayer actual
-     */
-    public void pausarMediaPlayer() {
-        if (mediaPlayer != null && mediaPlayer.getStatus() == MediaPlayer.Status.PLAYING) {
-            mediaPlayer.pause();
-            System.out.println("Reproducción pausada");
-        }
-    }
-
-    /**
-     * Reanuda el MediaPlayer pausado
-     */
-    public void reanudarMediaPlayer() {
-        if (mediaPlayer != null && mediaPlayer.getStatus() == MediaPlayer.Status.PAUSED) {
-            mediaPlayer.play();
-            System.out.println("Reproducción reanudada");
-        }
-    }
-
-    /**
-     * Detiene y limpia el MediaPlayer actual
-     */
-    public void detenerMediaPlayer() {
-        if (mediaPlayer != null) {
-            mediaPlayer.stop();
-            mediaPlayer.dispose();
-            mediaPlayer = null;
-        }
-
-        // Limpiar archivo temporal
-        if (archivoTemporal != null && archivoTemporal.exists()) {
-            archivoTemporal.delete();
-            archivoTemporal = null;
-        }
-    }
-
-    /**
-     * Cierra la reproducción actual pero mantiene la playlist.
-     */
-    public void cerrarReproduccion() {
-        detenerMediaPlayer();
-        motor.cerrar(); // Mantener para compatibilidad
-    }
-
-    /**
-     * Cierra la reproducción actual y limpia completamente la lista de canciones.
-     */
-    public void cerrarReproduccionTotal() {
-        detenerMediaPlayer();
-        motor.cerrar();
-        playlist.setCanciones(null);
-    }
-
-    /**
-     * Mueve la reproducción a un tiempo específico de la canción actual.
-     *
-     * @param nuevoFrame Frame objetivo (convertido a segundos)
-     */
-    public void moverAFrame(int nuevoFrame) {
-        if (mediaPlayer != null) {
-            double segundos = nuevoFrame / 26.0; // Conversión aproximada
-            mediaPlayer.seek(Duration.seconds(segundos));
-            motor.setFrameActual(nuevoFrame); // Mantener sincronizado
-        }
-    }
-
-    /**
-     * Establece el tiempo de reproducción en segundos
-     */
-    public void setTiempo(double segundos) {
-        if (mediaPlayer != null) {
-            mediaPlayer.seek(Duration.seconds(segundos));
-        }
-    }
-
-    /**
-     * Obtiene el tiempo actual de reproducción en segundos
-     */
-    public double getTiempoActual() {
-        if (mediaPlayer != null && mediaPlayer.getCurrentTime() != null) {
-            return mediaPlayer.getCurrentTime().toSeconds();
-        }
-        return 0.0;
-    }
-
-    /**
-     * Cambia la lista de canciones activa. Detiene la reproducción y reinicia el estado.
-     *
-     * @param nuevaLista Nueva lista de canciones (byte[])
-     */
-    public void cambiarPlaylist(List<byte[]> nuevaLista) {
-        detener();
-        cerrarReproduccion();
-        playlist.setCanciones(nuevaLista);
-        estadoActual = new EstadoDetenido(this);
-    }
-
-    /**
-     * Obtiene la duración total de la canción actual usando JavaFX Media.
-     *
-     * @param callback Callback que recibe la duración en segundos
-     */
-    public void obtenerDuracionCancionActual(Consumer<Double> callback) {
-        try {
-            if (mediaPlayer != null && mediaPlayer.getTotalDuration() != null
-                    && !mediaPlayer.getTotalDuration().equals(Duration.UNKNOWN)) {
-                // Si ya tenemos la duración disponible
-                callback.accept(mediaPlayer.getTotalDuration().toSeconds());
-                return;
-            }
-
-            // Si no tenemos MediaPlayer o la duración no está lista, crear uno temporal
-            byte[] cancion = playlist.obtenerCancionActual();
-            if (cancion == null) {
-                callback.accept(0.0);
-                return;
-            }
-
-            File tempFile = File.createTempFile("duracion", ".mp3");
-            tempFile.deleteOnExit();
-
-            try (FileOutputStream fos = new FileOutputStream(tempFile)) {
-                fos.write(cancion);
-            }
-
-            Media media = new Media(tempFile.toURI().toString());
-            MediaPlayer tempPlayer = new MediaPlayer(media);
-
-            tempPlayer.setOnReady(() -> {
-                double duracion = media.getDuration().toSeconds();
-                callback.accept(duracion);
-                tempPlayer.dispose();
-                tempFile.delete();
-            });
-
-            tempPlayer.setOnError(() -> {
-                System.err.println("Error al obtener duración: " + tempPlayer.getError());
-                callback.accept(0.0);
-                tempPlayer.dispose();
-                tempFile.delete();
-            });
-
-        } catch (Exception e) {
-            System.err.println("Error al obtener duración: " + e.getMessage());
-            callback.accept(0.0);
-        }
-    }
-
-    // --------------------------
-    // Métodos de compatibilidad y utilidad
-    // --------------------------
-
-    /**
-     * Verifica si está reproduciendo actualmente
-     */
-    public boolean estaReproduciendo() {
-        return estadoActual instanceof EstadoReproduciendo &&
-                mediaPlayer != null &&
-                mediaPlayer.getStatus() == MediaPlayer.Status.PLAYING;
-    }
-
-    /**
-     * Verifica si está pausado
-     */
-    public boolean estaPausado() {
-        return estadoActual instanceof EstadoPausado ||
-                (mediaPlayer != null && mediaPlayer.getStatus() == MediaPlayer.Status.PAUSED);
-    }
-
-    /**
-     * Obtiene el MediaPlayer actual (para acceso directo si es necesario)
-     */
-    public MediaPlayer getMediaPlayer() {
-        return mediaPlayer;
-    }
-
-    // --------------------------
-    // Getters y Setters existentes
-    // --------------------------
-
-    /**
-     * Devuelve el gestor de la playlist actual.
-     *
-     * @return Gestor de playlist
-     */
-    public GestorPlaylist getPlaylist() {
-        return playlist;
-    }
-
-    /**
-     * Devuelve el motor de reproducción usado internamente.
-     *
-     * @return Motor de reproducción
-     */
-    public MotorReproduccion getMotor() {
-        return motor;
-    }
-
-    /**
-     * Devuelve el estado actual del reproductor (State).
-     *
-     * @return Estado actual
-     */
-    public EstadoReproductor getEstado() {
-        return estadoActual;
-    }
-
-    /**
-     * Cambia el estado del reproductor (se usa internamente por los estados).
-     *
-     * @param estado Nuevo estado a establecer
-     */
-    public void setEstado(EstadoReproductor estado) {
-        this.estadoActual = estado;
-    }
-
-    // Callback que se ejecuta cuando cambia de canción
-    private Runnable onSongChange;
-
-    /**
-     * Permite registrar un callback para cuando cambie la canción
-     */
-    public void setOnSongChange(Runnable onSongChange) {
-        this.onSongChange = onSongChange;
-    }
-
-    /**
-     * Método interno para notificar cambio de canción
-     */
-    public void notificarCambioCancion() {
-        if (onSongChange != null) {
-            onSongChange.run();
-        }
-    }
-
-
-}
+package BusinessLogic;
+
+import java.io.File;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+import BusinessLogic.utilities.MetricasReproduccion;
+import BusinessLogic.utilities.TablaBusqueda;
+import DataAccessComponent.DTO.TipoEventoReproduccion;
+import javafx.scene.media.Media;
+import javafx.scene.media.MediaPlayer;
+import javafx.application.Platform;
+import javafx.util.Duration;
+
+/**
+ * Clase principal que representa el controlador de reproducción de audio MP3.
+ *
+ * <p>Utiliza el patrón de diseño {@code Singleton} para asegurar una única instancia global,
+ * y el patrón {@code State} para manejar dinámicamente el comportamiento del reproductor
+ * según su estado actual (detenido, reproduciendo o pausado).</p>
+ *
+ * <p>Gestiona la reproducción de una cola de IDs de canciones usando JavaFX MediaPlayer.
+ * El audio de cada canción se lee de la base solo cuando le toca sonar, mediante
+ * {@link BufferAudio}, que además precarga la siguiente canción de la cola.</p>
+ *
+ * <p>Mientras suena una canción se deja abierto un segundo MediaPlayer con la siguiente
+ * (doble buffer). Al terminar la actual, el avance solo cambia de reproductor y llama a
+ * {@code play()}; la latencia de cada transición queda en {@link #getUltimaTransicionMs()}.</p>
+ *
+ * <p>El inicio, los 30 segundos, el fin y el salto de cada canción se envían a
+ * {@link RegistroReproducciones}, que los guarda en segundo plano.</p>
+ *
+ * <p>Las latencias de arranque y de transición, y las veces que el MediaPlayer se queda sin
+ * datos, se informan además a {@link MetricasReproduccion}.</p>
+ *
+ * @author Grupo B
+ * @version 2.0
+ * @since 25-07-2025
+ *
+ * @see EstadoReproductor
+ * @see EstadoReproduciendo
+ * @see EstadoPausado
+ * @see EstadoDetenido
+ * @see GestorPlaylist
+ * @see BufferAudio
+ */
+public class ReproductorMP3 {
+
+    /** Segundos de reproducción a partir de los cuales se registra que la canción se escuchó */
+    private static final double SEGUNDOS_ESCUCHADA = 30.0;
+
+    /** Aproximación frame→segundos usada antes de la tabla de búsqueda; solo para canciones sin tabla */
+    private static final double FRAMES_POR_SEGUNDO_APROX = 26.0;
+
+    /** Instancia única del reproductor (patrón Singleton). */
+    private static ReproductorMP3 instancia;
+
+    /** Gestor de la lista de reproducción. */
+    private GestorPlaylist playlist;
+
+    /** Motor que controla la reproducción de audio (mantenido para compatibilidad). */
+    private MotorReproduccion motor;
+
+    /** Estado actual del reproductor (patrón State). */
+    private EstadoReproductor estadoActual;
+
+    /** MediaPlayer de JavaFX para reproducción de audio */
+    private MediaPlayer mediaPlayer;
+
+    /** Audio de la canción actual y de la siguiente, resuelto bajo demanda */
+    private final BufferAudio bufferAudio = new BufferAudio();
+
+    /** Lógica de negocio de canciones, usada para consultar la duración registrada */
+    private final Cancion cancionBL = new Cancion();
+
+    /** Milisegundos entre pedir una canción y que empiece a sonar (última reproducción) */
+    private long ultimoArranqueMs;
+
+    /** Tabla de búsqueda de la canción {@link #idTablaActual}; null mientras se lee */
+    private TablaBusqueda tablaActual;
+
+    /** ID de la canción a la que pertenece {@link #tablaActual} */
+    private Integer idTablaActual;
+
+    /** Lectura de {@link #tablaActual}; termina en el hilo de JavaFX después de asignarla */
+    private CompletableFuture<TablaBusqueda> tablaPendiente;
+
+    /** Lectura anticipada de la tabla de búsqueda de la siguiente canción de la cola */
+    private CompletableFuture<TablaBusqueda> tablaSiguiente;
+
+    /** ID de la canción de {@link #tablaSiguiente} */
+    private Integer idTablaSiguiente;
+
+    /** Reproductor ya abierto para la siguiente canción de la cola (doble buffer) */
+    private MediaPlayer reproductorPreparado;
+
+    /** ID de la canción de {@link #reproductorPreparado} */
+    private Integer idPreparado;
+
+    /** Aumenta cada vez que cambia la canción en curso; invalida preparaciones pendientes */
+    private long generacion;
+
+    /** Milisegundos entre el fin de una canción y el inicio de la siguiente (último avance) */
+    private long ultimaTransicionMs;
+
+    /** Mayor latencia de transición observada */
+    private long transicionMaximaMs;
+
+    /** Avances automáticos que usaron el reproductor preparado */
+    private long transicionesSinPausa;
+
+    /** Avances automáticos que tuvieron que abrir el audio en el momento */
+    private long transicionesConCarga;
+
+    /** ID de la canción que está sonando; null si terminó o aún no empieza */
+    private Integer idCancionSonando;
+
+    /** Callback para cuando termina una canción */
+    private Runnable onCancionTerminada;
+
+    /**
+     * Constructor privado. Se invoca solo una vez mediante {@link #getInstancia(List)}.
+     *
+     * @param idsCanciones IDs de las canciones de la cola
+     */
+    private ReproductorMP3(List<Integer> idsCanciones) {
+        this.playlist = new GestorPlaylist(idsCanciones);
+        this.motor = new MotorReproduccion(); // Mantenido para compatibilidad
+        this.estadoActual = new EstadoDetenido(this);
+    }
+
+    /**
+     * Devuelve la instancia única del reproductor MP3 (Singleton).
+     * Si no existe, la crea con la lista de canciones proporcionada.
+     *
+     * @param idsCanciones IDs de las canciones para inicializar la cola
+     * @return Instancia única del reproductor
+     */
+    public static ReproductorMP3 getInstancia(List<Integer> idsCanciones) {
+        if (instancia == null) {
+            instancia = new ReproductorMP3(idsCanciones);
+        }
+        return instancia;
+    }
+
+    // --------------------------
+    // Métodos públicos del estado
+    // --------------------------
+
+    /**
+     * Inicia la reproducción desde el estado actual.
+     */
+    public void reproducir() {
+        estadoActual.reproducir();
+    }
+
+    /**
+     * Pausa la reproducción actual.
+     */
+    public void pausar() {
+        estadoActual.pausar();
+    }
+
+    /**
+     * Reanuda la reproducción desde el punto en que fue pausada.
+     */
+    public void reanudar() {
+        estadoActual.reanudar();
+    }
+
+    /**
+     * Detiene completamente la reproducción.
+     */
+    public void detener() {
+        estadoActual.detener();
+    }
+
+    /**
+     * Reproduce la siguiente canción en la lista.
+     */
+    public void siguiente() {
+        estadoActual.siguiente();
+        notificarCambioCancion();
+    }
+
+    /**
+     * Reproduce la canción anterior en la lista.
+     */
+    public void anterior() {
+        estadoActual.anterior();
+        notificarCambioCancion();
+    }
+
+    // --------------------------
+    // Métodos internos actualizados con JavaFX Media
+    // --------------------------
+
+    /**
+     * Inicia la reproducción de la canción actual usando JavaFX MediaPlayer.
+     * Si la canción termina, automáticamente avanza a la siguiente.
+     *
+     * @param frameInicial Frame desde el cual comenzar (convertido a tiempo)
+     */
+    public void iniciarReproduccionDesde(int frameInicial) {
+        iniciar(frameInicial, System.nanoTime(), false);
+    }
+
+    /**
+     * Avanza a la siguiente canción cuando la actual llega al final.
+     *
+     * <p>Si el reproductor de la siguiente canción ya quedó preparado mientras sonaba la
+     * actual, solo se le llama a {@code play()}, sin esperar a que se lea el archivo ni a
+     * que JavaFX lo decodifique.</p>
+     */
+    private void avanzarAlTerminar() {
+        System.out.println("Canción terminada, avanzando a la siguiente");
+        long inicio = System.nanoTime();
+        playlist.siguiente();
+        iniciar(0, inicio, true);
+        notificarCambioCancion();
+    }
+
+    /**
+     * Pone a sonar la canción actual de la cola, reutilizando el reproductor preparado
+     * si corresponde a esa canción.
+     *
+     * <p>El audio se resuelve con {@link BufferAudio} sin bloquear: si no estaba precargado se
+     * lee de la base de datos, y eso nunca debe ocurrir en el hilo de JavaFX. El MediaPlayer se crea y
+     * se arranca cuando el archivo está listo.</p>
+     *
+     * @param frameInicial Frame desde el cual comenzar
+     * @param inicio Instante (System.nanoTime) en que se pidió la canción
+     * @param transicion true si es el avance automático al terminar la canción anterior
+     */
+    private void iniciar(int frameInicial, long inicio, boolean transicion) {
+        registrarAbandono();
+        Integer idCancion = playlist.obtenerIdCancionActual();
+        if (idCancion == null) {
+            System.out.println("No se encontró la canción.");
+            return;
+        }
+        cargarTablaActual(idCancion);
+
+        MediaPlayer anterior = mediaPlayer;
+        double volumen = anterior != null ? anterior.getVolume() : 1.0;
+        boolean silencio = anterior != null && anterior.isMute();
+        MediaPlayer preparado = tomarPreparado(idCancion);
+        generacion++;
+        long generacionPedida = generacion;
+        mediaPlayer = null;
+        retirar(anterior);
+
+        // Marcar la canción como actual en el buffer (si estaba precargada no lee nada)
+        CompletableFuture<File> audio = bufferAudio.obtener(idCancion);
+        bufferAudio.precargar(playlist.obtenerIdCancionSiguiente());
+
+        if (preparado != null) {
+            // El reproductor preparado ya abrió su audio: suena sin esperar al buffer
+            audio.exceptionally(e -> {
+                System.err.println("Error al preparar la caché de audio: " + EjecutorDatos.causa(e).getMessage());
+                return null;
+            });
+            abrir(preparado, volumen, silencio, frameInicial, inicio, transicion, true);
+            return;
+        }
+        EjecutorDatos.getInstancia().alTerminar(audio, "reproductor.audio", archivo -> {
+            if (generacionPedida != generacion) {
+                return; // Se pidió otra canción mientras se leía el audio
+            }
+            if (archivo == null) {
+                System.out.println("La canción no tiene audio.");
+                setEstado(new EstadoDetenido(this));
+                return;
+            }
+            try {
+                MediaPlayer nuevo = new MediaPlayer(new Media(archivo.toURI().toString()));
+                abrir(nuevo, volumen, silencio, frameInicial, inicio, transicion, false);
+            } catch (Exception e) {
+                System.err.println("Error al iniciar reproducción: " + e.getMessage());
+                setEstado(new EstadoDetenido(this));
+            }
+        }, e -> {
+            if (generacionPedida == generacion) {
+                System.err.println("Error al iniciar reproducción: " + e.getMessage());
+                setEstado(new EstadoDetenido(this));
+            }
+        });
+    }
+
+    /**
+     * Convierte un reproductor en el actual y lo arranca en cuanto esté listo.
+     */
+    private void abrir(MediaPlayer nuevo, double volumen, boolean silencio, int frameInicial, long inicio,
+                       boolean transicion, boolean sinPausa) {
+        nuevo.setVolume(volumen);
+        nuevo.setMute(silencio);
+        mediaPlayer = nuevo;
+        configurarEventos(nuevo);
+
+        if (nuevo.getStatus() == MediaPlayer.Status.READY) {
+            arrancar(nuevo, frameInicial, inicio, transicion, sinPausa);
+        } else {
+            nuevo.setOnReady(() -> arrancar(nuevo, frameInicial, inicio, transicion, sinPausa));
+        }
+    }
+
+    /**
+     * Arranca un reproductor ya listo, registra la latencia y prepara la siguiente canción.
+     */
+    private void arrancar(MediaPlayer reproductor, int frameInicial, long inicio, boolean transicion, boolean sinPausa) {
+        if (reproductor != mediaPlayer) {
+            return; // Se pidió otra canción mientras esta cargaba
+        }
+        if (frameInicial > 0 && tablaPendiente != null && !tablaPendiente.isDone()) {
+            // El salto al frame inicial necesita la tabla; se arranca cuando termine de leerse
+            tablaPendiente.whenCompleteAsync((tabla, error) -> arrancar(reproductor, frameInicial, inicio, transicion, sinPausa),
+                    EjecutorDatos.getInstancia().hiloFx("tabla-busqueda"));
+            return;
+        }
+        // Cambiar el estado a Reproduciendo
+        setEstado(new EstadoReproduciendo(this));
+
+        // Si hay un frame inicial específico, posicionarse ahí
+        if (frameInicial > 0) {
+            double segundos = segundosDeFrame(frameInicial);
+            reproductor.seek(Duration.seconds(segundos));
+        }
+
+        // Iniciar reproducción
+        reproductor.play();
+        idCancionSonando = playlist.obtenerIdCancionActual();
+        if (idCancionSonando != null) {
+            RegistroReproducciones.getInstancia().registrar(idCancionSonando, TipoEventoReproduccion.INICIO,
+                    frameInicial > 0 ? segundosDeFrame(frameInicial) : 0);
+        }
+        long nanos = System.nanoTime() - inicio;
+        long ms = nanos / 1_000_000;
+        if (transicion) {
+            MetricasReproduccion.getInstancia().registrarCambioPista(nanos, sinPausa);
+            registrarTransicion(ms, sinPausa);
+        } else {
+            MetricasReproduccion.getInstancia().registrarArranque(nanos);
+            ultimoArranqueMs = ms;
+        }
+
+        prepararSiguiente();
+    }
+
+    /**
+     * Asigna al reproductor los eventos de fin de canción y de error.
+     */
+    private void configurarEventos(MediaPlayer reproductor) {
+        reproductor.setOnEndOfMedia(() -> {
+            if (reproductor == mediaPlayer) {
+                registrarEvento(TipoEventoReproduccion.COMPLETA);
+                idCancionSonando = null;
+                avanzarAlTerminar();
+            }
+        });
+
+        boolean[] escuchada = {false};
+        reproductor.currentTimeProperty().addListener((observable, anterior, actual) -> {
+            if (!escuchada[0] && reproductor == mediaPlayer && actual.toSeconds() >= SEGUNDOS_ESCUCHADA) {
+                escuchada[0] = true;
+                registrarEvento(TipoEventoReproduccion.TREINTA_SEGUNDOS);
+            }
+        });
+
+        // STALLED: el reproductor se quedó sin datos decodificados mientras sonaba
+        reproductor.setOnStalled(() -> {
+            if (reproductor == mediaPlayer) {
+                MetricasReproduccion.getInstancia().registrarSubejecucion();
+            }
+        });
+
+        reproductor.setOnError(() -> {
+            System.err.println("Error en MediaPlayer: " + reproductor.getError());
+            if (reproductor == mediaPlayer) {
+                setEstado(new EstadoDetenido(this));
+            }
+        });
+    }
+
+    /**
+     * Crea el reproductor de la siguiente canción de la cola para que esté listo (archivo en
+     * disco y medio abierto) cuando termine la actual. El archivo sale de la precarga de
+     * {@link BufferAudio}, así que la canción se extrae una sola vez.
+     */
+    private void prepararSiguiente() {
+        descartarPreparado();
+        Integer idSiguiente = playlist.obtenerIdCancionSiguiente();
+        if (idSiguiente == null || idSiguiente.equals(playlist.obtenerIdCancionActual())) {
+            return;
+        }
+        long generacionPedida = generacion;
+        if (!idSiguiente.equals(idTablaSiguiente)) {
+            idTablaSiguiente = idSiguiente;
+            tablaSiguiente = leerTablaBusqueda(idSiguiente);
+        }
+
+        CompletableFuture<File> audio = bufferAudio.precargar(idSiguiente);
+        EjecutorDatos.getInstancia().alTerminar(audio, "reproductor.siguiente", archivo -> {
+            if (archivo == null || generacionPedida != generacion || mediaPlayer == null) {
+                return; // La cola cambió mientras se extraía el audio
+            }
+            MediaPlayer siguiente = new MediaPlayer(new Media(archivo.toURI().toString()));
+            siguiente.setOnError(() -> {
+                if (siguiente == reproductorPreparado) {
+                    descartarPreparado();
+                }
+            });
+            reproductorPreparado = siguiente;
+            idPreparado = idSiguiente;
+        }, e -> System.err.println("No se pudo preparar la siguiente canción: " + e.getMessage()));
+    }
+
+    /**
+     * Entrega el reproductor preparado si corresponde a la canción indicada; si no, lo descarta.
+     *
+     * @return Reproductor preparado para esa canción, o null
+     */
+    private MediaPlayer tomarPreparado(int idCancion) {
+        if (reproductorPreparado != null && idPreparado != null && idPreparado == idCancion
+                && reproductorPreparado.getStatus() != MediaPlayer.Status.HALTED) {
+            MediaPlayer preparado = reproductorPreparado;
+            reproductorPreparado = null;
+            idPreparado = null;
+            return preparado;
+        }
+        descartarPreparado();
+        return null;
+    }
+
+    /**
+     * Libera el reproductor preparado para la siguiente canción, si existe.
+     */
+    private void descartarPreparado() {
+        if (reproductorPreparado != null) {
+            reproductorPreparado.dispose();
+            reproductorPreparado = null;
+            idPreparado = null;
+        }
+    }
+
+    /**
+     * Detiene un reproductor que deja de ser el actual. Se libera en el siguiente pulso
+     * del hilo de JavaFX porque puede estar ejecutando su propio evento de fin de canción.
+     */
+    private static void retirar(MediaPlayer reproductor) {
+        if (reproductor != null) {
+            reproductor.stop();
+            Platform.runLater(reproductor::dispose);
+        }
+    }
+
+    /**
+     * Registra un evento de la canción que está sonando, en su posición actual.
+     */
+    private void registrarEvento(TipoEventoReproduccion tipo) {
+        if (idCancionSonando != null) {
+            RegistroReproducciones.getInstancia().registrar(idCancionSonando, tipo, getTiempoActual());
+        }
+    }
+
+    /**
+     * Registra como saltada la canción que está sonando, si no llegó al final.
+     */
+    private void registrarAbandono() {
+        if (mediaPlayer != null) {
+            registrarEvento(TipoEventoReproduccion.SALTADA);
+        }
+        idCancionSonando = null;
+    }
+
+    private void registrarTransicion(long ms, boolean sinPausa) {
+        ultimaTransicionMs = ms;
+        transicionMaximaMs = Math.max(transicionMaximaMs, ms);
+        if (sinPausa) {
+            transicionesSinPausa++;
+        } else {
+            transicionesConCarga++;
+        }
+    }
+
+    /**
+     * Pausa el MediaPlayer actual
+     */
+    public void pausarMediaPlayer() {
+        if (mediaPlayer != null && mediaPlayer.getStatus() == MediaPlayer.Status.PLAYING) {
+            mediaPlayer.pause();
+            System.out.println("Reproducción pausada");
+        }
+    }
+
+    /**
+     * Reanuda el MediaPlayer pausado
+     */
+    public void reanudarMediaPlayer() {
+        if (mediaPlayer != null && mediaPlayer.getStatus() == MediaPlayer.Status.PAUSED) {
+            mediaPlayer.play();
+            System.out.println("Reproducción reanudada");
+        }
+    }
+
+    /**
+     * Detiene y limpia el MediaPlayer actual
+     */
+    public void detenerMediaPlayer() {
+        registrarAbandono();
+        generacion++;
+        descartarPreparado();
+        if (mediaPlayer != null) {
+            mediaPlayer.stop();
+            mediaPlayer.dispose();
+            mediaPlayer = null;
+        }
+    }
+
+    /**
+     * Cierra la reproducción actual pero mantiene la playlist.
+     */
+    public void cerrarReproduccion() {
+        detenerMediaPlayer();
+        motor.cerrar(); // Mantener para compatibilidad
+    }
+
+    /**
+     * Cierra la reproducción actual y limpia completamente la lista de canciones.
+     */
+    public void cerrarReproduccionTotal() {
+        detenerMediaPlayer();
+        motor.cerrar();
+        bufferAudio.liberar();
+        playlist.setIdsCanciones(null);
+    }
+
+    /**
+     * Mueve la reproducción a un tiempo específico de la canción actual.
+     *
+     * @param nuevoFrame Frame objetivo (convertido a segundos con la tabla de búsqueda)
+     */
+    public void moverAFrame(int nuevoFrame) {
+        if (mediaPlayer != null) {
+            double segundos = segundosDeFrame(nuevoFrame);
+            mediaPlayer.seek(Duration.seconds(segundos));
+            motor.setFrameActual(nuevoFrame); // Mantener sincronizado
+        }
+    }
+
+    /**
+     * Establece el tiempo de reproducción en segundos
+     */
+    public void setTiempo(double segundos) {
+        if (mediaPlayer != null) {
+            mediaPlayer.seek(Duration.seconds(segundos));
+            motor.setFrameActual(frameEnSegundo(segundos));
+        }
+    }
+
+    /**
+     * Convierte un frame de la canción actual al instante exacto en que empieza.
+     *
+     * <p>Usa la {@link TablaBusqueda} de la canción, por lo que es exacto también en MP3 VBR.
+     * Si la canción no tiene tabla (audio no analizable) o todavía se está leyendo, se usa la
+     * aproximación de 26 frames por segundo.</p>
+     *
+     * @param frame Número de frame
+     * @return Segundos desde el inicio de la canción
+     */
+    public double segundosDeFrame(int frame) {
+        TablaBusqueda tabla = tablaCancionActual();
+        return tabla != null ? tabla.segundoDeFrame(frame) : frame / FRAMES_POR_SEGUNDO_APROX;
+    }
+
+    /**
+     * Convierte un instante de la canción actual al frame que se reproduce en él.
+     *
+     * @param segundos Segundos desde el inicio
+     * @return Número de frame
+     */
+    public int frameEnSegundo(double segundos) {
+        TablaBusqueda tabla = tablaCancionActual();
+        return tabla != null ? tabla.frameEnSegundo(segundos) : (int) (segundos * FRAMES_POR_SEGUNDO_APROX);
+    }
+
+    /**
+     * Devuelve la tabla de búsqueda de la canción actual si ya se leyó. Nunca la lee: se
+     * llama desde el hilo de JavaFX al saltar, y construir la tabla puede recorrer el MP3.
+     *
+     * @return Tabla de la canción actual, o null si aún se está leyendo o no tiene
+     */
+    private TablaBusqueda tablaCancionActual() {
+        Integer idCancion = playlist.obtenerIdCancionActual();
+        return idCancion != null && idCancion.equals(idTablaActual) ? tablaActual : null;
+    }
+
+    /**
+     * Empieza a leer la tabla de búsqueda de la canción que va a sonar, o toma la que
+     * {@link #prepararSiguiente()} leyó por adelantado.
+     *
+     * @param idCancion ID de la canción
+     */
+    private void cargarTablaActual(int idCancion) {
+        if (Integer.valueOf(idCancion).equals(idTablaActual)) {
+            return;
+        }
+        CompletableFuture<TablaBusqueda> lectura = Integer.valueOf(idCancion).equals(idTablaSiguiente)
+                ? tablaSiguiente
+                : leerTablaBusqueda(idCancion);
+        tablaSiguiente = null;
+        idTablaSiguiente = null;
+        tablaActual = null;
+        idTablaActual = idCancion;
+        tablaPendiente = lectura.thenApplyAsync(tabla -> {
+            if (Integer.valueOf(idCancion).equals(idTablaActual)) {
+                tablaActual = tabla;
+            }
+            return tabla;
+        }, EjecutorDatos.getInstancia().hiloFx("tabla-busqueda"));
+    }
+
+    /**
+     * Lee o construye en segundo plano la tabla de búsqueda de una canción.
+     *
+     * @return Futuro con la tabla, o con null si la canción no tiene o no se pudo leer
+     */
+    private CompletableFuture<TablaBusqueda> leerTablaBusqueda(int idCancion) {
+        return EjecutorDatos.getInstancia()
+                .enSegundoPlano("tabla-busqueda", () -> cancionBL.obtenerTablaBusqueda(idCancion))
+                .exceptionally(e -> {
+                    System.err.println("Error al obtener la tabla de búsqueda: " + EjecutorDatos.causa(e).getMessage());
+                    return null;
+                });
+    }
+
+    /**
+     * Obtiene el tiempo actual de reproducción en segundos
+     */
+    public double getTiempoActual() {
+        if (mediaPlayer != null && mediaPlayer.getCurrentTime() != null) {
+            return mediaPlayer.getCurrentTime().toSeconds();
+        }
+        return 0.0;
+    }
+
+    /**
+     * Cambia la lista de canciones activa. Detiene la reproducción y reinicia el estado.
+     *
+     * @param nuevaLista IDs de las canciones de la nueva cola
+     */
+    public void cambiarPlaylist(List<Integer> nuevaLista) {
+        detener();
+        cerrarReproduccion();
+        playlist.setIdsCanciones(nuevaLista);
+        estadoActual = new EstadoDetenido(this);
+    }
+
+    /**
+     * Obtiene la duración total de la canción actual.
+     *
+     * <p>Si el MediaPlayer ya conoce la duración se usa esa; si no, se toma la duración
+     * registrada en la base de datos, sin leer el audio. Esa consulta se hace en segundo plano
+     * y el callback la recibe después en el hilo de JavaFX.</p>
+     *
+     * @param callback Callback que recibe la duración en segundos
+     */
+    public void obtenerDuracionCancionActual(Consumer<Double> callback) {
+        try {
+            if (mediaPlayer != null && mediaPlayer.getTotalDuration() != null
+                    && !mediaPlayer.getTotalDuration().equals(Duration.UNKNOWN)) {
+                // Si ya tenemos la duración disponible
+                callback.accept(mediaPlayer.getTotalDuration().toSeconds());
+                return;
+            }
+
+            // Si el MediaPlayer aún no está listo, usar la duración guardada al registrar la canción
+            Integer idCancion = playlist.obtenerIdCancionActual();
+            if (idCancion == null) {
+                callback.accept(0.0);
+                return;
+            }
+            EjecutorDatos.getInstancia().cargar("cancion.duracion", () -> cancionBL.buscarDuracion(idCancion),
+                    callback, e -> {
+                        System.err.println("Error al obtener duración: " + e.getMessage());
+                        callback.accept(0.0);
+                    });
+        } catch (Exception e) {
+            System.err.println("Error al obtener duración: " + e.getMessage());
+            callback.accept(0.0);
+        }
+    }
+
+    // --------------------------
+    // Métodos de compatibilidad y utilidad
+    // --------------------------
+
+    /**
+     * Verifica si está reproduciendo actualmente
+     */
+    public boolean estaReproduciendo() {
+        return estadoActual instanceof EstadoReproduciendo &&
+                mediaPlayer != null &&
+                mediaPlayer.getStatus() == MediaPlayer.Status.PLAYING;
+    }
+
+    /**
+     * Verifica si está pausado
+     */
+    public boolean estaPausado() {
+        return estadoActual instanceof EstadoPausado ||
+                (mediaPlayer != null && mediaPlayer.getStatus() == MediaPlayer.Status.PAUSED);
+    }
+
+    /**
+     * Obtiene el MediaPlayer actual (para acceso directo si es necesario)
+     */
+    public MediaPlayer getMediaPlayer() {
+        return mediaPlayer;
+    }
+
+    // --------------------------
+    // Getters y Setters existentes
+    // --------------------------
+
+    /**
+     * Devuelve el gestor de la playlist actual.
+     *
+     * @return Gestor de playlist
+     */
+    public GestorPlaylist getPlaylist() {
+        return playlist;
+    }
+
+    /**
+     * Devuelve el buffer que resuelve el audio de la cola.
+     *
+     * @return Buffer de audio
+     */
+    public BufferAudio getBufferAudio() {
+        return bufferAudio;
+    }
+
+    /**
+     * Devuelve cuánto tardó en empezar a sonar la última canción iniciada.
+     *
+     * @return Milisegundos desde que se pidió la canción hasta que se llamó a play
+     */
+    public long getUltimoArranqueMs() {
+        return ultimoArranqueMs;
+    }
+
+    /**
+     * Devuelve cuánto tardó en sonar la última canción que empezó por avance automático.
+     *
+     * @return Milisegundos entre el fin de la canción anterior y el play de la siguiente
+     */
+    public long getUltimaTransicionMs() {
+        return ultimaTransicionMs;
+    }
+
+    /**
+     * @return Mayor latencia de transición observada en milisegundos
+     */
+    public long getTransicionMaximaMs() {
+        return transicionMaximaMs;
+    }
+
+    /**
+     * @return Avances automáticos resueltos con el reproductor ya preparado
+     */
+    public long getTransicionesSinPausa() {
+        return transicionesSinPausa;
+    }
+
+    /**
+     * @return Avances automáticos que tuvieron que abrir el audio en el momento
+     */
+    public long getTransicionesConCarga() {
+        return transicionesConCarga;
+    }
+
+    /**
+     * Devuelve el motor de reproducción usado internamente.
+     *
+     * @return Motor de reproducción
+     */
+    public MotorReproduccion getMotor() {
+        return motor;
+    }
+
+    /**
+     * Devuelve el estado actual del reproductor (State).
+     *
+     * @return Estado actual
+     */
+    public EstadoReproductor getEstado() {
+        return estadoActual;
+    }
+
+    /**
+     * Cambia el estado del reproductor (se usa internamente por los estados).
+     *
+     * @param estado Nuevo estado a establecer
+     */
+    public void setEstado(EstadoReproductor estado) {
+        this.estadoActual = estado;
+    }
+
+    // Callback que se ejecuta cuando cambia de canción
+    private Runnable onSongChange;
+
+    /**
+     * Permite registrar un callback para cuando cambie la canción
+     */
+    public void setOnSongChange(Runnable onSongChange) {
+        this.onSongChange = onSongChange;
+    }
+
+    /**
+     * Método interno para notificar cambio de canción
+     */
+    public void notificarCambioCancion() {
+        if (onSongChange != null) {
+            onSongChange.run();
+        }
+    }
+
+
+}
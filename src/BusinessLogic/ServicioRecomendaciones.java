@@ -1,6 +1,8 @@
 package BusinessLogic;
 
-import DataAccessComponent.DTO.CancionDTO;
+import DataAccessComponent.DAO.CancionDAO;
+import DataAccessComponent.DTO.CancionResumenDTO;
+import DataAccessComponent.DTO.CriteriosRecomendacionDTO;
 import java.util.List;
 
 /**
@@ -10,10 +12,20 @@ import java.util.List;
  * <p>Utiliza el patrón Decorator para aplicar distintos filtros en función
  * de los parámetros proporcionados.</p>
  *
+ * <p>La cadena se resuelve primero en la base de datos: cada filtro aporta su condición a un
+ * {@link CriteriosRecomendacionDTO} y {@link CancionDAO#buscarResumenesPorCriterios} devuelve
+ * solo las canciones que cumplen todas. Si algún eslabón no sabe expresarse como consulta o
+ * la consulta falla, se usa el filtrado en memoria de {@link Recomendador#recomendar()}.</p>
+ *
+ * <p>Opcionalmente, el resultado pasa por una etapa de orden ({@link RecomendadorSimilitud})
+ * que deja primero las canciones más parecidas a una semilla o al historial del usuario.</p>
+ *
  * @author Grupo F - InkHarmony Team
  */
 public class ServicioRecomendaciones {
 
+    private final CancionDAO cancionDAO = new CancionDAO();
+
     /**
      * Generará una lista de canciones recomendadas aplicando los filtros
      * correspondientes según los parámetros proporcionados.
@@ -24,11 +36,77 @@ public class ServicioRecomendaciones {
      * @param estrenos si se debe incluir solo canciones recientes
      * @return lista filtrada de canciones recomendadas
      */
-    public List<CancionDTO> recomendar(boolean usarPreferencias,
+    public List<CancionResumenDTO> recomendar(boolean usarPreferencias,
                                        Genero genero,
                                        String artista,
                                        boolean estrenos) {
 
+        return recomendar(usarPreferencias, genero, artista, estrenos, null);
+    }
+
+    /**
+     * Generará una lista de canciones recomendadas aplicando los filtros y, si se indica,
+     * ordenándolas por parecido.
+     *
+     * @param usarPreferencias si se debe aplicar el filtro basado en preferencias del usuario
+     * @param genero género específico a filtrar (puede ser null)
+     * @param artista nombre del artista a filtrar (puede ser null o vacío)
+     * @param estrenos si se debe incluir solo canciones recientes
+     * @param orden etapa que ordena y recorta el resultado por parecido (puede ser null)
+     * @return lista filtrada de canciones recomendadas, ordenada por parecido si hay orden
+     */
+    public List<CancionResumenDTO> recomendar(boolean usarPreferencias,
+                                       Genero genero,
+                                       String artista,
+                                       boolean estrenos,
+                                       RecomendadorSimilitud orden) {
+
+        List<CancionResumenDTO> candidatas = recomendar(construirCadena(usarPreferencias, genero, artista, estrenos));
+        return orden != null ? orden.ordenar(candidatas) : candidatas;
+    }
+
+    /**
+     * Ejecuta una cadena ya construida, en SQL si es posible y si no en memoria.
+     *
+     * @param cadena último eslabón de la cadena de recomendación
+     * @return lista filtrada de canciones recomendadas
+     */
+    public List<CancionResumenDTO> recomendar(Recomendador cadena) {
+        CriteriosRecomendacionDTO criterios = cadena.criterios();
+        if (criterios != null) {
+            try {
+                return cancionDAO.buscarResumenesPorCriterios(criterios);
+            } catch (Exception e) {
+                System.err.println("Error al consultar recomendaciones, se filtra en memoria: " + e.getMessage());
+            }
+        }
+        return cadena.recomendar();
+    }
+
+    /**
+     * Recomienda las canciones más escuchadas esta semana en los géneros preferidos del
+     * usuario en sesión, a partir de los conteos de reproducciones.
+     *
+     * @return canciones de más a menos reproducida
+     */
+    public List<CancionResumenDTO> recomendarPopulares() {
+        return RecomendadorPopulares.paraUsuarioActual().recomendar();
+    }
+
+    /**
+     * Arma la cadena de filtros según los parámetros proporcionados.
+     *
+     * @param usarPreferencias si se debe aplicar el filtro basado en preferencias del usuario
+     * @param genero género específico a filtrar (puede ser null)
+     * @param artista nombre del artista a filtrar (puede ser null o vacío)
+     * @param estrenos si se debe incluir solo canciones recientes
+     * @return último eslabón de la cadena
+     */
+    static Recomendador construirCadena(boolean usarPreferencias,
+                                        Genero genero,
+                                        String artista,
+                                        boolean estrenos) {
+
         Recomendador cadena = new RecomendadorCanciones();
 
         if (usarPreferencias)
@@ -40,6 +118,6 @@ public class ServicioRecomendaciones {
         if (estrenos)
             cadena = new FiltroEstreno(cadena);
 
-        return cadena.recomendar();
+        return cadena;
     }
 }
@@ -1,5 +1,6 @@
 package BusinessLogic;
 import DataAccessComponent.DTO.CancionDTO;
+import DataAccessComponent.DTO.CancionResumenDTO;
 import DataAccessComponent.DTO.ArtistaDTO;
 import DataAccessComponent.DAO.CancionDAO;
 import java.util.List;
@@ -205,11 +206,11 @@ public class ServicioValidacionCancion implements UnicoNombreValidable {
     public boolean esNombreUnico(String nombre) {
         try {
             // Recupera todas las canciones registradas
-            List<CancionDTO> canciones = cancionDAO.buscarTodo();
+            List<CancionResumenDTO> canciones = cancionDAO.buscarResumenes();
             Set<String> nombresCanciones = new HashSet<>();
 
             // Agrega los nombres de las canciones a un conjunto para verificar unicidad
-            for (CancionDTO cancion : canciones) {
+            for (CancionResumenDTO cancion : canciones) {
                 nombresCanciones.add(cancion.getTitulo());
             }
 
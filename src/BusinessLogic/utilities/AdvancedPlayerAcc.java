@@ -1,242 +1,398 @@
-package BusinessLogic.utilities;
-
-import java.io.InputStream;
-
-import javazoom.jl.decoder.Bitstream;
-import javazoom.jl.decoder.BitstreamException;
-import javazoom.jl.decoder.Decoder;
-import javazoom.jl.decoder.Header;
-import javazoom.jl.decoder.JavaLayerException;
-import javazoom.jl.decoder.SampleBuffer;
-import javazoom.jl.player.AudioDevice;
-import javazoom.jl.player.FactoryRegistry;
-import javazoom.jl.player.advanced.AdvancedPlayer;
-import javazoom.jl.player.advanced.PlaybackEvent;
-import javazoom.jl.player.advanced.PlaybackListener;
-
-/**
- * Clase que extiende {@link AdvancedPlayer} para permitir:
- * <ul>
- *   <li>Reproducción desde un frame específico</li>
- *   <li>Pausar y reanudar desde la última posición exacta</li>
- *   <li>Escuchar eventos de reproducción personalizados</li>
- * </ul>
- *
- * Utiliza internamente {@link Bitstream} y {@link Decoder} para manejar los datos MP3,
- * y controla el estado de reproducción (como posición y frames).
- *
- * Es utilizada por el reproductor MP3 como motor de reproducción avanzado.
- */
-public class AdvancedPlayerAcc extends AdvancedPlayer {
-
-    private Bitstream bitstream;
-    private Decoder decoder;
-    private AudioDevice audio;
-    private boolean closed = false;
-    private boolean complete = false;
-    private int lastPosition = 0;
-    private int currentFrame = 0;
-    private PlaybackListener listener;
-
-    /**
-     * Constructor que crea un reproductor con un {@link InputStream} de entrada.
-     * Usa el dispositivo de audio predeterminado del sistema.
-     *
-     * @param stream Flujo de entrada MP3
-     * @throws JavaLayerException si ocurre un error al crear el dispositivo de audio
-     */
-    public AdvancedPlayerAcc(InputStream stream) throws JavaLayerException {
-        this(stream, null);
-    }
-
-    /**
-     * Constructor que permite especificar un dispositivo de audio.
-     *
-     * @param stream Flujo de entrada MP3
-     * @param device Dispositivo de audio personalizado (puede ser null)
-     * @throws JavaLayerException si ocurre un error al inicializar la reproducción
-     */
-    public AdvancedPlayerAcc(InputStream stream, AudioDevice device) throws JavaLayerException {
-        super(stream, device);
-        bitstream = new Bitstream(stream);
-        if (device != null) audio = device;
-        else audio = FactoryRegistry.systemRegistry().createAudioDevice();
-        audio.open(decoder = new Decoder());
-    }
-
-    /**
-     * Reproduce la pista completa desde el frame actual hasta el final.
-     *
-     * @throws JavaLayerException si ocurre un error durante la reproducción
-     */
-    public void play() throws JavaLayerException {
-        play(Integer.MAX_VALUE);
-    }
-
-    /**
-     * Devuelve el número del último frame reproducido antes de pausar o detener.
-     *
-     * @return Frame actual
-     */
-    public int getLastPosition() {
-        return currentFrame;
-    }
-
-    /**
-     * Reproduce un número específico de frames a partir de la posición actual.
-     *
-     * @param frames Número de frames a reproducir
-     * @return true si la reproducción fue exitosa
-     * @throws JavaLayerException si ocurre un error durante la reproducción
-     */
-    public boolean play(int frames) throws JavaLayerException {
-        boolean ret = true;
-        if (listener != null)
-            listener.playbackStarted(createEvent(PlaybackEvent.STARTED));
-
-        while (frames-- > 0 && ret) {
-            ret = decodeFrame();
-        }
-
-        AudioDevice out = audio;
-        if (out != null) {
-            out.flush();
-            synchronized (this) {
-                complete = (!closed);
-                close();
-            }
-            if (listener != null)
-                listener.playbackFinished(createEvent(out, PlaybackEvent.STOPPED));
-        }
-
-        return ret;
-    }
-
-    /**
-     * Cierra la reproducción y libera recursos. Guarda la posición actual.
-     */
-    @Override
-    public synchronized void close() {
-        AudioDevice out = audio;
-        if (out != null) {
-            closed = true;
-            audio = null;
-            lastPosition = currentFrame;
-            out.close();
-            try {
-                bitstream.close();
-            } catch (BitstreamException ex) {
-                // Error ignorado
-            }
-        }
-    }
-
-    /**
-     * Decodifica un solo frame de audio y lo envía al dispositivo de audio.
-     *
-     * @return true si se decodificó correctamente
-     * @throws JavaLayerException si ocurre un error de decodificación
-     */
-    @Override
-    protected boolean decodeFrame() throws JavaLayerException {
-        try {
-            AudioDevice out = audio;
-            if (out == null) return false;
-
-            Header h = bitstream.readFrame();
-            if (h == null) return false;
-
-            SampleBuffer output = (SampleBuffer) decoder.decodeFrame(h, bitstream);
-
-            synchronized (this) {
-                out = audio;
-                if (out != null) {
-                    out.write(output.getBuffer(), 0, output.getBufferLength());
-                }
-            }
-
-            bitstream.closeFrame();
-            currentFrame++;
-        } catch (RuntimeException ex) {
-            throw new JavaLayerException("Exception decoding audio frame", ex);
-        }
-        return true;
-    }
-
-    /**
-     * Salta un solo frame sin reproducirlo.
-     *
-     * @return true si se pudo saltar el frame
-     * @throws JavaLayerException si ocurre un error
-     */
-    protected boolean skipFrame() throws JavaLayerException {
-        Header h = bitstream.readFrame();
-        if (h == null) return false;
-        bitstream.closeFrame();
-        return true;
-    }
-
-    /**
-     * Reproduce un rango específico de frames.
-     *
-     * @param start Frame inicial
-     * @param end   Frame final
-     * @return true si la reproducción fue exitosa
-     * @throws JavaLayerException si ocurre un error durante la reproducción
-     */
-    public boolean play(final int start, final int end) throws JavaLayerException {
-        boolean ret = true;
-        currentFrame = start;
-        int offset = start;
-        while (offset-- > 0 && ret) ret = skipFrame();
-        return play(end - start);
-    }
-
-    /**
-     * Crea un evento de reproducción con el identificador proporcionado.
-     *
-     * @param id Identificador del evento (STARTED o STOPPED)
-     * @return Evento de reproducción
-     */
-    private PlaybackEvent createEvent(int id) {
-        return createEvent(audio, id);
-    }
-
-    /**
-     * Crea un evento de reproducción con un dispositivo de audio específico.
-     *
-     * @param dev Dispositivo de audio
-     * @param id  Identificador del evento
-     * @return Evento de reproducción
-     */
-    private PlaybackEvent createEvent(AudioDevice dev, int id) {
-        return new PlaybackEvent(this, id, dev.getPosition());
-    }
-
-    /**
-     * Establece un listener para los eventos de reproducción (inicio, pausa, fin).
-     *
-     * @param listener Listener de reproducción
-     */
-    public void setPlayBackListener(PlaybackListener listener) {
-        this.listener = listener;
-    }
-
-    /**
-     * Devuelve el listener actualmente registrado para los eventos de reproducción.
-     *
-     * @return Listener de reproducción
-     */
-    public PlaybackListener getPlayBackListener() {
-        return listener;
-    }
-
-    /**
-     * Detiene la reproducción y dispara un evento de finalización si hay listener.
-     */
-    public void stop() {
-        if (listener != null)
-            listener.playbackFinished(createEvent(PlaybackEvent.STOPPED));
-        close();
-    }
-}
+package BusinessLogic.utilities;
+
+import java.io.InputStream;
+
+import javazoom.jl.decoder.Bitstream;
+import javazoom.jl.decoder.BitstreamException;
+import javazoom.jl.decoder.Decoder;
+import javazoom.jl.decoder.Header;
+import javazoom.jl.decoder.JavaLayerException;
+import javazoom.jl.decoder.SampleBuffer;
+import javazoom.jl.player.AudioDevice;
+import javazoom.jl.player.FactoryRegistry;
+import javazoom.jl.player.advanced.AdvancedPlayer;
+import javazoom.jl.player.advanced.PlaybackEvent;
+import javazoom.jl.player.advanced.PlaybackListener;
+
+/**
+ * Clase que extiende {@link AdvancedPlayer} para permitir:
+ * <ul>
+ *   <li>Reproducción desde un frame específico</li>
+ *   <li>Pausar y reanudar desde la última posición exacta</li>
+ *   <li>Escuchar eventos de reproducción personalizados</li>
+ * </ul>
+ *
+ * Utiliza internamente {@link Bitstream} y {@link Decoder} para manejar los datos MP3,
+ * y controla el estado de reproducción (como posición y frames).
+ *
+ * Es utilizada por el reproductor MP3 como motor de reproducción avanzado. La decodificación
+ * y la escritura en el dispositivo corren en hilos distintos unidos por un {@link AnilloPCM}.
+ * El tiempo de decodificar y de escribir cada frame se informa a {@link MetricasReproduccion}.
+ */
+public class AdvancedPlayerAcc extends AdvancedPlayer {
+
+    private Bitstream bitstream;
+    private Decoder decoder;
+    private AudioDevice audio;
+    private volatile boolean closed = false;
+    private boolean complete = false;
+    private int lastPosition = 0;
+    private int currentFrame = 0;
+    private PlaybackListener listener;
+    private final MetricasReproduccion metricas = MetricasReproduccion.getInstancia();
+
+    /** Audio decodificado por adelantado; {@code -Dinkharmony.audio.anillo.ms} */
+    public static final int MS_ANILLO = Integer.getInteger("inkharmony.audio.anillo.ms", 400);
+
+    /** Frames del anillo: un frame dura unos 26 ms a 44,1 kHz */
+    private static final int RANURAS_ANILLO = Math.max(4, MS_ANILLO / 26 + 1);
+
+    /** true si el decodificador llegó al final del flujo */
+    private volatile boolean finDelFlujo;
+
+    /** Error del hilo decodificador, que se lanza al terminar {@link #play(int)} */
+    private volatile Exception errorDecodificacion;
+
+    /** true mientras un hilo escribe en el dispositivo; {@link #close()} no lo cierra entonces */
+    private volatile boolean salidaActiva;
+
+    /** Anillo de la reproducción en curso, para que {@link #close()} la detenga */
+    private volatile AnilloPCM anilloActual;
+
+    /**
+     * Constructor que crea un reproductor con un {@link InputStream} de entrada.
+     * Usa el dispositivo de audio predeterminado del sistema.
+     *
+     * @param stream Flujo de entrada MP3
+     * @throws JavaLayerException si ocurre un error al crear el dispositivo de audio
+     */
+    public AdvancedPlayerAcc(InputStream stream) throws JavaLayerException {
+        this(stream, null);
+    }
+
+    /**
+     * Constructor que permite especificar un dispositivo de audio.
+     *
+     * @param stream Flujo de entrada MP3
+     * @param device Dispositivo de audio personalizado (puede ser null)
+     * @throws JavaLayerException si ocurre un error al inicializar la reproducción
+     */
+    public AdvancedPlayerAcc(InputStream stream, AudioDevice device) throws JavaLayerException {
+        super(stream, device);
+        metricas.iniciarPista();
+        bitstream = new Bitstream(stream);
+        if (device != null) audio = device;
+        else audio = FactoryRegistry.systemRegistry().createAudioDevice();
+        audio.open(decoder = new Decoder());
+    }
+
+    /**
+     * Reproduce la pista completa desde el frame actual hasta el final.
+     *
+     * @throws JavaLayerException si ocurre un error durante la reproducción
+     */
+    public void play() throws JavaLayerException {
+        play(Integer.MAX_VALUE);
+    }
+
+    /**
+     * Devuelve el número del último frame reproducido antes de pausar o detener.
+     *
+     * @return Frame actual
+     */
+    public int getLastPosition() {
+        return currentFrame;
+    }
+
+    /**
+     * Reproduce un número específico de frames a partir de la posición actual.
+     *
+     * <p>Un hilo decodifica los frames y los deja en un {@link AnilloPCM} de unos
+     * {@link #MS_ANILLO} ms, mientras el hilo que llama los escribe en el dispositivo de
+     * audio. Así una pausa del recolector o un frame lento de decodificar se cubren con el
+     * audio ya decodificado en lugar de cortar el sonido.</p>
+     *
+     * <p>Después de crear el anillo, el ciclo de cada frame no crea objetos ni toma el
+     * candado del reproductor: el decodificador reutiliza su {@link SampleBuffer}, el anillo
+     * sus ranuras, y {@link #close()} no cierra el dispositivo mientras la salida lo usa, sino
+     * que le pide terminar y es la salida la que lo cierra. Los eventos del listener se
+     * crean solo al empezar y al terminar.</p>
+     *
+     * @param frames Número de frames a reproducir
+     * @return true si la reproducción fue exitosa
+     * @throws JavaLayerException si ocurre un error durante la reproducción
+     */
+    public boolean play(int frames) throws JavaLayerException {
+        salidaActiva = true;
+        AudioDevice out = audio;
+        if (out == null || closed) {
+            liberarSalida();
+            return false;
+        }
+        if (listener != null)
+            listener.playbackStarted(createEvent(out, PlaybackEvent.STARTED));
+
+        AnilloPCM anillo = new AnilloPCM(RANURAS_ANILLO, AnilloPCM.MUESTRAS_POR_FRAME);
+        anilloActual = anillo;
+        Thread decodificador = new Thread(() -> decodificar(anillo, frames), "decodificador-mp3");
+        decodificador.setDaemon(true);
+        decodificador.start();
+        boolean completo;
+        try {
+            escribirFrames(anillo, out);
+        } finally {
+            // Si la salida terminó antes (se cerró el reproductor o falló el dispositivo),
+            // el decodificador deja de esperar espacio en el anillo
+            anillo.cancelar();
+            try {
+                decodificador.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            anilloActual = null;
+            metricas.registrarAnillo(anillo.getVacios(), anillo.getLlenos());
+            if (errorDecodificacion == null && !closed) {
+                out.flush();
+            }
+            synchronized (this) {
+                completo = !closed;
+                complete = completo;
+                closed = true;
+                liberarSalida();
+            }
+        }
+        if (completo && listener != null)
+            listener.playbackFinished(createEvent(out, PlaybackEvent.STOPPED));
+        if (errorDecodificacion != null) {
+            throw new JavaLayerException("Exception decoding audio frame", errorDecodificacion);
+        }
+
+        return completo && !finDelFlujo;
+    }
+
+    /**
+     * Etapa de decodificación: lee y decodifica frames hasta completar la cantidad pedida,
+     * llegar al final del flujo o cerrarse el reproductor, y los deja en el anillo.
+     */
+    private void decodificar(AnilloPCM anillo, int frames) {
+        try {
+            while (frames-- > 0 && !closed) {
+                long inicio = System.nanoTime();
+                Header h = bitstream.readFrame();
+                if (h == null) {
+                    finDelFlujo = true;
+                    break;
+                }
+                SampleBuffer output = (SampleBuffer) decoder.decodeFrame(h, bitstream);
+                metricas.registrarDecodificacion(System.nanoTime() - inicio);
+                boolean encolado = anillo.escribir(output.getBuffer(), output.getBufferLength(), duracionNanos(output));
+                bitstream.closeFrame();
+                if (!encolado) {
+                    break;
+                }
+            }
+        } catch (JavaLayerException | RuntimeException ex) {
+            errorDecodificacion = ex;
+        } finally {
+            anillo.terminar();
+        }
+    }
+
+    /**
+     * Etapa de salida: escribe en el dispositivo los frames del anillo hasta que el
+     * decodificador termine y el anillo se vacíe, o hasta que se cierre el reproductor.
+     */
+    private void escribirFrames(AnilloPCM anillo, AudioDevice out) throws JavaLayerException {
+        while (!closed && anillo.esperarFrame()) {
+            long inicio = System.nanoTime();
+            out.write(anillo.getMuestras(), 0, anillo.getCantidad());
+            metricas.registrarEscritura(inicio, System.nanoTime(), anillo.getNanosAudio());
+            anillo.liberar();
+            currentFrame++;
+        }
+    }
+
+    /**
+     * Cierra la reproducción y libera recursos. Guarda la posición actual.
+     *
+     * <p>Si otro hilo está escribiendo en el dispositivo, solo le indica que termine; ese hilo
+     * cierra el dispositivo al salir, así la escritura nunca ocurre sobre un dispositivo
+     * cerrado y no necesita tomar el candado en cada frame.</p>
+     */
+    @Override
+    public synchronized void close() {
+        closed = true;
+        AnilloPCM anillo = anilloActual;
+        if (anillo != null) {
+            anillo.cancelar();
+        }
+        if (!salidaActiva) {
+            cerrarDispositivo();
+        }
+    }
+
+    /**
+     * Marca que ningún hilo escribe en el dispositivo y, si mientras tanto se pidió cerrar el
+     * reproductor, lo cierra. {@code salidaActiva} se escribe antes de leer {@code closed} y
+     * {@link #close()} hace lo contrario, así que al menos uno de los dos cierra el dispositivo.
+     */
+    private void liberarSalida() {
+        salidaActiva = false;
+        if (closed) {
+            cerrarDispositivo();
+        }
+    }
+
+    private synchronized void cerrarDispositivo() {
+        AudioDevice out = audio;
+        if (out != null) {
+            audio = null;
+            lastPosition = currentFrame;
+            out.close();
+            try {
+                bitstream.close();
+            } catch (BitstreamException ex) {
+                // Error ignorado
+            }
+        }
+    }
+
+    /**
+     * Decodifica un solo frame de audio y lo envía al dispositivo de audio en el hilo actual,
+     * sin pasar por el anillo de {@link #play(int)}.
+     *
+     * @return true si se decodificó correctamente
+     * @throws JavaLayerException si ocurre un error de decodificación
+     */
+    @Override
+    protected boolean decodeFrame() throws JavaLayerException {
+        salidaActiva = true;
+        try {
+            AudioDevice out = audio;
+            if (out == null || closed) return false;
+
+            long inicio = System.nanoTime();
+            Header h = bitstream.readFrame();
+            if (h == null) return false;
+
+            SampleBuffer output = (SampleBuffer) decoder.decodeFrame(h, bitstream);
+            long decodificado = System.nanoTime();
+            metricas.registrarDecodificacion(decodificado - inicio);
+
+            out.write(output.getBuffer(), 0, output.getBufferLength());
+            metricas.registrarEscritura(decodificado, System.nanoTime(), duracionNanos(output));
+
+            bitstream.closeFrame();
+            currentFrame++;
+        } catch (RuntimeException ex) {
+            throw new JavaLayerException("Exception decoding audio frame", ex);
+        } finally {
+            liberarSalida();
+        }
+        return true;
+    }
+
+    /**
+     * @return Duración del audio PCM de un frame decodificado
+     */
+    private static long duracionNanos(SampleBuffer output) {
+        long muestrasPorSegundo = (long) output.getSampleFrequency() * output.getChannelCount();
+        return muestrasPorSegundo > 0 ? output.getBufferLength() * 1_000_000_000L / muestrasPorSegundo : 0;
+    }
+
+    /**
+     * Salta un solo frame sin reproducirlo.
+     *
+     * @return true si se pudo saltar el frame
+     * @throws JavaLayerException si ocurre un error
+     */
+    protected boolean skipFrame() throws JavaLayerException {
+        Header h = bitstream.readFrame();
+        if (h == null) return false;
+        bitstream.closeFrame();
+        return true;
+    }
+
+    /**
+     * Reproduce a partir de un frame cuando el flujo ya empieza en el encabezado de ese frame
+     * (por ejemplo, abierto en {@link TablaBusqueda#offsetDeFrame(int)}). No descarta frames,
+     * por lo que el costo no depende de la posición.
+     *
+     * @param frameInicial Número del frame en el que está posicionado el flujo
+     * @param end          Frame final (exclusivo)
+     * @return true si la reproducción fue exitosa
+     * @throws JavaLayerException si ocurre un error durante la reproducción
+     */
+    public boolean playDesdePosicion(final int frameInicial, final int end) throws JavaLayerException {
+        currentFrame = frameInicial;
+        return play(end - frameInicial);
+    }
+
+    /**
+     * Reproduce un rango específico de frames.
+     *
+     * <p>Para llegar a {@code start} lee y descarta todos los frames anteriores; si se
+     * dispone de la {@link TablaBusqueda} de la canción conviene usar
+     * {@link #playDesdePosicion(int, int)}.</p>
+     *
+     * @param start Frame inicial
+     * @param end   Frame final
+     * @return true si la reproducción fue exitosa
+     * @throws JavaLayerException si ocurre un error durante la reproducción
+     */
+    public boolean play(final int start, final int end) throws JavaLayerException {
+        boolean ret = true;
+        currentFrame = start;
+        int offset = start;
+        while (offset-- > 0 && ret) ret = skipFrame();
+        return play(end - start);
+    }
+
+    /**
+     * Crea un evento de reproducción con el identificador proporcionado.
+     *
+     * @param id Identificador del evento (STARTED o STOPPED)
+     * @return Evento de reproducción
+     */
+    private PlaybackEvent createEvent(int id) {
+        return createEvent(audio, id);
+    }
+
+    /**
+     * Crea un evento de reproducción con un dispositivo de audio específico.
+     *
+     * @param dev Dispositivo de audio
+     * @param id  Identificador del evento
+     * @return Evento de reproducción
+     */
+    private PlaybackEvent createEvent(AudioDevice dev, int id) {
+        return new PlaybackEvent(this, id, dev.getPosition());
+    }
+
+    /**
+     * Establece un listener para los eventos de reproducción (inicio, pausa, fin).
+     *
+     * @param listener Listener de reproducción
+     */
+    public void setPlayBackListener(PlaybackListener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Devuelve el listener actualmente registrado para los eventos de reproducción.
+     *
+     * @return Listener de reproducción
+     */
+    public PlaybackListener getPlayBackListener() {
+        return listener;
+    }
+
+    /**
+     * Detiene la reproducción y dispara un evento de finalización si hay listener.
+     */
+    public void stop() {
+        if (listener != null)
+            listener.playbackFinished(createEvent(PlaybackEvent.STOPPED));
+        close();
+    }
+}
@@ -0,0 +1,146 @@
+package BusinessLogic.utilities;
+
+import java.io.ByteArrayInputStream;
+import java.util.Arrays;
+
+import DataAccessComponent.DTO.MetadatosAudioDTO;
+import javazoom.jl.decoder.Bitstream;
+import javazoom.jl.decoder.Header;
+import javazoom.jl.decoder.JavaLayerException;
+
+/**
+ * Clase que analiza un MP3 recorriendo solo los encabezados de sus frames, sin decodificar
+ * el audio.
+ *
+ * <p>En una sola pasada obtiene los datos técnicos del archivo ({@link MetadatosAudioDTO}:
+ * duración exacta, bitrate promedio, frecuencia de muestreo, si es VBR y cantidad de frames)
+ * y su {@link TablaBusqueda}. La duración se calcula sumando las muestras de cada frame, por
+ * lo que es exacta también en archivos VBR y no depende de lo que escriba el usuario.</p>
+ *
+ * <p>Se usa al registrar o reemplazar el audio de una canción y, por lotes, desde
+ * {@code BusinessLogic.ActualizadorMetadatosAudio} para completar el catálogo existente.</p>
+ *
+ * @author Grupo B
+ * @version 1.0
+ * @since 25-07-2025
+ */
+public final class AnalizadorMP3 {
+
+    /** Distancia máxima que se busca hacia adelante para resincronizar un encabezado */
+    private static final int MAX_RESINCRONIZACION = 4096;
+
+    /**
+     * Resultado del análisis de un archivo.
+     */
+    public static final class Resultado {
+        private final MetadatosAudioDTO metadatos;
+        private final TablaBusqueda tablaBusqueda;
+
+        private Resultado(MetadatosAudioDTO metadatos, TablaBusqueda tablaBusqueda) {
+            this.metadatos = metadatos;
+            this.tablaBusqueda = tablaBusqueda;
+        }
+
+        /** @return Datos técnicos del archivo */
+        public MetadatosAudioDTO getMetadatos() {
+            return metadatos;
+        }
+
+        /** @return Índice de frames del archivo */
+        public TablaBusqueda getTablaBusqueda() {
+            return tablaBusqueda;
+        }
+
+        /** @return true si se encontró al menos un frame de audio */
+        public boolean esValido() {
+            return metadatos.getTotalFrames() > 0 && metadatos.getFrecuenciaMuestreo() > 0;
+        }
+    }
+
+    private AnalizadorMP3() {
+    }
+
+    /**
+     * Recorre los encabezados de un MP3 y calcula sus datos técnicos y su tabla de búsqueda.
+     *
+     * @param mp3 Contenido completo del archivo
+     * @return Resultado del análisis; sin frames si el contenido no es un MP3
+     * @throws JavaLayerException si el flujo no se puede leer como MP3
+     */
+    public static Resultado analizar(byte[] mp3) throws JavaLayerException {
+        Bitstream bitstream = new Bitstream(new ByteArrayInputStream(mp3));
+        int[] offsets = new int[1024];
+        int[] muestras = new int[1025];
+        int frames = 0;
+        int frecuencia = 0;
+        long bytesAudio = 0;
+        int primerBitrate = -1;
+        boolean vbr = false;
+        int posicion = bitstream.header_pos();
+
+        try {
+            Header h;
+            while ((h = bitstream.readFrame()) != null) {
+                posicion = sincronizar(mp3, posicion);
+                if (posicion < 0) {
+                    break;
+                }
+                if (frames == offsets.length) {
+                    offsets = Arrays.copyOf(offsets, frames * 2);
+                    muestras = Arrays.copyOf(muestras, frames * 2 + 1);
+                }
+                offsets[frames] = posicion;
+                muestras[frames + 1] = muestras[frames] + muestrasPorFrame(h);
+                frecuencia = h.frequency();
+                frames++;
+
+                // Un encabezado Xing/VBRI en el primer frame ya indica VBR; si no, se comparan bitrates
+                if (frames == 1) {
+                    primerBitrate = h.bitrate();
+                    vbr = h.vbr();
+                } else if (h.bitrate() != primerBitrate) {
+                    vbr = true;
+                }
+                bytesAudio += h.framesize + 4;
+
+                posicion += h.framesize + 4;
+                bitstream.closeFrame();
+            }
+        } finally {
+            bitstream.close();
+        }
+
+        TablaBusqueda tabla = new TablaBusqueda(frecuencia, Arrays.copyOf(offsets, frames), Arrays.copyOf(muestras, frames + 1));
+        double duracion = tabla.getDuracionSegundos();
+        int bitrate = duracion > 0 ? (int) Math.round(bytesAudio * 8 / duracion / 1000) : 0;
+        return new Resultado(new MetadatosAudioDTO(duracion, bitrate, frecuencia, vbr, frames), tabla);
+    }
+
+    /**
+     * Avanza desde la posición esperada hasta la siguiente palabra de sincronía (11 bits en 1).
+     *
+     * @return Posición del encabezado, o -1 si no se encuentra
+     */
+    private static int sincronizar(byte[] mp3, int desde) {
+        int limite = Math.min(mp3.length - 1, desde + MAX_RESINCRONIZACION);
+        for (int i = Math.max(0, desde); i < limite; i++) {
+            if ((mp3[i] & 0xFF) == 0xFF && (mp3[i + 1] & 0xE0) == 0xE0) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Muestras PCM por canal que produce un frame según su capa y versión MPEG.
+     */
+    private static int muestrasPorFrame(Header h) {
+        if (h.layer() == 1) {
+            return 384;
+        }
+        if (h.layer() == 2 || h.version() == Header.MPEG1) {
+            return 1152;
+        }
+        return 576;
+    }
+}
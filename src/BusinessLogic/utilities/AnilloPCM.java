@@ -0,0 +1,185 @@
+package BusinessLogic.utilities;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Anillo de frames PCM ya decodificados entre el hilo que decodifica un MP3 y el que los
+ * escribe en el dispositivo de audio.
+ *
+ * <p>Es para un solo productor y un solo consumidor. Todas las ranuras ({@code short[]} del
+ * tamaño máximo de un frame) se reservan al crearlo y se reutilizan en cada vuelta, así que
+ * pasar un frame no crea objetos: el productor copia las muestras en la ranura libre y avanza
+ * la cola, y el consumidor escribe la ranura directamente y avanza la cabeza. A diferencia de
+ * {@link BufferCircular}, que pasa referencias entre varios productores, aquí no se entrega
+ * ningún objeto nuevo. Ninguno de los dos toma candados; cuando el anillo está lleno o vacío
+ * esperan con {@link LockSupport#parkNanos(long)}.</p>
+ *
+ * <p>Cuenta las veces que el consumidor lo encontró vacío con la pista sin terminar
+ * ({@link #getVacios()}, el audio se cortaría si dura más que lo que tiene el dispositivo;
+ * la espera por el primer frame no cuenta, porque el dispositivo aún no suena) y
+ * las veces que el productor lo encontró lleno ({@link #getLlenos()}, lo normal cuando la
+ * decodificación va por delante).</p>
+ *
+ * @author Grupo B
+ * @version 1.0
+ * @since 25-07-2025
+ */
+public final class AnilloPCM {
+
+    /** Muestras de un frame MPEG-1 capa III en estéreo, el mayor que entrega JLayer */
+    public static final int MUESTRAS_POR_FRAME = 2 * 1152;
+
+    /** Espera del productor mientras el anillo está lleno */
+    private static final long ESPERA_LLENO_NANOS = 2_000_000;
+
+    /** Espera del consumidor mientras el anillo está vacío */
+    private static final long ESPERA_VACIO_NANOS = 200_000;
+
+    private final short[][] muestras;
+    private final int[] cantidades;
+    private final long[] duraciones;
+    private final int mascara;
+
+    /** Siguiente ranura que escribe el productor */
+    private final AtomicLong cola = new AtomicLong();
+
+    /** Siguiente ranura que lee el consumidor */
+    private final AtomicLong cabeza = new AtomicLong();
+
+    private volatile boolean terminado;
+    private volatile boolean cancelado;
+
+    private volatile long vacios;
+    private volatile long llenos;
+
+    /** Si el consumidor ya leyó el primer frame; solo lo usa el consumidor */
+    private boolean iniciado;
+
+    /**
+     * @param ranuras Frames que caben; se redondea a la siguiente potencia de 2
+     * @param muestrasPorRanura Muestras máximas de un frame
+     */
+    public AnilloPCM(int ranuras, int muestrasPorRanura) {
+        int tamanio = Integer.highestOneBit(Math.max(2, ranuras) - 1) << 1;
+        mascara = tamanio - 1;
+        muestras = new short[tamanio][muestrasPorRanura];
+        cantidades = new int[tamanio];
+        duraciones = new long[tamanio];
+    }
+
+    // ==================== PRODUCTOR ====================
+
+    /**
+     * Copia un frame en la siguiente ranura libre, esperando si el anillo está lleno.
+     *
+     * @param origen Muestras del frame
+     * @param cantidad Muestras a copiar
+     * @param nanosAudio Duración del frame
+     * @return false si el anillo se canceló mientras esperaba
+     */
+    public boolean escribir(short[] origen, int cantidad, long nanosAudio) {
+        long posicion = cola.get();
+        if (posicion - cabeza.get() > mascara) {
+            llenos++;
+            while (posicion - cabeza.get() > mascara) {
+                if (cancelado) {
+                    return false;
+                }
+                LockSupport.parkNanos(ESPERA_LLENO_NANOS);
+            }
+        }
+        int indice = (int) (posicion & mascara);
+        System.arraycopy(origen, 0, muestras[indice], 0, cantidad);
+        cantidades[indice] = cantidad;
+        duraciones[indice] = nanosAudio;
+        // Publica la ranura: lo escrito antes es visible para el consumidor que lea la cola
+        cola.lazySet(posicion + 1);
+        return true;
+    }
+
+    /**
+     * Indica que no habrá más frames; el consumidor termina al vaciar el anillo.
+     */
+    public void terminar() {
+        terminado = true;
+    }
+
+    /**
+     * Hace que el productor y el consumidor dejen de esperar y terminen de inmediato.
+     */
+    public void cancelar() {
+        cancelado = true;
+    }
+
+    // ==================== CONSUMIDOR ====================
+
+    /**
+     * Espera hasta que haya un frame para leer.
+     *
+     * @return false si la pista terminó y no quedan frames, o si se canceló
+     */
+    public boolean esperarFrame() {
+        long posicion = cabeza.get();
+        if (posicion != cola.get()) {
+            return !cancelado;
+        }
+        boolean contado = false;
+        while (posicion == cola.get()) {
+            if (cancelado || terminado && posicion == cola.get()) {
+                return false;
+            }
+            if (!contado && iniciado) {
+                vacios++;
+                contado = true;
+            }
+            LockSupport.parkNanos(ESPERA_VACIO_NANOS);
+        }
+        return !cancelado;
+    }
+
+    /** @return Muestras del frame disponible; válidas hasta {@link #liberar()} */
+    public short[] getMuestras() {
+        return muestras[(int) (cabeza.get() & mascara)];
+    }
+
+    /** @return Muestras válidas del frame disponible */
+    public int getCantidad() {
+        return cantidades[(int) (cabeza.get() & mascara)];
+    }
+
+    /** @return Duración del frame disponible */
+    public long getNanosAudio() {
+        return duraciones[(int) (cabeza.get() & mascara)];
+    }
+
+    /**
+     * Devuelve al productor la ranura del frame ya escrito.
+     */
+    public void liberar() {
+        iniciado = true;
+        cabeza.lazySet(cabeza.get() + 1);
+    }
+
+    // ==================== ESTADO ====================
+
+    /** @return Frames que caben en el anillo */
+    public int getCapacidad() {
+        return mascara + 1;
+    }
+
+    /** @return Frames decodificados que aún no se escriben */
+    public int getOcupadas() {
+        return (int) (cola.get() - cabeza.get());
+    }
+
+    /** @return Veces que el consumidor encontró el anillo vacío con la pista sin terminar */
+    public long getVacios() {
+        return vacios;
+    }
+
+    /** @return Veces que el productor encontró el anillo lleno */
+    public long getLlenos() {
+        return llenos;
+    }
+}
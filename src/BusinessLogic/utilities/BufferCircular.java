@@ -0,0 +1,112 @@
+package BusinessLogic.utilities;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Cola circular de capacidad fija, sin bloqueos, para varios productores y un consumidor.
+ *
+ * <p>Cada posición tiene un número de secuencia que indica si está libre para la vuelta
+ * actual del productor o ya tiene un elemento para el consumidor. Un productor reserva su
+ * posición con una sola operación {@code compareAndSet} sobre la cola y publica el
+ * elemento actualizando la secuencia; nunca espera ni toma un candado. Si la cola está
+ * llena, {@link #ofrecer(Object)} devuelve false de inmediato.</p>
+ *
+ * <p>{@link #drenar(List, int)} debe llamarse desde un solo hilo a la vez.</p>
+ *
+ * @param <T> Tipo de los elementos
+ *
+ * @author Grupo B
+ * @version 1.0
+ * @since 25-07-2025
+ */
+public final class BufferCircular<T> {
+
+    private final int mascara;
+    private final AtomicReferenceArray<T> elementos;
+    private final AtomicLongArray secuencias;
+
+    /** Siguiente posición que reserva un productor */
+    private final AtomicLong cola = new AtomicLong();
+
+    /** Siguiente posición que lee el consumidor */
+    private final AtomicLong cabeza = new AtomicLong();
+
+    /**
+     * @param capacidad Cantidad mínima de elementos; se redondea a la siguiente potencia de 2
+     */
+    public BufferCircular(int capacidad) {
+        int tamanio = Integer.highestOneBit(Math.max(2, capacidad) - 1) << 1;
+        mascara = tamanio - 1;
+        elementos = new AtomicReferenceArray<>(tamanio);
+        secuencias = new AtomicLongArray(tamanio);
+        for (int i = 0; i < tamanio; i++) {
+            secuencias.set(i, i);
+        }
+    }
+
+    /**
+     * Agrega un elemento sin bloquear.
+     *
+     * @param elemento Elemento a agregar (no nulo)
+     * @return false si la cola estaba llena y el elemento no se agregó
+     */
+    public boolean ofrecer(T elemento) {
+        while (true) {
+            long posicion = cola.get();
+            int indice = (int) (posicion & mascara);
+            long diferencia = secuencias.get(indice) - posicion;
+            if (diferencia == 0) {
+                if (cola.compareAndSet(posicion, posicion + 1)) {
+                    elementos.lazySet(indice, elemento);
+                    secuencias.set(indice, posicion + 1);
+                    return true;
+                }
+            } else if (diferencia < 0) {
+                return false; // La posición aún tiene un elemento de la vuelta anterior
+            }
+            // diferencia > 0: otro productor tomó la posición; se reintenta con la cola actual
+        }
+    }
+
+    /**
+     * Saca elementos en orden de llegada.
+     *
+     * @param destino Lista a la que se agregan
+     * @param maximo Cantidad máxima de elementos a sacar
+     * @return Cantidad de elementos sacados
+     */
+    public int drenar(List<? super T> destino, int maximo) {
+        int sacados = 0;
+        long posicion = cabeza.get();
+        while (sacados < maximo) {
+            int indice = (int) (posicion & mascara);
+            if (secuencias.get(indice) != posicion + 1) {
+                break; // Vacía, o el productor aún no publica este elemento
+            }
+            destino.add(elementos.get(indice));
+            elementos.lazySet(indice, null);
+            secuencias.set(indice, posicion + mascara + 1);
+            posicion++;
+            sacados++;
+        }
+        cabeza.set(posicion);
+        return sacados;
+    }
+
+    /**
+     * @return Elementos reservados que aún no se han sacado (aproximado con productores activos)
+     */
+    public int tamanio() {
+        return (int) Math.max(0, cola.get() - cabeza.get());
+    }
+
+    /**
+     * @return Cantidad máxima de elementos
+     */
+    public int capacidad() {
+        return mascara + 1;
+    }
+}
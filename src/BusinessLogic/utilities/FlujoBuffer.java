@@ -0,0 +1,78 @@
+package BusinessLogic.utilities;
+
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * Flujo de entrada que lee directamente de un {@link ByteBuffer}, por ejemplo un archivo
+ * mapeado en memoria, sin copiar su contenido a un arreglo intermedio.
+ *
+ * <p>Lee de una vista propia del búfer ({@link ByteBuffer#duplicate()}), así que varios flujos
+ * pueden recorrer el mismo búfer a la vez sin interferir. Admite {@code mark}/{@code reset},
+ * que {@link javazoom.jl.decoder.Bitstream} usa al buscar la etiqueta ID3v2. Cerrarlo no
+ * libera el búfer: un mapeo se libera cuando el recolector descarta el último búfer que lo usa.</p>
+ *
+ * <p>No es seguro para varios hilos.</p>
+ *
+ * @author Grupo B
+ * @version 1.0
+ * @since 25-07-2025
+ */
+public final class FlujoBuffer extends InputStream {
+
+    private final ByteBuffer datos;
+    private int marca;
+
+    /**
+     * @param buffer Búfer a leer desde su posición hasta su límite; no se modifica
+     */
+    public FlujoBuffer(ByteBuffer buffer) {
+        this.datos = buffer.duplicate();
+        this.marca = datos.position();
+    }
+
+    @Override
+    public int read() {
+        return datos.hasRemaining() ? datos.get() & 0xFF : -1;
+    }
+
+    @Override
+    public int read(byte[] destino, int desde, int cantidad) {
+        if (cantidad == 0) {
+            return 0;
+        }
+        if (!datos.hasRemaining()) {
+            return -1;
+        }
+        int leidos = Math.min(cantidad, datos.remaining());
+        datos.get(destino, desde, leidos);
+        return leidos;
+    }
+
+    @Override
+    public long skip(long cantidad) {
+        int saltados = (int) Math.max(0, Math.min(cantidad, datos.remaining()));
+        datos.position(datos.position() + saltados);
+        return saltados;
+    }
+
+    @Override
+    public int available() {
+        return datos.remaining();
+    }
+
+    @Override
+    public boolean markSupported() {
+        return true;
+    }
+
+    @Override
+    public void mark(int limite) {
+        marca = datos.position();
+    }
+
+    @Override
+    public void reset() {
+        datos.position(marca);
+    }
+}
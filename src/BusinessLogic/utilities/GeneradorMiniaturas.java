@@ -0,0 +1,79 @@
+package BusinessLogic.utilities;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+
+import javax.imageio.ImageIO;
+
+/**
+ * Clase que reduce una imagen de portada a una miniatura JPEG de tamaño fijo.
+ *
+ * <p>Las portadas se suben a tamaño completo y los listados las muestran en 40-50 píxeles.
+ * La miniatura se genera una sola vez, al registrar o cambiar la portada, y se guarda junto
+ * a la canción; los listados decodifican esos pocos KB en lugar de la imagen original.</p>
+ *
+ * @author Grupo B
+ * @version 1.0
+ * @since 25-07-2025
+ */
+public final class GeneradorMiniaturas {
+
+    /** Lado en píxeles de las miniaturas guardadas */
+    public static final int LADO_MINIATURA = 128;
+
+    private GeneradorMiniaturas() {
+    }
+
+    /**
+     * Genera la miniatura de una imagen conservando su proporción.
+     *
+     * @param imagen Bytes de la imagen original (JPEG, PNG, GIF o BMP)
+     * @return Miniatura en JPEG de como máximo {@link #LADO_MINIATURA} píxeles por lado,
+     *         o null si no hay imagen o no se puede leer
+     */
+    public static byte[] generar(byte[] imagen) {
+        return generar(imagen, LADO_MINIATURA);
+    }
+
+    /**
+     * Genera una miniatura de un lado máximo dado conservando la proporción.
+     *
+     * @param imagen Bytes de la imagen original
+     * @param lado Lado máximo en píxeles
+     * @return Miniatura en JPEG, o null si no hay imagen o no se puede leer
+     */
+    public static byte[] generar(byte[] imagen, int lado) {
+        if (imagen == null || imagen.length == 0) {
+            return null;
+        }
+        try {
+            BufferedImage original = ImageIO.read(new ByteArrayInputStream(imagen));
+            if (original == null) {
+                return null;
+            }
+            double escala = Math.min(1.0, (double) lado / Math.max(original.getWidth(), original.getHeight()));
+            int ancho = Math.max(1, (int) Math.round(original.getWidth() * escala));
+            int alto = Math.max(1, (int) Math.round(original.getHeight() * escala));
+
+            // JPEG no admite transparencia: se dibuja sobre un fondo opaco
+            BufferedImage miniatura = new BufferedImage(ancho, alto, BufferedImage.TYPE_INT_RGB);
+            Graphics2D g = miniatura.createGraphics();
+            try {
+                g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+                g.drawImage(original, 0, 0, ancho, alto, Color.BLACK, null);
+            } finally {
+                g.dispose();
+            }
+
+            ByteArrayOutputStream salida = new ByteArrayOutputStream();
+            return ImageIO.write(miniatura, "jpg", salida) ? salida.toByteArray() : null;
+        } catch (Exception e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package BusinessLogic.utilities;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Histograma de latencias con cubetas logarítmicas, seguro para varios hilos y sin bloqueos.
+ *
+ * <p>Los valores se guardan en microsegundos. Cada potencia de dos se divide en
+ * {@link #SUBCUBETAS} cubetas, así que un percentil se informa con un error de como máximo
+ * un 25 % del valor (el límite superior de su cubeta) usando unas pocas decenas de
+ * contadores, sin guardar las muestras. Registrar una muestra es un incremento atómico.</p>
+ *
+ * <p>Los histogramas con nombre se obtienen con {@link #de(String)}; así el código que
+ * mide y el que informa comparten el mismo sin pasárselo.</p>
+ *
+ * @author Grupo B
+ * @version 1.0
+ * @since 25-07-2025
+ */
+public final class HistogramaLatencias {
+
+    /** Cubetas por potencia de dos */
+    public static final int SUBCUBETAS = 4;
+
+    /** Potencias de dos cubiertas: hasta 2^32 µs (más de una hora) */
+    private static final int POTENCIAS = 32;
+
+    private static final int CUBETAS = POTENCIAS * SUBCUBETAS;
+
+    private static final Map<String, HistogramaLatencias> REGISTRADOS = new ConcurrentHashMap<>();
+
+    private final String nombre;
+    private final AtomicLongArray cuentas = new AtomicLongArray(CUBETAS);
+    private final AtomicLong total = new AtomicLong();
+    private final AtomicLong sumaMicros = new AtomicLong();
+    private final AtomicLong maximoMicros = new AtomicLong();
+
+    /**
+     * @param nombre Nombre con el que se informa el histograma
+     */
+    public HistogramaLatencias(String nombre) {
+        this.nombre = nombre;
+    }
+
+    /**
+     * Devuelve el histograma registrado con un nombre, creándolo la primera vez.
+     */
+    public static HistogramaLatencias de(String nombre) {
+        return REGISTRADOS.computeIfAbsent(nombre, HistogramaLatencias::new);
+    }
+
+    /**
+     * @return Histogramas registrados con {@link #de(String)}
+     */
+    public static Collection<HistogramaLatencias> registrados() {
+        return new ArrayList<>(REGISTRADOS.values());
+    }
+
+    /**
+     * Registra una duración.
+     *
+     * @param nanos Duración en nanosegundos; los valores negativos cuentan como cero
+     */
+    public void registrar(long nanos) {
+        long micros = Math.max(0, nanos / 1_000);
+        cuentas.incrementAndGet(cubeta(micros));
+        total.incrementAndGet();
+        sumaMicros.addAndGet(micros);
+        long maximo;
+        while (micros > (maximo = maximoMicros.get()) && !maximoMicros.compareAndSet(maximo, micros)) {
+            // otro hilo cambió el máximo; se vuelve a comparar
+        }
+    }
+
+    /** @return Nombre del histograma */
+    public String getNombre() {
+        return nombre;
+    }
+
+    /** @return Muestras registradas */
+    public long cantidad() {
+        return total.get();
+    }
+
+    /** @return Promedio en milisegundos, o 0 si no hay muestras */
+    public double promedioMs() {
+        long n = total.get();
+        return n > 0 ? sumaMicros.get() / 1000.0 / n : 0;
+    }
+
+    /** @return Mayor duración registrada en milisegundos */
+    public double maximoMs() {
+        return maximoMicros.get() / 1000.0;
+    }
+
+    /**
+     * Estima un percentil.
+     *
+     * @param percentil Valor entre 0 y 100
+     * @return Límite superior en milisegundos de la cubeta donde cae el percentil, acotado
+     *         por el máximo registrado; 0 si no hay muestras
+     */
+    public double percentilMs(double percentil) {
+        long n = total.get();
+        if (n == 0) {
+            return 0;
+        }
+        long objetivo = Math.max(1, (long) Math.ceil(n * percentil / 100.0));
+        long acumulado = 0;
+        for (int i = 0; i < CUBETAS; i++) {
+            acumulado += cuentas.get(i);
+            if (acumulado >= objetivo) {
+                return Math.min(limiteSuperior(i), maximoMicros.get()) / 1000.0;
+            }
+        }
+        return maximoMs();
+    }
+
+    /**
+     * Vuelve a cero todos los contadores.
+     */
+    public void reiniciar() {
+        for (int i = 0; i < CUBETAS; i++) {
+            cuentas.set(i, 0);
+        }
+        total.set(0);
+        sumaMicros.set(0);
+        maximoMicros.set(0);
+    }
+
+    /**
+     * @return Resumen legible con cantidad, promedio, percentiles 50/90/99 y máximo
+     */
+    public String resumen() {
+        return String.format("%s: n=%d prom=%.2f p50=%.2f p90=%.2f p99=%.2f max=%.2f ms",
+                nombre, cantidad(), promedioMs(), percentilMs(50), percentilMs(90), percentilMs(99), maximoMs());
+    }
+
+    @Override
+    public String toString() {
+        return resumen();
+    }
+
+    /**
+     * Cubeta de un valor: los menores que {@link #SUBCUBETAS} tienen una cada uno; el resto,
+     * según su potencia de dos y los dos bits que la siguen.
+     */
+    private static int cubeta(long micros) {
+        if (micros < SUBCUBETAS) {
+            return (int) micros;
+        }
+        int potencia = 63 - Long.numberOfLeadingZeros(micros);
+        int sub = (int) (micros >>> (potencia - 2)) & (SUBCUBETAS - 1);
+        return Math.min(CUBETAS - 1, (potencia - 1) * SUBCUBETAS + sub);
+    }
+
+    /**
+     * @return Primer valor en microsegundos que ya no pertenece a la cubeta
+     */
+    private static long limiteSuperior(int cubeta) {
+        if (cubeta < SUBCUBETAS) {
+            return cubeta + 1;
+        }
+        int potencia = cubeta / SUBCUBETAS + 1;
+        int sub = cubeta % SUBCUBETAS;
+        return (long) (SUBCUBETAS + sub + 1) << (potencia - 2);
+    }
+}
@@ -0,0 +1,368 @@
+package BusinessLogic.utilities;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Clase que lee las etiquetas ID3 de un MP3: título, artistas, año, géneros y portada.
+ *
+ * <p>Admite ID3v2.2, v2.3 y v2.4 al inicio del archivo (con desincronización, encabezado
+ * extendido e indicador de longitud de datos) y completa lo que falte con la etiqueta ID3v1
+ * de los últimos 128 bytes. Los marcos comprimidos o cifrados se ignoran. No decodifica el
+ * audio; los datos técnicos los calcula {@link AnalizadorMP3}.</p>
+ *
+ * @author Grupo B
+ * @version 1.0
+ * @since 25-07-2025
+ */
+public final class LectorID3 {
+
+    /** Géneros de ID3v1, referenciados por número en las etiquetas antiguas ("(17)" es Rock) */
+    private static final String[] GENEROS_ID3V1 = {
+            "Blues", "Classic Rock", "Country", "Dance", "Disco", "Funk", "Grunge", "Hip-Hop", "Jazz", "Metal",
+            "New Age", "Oldies", "Other", "Pop", "R&B", "Rap", "Reggae", "Rock", "Techno", "Industrial",
+            "Alternative", "Ska", "Death Metal", "Pranks", "Soundtrack", "Euro-Techno", "Ambient", "Trip-Hop",
+            "Vocal", "Jazz+Funk", "Fusion", "Trance", "Classical", "Instrumental", "Acid", "House", "Game",
+            "Sound Clip", "Gospel", "Noise", "AlternRock", "Bass", "Soul", "Punk", "Space", "Meditative",
+            "Instrumental Pop", "Instrumental Rock", "Ethnic", "Gothic", "Darkwave", "Techno-Industrial",
+            "Electronic", "Pop-Folk", "Eurodance", "Dream", "Southern Rock", "Comedy", "Cult", "Gangsta",
+            "Top 40", "Christian Rap", "Pop/Funk", "Jungle", "Native American", "Cabaret", "New Wave",
+            "Psychadelic", "Rave", "Showtunes", "Trailer", "Lo-Fi", "Tribal", "Acid Punk", "Acid Jazz", "Polka",
+            "Retro", "Musical", "Rock & Roll", "Hard Rock",
+    };
+
+    /** Tipo de imagen APIC de la portada delantera */
+    private static final int PORTADA_DELANTERA = 3;
+
+    /**
+     * Etiquetas leídas de un archivo. Los campos que el archivo no trae quedan en null (o
+     * vacíos, para las listas).
+     */
+    public static final class Etiquetas {
+        private String titulo;
+        private final List<String> artistas = new ArrayList<>();
+        private Integer anio;
+        private final List<String> generos = new ArrayList<>();
+        private byte[] portada;
+        private int tipoPortada = -1;
+
+        /** @return Título, o null si no tiene */
+        public String getTitulo() {
+            return titulo;
+        }
+
+        /** @return Artistas tal como vienen en la etiqueta (en v2.4 puede haber varios) */
+        public List<String> getArtistas() {
+            return artistas;
+        }
+
+        /** @return Año de publicación, o null si no tiene */
+        public Integer getAnio() {
+            return anio;
+        }
+
+        /** @return Nombres de los géneros, con las referencias numéricas ya traducidas */
+        public List<String> getGeneros() {
+            return generos;
+        }
+
+        /** @return Imagen de portada (JPEG o PNG), o null si no tiene */
+        public byte[] getPortada() {
+            return portada;
+        }
+    }
+
+    private LectorID3() {
+    }
+
+    /**
+     * Lee las etiquetas de un MP3. Nunca falla: un encabezado dañado solo deja campos vacíos.
+     *
+     * @param mp3 Contenido completo del archivo
+     * @return Etiquetas encontradas
+     */
+    public static Etiquetas leer(byte[] mp3) {
+        Etiquetas etiquetas = new Etiquetas();
+        try {
+            leerV2(mp3, etiquetas);
+        } catch (RuntimeException e) {
+            // Etiqueta truncada o mal formada: se conserva lo leído hasta ese punto
+        }
+        leerV1(mp3, etiquetas);
+        return etiquetas;
+    }
+
+    private static void leerV2(byte[] mp3, Etiquetas etiquetas) {
+        if (mp3.length < 10 || mp3[0] != 'I' || mp3[1] != 'D' || mp3[2] != '3') {
+            return;
+        }
+        int version = mp3[3];
+        int banderas = mp3[5] & 0xFF;
+        int fin = Math.min(mp3.length, 10 + sincronizado(mp3, 6));
+        if (version < 2 || version > 4) {
+            return;
+        }
+        byte[] etiqueta = Arrays.copyOfRange(mp3, 10, fin);
+        if ((banderas & 0x80) != 0 && version < 4) {
+            etiqueta = desincronizar(etiqueta, 0, etiqueta.length);
+        }
+        int pos = 0;
+        if ((banderas & 0x40) != 0 && version >= 3) {
+            pos = version == 3 ? 4 + entero(etiqueta, 0, 4) : sincronizado(etiqueta, 0);
+        }
+
+        int largoId = version == 2 ? 3 : 4;
+        int largoEncabezado = version == 2 ? 6 : 10;
+        while (pos + largoEncabezado <= etiqueta.length && etiqueta[pos] != 0) {
+            String id = new String(etiqueta, pos, largoId, StandardCharsets.ISO_8859_1);
+            int tamanio = version == 2 ? entero(etiqueta, pos + 3, 3)
+                    : version == 3 ? entero(etiqueta, pos + 4, 4) : sincronizado(etiqueta, pos + 4);
+            int formato = version == 2 ? 0 : etiqueta[pos + 9] & 0xFF;
+            int inicio = pos + largoEncabezado;
+            pos = inicio + tamanio;
+            if (tamanio <= 0 || pos > etiqueta.length) {
+                break;
+            }
+            boolean ilegible = version == 3 ? (formato & 0xC0) != 0 : version == 4 && (formato & 0x0C) != 0;
+            if (ilegible) {
+                continue;
+            }
+            byte[] datos;
+            if (version == 4) {
+                int desde = (formato & 0x01) != 0 ? inicio + 4 : inicio;
+                datos = (formato & 0x02) != 0 ? desincronizar(etiqueta, desde, pos) : Arrays.copyOfRange(etiqueta, desde, pos);
+            } else {
+                datos = Arrays.copyOfRange(etiqueta, inicio, pos);
+            }
+            leerMarco(id, datos, version, etiquetas);
+        }
+    }
+
+    private static void leerMarco(String id, byte[] datos, int version, Etiquetas etiquetas) {
+        switch (id) {
+            case "TIT2":
+            case "TT2":
+                List<String> titulos = texto(datos);
+                if (!titulos.isEmpty()) {
+                    etiquetas.titulo = titulos.get(0);
+                }
+                break;
+            case "TPE1":
+            case "TP1":
+                etiquetas.artistas.addAll(texto(datos));
+                break;
+            case "TPE2":
+            case "TP2":
+                // Artista del álbum: solo si no hay artista de la pista
+                if (etiquetas.artistas.isEmpty()) {
+                    etiquetas.artistas.addAll(texto(datos));
+                }
+                break;
+            case "TYER":
+            case "TYE":
+            case "TDRC":
+            case "TDOR":
+                if (etiquetas.anio == null) {
+                    List<String> fechas = texto(datos);
+                    etiquetas.anio = fechas.isEmpty() ? null : anio(fechas.get(0));
+                }
+                break;
+            case "TCON":
+            case "TCO":
+                for (String valor : texto(datos)) {
+                    etiquetas.generos.addAll(generos(valor));
+                }
+                break;
+            case "APIC":
+            case "PIC":
+                leerPortada(datos, version, etiquetas);
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * Guarda la imagen del marco si es la portada delantera o si todavía no hay ninguna.
+     */
+    private static void leerPortada(byte[] datos, int version, Etiquetas etiquetas) {
+        if (datos.length < 4 || etiquetas.tipoPortada == PORTADA_DELANTERA) {
+            return;
+        }
+        int codificacion = datos[0];
+        int pos;
+        if (version == 2) {
+            pos = 4; // formato de 3 letras ("JPG")
+        } else {
+            pos = indiceCero(datos, 1, false) + 1;
+        }
+        if (pos >= datos.length) {
+            return;
+        }
+        int tipo = datos[pos] & 0xFF;
+        boolean dosBytes = codificacion == 1 || codificacion == 2;
+        pos = indiceCero(datos, pos + 1, dosBytes) + (dosBytes ? 2 : 1);
+        if (pos >= datos.length || (etiquetas.portada != null && tipo != PORTADA_DELANTERA)) {
+            return;
+        }
+        etiquetas.portada = Arrays.copyOfRange(datos, pos, datos.length);
+        etiquetas.tipoPortada = tipo;
+    }
+
+    private static void leerV1(byte[] mp3, Etiquetas etiquetas) {
+        int inicio = mp3.length - 128;
+        if (inicio < 0 || mp3[inicio] != 'T' || mp3[inicio + 1] != 'A' || mp3[inicio + 2] != 'G') {
+            return;
+        }
+        if (etiquetas.titulo == null) {
+            etiquetas.titulo = campoV1(mp3, inicio + 3, 30);
+        }
+        if (etiquetas.artistas.isEmpty()) {
+            String artista = campoV1(mp3, inicio + 33, 30);
+            if (artista != null) {
+                etiquetas.artistas.add(artista);
+            }
+        }
+        if (etiquetas.anio == null) {
+            String anio = campoV1(mp3, inicio + 93, 4);
+            etiquetas.anio = anio != null ? anio(anio) : null;
+        }
+        int genero = mp3[inicio + 127] & 0xFF;
+        if (etiquetas.generos.isEmpty() && genero < GENEROS_ID3V1.length) {
+            etiquetas.generos.add(GENEROS_ID3V1[genero]);
+        }
+    }
+
+    /**
+     * Decodifica un marco de texto. En v2.4 un marco puede traer varios valores separados
+     * por el carácter nulo.
+     */
+    private static List<String> texto(byte[] datos) {
+        List<String> valores = new ArrayList<>();
+        if (datos.length < 2) {
+            return valores;
+        }
+        Charset juego;
+        switch (datos[0]) {
+            case 1:
+                juego = StandardCharsets.UTF_16;
+                break;
+            case 2:
+                juego = StandardCharsets.UTF_16BE;
+                break;
+            case 3:
+                juego = StandardCharsets.UTF_8;
+                break;
+            default:
+                juego = StandardCharsets.ISO_8859_1;
+                break;
+        }
+        String texto = new String(datos, 1, datos.length - 1, juego);
+        for (String valor : texto.split("\0")) {
+            // Cada valor en UTF-16 puede traer su propia marca de orden de bytes
+            String limpio = valor.replace("\uFEFF", "").trim();
+            if (!limpio.isEmpty()) {
+                valores.add(limpio);
+            }
+        }
+        return valores;
+    }
+
+    /**
+     * Traduce un valor de TCON a nombres de género: "(17)", "17", "(17)Rock" o "Rock".
+     */
+    private static List<String> generos(String valor) {
+        List<String> nombres = new ArrayList<>();
+        String resto = valor;
+        while (resto.startsWith("(") && resto.indexOf(')') > 0) {
+            String dentro = resto.substring(1, resto.indexOf(')'));
+            resto = resto.substring(resto.indexOf(')') + 1);
+            String nombre = generoV1(dentro);
+            if (nombre != null) {
+                nombres.add(nombre);
+            }
+        }
+        resto = resto.trim();
+        if (!resto.isEmpty()) {
+            String nombre = generoV1(resto);
+            nombres.add(nombre != null ? nombre : resto);
+        }
+        return nombres;
+    }
+
+    /** @return Nombre del género ID3v1 con ese número, o null si el texto no es un número válido */
+    private static String generoV1(String numero) {
+        try {
+            int indice = Integer.parseInt(numero.trim());
+            return indice >= 0 && indice < GENEROS_ID3V1.length ? GENEROS_ID3V1[indice] : null;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /** @return Año de los primeros cuatro dígitos ("2019-05-02" da 2019), o null */
+    private static Integer anio(String texto) {
+        if (texto.length() < 4) {
+            return null;
+        }
+        try {
+            int anio = Integer.parseInt(texto.substring(0, 4));
+            return anio > 0 ? anio : null;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static String campoV1(byte[] mp3, int desde, int largo) {
+        String valor = new String(mp3, desde, largo, StandardCharsets.ISO_8859_1);
+        int cero = valor.indexOf('\0');
+        valor = (cero >= 0 ? valor.substring(0, cero) : valor).trim();
+        return valor.isEmpty() ? null : valor;
+    }
+
+    /**
+     * @return Posición del primer terminador nulo desde {@code desde} (dos bytes alineados en
+     *         UTF-16), o el largo de los datos si no hay
+     */
+    private static int indiceCero(byte[] datos, int desde, boolean dosBytes) {
+        for (int i = desde; i < datos.length; i++) {
+            if (!dosBytes && datos[i] == 0) {
+                return i;
+            }
+            if (dosBytes && i + 1 < datos.length && datos[i] == 0 && datos[i + 1] == 0 && (i - desde) % 2 == 0) {
+                return i;
+            }
+        }
+        return datos.length;
+    }
+
+    /** Quita el 0x00 que la desincronización agrega después de cada 0xFF. */
+    private static byte[] desincronizar(byte[] datos, int desde, int hasta) {
+        ByteArrayOutputStream salida = new ByteArrayOutputStream(hasta - desde);
+        for (int i = desde; i < hasta; i++) {
+            salida.write(datos[i]);
+            if ((datos[i] & 0xFF) == 0xFF && i + 1 < hasta && datos[i + 1] == 0) {
+                i++;
+            }
+        }
+        return salida.toByteArray();
+    }
+
+    /** Entero sincronizado de ID3v2: 4 bytes de 7 bits útiles cada uno. */
+    private static int sincronizado(byte[] datos, int desde) {
+        return (datos[desde] & 0x7F) << 21 | (datos[desde + 1] & 0x7F) << 14
+                | (datos[desde + 2] & 0x7F) << 7 | (datos[desde + 3] & 0x7F);
+    }
+
+    private static int entero(byte[] datos, int desde, int largo) {
+        int valor = 0;
+        for (int i = 0; i < largo; i++) {
+            valor = valor << 8 | (datos[desde + i] & 0xFF);
+        }
+        return valor;
+    }
+}
@@ -0,0 +1,120 @@
+package BusinessLogic.utilities;
+
+/**
+ * Montículo de mínimos de tamaño fijo con las {@code k} filas de mayor puntaje vistas.
+ *
+ * <p>Permite quedarse con los mejores resultados de un recorrido sin ordenar todos los
+ * candidatos: cada oferta cuesta {@code O(log k)}. La raíz es la peor de las conservadas; a
+ * igual puntaje se prefiere la fila menor, de modo que el resultado es determinista.</p>
+ *
+ * <p>No es seguro para varios hilos: cada hilo llena su propio montículo y al final se
+ * combinan con {@link #combinar(MejoresK)}.</p>
+ *
+ * @author Grupo B
+ * @version 1.0
+ * @since 25-07-2025
+ */
+public final class MejoresK {
+    private final float[] puntajes;
+    private final int[] filas;
+    private int tamanio;
+
+    /**
+     * @param k Cantidad máxima de filas que se conservan
+     */
+    public MejoresK(int k) {
+        puntajes = new float[Math.max(0, k)];
+        filas = new int[Math.max(0, k)];
+    }
+
+    /**
+     * Considera una fila; se conserva si está entre las {@code k} mejores vistas.
+     */
+    public void ofrecer(int fila, float puntaje) {
+        if (tamanio < filas.length) {
+            puntajes[tamanio] = puntaje;
+            filas[tamanio] = fila;
+            subir(tamanio++);
+        } else if (tamanio > 0 && peor(puntajes[0], filas[0], puntaje, fila)) {
+            puntajes[0] = puntaje;
+            filas[0] = fila;
+            bajar(0);
+        }
+    }
+
+    /**
+     * Agrega las filas de otro montículo a este.
+     *
+     * @return Este montículo
+     */
+    public MejoresK combinar(MejoresK otro) {
+        for (int i = 0; i < otro.tamanio; i++) {
+            ofrecer(otro.filas[i], otro.puntajes[i]);
+        }
+        return this;
+    }
+
+    /** @return Filas conservadas */
+    public int tamanio() {
+        return tamanio;
+    }
+
+    /**
+     * @return Filas de mayor a menor puntaje; vacía el montículo
+     */
+    public int[] filasOrdenadas() {
+        int[] resultado = new int[tamanio];
+        for (int i = resultado.length - 1; i >= 0; i--) {
+            resultado[i] = filas[0];
+            tamanio--;
+            puntajes[0] = puntajes[tamanio];
+            filas[0] = filas[tamanio];
+            bajar(0);
+        }
+        return resultado;
+    }
+
+    /** @return true si (pa, fa) debe salir antes que (pb, fb) */
+    private static boolean peor(float pa, int fa, float pb, int fb) {
+        return pa < pb || (pa == pb && fa > fb);
+    }
+
+    private void subir(int i) {
+        while (i > 0) {
+            int padre = (i - 1) / 2;
+            if (!peor(puntajes[i], filas[i], puntajes[padre], filas[padre])) {
+                return;
+            }
+            intercambiar(i, padre);
+            i = padre;
+        }
+    }
+
+    private void bajar(int i) {
+        while (true) {
+            int menor = i;
+            int izquierdo = 2 * i + 1;
+            int derecho = izquierdo + 1;
+            if (izquierdo < tamanio && peor(puntajes[izquierdo], filas[izquierdo], puntajes[menor], filas[menor])) {
+                menor = izquierdo;
+            }
+            if (derecho < tamanio && peor(puntajes[derecho], filas[derecho], puntajes[menor], filas[menor])) {
+                menor = derecho;
+            }
+            if (menor == i) {
+                return;
+            }
+            intercambiar(i, menor);
+            i = menor;
+        }
+    }
+
+    private void intercambiar(int a, int b) {
+        float p = puntajes[a];
+        puntajes[a] = puntajes[b];
+        puntajes[b] = p;
+        int f = filas[a];
+        filas[a] = filas[b];
+        filas[b] = f;
+    }
+}
@@ -0,0 +1,362 @@
+package BusinessLogic.utilities;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.management.ObjectName;
+
+/**
+ * Métricas del camino de audio, para diagnosticar cortes y saltos durante la reproducción.
+ *
+ * <p>Los motores de reproducción informan aquí lo que miden:</p>
+ * <ul>
+ *   <li>{@link AdvancedPlayerAcc}: el tiempo de decodificar cada frame, el tiempo bloqueado
+ *       en {@code AudioDevice.write} y la duración del audio escrito, con lo que se estima
+ *       cuánto audio tiene pendiente el dispositivo y se detectan las subejecuciones (el
+ *       dispositivo terminó de sonar lo que tenía antes de recibir el siguiente frame), y
+ *       las veces que su {@link AnilloPCM} quedó vacío o lleno.</li>
+ *   <li>{@code ReproductorMP3}: el tiempo hasta que empieza a sonar una canción pedida, la
+ *       latencia de cada cambio automático de pista (separando los que usaron el reproductor
+ *       ya preparado de los que tuvieron que cargar el audio) y las veces que el MediaPlayer
+ *       se detuvo esperando datos ({@code STALLED}).</li>
+ *   <li>{@code BufferAudio}: la espera hasta tener en disco el audio de la canción pedida.</li>
+ * </ul>
+ *
+ * <p>El arranque de cada motor se mide distinto (hasta el primer frame escrito en el
+ * dispositivo con JLayer, hasta {@code play()} con el MediaPlayer), así que se guardan en
+ * histogramas separados: {@code reproduccion.primer-audio} y {@code reproduccion.arranque}.</p>
+ *
+ * <p>Las duraciones se guardan en {@link HistogramaLatencias} registrados con los nombres
+ * {@code reproduccion.*}, así que registrar una muestra no toma candados. Solo suena una
+ * pista a la vez, por lo que la estimación del audio pendiente es única para el proceso.</p>
+ *
+ * <p>Las métricas se publican como MBean en {@code InkHarmony:type=MetricasReproduccion}
+ * (visible en JConsole o VisualVM) y se informan por consola cada
+ * {@code -Dinkharmony.metricas.segundos} segundos (60 por defecto, 0 lo desactiva) cuando
+ * hubo actividad desde el informe anterior.</p>
+ *
+ * @author Grupo B
+ * @version 1.0
+ * @since 25-07-2025
+ */
+public final class MetricasReproduccion implements MetricasReproduccionMBean {
+
+    /** Nombre con el que se publica el MBean */
+    public static final String NOMBRE_JMX = "InkHarmony:type=MetricasReproduccion";
+
+    /** Retraso tolerado sobre el fin estimado del audio antes de contarlo como subejecución */
+    private static final long TOLERANCIA_NANOS = 2_000_000;
+
+    private static final MetricasReproduccion INSTANCIA = crear();
+
+    private final HistogramaLatencias decodificacion = HistogramaLatencias.de("reproduccion.decodificacion");
+    private final HistogramaLatencias escritura = HistogramaLatencias.de("reproduccion.escritura");
+    private final HistogramaLatencias profundidad = HistogramaLatencias.de("reproduccion.profundidad-buffer");
+    private final HistogramaLatencias primerAudio = HistogramaLatencias.de("reproduccion.primer-audio");
+    private final HistogramaLatencias arranque = HistogramaLatencias.de("reproduccion.arranque");
+    private final HistogramaLatencias cambioPista = HistogramaLatencias.de("reproduccion.cambio-pista");
+    private final HistogramaLatencias esperaAudio = HistogramaLatencias.de("reproduccion.espera-audio");
+
+    private final AtomicLong frames = new AtomicLong();
+    private final AtomicLong subejecuciones = new AtomicLong();
+    private final AtomicLong anilloVacio = new AtomicLong();
+    private final AtomicLong anilloLleno = new AtomicLong();
+    private final AtomicLong cambiosSinPausa = new AtomicLong();
+    private final AtomicLong cambiosConCarga = new AtomicLong();
+
+    /** Instante estimado en que el dispositivo termina de sonar lo escrito; 0 al iniciar una pista */
+    private final AtomicLong finAudioNanos = new AtomicLong();
+
+    /** Audio pendiente tras la última escritura, en microsegundos */
+    private final AtomicLong profundidadMicros = new AtomicLong();
+
+    /** Instante en que se abrió la pista actual; 0 cuando ya sonó su primer frame */
+    private final AtomicLong inicioPistaNanos = new AtomicLong();
+
+    private volatile double framesPorSegundo;
+    private long framesInforme;
+    private long eventosInforme;
+    private long instanteInforme = System.nanoTime();
+
+    private MetricasReproduccion() {}
+
+    /**
+     * @return Instancia única del proceso
+     */
+    public static MetricasReproduccion getInstancia() {
+        return INSTANCIA;
+    }
+
+    private static MetricasReproduccion crear() {
+        MetricasReproduccion metricas = new MetricasReproduccion();
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(metricas, new ObjectName(NOMBRE_JMX));
+        } catch (Exception e) {
+            System.err.println("No se pudieron publicar las métricas de reproducción por JMX: " + e.getMessage());
+        }
+        long segundos = Long.getLong("inkharmony.metricas.segundos", 60);
+        if (segundos > 0) {
+            ScheduledExecutorService informe = Executors.newSingleThreadScheduledExecutor(tarea -> {
+                Thread hilo = new Thread(tarea, "metricas-reproduccion");
+                hilo.setDaemon(true);
+                return hilo;
+            });
+            informe.scheduleAtFixedRate(metricas::informar, segundos, segundos, TimeUnit.SECONDS);
+        }
+        return metricas;
+    }
+
+    // ==================== REGISTRO ====================
+
+    /**
+     * Marca que se abrió una pista: el siguiente frame escrito cuenta como primer audio y
+     * no se compara con el audio de la pista anterior.
+     */
+    public void iniciarPista() {
+        inicioPistaNanos.set(System.nanoTime());
+        finAudioNanos.set(0);
+    }
+
+    /**
+     * @param nanos Tiempo de leer y decodificar un frame
+     */
+    public void registrarDecodificacion(long nanos) {
+        decodificacion.registrar(nanos);
+    }
+
+    /**
+     * Registra la escritura de un frame decodificado en el dispositivo de audio.
+     *
+     * @param inicio     Instante (System.nanoTime) en que se llamó a {@code write}
+     * @param fin        Instante en que {@code write} devolvió el control
+     * @param nanosAudio Duración del audio escrito
+     */
+    public void registrarEscritura(long inicio, long fin, long nanosAudio) {
+        escritura.registrar(fin - inicio);
+        frames.incrementAndGet();
+
+        long abierta = inicioPistaNanos.getAndSet(0);
+        if (abierta != 0) {
+            primerAudio.registrar(fin - abierta);
+        }
+        long finAnterior = finAudioNanos.get();
+        if (finAnterior != 0 && inicio > finAnterior + TOLERANCIA_NANOS) {
+            subejecuciones.incrementAndGet();
+        }
+        // Si el dispositivo se vació, el audio nuevo empieza a sonar recién al escribirlo
+        long finAudio = Math.max(finAnterior, inicio) + nanosAudio;
+        finAudioNanos.set(finAudio);
+        long pendiente = Math.max(0, finAudio - fin);
+        profundidadMicros.set(pendiente / 1_000);
+        profundidad.registrar(pendiente);
+    }
+
+    /**
+     * @param nanos Tiempo entre pedir una canción al MediaPlayer de JavaFX y que empiece a sonar
+     */
+    public void registrarArranque(long nanos) {
+        arranque.registrar(nanos);
+    }
+
+    /**
+     * @param nanos    Tiempo entre el fin de una canción y el inicio de la siguiente
+     * @param sinPausa true si la siguiente ya tenía su reproductor preparado
+     */
+    public void registrarCambioPista(long nanos, boolean sinPausa) {
+        cambioPista.registrar(nanos);
+        (sinPausa ? cambiosSinPausa : cambiosConCarga).incrementAndGet();
+    }
+
+    /**
+     * @param nanos Tiempo entre pedir el audio de una canción y tenerlo en disco
+     */
+    public void registrarEsperaAudio(long nanos) {
+        esperaAudio.registrar(nanos);
+    }
+
+    /**
+     * Registra que el reproductor se quedó sin datos mientras sonaba.
+     */
+    public void registrarSubejecucion() {
+        subejecuciones.incrementAndGet();
+    }
+
+    /**
+     * Suma los contadores del anillo de una pista que terminó de sonar.
+     *
+     * @param vacios Veces que la salida encontró el anillo vacío
+     * @param llenos Veces que el decodificador encontró el anillo lleno
+     */
+    public void registrarAnillo(long vacios, long llenos) {
+        anilloVacio.addAndGet(vacios);
+        anilloLleno.addAndGet(llenos);
+    }
+
+    // ==================== INFORME ====================
+
+    /**
+     * Informa por consola las métricas si hubo actividad desde el informe anterior.
+     */
+    synchronized void informar() {
+        long ahora = System.nanoTime();
+        long framesActuales = frames.get();
+        long eventos = primerAudio.cantidad() + arranque.cantidad() + cambioPista.cantidad() + esperaAudio.cantidad()
+                + subejecuciones.get();
+        double segundos = (ahora - instanteInforme) / 1e9;
+        framesPorSegundo = segundos > 0 ? (framesActuales - framesInforme) / segundos : 0;
+        boolean actividad = framesActuales != framesInforme || eventos != eventosInforme;
+        framesInforme = framesActuales;
+        eventosInforme = eventos;
+        instanteInforme = ahora;
+        if (actividad) {
+            System.out.println(getResumen());
+        }
+    }
+
+    @Override
+    public String getResumen() {
+        return String.format("Reproducción: frames=%d (%.1f/s) subejecuciones=%d buffer=%.1f ms anillo vacío=%d lleno=%d"
+                        + " cambios sin pausa=%d con carga=%d%n  %s%n  %s%n  %s%n  %s%n  %s%n  %s%n  %s",
+                frames.get(), framesPorSegundo, subejecuciones.get(), getProfundidadBufferMs(),
+                anilloVacio.get(), anilloLleno.get(), cambiosSinPausa.get(), cambiosConCarga.get(),
+                decodificacion.resumen(), escritura.resumen(), profundidad.resumen(),
+                primerAudio.resumen(), arranque.resumen(), cambioPista.resumen(), esperaAudio.resumen());
+    }
+
+    @Override
+    public synchronized void reiniciar() {
+        decodificacion.reiniciar();
+        escritura.reiniciar();
+        profundidad.reiniciar();
+        primerAudio.reiniciar();
+        arranque.reiniciar();
+        cambioPista.reiniciar();
+        esperaAudio.reiniciar();
+        frames.set(0);
+        subejecuciones.set(0);
+        anilloVacio.set(0);
+        anilloLleno.set(0);
+        cambiosSinPausa.set(0);
+        cambiosConCarga.set(0);
+        profundidadMicros.set(0);
+        framesPorSegundo = 0;
+        framesInforme = 0;
+        eventosInforme = 0;
+        instanteInforme = System.nanoTime();
+    }
+
+    // ==================== ATRIBUTOS ====================
+
+    @Override
+    public long getFrames() {
+        return frames.get();
+    }
+
+    @Override
+    public double getFramesPorSegundo() {
+        return framesPorSegundo;
+    }
+
+    @Override
+    public long getSubejecuciones() {
+        return subejecuciones.get();
+    }
+
+    @Override
+    public long getAnilloVacio() {
+        return anilloVacio.get();
+    }
+
+    @Override
+    public long getAnilloLleno() {
+        return anilloLleno.get();
+    }
+
+    @Override
+    public double getProfundidadBufferMs() {
+        return profundidadMicros.get() / 1000.0;
+    }
+
+    @Override
+    public double getDecodificacionP50Ms() {
+        return decodificacion.percentilMs(50);
+    }
+
+    @Override
+    public double getDecodificacionP99Ms() {
+        return decodificacion.percentilMs(99);
+    }
+
+    @Override
+    public double getDecodificacionMaxMs() {
+        return decodificacion.maximoMs();
+    }
+
+    @Override
+    public double getEscrituraP50Ms() {
+        return escritura.percentilMs(50);
+    }
+
+    @Override
+    public double getEscrituraP99Ms() {
+        return escritura.percentilMs(99);
+    }
+
+    @Override
+    public double getEscrituraMaxMs() {
+        return escritura.maximoMs();
+    }
+
+    @Override
+    public double getPrimerAudioP50Ms() {
+        return primerAudio.percentilMs(50);
+    }
+
+    @Override
+    public double getPrimerAudioMaxMs() {
+        return primerAudio.maximoMs();
+    }
+
+    @Override
+    public double getArranqueP50Ms() {
+        return arranque.percentilMs(50);
+    }
+
+    @Override
+    public double getArranqueMaxMs() {
+        return arranque.maximoMs();
+    }
+
+    @Override
+    public double getCambioPistaP50Ms() {
+        return cambioPista.percentilMs(50);
+    }
+
+    @Override
+    public double getCambioPistaMaxMs() {
+        return cambioPista.maximoMs();
+    }
+
+    @Override
+    public long getCambiosSinPausa() {
+        return cambiosSinPausa.get();
+    }
+
+    @Override
+    public long getCambiosConCarga() {
+        return cambiosConCarga.get();
+    }
+
+    @Override
+    public double getEsperaAudioP50Ms() {
+        return esperaAudio.percentilMs(50);
+    }
+
+    @Override
+    public double getEsperaAudioMaxMs() {
+        return esperaAudio.maximoMs();
+    }
+}
@@ -0,0 +1,72 @@
+package BusinessLogic.utilities;
+
+/**
+ * Interfaz JMX de {@link MetricasReproduccion}. Los tiempos se informan en milisegundos.
+ *
+ * @author Grupo B
+ * @version 1.0
+ * @since 25-07-2025
+ */
+public interface MetricasReproduccionMBean {
+
+    /** @return Frames escritos en el dispositivo de audio */
+    long getFrames();
+
+    /** @return Frames por segundo escritos durante el último intervalo del informe periódico */
+    double getFramesPorSegundo();
+
+    /** @return Veces que el dispositivo se quedó sin audio antes de recibir el siguiente frame */
+    long getSubejecuciones();
+
+    /** @return Veces que la salida encontró vacío el anillo de frames decodificados */
+    long getAnilloVacio();
+
+    /** @return Veces que el decodificador encontró lleno el anillo de frames decodificados */
+    long getAnilloLleno();
+
+    /** @return Audio pendiente en el dispositivo después de la última escritura */
+    double getProfundidadBufferMs();
+
+    double getDecodificacionP50Ms();
+
+    double getDecodificacionP99Ms();
+
+    double getDecodificacionMaxMs();
+
+    double getEscrituraP50Ms();
+
+    double getEscrituraP99Ms();
+
+    double getEscrituraMaxMs();
+
+    /** @return Mediana del tiempo hasta el primer frame escrito por JLayer */
+    double getPrimerAudioP50Ms();
+
+    double getPrimerAudioMaxMs();
+
+    /** @return Mediana del tiempo hasta que suena una canción pedida al MediaPlayer de JavaFX */
+    double getArranqueP50Ms();
+
+    double getArranqueMaxMs();
+
+    double getCambioPistaP50Ms();
+
+    double getCambioPistaMaxMs();
+
+    /** @return Cambios automáticos de pista que usaron el reproductor ya preparado */
+    long getCambiosSinPausa();
+
+    /** @return Cambios automáticos de pista que tuvieron que cargar el audio */
+    long getCambiosConCarga();
+
+    /** @return Mediana de la espera hasta tener en disco el audio de la canción pedida */
+    double getEsperaAudioP50Ms();
+
+    double getEsperaAudioMaxMs();
+
+    /** @return Resumen legible de todas las métricas */
+    String getResumen();
+
+    /** Vuelve a cero todas las métricas */
+    void reiniciar();
+}
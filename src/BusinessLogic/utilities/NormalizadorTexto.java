@@ -0,0 +1,81 @@
+package BusinessLogic.utilities;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Clase que lleva un texto a la forma en que se compara en las búsquedas: sin tildes ni
+ * diéresis, en minúsculas y con cualquier signo o separador convertido en un espacio.
+ *
+ * <p>Así "Canción", "cancion" y "CANCIÓN" se escriben igual, "ROCK_ALTERNATIVO" queda como
+ * "rock alternativo" y "AC/DC" como "ac dc". La eñe pierde la virgulilla igual que las
+ * vocales pierden la tilde, para que quien busca sin ella encuentre el resultado.</p>
+ *
+ * @author Grupo B
+ * @version 1.0
+ * @since 25-07-2025
+ */
+public final class NormalizadorTexto {
+
+    /** Marcas diacríticas que quedan separadas de su letra tras la descomposición NFD */
+    private static final Pattern DIACRITICOS = Pattern.compile("\\p{M}+");
+
+    /** Todo lo que no es letra ni dígito separa palabras */
+    private static final Pattern SEPARADORES = Pattern.compile("[^\\p{L}\\p{Nd}]+");
+
+    private NormalizadorTexto() {
+    }
+
+    /**
+     * Normaliza un texto completo.
+     *
+     * @param texto Texto original; null se trata como vacío
+     * @return Texto normalizado, con las palabras separadas por un único espacio
+     */
+    public static String normalizar(String texto) {
+        if (texto == null || texto.isEmpty()) {
+            return "";
+        }
+        String resultado = esAsciiSimple(texto) ? texto.toLowerCase(Locale.ROOT)
+                : DIACRITICOS.matcher(Normalizer.normalize(texto, Normalizer.Form.NFD)).replaceAll("").toLowerCase(Locale.ROOT);
+        return SEPARADORES.matcher(resultado).replaceAll(" ").trim();
+    }
+
+    /**
+     * Normaliza un texto y lo divide en palabras.
+     *
+     * @param texto Texto original; null se trata como vacío
+     * @return Palabras normalizadas en el orden en que aparecen; vacía si no hay ninguna
+     */
+    public static List<String> palabras(String texto) {
+        String normalizado = normalizar(texto);
+        List<String> palabras = new ArrayList<>();
+        int inicio = 0;
+        while (inicio < normalizado.length()) {
+            int fin = normalizado.indexOf(' ', inicio);
+            if (fin < 0) {
+                fin = normalizado.length();
+            }
+            if (fin > inicio) {
+                palabras.add(normalizado.substring(inicio, fin));
+            }
+            inicio = fin + 1;
+        }
+        return palabras;
+    }
+
+    /**
+     * @return true si el texto solo tiene caracteres ASCII, que no necesitan descomponerse
+     */
+    private static boolean esAsciiSimple(String texto) {
+        for (int i = 0; i < texto.length(); i++) {
+            if (texto.charAt(i) >= 0x80) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
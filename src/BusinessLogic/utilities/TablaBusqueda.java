@@ -0,0 +1,153 @@
+package BusinessLogic.utilities;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import javazoom.jl.decoder.JavaLayerException;
+
+/**
+ * Clase que indexa los frames de un MP3 para poder posicionarse en él sin decodificarlo.
+ *
+ * <p>Para cada frame guarda el byte donde empieza su encabezado y el número de muestras
+ * (PCM) reproducidas antes de él. Con eso, convertir un frame a segundos, un instante a
+ * frame o un frame a posición en el archivo es una consulta directa o una búsqueda
+ * binaria, y es exacto también en archivos VBR, donde los frames no duran ni pesan lo
+ * mismo.</p>
+ *
+ * <p>La tabla se construye una sola vez al subir la canción, en la misma pasada por los
+ * encabezados en que {@link AnalizadorMP3} obtiene los datos técnicos del archivo, y se
+ * guarda serializada en la columna {@code Cancion.tabla_busqueda}.</p>
+ *
+ * <p>Formato serializado (big endian): {@code "TB"}, versión (1 byte), frecuencia de muestreo
+ * (int), cantidad de frames n (int), n offsets (int) y n+1 muestras acumuladas (int); la
+ * última es el total de muestras del archivo.</p>
+ */
+public final class TablaBusqueda {
+
+    /** Marca y versión del formato serializado */
+    private static final byte[] MARCA = {'T', 'B'};
+    private static final byte VERSION = 1;
+
+    /** Frecuencia de muestreo en Hz */
+    private final int frecuencia;
+
+    /** Byte en que empieza cada frame */
+    private final int[] offsets;
+
+    /** Muestras reproducidas antes de cada frame; la posición n es el total */
+    private final int[] muestras;
+
+    TablaBusqueda(int frecuencia, int[] offsets, int[] muestras) {
+        this.frecuencia = frecuencia;
+        this.offsets = offsets;
+        this.muestras = muestras;
+    }
+
+    /**
+     * Recorre los encabezados de un MP3 y arma su tabla de búsqueda.
+     *
+     * @param mp3 Contenido completo del archivo
+     * @return Tabla con un registro por frame
+     * @throws JavaLayerException si el flujo no se puede leer como MP3
+     */
+    public static TablaBusqueda construir(byte[] mp3) throws JavaLayerException {
+        return AnalizadorMP3.analizar(mp3).getTablaBusqueda();
+    }
+
+    /**
+     * Reconstruye una tabla guardada con {@link #serializar()}.
+     *
+     * @param datos Bytes leídos de la base de datos
+     * @return Tabla de búsqueda, o null si los datos no tienen el formato esperado
+     */
+    public static TablaBusqueda leer(byte[] datos) {
+        if (datos == null || datos.length < 11 || datos[0] != MARCA[0] || datos[1] != MARCA[1] || datos[2] != VERSION) {
+            return null;
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(datos, 3, datos.length - 3);
+        int frecuencia = buffer.getInt();
+        int frames = buffer.getInt();
+        if (frames < 0 || buffer.remaining() != (frames * 2 + 1) * Integer.BYTES) {
+            return null;
+        }
+        int[] offsets = new int[frames];
+        int[] muestras = new int[frames + 1];
+        buffer.asIntBuffer().get(offsets);
+        buffer.position(buffer.position() + frames * Integer.BYTES);
+        buffer.asIntBuffer().get(muestras);
+        return new TablaBusqueda(frecuencia, offsets, muestras);
+    }
+
+    /**
+     * Serializa la tabla para guardarla junto a la canción.
+     *
+     * @return Bytes en el formato descrito en la clase
+     */
+    public byte[] serializar() {
+        ByteBuffer buffer = ByteBuffer.allocate(3 + 8 + (offsets.length * 2 + 1) * Integer.BYTES);
+        buffer.put(MARCA).put(VERSION).putInt(frecuencia).putInt(offsets.length);
+        buffer.asIntBuffer().put(offsets);
+        buffer.position(buffer.position() + offsets.length * Integer.BYTES);
+        buffer.asIntBuffer().put(muestras);
+        return buffer.array();
+    }
+
+    /**
+     * @return Cantidad de frames del archivo
+     */
+    public int getTotalFrames() {
+        return offsets.length;
+    }
+
+    /**
+     * @return Duración exacta del archivo en segundos
+     */
+    public double getDuracionSegundos() {
+        return frecuencia > 0 ? (double) muestras[offsets.length] / frecuencia : 0;
+    }
+
+    /**
+     * Convierte un número de frame al instante en que empieza.
+     *
+     * @param frame Frame (se limita al rango del archivo)
+     * @return Segundos desde el inicio de la canción
+     */
+    public double segundoDeFrame(int frame) {
+        if (frecuencia <= 0) {
+            return 0;
+        }
+        return (double) muestras[limitar(frame, offsets.length)] / frecuencia;
+    }
+
+    /**
+     * Busca el frame que se está reproduciendo en un instante dado.
+     *
+     * @param segundos Segundos desde el inicio
+     * @return Frame que contiene ese instante
+     */
+    public int frameEnSegundo(double segundos) {
+        if (offsets.length == 0 || frecuencia <= 0) {
+            return 0;
+        }
+        long muestra = Math.round(segundos * frecuencia);
+        int i = Arrays.binarySearch(muestras, 0, offsets.length, (int) Math.min(muestra, Integer.MAX_VALUE));
+        return i >= 0 ? i : Math.max(0, -i - 2);
+    }
+
+    /**
+     * Devuelve el byte donde empieza un frame, para abrir el flujo directamente ahí.
+     *
+     * @param frame Frame (se limita al rango del archivo)
+     * @return Posición en bytes dentro del archivo
+     */
+    public int offsetDeFrame(int frame) {
+        if (offsets.length == 0) {
+            return 0;
+        }
+        return offsets[limitar(frame, offsets.length - 1)];
+    }
+
+    private static int limitar(int valor, int maximo) {
+        return Math.max(0, Math.min(valor, maximo));
+    }
+}
@@ -0,0 +1,99 @@
+/*
+|-----------------------------------------------|
+| © 2025 EPN-FIS, Todos los derechos reservados |
+| GR1SW                                         |
+|-----------------------------------------------|
+Autores: Grupo A
+Descripción: Almacén de contenidos binarios direccionados por su hash, fuera de SQLite.
+*/
+
+package DataAccessComponent;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Interfaz AlmacenBlobs que guarda contenidos binarios (audio e imágenes) fuera de la base de
+ * datos, identificados por el SHA-256 de su contenido.
+ *
+ * <p>Como la clave depende solo del contenido, guardar dos veces los mismos bytes no ocupa
+ * más espacio y un contenido nunca cambia después de guardado. El almacén no sabe quién usa
+ * cada contenido: las filas de la base guardan el hash y la tabla {@code Contenido_Blob}
+ * lleva la cuenta de referencias, así que solo se debe eliminar un contenido cuando esa
+ * cuenta llega a cero.</p>
+ *
+ * <p>La implementación por defecto es {@link AlmacenBlobsArchivos}; otra puede instalarse
+ * con {@link SQLiteDataHelper#usarAlmacenBlobs(AlmacenBlobs)}.</p>
+ *
+ * @author Grupo A
+ * @version 1.0
+ * @since 18-07-2025
+ */
+public interface AlmacenBlobs {
+
+    /**
+     * Guarda un contenido si aún no existe.
+     *
+     * @param contenido Bytes a guardar
+     * @return Hash SHA-256 del contenido en hexadecimal (64 caracteres en minúscula)
+     * @throws IOException si no se puede escribir
+     */
+    String guardar(byte[] contenido) throws IOException;
+
+    /**
+     * @param hash Hash devuelto por {@link #guardar(byte[])}
+     * @return Contenido completo
+     * @throws IOException si el contenido no existe o no se puede leer
+     */
+    byte[] leer(String hash) throws IOException;
+
+    /**
+     * Da acceso de solo lectura al contenido sin copiarlo al heap, por ejemplo mapeándolo en
+     * memoria.
+     *
+     * @param hash Hash del contenido
+     * @return Buffer de solo lectura posicionado al inicio del contenido
+     * @throws IOException si el contenido no existe o no se puede abrir
+     */
+    ByteBuffer mapear(String hash) throws IOException;
+
+    /**
+     * Copia el contenido a un flujo de salida sin construir un arreglo con él.
+     *
+     * @param hash Hash del contenido
+     * @param destino Flujo donde se escribe; no se cierra
+     * @return Cantidad de bytes copiados
+     * @throws IOException si el contenido no existe o falla la escritura
+     */
+    long copiar(String hash, OutputStream destino) throws IOException;
+
+    /**
+     * @param hash Hash del contenido
+     * @return Archivo local con el contenido, o null si el almacén no guarda archivos locales
+     *         o el contenido no existe. El archivo no debe modificarse.
+     */
+    Path ruta(String hash);
+
+    /**
+     * @param hash Hash del contenido
+     * @return true si el contenido está guardado
+     */
+    boolean existe(String hash);
+
+    /**
+     * Elimina un contenido; no falla si no existe.
+     *
+     * @param hash Hash del contenido
+     * @return true si se eliminó
+     */
+    boolean eliminar(String hash);
+
+    /**
+     * @return Hashes de todos los contenidos guardados, para recolectar los huérfanos
+     * @throws IOException si no se puede recorrer el almacén
+     */
+    List<String> listar() throws IOException;
+}
@@ -0,0 +1,224 @@
+/*
+|-----------------------------------------------|
+| © 2025 EPN-FIS, Todos los derechos reservados |
+| GR1SW                                         |
+|-----------------------------------------------|
+Autores: Grupo A
+Descripción: Almacén de blobs en un árbol de directorios direccionado por SHA-256.
+*/
+
+package DataAccessComponent;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Clase AlmacenBlobsArchivos que guarda cada contenido en un archivo cuyo nombre es su hash
+ * SHA-256, repartidos en dos niveles de subdirectorios según los primeros caracteres del hash
+ * ({@code ab/cd/abcd...}) para que ningún directorio tenga demasiadas entradas.
+ *
+ * <p>Los archivos se escriben primero con un nombre provisional y se renombran al terminar,
+ * así que un archivo con nombre de hash siempre está completo aunque el proceso se
+ * interrumpa a mitad de una escritura; los provisionales que queden se ignoran.</p>
+ *
+ * <p>Las lecturas usan {@link FileChannel}: {@link #leer(String)} reserva el arreglo con el
+ * tamaño exacto, {@link #mapear(String)} mapea el archivo en memoria y
+ * {@link #copiar(String, OutputStream)} transfiere sin pasar por un búfer intermedio.</p>
+ *
+ * @author Grupo A
+ * @version 1.0
+ * @since 18-07-2025
+ */
+public final class AlmacenBlobsArchivos implements AlmacenBlobs {
+
+    /** Forma válida de un hash; evita que un valor corrupto se convierta en una ruta arbitraria */
+    private static final Pattern HASH = Pattern.compile("[0-9a-f]{64}");
+
+    private static final char[] HEXADECIMAL = "0123456789abcdef".toCharArray();
+
+    /** Directorio raíz del almacén */
+    private final Path raiz;
+
+    /**
+     * @param raiz Directorio raíz; se crea al guardar el primer contenido
+     */
+    public AlmacenBlobsArchivos(Path raiz) {
+        this.raiz = raiz.toAbsolutePath().normalize();
+    }
+
+    /** @return Directorio raíz del almacén */
+    public Path getRaiz() {
+        return raiz;
+    }
+
+    @Override
+    public String guardar(byte[] contenido) throws IOException {
+        String hash = calcularHash(contenido);
+        Path destino = archivo(hash);
+        if (Files.exists(destino) && Files.size(destino) == contenido.length) {
+            return hash;
+        }
+        Files.createDirectories(destino.getParent());
+        Path provisional = Files.createTempFile(destino.getParent(), hash.substring(0, 8) + "_", ".parcial");
+        try {
+            try (FileChannel canal = FileChannel.open(provisional, StandardOpenOption.WRITE)) {
+                ByteBuffer datos = ByteBuffer.wrap(contenido);
+                while (datos.hasRemaining()) {
+                    canal.write(datos);
+                }
+                canal.force(false);
+            }
+            try {
+                Files.move(provisional, destino, StandardCopyOption.ATOMIC_MOVE);
+            } catch (FileAlreadyExistsException e) {
+                // Otro proceso guardó el mismo contenido al mismo tiempo: el archivo ya es válido
+            }
+        } finally {
+            Files.deleteIfExists(provisional);
+        }
+        return hash;
+    }
+
+    @Override
+    public byte[] leer(String hash) throws IOException {
+        try (FileChannel canal = FileChannel.open(existente(hash), StandardOpenOption.READ)) {
+            long tamanio = canal.size();
+            if (tamanio > Integer.MAX_VALUE - 8) {
+                throw new IOException("El contenido " + hash + " es demasiado grande para leerlo completo");
+            }
+            ByteBuffer destino = ByteBuffer.allocate((int) tamanio);
+            while (destino.hasRemaining() && canal.read(destino) >= 0) {
+                // Se lee hasta llenar el arreglo
+            }
+            return destino.array();
+        }
+    }
+
+    @Override
+    public ByteBuffer mapear(String hash) throws IOException {
+        try (FileChannel canal = FileChannel.open(existente(hash), StandardOpenOption.READ)) {
+            // El mapeo sigue siendo válido después de cerrar el canal
+            return canal.map(FileChannel.MapMode.READ_ONLY, 0, canal.size());
+        }
+    }
+
+    @Override
+    public long copiar(String hash, OutputStream destino) throws IOException {
+        try (FileChannel canal = FileChannel.open(existente(hash), StandardOpenOption.READ)) {
+            WritableByteChannel salida = Channels.newChannel(destino);
+            long tamanio = canal.size();
+            long copiados = 0;
+            while (copiados < tamanio) {
+                copiados += canal.transferTo(copiados, tamanio - copiados, salida);
+            }
+            return copiados;
+        }
+    }
+
+    @Override
+    public Path ruta(String hash) {
+        if (!esHash(hash)) {
+            return null;
+        }
+        Path archivo = archivo(hash);
+        return Files.isRegularFile(archivo) ? archivo : null;
+    }
+
+    @Override
+    public boolean existe(String hash) {
+        return ruta(hash) != null;
+    }
+
+    @Override
+    public boolean eliminar(String hash) {
+        if (!esHash(hash)) {
+            return false;
+        }
+        try {
+            return Files.deleteIfExists(archivo(hash));
+        } catch (IOException e) {
+            // Por ejemplo, el reproductor lo tiene abierto en Windows; se recolecta más adelante
+            System.err.println("No se pudo eliminar el contenido " + hash + ": " + e.getMessage());
+            return false;
+        }
+    }
+
+    @Override
+    public List<String> listar() throws IOException {
+        List<String> hashes = new ArrayList<>();
+        if (!Files.isDirectory(raiz)) {
+            return hashes;
+        }
+        try (DirectoryStream<Path> nivel1 = Files.newDirectoryStream(raiz, Files::isDirectory)) {
+            for (Path directorio1 : nivel1) {
+                try (DirectoryStream<Path> nivel2 = Files.newDirectoryStream(directorio1, Files::isDirectory)) {
+                    for (Path directorio2 : nivel2) {
+                        try (DirectoryStream<Path> archivos = Files.newDirectoryStream(directorio2)) {
+                            for (Path archivo : archivos) {
+                                String nombre = archivo.getFileName().toString();
+                                if (esHash(nombre)) {
+                                    hashes.add(nombre);
+                                }
+                            }
+                        }
+                    }
+                }
+            }
+        }
+        return hashes;
+    }
+
+    /**
+     * @param contenido Bytes del contenido
+     * @return SHA-256 del contenido en hexadecimal en minúscula
+     */
+    public static String calcularHash(byte[] contenido) {
+        byte[] resumen;
+        try {
+            resumen = MessageDigest.getInstance("SHA-256").digest(contenido);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("La JVM no ofrece SHA-256", e);
+        }
+        char[] texto = new char[resumen.length * 2];
+        for (int i = 0; i < resumen.length; i++) {
+            texto[2 * i] = HEXADECIMAL[(resumen[i] >> 4) & 0x0F];
+            texto[2 * i + 1] = HEXADECIMAL[resumen[i] & 0x0F];
+        }
+        return new String(texto);
+    }
+
+    /**
+     * @return true si el texto tiene la forma de un hash del almacén
+     */
+    public static boolean esHash(String texto) {
+        return texto != null && HASH.matcher(texto).matches();
+    }
+
+    private Path archivo(String hash) {
+        return raiz.resolve(hash.substring(0, 2)).resolve(hash.substring(2, 4)).resolve(hash);
+    }
+
+    private Path existente(String hash) throws IOException {
+        Path archivo = ruta(hash);
+        if (archivo == null) {
+            throw new NoSuchFileException("El contenido " + hash + " no existe en " + raiz);
+        }
+        return archivo;
+    }
+}
@@ -0,0 +1,186 @@
+/*
+|-----------------------------------------------|
+| © 2025 EPN-FIS, Todos los derechos reservados |
+| GR1SW                                         |
+|-----------------------------------------------|
+Autores: Grupo A
+Descripción: Medición del número de consultas SQL de los listados a medida que crece el catálogo.
+*/
+
+package DataAccessComponent;
+
+import BusinessLogic.Genero;
+import DataAccessComponent.DAO.ArtistaDAO;
+import DataAccessComponent.DAO.CacheEntidades;
+import DataAccessComponent.DAO.CancionDAO;
+import DataAccessComponent.DAO.PlaylistDAO;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.concurrent.Callable;
+
+/**
+ * Programa de medición que verifica que los listados ejecutan un número constante de
+ * consultas sin importar el tamaño del catálogo.
+ *
+ * <p>Crea una base temporal con el esquema de {@code scriptsBD/DDL_InkHarmony.sql}, la llena
+ * por etapas (100, 1000 y 5000 canciones, cada una con un artista, un género y dentro de una
+ * playlist) y en cada etapa imprime cuántas sentencias SQL pide cada operación, cuántas
+ * tuvo que compilar (las demás salen de la caché de sentencias) y cuánto tiempo consume.
+ * Con hidratación por lotes la columna de consultas no debe crecer, y la segunda lectura
+ * del catálogo solo consulta la tabla Cancion porque las relaciones salen de
+ * {@link CacheEntidades}.</p>
+ *
+ * <p>Después de cada operación verifica con {@link PoolConexiones#verificarSinFugas(long, long)}
+ * que el DAO no dejó sentencias ni ResultSet abiertos; si los dejó, el programa termina con error.</p>
+ *
+ * <p>Uso: {@code java DataAccessComponent.BenchmarkConsultas [ruta del DDL]}</p>
+ *
+ * @author Grupo A
+ * @version 1.0
+ * @since 18-07-2025
+ */
+public class BenchmarkConsultas {
+
+    /** Tamaños de catálogo a medir */
+    private static final int[] TAMANIOS = {100, 1000, 5000};
+
+    public static void main(String[] args) throws Exception {
+        Path ddl = Path.of(args.length > 0 ? args[0] : "scriptsBD/DDL_InkHarmony.sql");
+        Path base = Files.createTempFile("inkharmony-benchmark", ".sqlite");
+        String url = "jdbc:sqlite:" + base.toAbsolutePath();
+        // Debe establecerse antes de que se cargue SQLiteDataHelper
+        System.setProperty("inkharmony.db", url);
+
+        try (Connection conn = DriverManager.getConnection(url)) {
+            crearEsquema(conn, Files.readString(ddl));
+
+            CancionDAO cancionDAO = new CancionDAO();
+            ArtistaDAO artistaDAO = new ArtistaDAO();
+            PlaylistDAO playlistDAO = new PlaylistDAO();
+
+            System.out.printf("%-10s %-40s %10s %10s %10s%n", "Canciones", "Operación", "Consultas", "Compiladas", "ms");
+            int actuales = 0;
+            for (int tamanio : TAMANIOS) {
+                poblar(conn, actuales, tamanio);
+                actuales = tamanio;
+                // Las tablas se llenaron sin pasar por los DAO
+                CacheEntidades.getInstancia().invalidarTodo();
+
+                medir(tamanio, "CancionDAO.buscarResumenes", () -> cancionDAO.buscarResumenes().size());
+                medir(tamanio, "CancionDAO.buscarResumenes (en caché)", () -> cancionDAO.buscarResumenes().size());
+                medir(tamanio, "CancionDAO.buscarTodo", () -> cancionDAO.buscarTodo().size());
+                medir(tamanio, "ArtistaDAO.buscarTodo", () -> artistaDAO.buscarTodo().size());
+                medir(tamanio, "PlaylistDAO.buscarTodo", () -> playlistDAO.buscarTodo().size());
+                medir(tamanio, "PlaylistDAO.obtenerCancionesCompletas",
+                        () -> playlistDAO.obtenerCancionesCompletasDePlaylist(1).size());
+            }
+            System.out.println(SQLiteDataHelper.getPool().resumen());
+            System.out.println(CacheEntidades.getInstancia().resumen());
+        } finally {
+            Files.deleteIfExists(base);
+        }
+    }
+
+    /**
+     * Ejecuta una operación, reporta las sentencias SQL y el tiempo que consumió, y falla si
+     * dejó recursos JDBC sin cerrar.
+     */
+    private static void medir(int tamanio, String nombre, Callable<Integer> operacion) throws Exception {
+        PoolConexiones pool = SQLiteDataHelper.getPool();
+        SQLiteDataHelper.reiniciarContadorConsultas();
+        long compiladas = pool.getSentenciasCompiladas();
+        long sentenciasFugadas = pool.getSentenciasFugadas();
+        long resultadosFugados = pool.getResultadosFugados();
+
+        long inicio = System.nanoTime();
+        operacion.call();
+        long ms = (System.nanoTime() - inicio) / 1_000_000;
+
+        pool.verificarSinFugas(sentenciasFugadas, resultadosFugados);
+        System.out.printf("%-10d %-40s %10d %10d %10d%n", tamanio, nombre, SQLiteDataHelper.getConsultasEjecutadas(),
+                pool.getSentenciasCompiladas() - compiladas, ms);
+    }
+
+    /**
+     * Ejecuta el script DDL sentencia por sentencia y registra los géneros del enum.
+     *
+     * @param conn Conexión a la base temporal
+     * @param script Contenido de {@code DDL_InkHarmony.sql}
+     * @throws Exception si alguna sentencia falla
+     */
+    public static void crearEsquema(Connection conn, String script) throws Exception {
+        try (Statement stmt = conn.createStatement()) {
+            for (String sentencia : script.split(";")) {
+                if (!sentencia.replaceAll("(?m)^\\s*--.*$", "").isBlank()) {
+                    stmt.execute(sentencia);
+                }
+            }
+        }
+        try (PreparedStatement ps = conn.prepareStatement("INSERT INTO Genero(nombre_genero) VALUES (?)")) {
+            for (Genero genero : Genero.values()) {
+                ps.setString(1, genero.name());
+                ps.addBatch();
+            }
+            ps.executeBatch();
+        }
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("INSERT INTO Playlist(id_playlist, titulo, fecha_creacion) VALUES (1, 'Benchmark', '2025-07-18T00:00')");
+        }
+    }
+
+    /**
+     * Agrega las canciones {@code desde+1 .. hasta}, cada una con su propio artista y género,
+     * y las añade al final de la playlist 1.
+     */
+    private static void poblar(Connection conn, int desde, int hasta) throws Exception {
+        conn.setAutoCommit(false);
+        try (PreparedStatement cancion = conn.prepareStatement(
+                "INSERT INTO Cancion(id_cancion, titulo, duracion, anio, fecha_registro) VALUES (?, ?, 180, 2025, '2025-07-18 00:00:00')");
+             PreparedStatement artista = conn.prepareStatement(
+                     "INSERT INTO Artista(id_artista, nombre, biografia) VALUES (?, ?, '')");
+             PreparedStatement artistaGenero = conn.prepareStatement(
+                     "INSERT INTO Artista_Genero(id_artista, id_genero) VALUES (?, ?)");
+             PreparedStatement cancionArtista = conn.prepareStatement(
+                     "INSERT INTO Cancion_Artista(id_cancion, id_artista) VALUES (?, ?)");
+             PreparedStatement cancionGenero = conn.prepareStatement(
+                     "INSERT INTO Cancion_Genero(id_cancion, id_genero) VALUES (?, ?)");
+             PreparedStatement playlist = conn.prepareStatement(
+                     "INSERT INTO Playlist_Cancion(id_playlist, id_cancion, orden) VALUES (1, ?, ?)")) {
+            for (int id = desde + 1; id <= hasta; id++) {
+                int genero = (id % Genero.values().length) + 1;
+                cancion.setInt(1, id);
+                cancion.setString(2, "Cancion " + id);
+                cancion.addBatch();
+                artista.setInt(1, id);
+                artista.setString(2, "Artista " + id);
+                artista.addBatch();
+                artistaGenero.setInt(1, id);
+                artistaGenero.setInt(2, genero);
+                artistaGenero.addBatch();
+                cancionArtista.setInt(1, id);
+                cancionArtista.setInt(2, id);
+                cancionArtista.addBatch();
+                cancionGenero.setInt(1, id);
+                cancionGenero.setInt(2, genero);
+                cancionGenero.addBatch();
+                playlist.setInt(1, id);
+                playlist.setInt(2, id);
+                playlist.addBatch();
+            }
+            cancion.executeBatch();
+            artista.executeBatch();
+            artistaGenero.executeBatch();
+            cancionArtista.executeBatch();
+            cancionGenero.executeBatch();
+            playlist.executeBatch();
+            conn.commit();
+        } finally {
+            conn.setAutoCommit(true);
+        }
+    }
+}
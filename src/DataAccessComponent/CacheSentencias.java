@@ -0,0 +1,126 @@
+/*
+|-----------------------------------------------|
+| © 2025 EPN-FIS, Todos los derechos reservados |
+| GR1SW                                         |
+|-----------------------------------------------|
+Autores: Grupo A
+Descripción: Caché de sentencias preparadas de una conexión física del pool.
+*/
+
+package DataAccessComponent;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Clase CacheSentencias que conserva compiladas las sentencias preparadas de una conexión.
+ *
+ * <p>Las sentencias se indexan por su texto SQL (y por si devuelven claves generadas). Al
+ * pedir una sentencia se retira de la caché; al cerrarla el DAO, se limpian sus parámetros y
+ * vuelve a la caché. Así, dos usos simultáneos del mismo SQL sobre la misma conexión nunca
+ * comparten la misma instancia. La caché vive mientras vive la conexión física y descarta
+ * la sentencia menos usada cuando supera {@link #CAPACIDAD}.</p>
+ *
+ * <p>No es segura para hilos: el pool garantiza que una conexión física solo está arrendada
+ * por un hilo a la vez.</p>
+ *
+ * @author Grupo A
+ * @version 1.0
+ * @since 18-07-2025
+ */
+final class CacheSentencias {
+
+    /** Máximo de sentencias compiladas que se conservan por conexión */
+    static final int CAPACIDAD = 64;
+
+    /** Conexión física dueña de las sentencias */
+    private final Connection real;
+
+    /** Sentencias libres en orden de uso (la primera es la menos usada) */
+    private final LinkedHashMap<String, PreparedStatement> libres =
+            new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, PreparedStatement> mayor) {
+                    if (size() > CAPACIDAD) {
+                        cerrarSilenciosamente(mayor.getValue());
+                        return true;
+                    }
+                    return false;
+                }
+            };
+
+    CacheSentencias(Connection real) {
+        this.real = real;
+    }
+
+    /**
+     * Retira de la caché una sentencia ya compilada para el SQL indicado.
+     *
+     * @param sql Texto SQL de la sentencia
+     * @param clavesGeneradas Valor de {@code Statement.RETURN_GENERATED_KEYS} o {@code NO_GENERATED_KEYS}
+     * @return Sentencia lista para asignar parámetros, o null si no hay una libre
+     * @throws SQLException si ocurre un error al consultar el estado de la sentencia
+     */
+    PreparedStatement tomar(String sql, int clavesGeneradas) throws SQLException {
+        PreparedStatement ps = libres.remove(clave(sql, clavesGeneradas));
+        return ps != null && !ps.isClosed() ? ps : null;
+    }
+
+    /**
+     * Compila una sentencia nueva sobre la conexión física.
+     *
+     * @param sql Texto SQL de la sentencia
+     * @param clavesGeneradas Modo de claves generadas
+     * @return Sentencia recién compilada
+     * @throws SQLException si ocurre un error al compilarla
+     */
+    PreparedStatement compilar(String sql, int clavesGeneradas) throws SQLException {
+        return real.prepareStatement(sql, clavesGeneradas);
+    }
+
+    /**
+     * Devuelve una sentencia a la caché después de limpiar sus parámetros y lotes.
+     *
+     * @param sql Texto SQL con el que se obtuvo
+     * @param clavesGeneradas Modo de claves generadas con el que se obtuvo
+     * @param ps Sentencia a devolver
+     */
+    void devolver(String sql, int clavesGeneradas, PreparedStatement ps) {
+        try {
+            ps.clearParameters();
+            ps.clearBatch();
+        } catch (SQLException e) {
+            cerrarSilenciosamente(ps);
+            return;
+        }
+        PreparedStatement previa = libres.put(clave(sql, clavesGeneradas), ps);
+        if (previa != null && previa != ps) {
+            cerrarSilenciosamente(previa);
+        }
+    }
+
+    /**
+     * Cierra todas las sentencias conservadas.
+     */
+    void cerrar() {
+        for (PreparedStatement ps : libres.values()) {
+            cerrarSilenciosamente(ps);
+        }
+        libres.clear();
+    }
+
+    private static String clave(String sql, int clavesGeneradas) {
+        return clavesGeneradas + "|" + sql;
+    }
+
+    private static void cerrarSilenciosamente(PreparedStatement ps) {
+        try {
+            ps.close();
+        } catch (SQLException ignored) {
+            // Una sentencia que no cierra ya no es reutilizable; solo se descarta
+        }
+    }
+}
@@ -2,13 +2,22 @@ package DataAccessComponent.DAO;
 
 import DataAccessComponent.SQLiteDataHelper;
 import DataAccessComponent.DTO.ArtistaDTO;
+import DataAccessComponent.DTO.DocumentoBusquedaDTO;
 import BusinessLogic.Genero;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 
-public class ArtistaDAO extends SQLiteDataHelper implements IDAO<ArtistaDTO> {
+/**
+ * DAO de artistas. Las lecturas se sirven desde {@link CacheEntidades}, que solo consulta la
+ * base por los artistas que no tiene en memoria; cada escritura invalida el artista afectado.
+ */
+public class ArtistaDAO extends SQLiteDataHelper implements IDAO<ArtistaDTO>, IPaginable<ArtistaDTO> {
+
+    /** Artistas y géneros en memoria, compartidos por todos los DAO */
+    private final CacheEntidades cache = CacheEntidades.getInstancia();
 
     /**
      *Registra un nuevo artista en la base de datos, incluyendo sus géneros musicales.
@@ -20,33 +29,49 @@ public class ArtistaDAO extends SQLiteDataHelper implements IDAO<ArtistaDTO> {
     @Override
     public boolean registrar(ArtistaDTO artista) throws Exception {
         String sqlInsert = "INSERT INTO Artista(nombre, biografia, imagen) VALUES (?, ?, ?)";
+        Connection conn = null;
+        ReferenciasBlob blobs = null;
         try {
+            conn = openConnection();
+            // Las referencias del almacén se cuentan en la misma transacción que la fila
+            conn.setAutoCommit(false);
+            blobs = new ReferenciasBlob(conn);
+            try (PreparedStatement ps = conn.prepareStatement(sqlInsert, Statement.RETURN_GENERATED_KEYS)) {
+                ps.setString(1, artista.getNombre());
+                ps.setString(2, artista.getBiografia());
+                ps.setString(3, blobs.guardar(artista.getImagen()));
+                ps.executeUpdate();
 
-            Connection conn = openConnection();
-            PreparedStatement ps = conn.prepareStatement(sqlInsert, Statement.RETURN_GENERATED_KEYS);
-            ps.setString(1, artista.getNombre());
-            ps.setString(2, artista.getBiografia());
-            ps.setBytes(3, artista.getImagen());
-            ps.executeUpdate();
-
-            ResultSet rs = ps.getGeneratedKeys();
-                if (rs.next()) {
-                    int idGenerado = rs.getInt(1);
-                    artista.setId(idGenerado);
-                    // Insertar géneros
-                        for (Genero genero : artista.getGenero()) {
-                            String sqlGenero = "INSERT INTO Artista_Genero(id_artista, id_genero) VALUES (?, ?)";
-                            PreparedStatement psg = conn.prepareStatement(sqlGenero);
-                            psg.setInt(1, idGenerado);
-                            psg.setInt(2, genero.ordinal() + 1);
-                            psg.addBatch();
-                            psg.executeBatch();
-                        }
+                try (ResultSet rs = ps.getGeneratedKeys()) {
+                    if (rs.next()) {
+                        int idGenerado = rs.getInt(1);
+                        artista.setId(idGenerado);
+                        // Insertar géneros
+                        insertarGeneros(conn, idGenerado, artista.getGenero());
+                    }
                 }
+            }
 
+            conn.commit();
+            blobs.confirmar();
             return true;
         } catch (Exception e) {
+            if (conn != null) {
+                conn.rollback();
+                if (blobs != null) {
+                    blobs.deshacer();
+                }
+            }
+            artista.setId(0);
             throw new Exception("Error al registrar artista: " + e.getMessage(), e);
+        } finally {
+            if (conn != null) {
+                conn.setAutoCommit(true);
+                conn.close();
+            }
+            if (artista.getId() > 0) {
+                cache.invalidarArtista(artista.getId());
+            }
         }
     }
 
@@ -58,26 +83,110 @@ public class ArtistaDAO extends SQLiteDataHelper implements IDAO<ArtistaDTO> {
      */
     @Override
     public List<ArtistaDTO> buscarTodo() throws Exception {
-        List<ArtistaDTO> lista = new ArrayList<>();
-        String sql = "SELECT id_artista, nombre, biografia, imagen FROM Artista";
+        try {
+            return cache.todosLosArtistas(true);
+        } catch (Exception e) {
+            throw new Exception("Error al obtener artistas: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int contar() throws Exception {
+        return contarFilas("Artista");
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Integer buscarIdEnPosicion(int posicion) throws Exception {
+        return buscarIdEnPosicion("Artista", "id_artista", posicion);
+    }
+
+    /**
+     * Recupera una página de artistas con sus géneros e imagen, en orden de ID.
+     *
+     * @param despuesDeId Se devuelven los artistas con ID mayor a este; 0 para empezar
+     * @param limite Cantidad máxima de artistas
+     * @return Artistas de la página
+     * @throws Exception si ocurre un error al obtener los artistas
+     */
+    @Override
+    public List<ArtistaDTO> buscarPagina(int despuesDeId, int limite) throws Exception {
+        // Solo se recorre el índice de la clave primaria; los datos salen de la caché
+        String sql = "SELECT id_artista FROM Artista WHERE id_artista > ? ORDER BY id_artista LIMIT ?";
+        List<Integer> ids = new ArrayList<>();
+        try (Connection conn = openReadConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setInt(1, despuesDeId);
+            ps.setInt(2, limite);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    ids.add(rs.getInt(1));
+                }
+            }
+            return cache.artistas(ids, true);
+        } catch (Exception e) {
+            throw new Exception("Error al obtener la página de artistas: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Recupera varios artistas con sus géneros e imagen en el orden de los IDs recibidos.
+     *
+     * @param ids IDs de los artistas; los que no existen se omiten
+     * @return Artistas encontrados, en el mismo orden que {@code ids}
+     * @throws Exception si ocurre un error al obtener los artistas
+     */
+    public List<ArtistaDTO> buscarPorIds(Collection<Integer> ids) throws Exception {
+        try {
+            return cache.artistas(ids, true);
+        } catch (Exception e) {
+            throw new Exception("Error al buscar artistas por ID: " + e.getMessage(), e);
+        }
+    }
 
-        try  {
-            Connection conn = openConnection();
-            Statement stmt = conn.createStatement();
-            ResultSet rs = stmt.executeQuery(sql);
+    /**
+     * Busca un artista por su nombre, sin distinguir mayúsculas ni espacios en los extremos.
+     *
+     * @param nombre Nombre del artista
+     * @return El artista con sus géneros e imagen (el de menor ID si hay varios con ese
+     *         nombre), o null si no existe
+     * @throws Exception si ocurre un error durante la búsqueda
+     */
+    public ArtistaDTO buscarPorNombre(String nombre) throws Exception {
+        try {
+            return cache.artistaPorNombre(nombre, true);
+        } catch (Exception e) {
+            throw new Exception("Error al buscar artista por nombre: " + e.getMessage(), e);
+        }
+    }
 
+    /**
+     * Recupera los textos buscables de todos los artistas (nombre, biografía y nombres de sus
+     * géneros) para el índice de búsqueda, sin leer sus imágenes.
+     *
+     * @return Un documento por artista, en orden de ID
+     * @throws Exception si ocurre un error al acceder a la base de datos
+     */
+    public List<DocumentoBusquedaDTO> buscarDocumentosBusqueda() throws Exception {
+        String sql = "SELECT a.id_artista, a.nombre, a.biografia, "
+                + "(SELECT group_concat(g.nombre_genero, ' ') FROM Artista_Genero ag JOIN Genero g ON g.id_genero = ag.id_genero "
+                + "WHERE ag.id_artista = a.id_artista) AS generos "
+                + "FROM Artista a ORDER BY a.id_artista";
+        List<DocumentoBusquedaDTO> lista = new ArrayList<>();
+        try (Connection conn = openReadConnection();
+             PreparedStatement ps = conn.prepareStatement(sql);
+             ResultSet rs = ps.executeQuery()) {
             while (rs.next()) {
-                ArtistaDTO artista = new ArtistaDTO();
-                artista.setId(rs.getInt("id_artista"));
-                artista.setNombre(rs.getString("nombre"));
-                artista.setBiografia(rs.getString("biografia"));
-                artista.setImagen(rs.getBytes("imagen"));
-                // Obtener géneros con una nueva conexión
-                artista.setGeneros(getGenerosPorArtista(artista.getId()));
-                lista.add(artista);
+                lista.add(new DocumentoBusquedaDTO(rs.getInt("id_artista"), rs.getString("nombre"),
+                        rs.getString("biografia"), rs.getString("generos")));
             }
         } catch (Exception e) {
-            throw new Exception("Error al obtener artistas: " + e.getMessage(), e);
+            throw new Exception("Error al obtener los textos de búsqueda de los artistas: " + e.getMessage(), e);
         }
         return lista;
     }
@@ -91,26 +200,12 @@ public class ArtistaDAO extends SQLiteDataHelper implements IDAO<ArtistaDTO> {
      */
     @Override
     public ArtistaDTO buscarPorId(Integer id) throws Exception {
-        ArtistaDTO artista = new ArtistaDTO();
-        String sql = "SELECT id_artista, nombre, biografia, imagen FROM Artista WHERE id_artista = ?";
-
         try {
-            Connection conn = openConnection();
-            PreparedStatement ps = conn.prepareStatement(sql);
-            ps.setInt(1, id);
-            ResultSet rs = ps.executeQuery();
-
-                if (rs.next()) {
-                    artista.setId(rs.getInt("id_artista"));
-                    artista.setNombre(rs.getString("nombre"));
-                    artista.setBiografia(rs.getString("biografia"));
-                    artista.setImagen(rs.getBytes("imagen"));
-                    artista.setGeneros(getGenerosPorArtista(id));
-                }
+            List<ArtistaDTO> encontrado = cache.artistas(List.of(id), true);
+            return encontrado.isEmpty() ? new ArtistaDTO() : encontrado.get(0);
         } catch (Exception e) {
             throw new Exception("Error al buscar artista: " + e.getMessage(), e);
         }
-        return artista;
     }
 
     /**
@@ -123,32 +218,46 @@ public class ArtistaDAO extends SQLiteDataHelper implements IDAO<ArtistaDTO> {
     @Override
     public boolean actualizar(ArtistaDTO artista) throws Exception {
         String sqlUpdate = "UPDATE Artista SET nombre = ?, biografia = ?, imagen = ? WHERE id_artista = ?";
+        Connection conn = null;
+        ReferenciasBlob blobs = null;
         try {
-            Connection conn = openConnection();
-            PreparedStatement ps = conn.prepareStatement(sqlUpdate);
-
-            ps.setString(1, artista.getNombre());
-            ps.setString(2, artista.getBiografia());
-            ps.setBytes(3, artista.getImagen());
-            ps.setInt(4, artista.getId());
-            ps.executeUpdate();
+            conn = openConnection();
+            conn.setAutoCommit(false);
+            blobs = new ReferenciasBlob(conn);
+            String imagen = blobs.guardar(artista.getImagen());
+            blobs.liberarFila("Artista", "id_artista", artista.getId(), "imagen");
+            try (PreparedStatement ps = conn.prepareStatement(sqlUpdate)) {
+                ps.setString(1, artista.getNombre());
+                ps.setString(2, artista.getBiografia());
+                ps.setString(3, imagen);
+                ps.setInt(4, artista.getId());
+                ps.executeUpdate();
+            }
 
             // Actualizar géneros
-                String eliminarGeneros = "DELETE FROM Artista_Genero WHERE id_artista = ?";
-                try (PreparedStatement psDelete = conn.prepareStatement(eliminarGeneros)) {
+            String eliminarGeneros = "DELETE FROM Artista_Genero WHERE id_artista = ?";
+            try (PreparedStatement psDelete = conn.prepareStatement(eliminarGeneros)) {
                 psDelete.setInt(1, artista.getId());
                 psDelete.executeUpdate();
             }
-                for (Genero genero : artista.getGenero()) {
-                    PreparedStatement insert = conn.prepareStatement("INSERT INTO Artista_Genero(id_artista, id_genero) VALUES (?, ?)");
-                    insert.setInt(1, artista.getId());
-                    insert.setInt(2, genero.ordinal() + 1);
-                    insert.addBatch();
-                    insert.executeBatch();
-                }
+            insertarGeneros(conn, artista.getId(), artista.getGenero());
+            conn.commit();
+            blobs.confirmar();
             return true;
         } catch (Exception e) {
+            if (conn != null) {
+                conn.rollback();
+                if (blobs != null) {
+                    blobs.deshacer();
+                }
+            }
             throw new Exception("Error al actualizar artista: " + e.getMessage(), e);
+        } finally {
+            if (conn != null) {
+                conn.setAutoCommit(true);
+                conn.close();
+            }
+            cache.invalidarArtista(artista.getId());
         }
     }
 
@@ -165,45 +274,63 @@ public class ArtistaDAO extends SQLiteDataHelper implements IDAO<ArtistaDTO> {
         String sqlEliminarGeneros = "DELETE FROM Artista_Genero WHERE id_artista = ?";
         String sqlEliminarArtista = "DELETE FROM Artista WHERE id_artista = ?";
 
+        Connection conn = null;
+        ReferenciasBlob blobs = null;
         try {
-            Connection conn = openConnection();
-
-            PreparedStatement ps1 = conn.prepareStatement(sqlEliminarGeneros);
-            ps1.setInt(1, id);
-            ps1.executeUpdate();
+            conn = openConnection();
+            conn.setAutoCommit(false);
+            blobs = new ReferenciasBlob(conn);
+            blobs.liberarFila("Artista", "id_artista", id, "imagen");
+            try (PreparedStatement ps1 = conn.prepareStatement(sqlEliminarGeneros);
+                 PreparedStatement ps2 = conn.prepareStatement(sqlEliminarArtista)) {
+                ps1.setInt(1, id);
+                ps1.executeUpdate();
 
-            PreparedStatement ps2 = conn.prepareStatement(sqlEliminarArtista);
-            ps2.setInt(1, id);
-            ps2.executeUpdate();
+                ps2.setInt(1, id);
+                ps2.executeUpdate();
+            }
 
+            conn.commit();
+            blobs.confirmar();
             return true;
 
         } catch (Exception e) {
+            if (conn != null) {
+                conn.rollback();
+                if (blobs != null) {
+                    blobs.deshacer();
+                }
+            }
             throw new Exception("Error al eliminar artista: " + e.getMessage(), e);
+        } finally {
+            if (conn != null) {
+                conn.setAutoCommit(true);
+                conn.close();
+            }
+            cache.invalidarArtista(id);
         }
     }
 
     /**
-     * Obtiene los géneros musicales asociados a un artista específico.
+     * Inserta en lote los géneros de un artista con una sola sentencia preparada.
      *
-     * @param idArtista ID del artista a obtener
-     * @return Lista de géneros asociados
-     * @throws Exception si ocurre un error al obtener los géneros
+     * @param conn Conexión de escritura en uso
+     * @param idArtista ID del artista
+     * @param generos Géneros a asociar
+     * @throws Exception si ocurre un error al insertar
      */
-    private List<Genero> getGenerosPorArtista(int idArtista) throws Exception {
-        List<Genero> generos = new ArrayList<>();
-        String sql = "SELECT id_genero FROM Artista_Genero WHERE id_artista = ?";
-        Connection conn = openConnection();
-        PreparedStatement ps = conn.prepareStatement(sql);
-        ps.setInt(1, idArtista);
-        ResultSet rs = ps.executeQuery();
-        while (rs.next()) {
-            int idGenero = rs.getInt("id_genero");
-                    if (idGenero >= 1 && idGenero <= Genero.values().length) {
-                        generos.add(Genero.values()[idGenero - 1]);
-                    }
-                }
-        return generos;
+    private void insertarGeneros(Connection conn, int idArtista, List<Genero> generos) throws Exception {
+        if (generos == null || generos.isEmpty()) {
+            return;
+        }
+        try (PreparedStatement psg = conn.prepareStatement("INSERT INTO Artista_Genero(id_artista, id_genero) VALUES (?, ?)")) {
+            for (Genero genero : generos) {
+                psg.setInt(1, idArtista);
+                psg.setInt(2, genero.ordinal() + 1);
+                psg.addBatch();
+            }
+            psg.executeBatch();
+        }
     }
 
     /**
@@ -216,14 +343,13 @@ public class ArtistaDAO extends SQLiteDataHelper implements IDAO<ArtistaDTO> {
     public boolean tieneCancionesAsociadas(int idArtista) throws Exception {
         String sql = "SELECT COUNT(*) FROM Cancion_Artista WHERE id_artista = ?";
 
-        try {
-            Connection conn = openConnection();
-            PreparedStatement ps = conn.prepareStatement(sql);
+        try (Connection conn = openReadConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
             ps.setInt(1, idArtista);
-            ResultSet rs = ps.executeQuery();
-
-            if (rs.next()) {
-                return rs.getInt(1) > 0;
+            try (ResultSet rs = ps.executeQuery()) {
+                if (rs.next()) {
+                    return rs.getInt(1) > 0;
+                }
             }
             return false;
 
@@ -0,0 +1,732 @@
+/*
+|-----------------------------------------------|
+| © 2025 EPN-FIS, Todos los derechos reservados |
+| GR1SW                                         |
+|-----------------------------------------------|
+Autores: Grupo A
+Descripción: Caché de lectura de artistas, géneros y relaciones de las canciones.
+*/
+
+package DataAccessComponent.DAO;
+
+import BusinessLogic.Genero;
+import DataAccessComponent.DTO.ArtistaDTO;
+import DataAccessComponent.SQLiteDataHelper;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Clase CacheEntidades que mantiene en memoria los datos de referencia que los listados leen
+ * una y otra vez: los artistas, los géneros y qué artistas y géneros tiene cada canción.
+ *
+ * <p>Es una caché de lectura: los DAO le piden los datos y ella solo consulta la base por lo
+ * que no tiene, con una consulta por lote. Guarda cuatro regiones:</p>
+ * <ul>
+ *   <li><b>artistas</b>: nombre, biografía y géneros de cada artista, por ID y por nombre. La
+ *       primera vez que se pide la lista completa se lee toda la tabla; desde entonces solo se
+ *       vuelven a leer los artistas invalidados.</li>
+ *   <li><b>imagenes</b>: imágenes de los artistas, hasta {@code -Dinkharmony.cache.artistas.mb}
+ *       megabytes (8 por defecto); al superarlos se descartan las usadas hace más tiempo.</li>
+ *   <li><b>generos</b>: la tabla {@code Genero}, que no cambia; se lee una sola vez.</li>
+ *   <li><b>canciones</b>: IDs de los artistas y géneros de cada canción, hasta
+ *       {@code -Dinkharmony.cache.canciones} canciones (50000 por defecto).</li>
+ * </ul>
+ *
+ * <p>{@link ArtistaDAO} y {@link CancionDAO} avisan después de cada escritura con
+ * {@link #invalidarArtista(int)} y {@link #invalidarCancion(int)}, que descartan solo lo que
+ * cambió. Una lectura que empezó antes de una invalidación entrega su resultado pero no lo
+ * guarda, para no volver a instalar datos viejos. Quien escriba estas tablas sin pasar por
+ * los DAO debe llamar a {@link #invalidarTodo()}.</p>
+ *
+ * <p>Los DTO que entrega son copias nuevas en cada llamada, así que quien los recibe puede
+ * modificarlos. Utiliza el patrón {@code Singleton} y es segura para hilos: las consultas se
+ * hacen fuera del candado.</p>
+ *
+ * @author Grupo A
+ * @version 1.0
+ * @since 18-07-2025
+ */
+public final class CacheEntidades extends SQLiteDataHelper {
+
+    /** Artistas que se conservan; de sobra para el catálogo de la aplicación */
+    private static final int CAPACIDAD_ARTISTAS = Integer.getInteger("inkharmony.cache.artistas", 10_000);
+
+    /** Canciones cuyas relaciones se conservan */
+    private static final int CAPACIDAD_CANCIONES = Integer.getInteger("inkharmony.cache.canciones", 50_000);
+
+    /** Bytes máximos que pueden ocupar las imágenes de artistas */
+    private static final long CAPACIDAD_IMAGENES = Long.getLong("inkharmony.cache.artistas.mb", 8) * 1024 * 1024;
+
+    /** Marca de un artista sin imagen, para no volver a consultarlo */
+    private static final byte[] SIN_IMAGEN = new byte[0];
+
+    /** Instancia única (patrón Singleton). */
+    private static CacheEntidades instancia;
+
+    /** Datos de un artista sin su imagen; no se modifica una vez creado. */
+    private static final class FichaArtista {
+        final int id;
+        final String nombre;
+        final String biografia;
+        final List<Genero> generos;
+
+        FichaArtista(int id, String nombre, String biografia, List<Genero> generos) {
+            this.id = id;
+            this.nombre = nombre;
+            this.biografia = biografia;
+            this.generos = generos;
+        }
+    }
+
+    /** Artistas y géneros de una canción. */
+    private static final class RelacionesCancion {
+        final int[] artistas;
+        final List<Genero> generos;
+
+        RelacionesCancion(int[] artistas, List<Genero> generos) {
+            this.artistas = artistas;
+            this.generos = generos;
+        }
+    }
+
+    /** Mapa en orden de uso (el primero es el menos usado) con sus contadores. */
+    private static class Region<K, V> extends LinkedHashMap<K, V> {
+        private static final long serialVersionUID = 1L;
+
+        final String nombre;
+        final int capacidad;
+        long aciertos;
+        long fallos;
+        long expulsiones;
+
+        Region(String nombre, int capacidad) {
+            super(64, 0.75f, true);
+            this.nombre = nombre;
+            this.capacidad = capacidad;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<K, V> mayor) {
+            if (size() > capacidad) {
+                expulsiones++;
+                alExpulsar(mayor.getValue());
+                return true;
+            }
+            return false;
+        }
+
+        void alExpulsar(V valor) {}
+
+        String resumen() {
+            long total = aciertos + fallos;
+            return String.format("%s=%d (aciertos=%d fallos=%d %.0f%% expulsiones=%d)", nombre, size(),
+                    aciertos, fallos, total == 0 ? 0.0 : aciertos * 100.0 / total, expulsiones);
+        }
+    }
+
+    private final Region<Integer, FichaArtista> artistas = new Region<>("artistas", CAPACIDAD_ARTISTAS) {
+        @Override
+        void alExpulsar(FichaArtista ficha) {
+            quitarNombre(ficha);
+            // Falta un artista: la próxima lista completa se vuelve a leer entera
+            artistasCompletos = false;
+        }
+    };
+    private final Region<Integer, byte[]> imagenes = new Region<>("imagenes", Integer.MAX_VALUE);
+    private final Region<Integer, RelacionesCancion> canciones = new Region<>("canciones", CAPACIDAD_CANCIONES);
+    private final Region<Integer, Genero> generos = new Region<>("generos", Integer.MAX_VALUE);
+
+    /** ID de cada artista por su nombre en minúsculas */
+    private final Map<String, Integer> artistasPorNombre = new HashMap<>();
+
+    /** true si {@link #artistas} tiene todos los artistas de la tabla salvo los pendientes */
+    private boolean artistasCompletos;
+
+    /** Artistas invalidados desde que se leyó la lista completa */
+    private final Set<Integer> artistasPendientes = new HashSet<>();
+
+    private boolean generosCargados;
+    private long bytesImagenes;
+
+    /** Aumenta con cada invalidación; una lectura solo se guarda si no cambió mientras tanto */
+    private long version;
+
+    private CacheEntidades() {}
+
+    /**
+     * Devuelve la caché compartida por todos los DAO.
+     *
+     * @return Instancia única de la caché
+     */
+    public static synchronized CacheEntidades getInstancia() {
+        if (instancia == null) {
+            instancia = new CacheEntidades();
+        }
+        return instancia;
+    }
+
+    // --------------------------
+    // Artistas
+    // --------------------------
+
+    /**
+     * Devuelve varios artistas en el orden de los IDs recibidos, leyendo de la base solo los
+     * que no están en memoria.
+     *
+     * @param ids IDs de los artistas; los que no existen se omiten
+     * @param conImagen true para incluir la imagen de cada artista
+     * @return Artistas encontrados
+     * @throws Exception si ocurre un error al acceder a la base de datos
+     */
+    List<ArtistaDTO> artistas(Collection<Integer> ids, boolean conImagen) throws Exception {
+        Map<Integer, FichaArtista> fichas = fichas(ids);
+        Map<Integer, byte[]> imagenesLeidas = conImagen ? imagenes(fichas.keySet()) : Collections.emptyMap();
+        List<ArtistaDTO> lista = new ArrayList<>(fichas.size());
+        for (Integer id : ids) {
+            FichaArtista ficha = fichas.get(id);
+            if (ficha != null) {
+                lista.add(comoDTO(ficha, imagenesLeidas.get(id)));
+            }
+        }
+        return lista;
+    }
+
+    /**
+     * Devuelve todos los artistas en orden de ID. Solo la primera llamada lee la tabla
+     * completa; las siguientes leen únicamente los artistas invalidados desde entonces.
+     *
+     * @param conImagen true para incluir la imagen de cada artista
+     * @return Todos los artistas
+     * @throws Exception si ocurre un error al acceder a la base de datos
+     */
+    List<ArtistaDTO> todosLosArtistas(boolean conImagen) throws Exception {
+        Map<Integer, FichaArtista> todas = fichasCompletas();
+        Map<Integer, byte[]> imagenesLeidas = conImagen ? imagenes(todas.keySet()) : Collections.emptyMap();
+        List<ArtistaDTO> lista = new ArrayList<>(todas.size());
+        for (FichaArtista ficha : todas.values()) {
+            lista.add(comoDTO(ficha, imagenesLeidas.get(ficha.id)));
+        }
+        return lista;
+    }
+
+    /**
+     * Busca un artista por su nombre sin distinguir mayúsculas.
+     *
+     * @param nombre Nombre del artista
+     * @param conImagen true para incluir su imagen
+     * @return El artista de menor ID con ese nombre, o null si no hay ninguno
+     * @throws Exception si ocurre un error al acceder a la base de datos
+     */
+    ArtistaDTO artistaPorNombre(String nombre, boolean conImagen) throws Exception {
+        if (nombre == null) {
+            return null;
+        }
+        String clave = claveNombre(nombre);
+        Integer id = null;
+        boolean indiceExacto;
+        synchronized (this) {
+            // Con la lista completa en memoria el índice por nombre es exacto
+            indiceExacto = artistasCompletos && artistasPendientes.isEmpty();
+            if (indiceExacto) {
+                artistas.aciertos++;
+                id = artistasPorNombre.get(clave);
+            }
+        }
+        if (!indiceExacto) {
+            for (FichaArtista ficha : fichasCompletas().values()) {
+                if (clave.equals(claveNombre(ficha.nombre))) {
+                    id = ficha.id;
+                    break;
+                }
+            }
+        }
+        if (id == null) {
+            return null;
+        }
+        List<ArtistaDTO> encontrado = artistas(List.of(id), conImagen);
+        return encontrado.isEmpty() ? null : encontrado.get(0);
+    }
+
+    /**
+     * Descarta lo que se sabe de un artista después de registrarlo, modificarlo o eliminarlo.
+     *
+     * @param idArtista ID del artista
+     */
+    public synchronized void invalidarArtista(int idArtista) {
+        version++;
+        FichaArtista ficha = artistas.remove(idArtista);
+        if (ficha != null) {
+            quitarNombre(ficha);
+        }
+        quitarImagen(idArtista);
+        if (artistasCompletos) {
+            artistasPendientes.add(idArtista);
+        }
+    }
+
+    private Map<Integer, FichaArtista> fichas(Collection<Integer> ids) throws Exception {
+        Map<Integer, FichaArtista> resultado = new HashMap<>();
+        Set<Integer> faltantes = new LinkedHashSet<>();
+        long versionLectura;
+        synchronized (this) {
+            for (Integer id : ids) {
+                FichaArtista ficha = artistas.get(id);
+                if (ficha != null) {
+                    artistas.aciertos++;
+                    resultado.put(id, ficha);
+                } else if (artistasCompletos && !artistasPendientes.contains(id)) {
+                    // Con la lista completa en memoria se sabe que el artista no existe
+                    artistas.aciertos++;
+                } else if (faltantes.add(id)) {
+                    artistas.fallos++;
+                }
+            }
+            versionLectura = version;
+        }
+        if (!faltantes.isEmpty()) {
+            Map<Integer, FichaArtista> leidas = leerFichas(faltantes);
+            resultado.putAll(leidas);
+            synchronized (this) {
+                if (versionLectura == version) {
+                    leidas.values().forEach(this::instalar);
+                }
+            }
+        }
+        return resultado;
+    }
+
+    /**
+     * @return Todas las fichas en orden de ID, leyendo la tabla completa o solo los pendientes
+     */
+    private Map<Integer, FichaArtista> fichasCompletas() throws Exception {
+        Set<Integer> pendientes;
+        long versionLectura;
+        synchronized (this) {
+            if (artistasCompletos && artistasPendientes.isEmpty()) {
+                artistas.aciertos++;
+                return new TreeMap<>(artistas);
+            }
+            artistas.fallos++;
+            pendientes = artistasCompletos ? new HashSet<>(artistasPendientes) : null;
+            versionLectura = version;
+        }
+        Map<Integer, FichaArtista> leidas = leerFichas(pendientes);
+        synchronized (this) {
+            if (versionLectura == version) {
+                if (pendientes == null) {
+                    artistas.clear();
+                    artistasPorNombre.clear();
+                }
+                artistasPendientes.clear();
+                // Si al instalar se expulsa algún artista, vuelve a quedar incompleta
+                artistasCompletos = true;
+                leidas.values().forEach(this::instalar);
+                if (artistasCompletos) {
+                    return new TreeMap<>(artistas);
+                }
+            }
+        }
+        // No se pudo guardar: otra escritura invalidó datos mientras se leían, o no caben
+        return pendientes == null ? leidas : leerFichas(null);
+    }
+
+    private Map<Integer, byte[]> imagenes(Collection<Integer> ids) throws Exception {
+        Map<Integer, byte[]> resultado = new HashMap<>();
+        List<Integer> faltantes = new ArrayList<>();
+        long versionLectura;
+        synchronized (this) {
+            for (Integer id : ids) {
+                byte[] imagen = imagenes.get(id);
+                if (imagen != null) {
+                    imagenes.aciertos++;
+                    resultado.put(id, imagen);
+                } else {
+                    imagenes.fallos++;
+                    faltantes.add(id);
+                }
+            }
+            versionLectura = version;
+        }
+        if (!faltantes.isEmpty()) {
+            Map<Integer, byte[]> leidas = leerImagenes(faltantes);
+            resultado.putAll(leidas);
+            synchronized (this) {
+                if (versionLectura == version) {
+                    leidas.forEach(this::instalarImagen);
+                }
+            }
+        }
+        return resultado;
+    }
+
+    private void instalar(FichaArtista ficha) {
+        FichaArtista anterior = artistas.put(ficha.id, ficha);
+        if (anterior != null) {
+            quitarNombre(anterior);
+        }
+        Integer actual = artistasPorNombre.get(claveNombre(ficha.nombre));
+        if (actual == null || ficha.id < actual) {
+            artistasPorNombre.put(claveNombre(ficha.nombre), ficha.id);
+        }
+    }
+
+    private void quitarNombre(FichaArtista ficha) {
+        String clave = claveNombre(ficha.nombre);
+        if (!Integer.valueOf(ficha.id).equals(artistasPorNombre.get(clave))) {
+            return;
+        }
+        artistasPorNombre.remove(clave);
+        // Otro artista con el mismo nombre pasa a ocupar el índice
+        for (FichaArtista otra : artistas.values()) {
+            if (otra.id != ficha.id && clave.equals(claveNombre(otra.nombre))) {
+                Integer actual = artistasPorNombre.get(clave);
+                if (actual == null || otra.id < actual) {
+                    artistasPorNombre.put(clave, otra.id);
+                }
+            }
+        }
+    }
+
+    private void instalarImagen(int idArtista, byte[] imagen) {
+        quitarImagen(idArtista);
+        if (imagen.length > CAPACIDAD_IMAGENES) {
+            return;
+        }
+        imagenes.put(idArtista, imagen);
+        bytesImagenes += imagen.length;
+        Iterator<byte[]> it = imagenes.values().iterator();
+        while (bytesImagenes > CAPACIDAD_IMAGENES && it.hasNext()) {
+            bytesImagenes -= it.next().length;
+            it.remove();
+            imagenes.expulsiones++;
+        }
+    }
+
+    private void quitarImagen(int idArtista) {
+        byte[] anterior = imagenes.remove(idArtista);
+        if (anterior != null) {
+            bytesImagenes -= anterior.length;
+        }
+    }
+
+    private static ArtistaDTO comoDTO(FichaArtista ficha, byte[] imagen) {
+        return new ArtistaDTO(ficha.id, ficha.nombre, new ArrayList<>(ficha.generos), ficha.biografia,
+                imagen == null || imagen == SIN_IMAGEN ? null : imagen);
+    }
+
+    private static String claveNombre(String nombre) {
+        return nombre == null ? "" : nombre.trim().toLowerCase(Locale.ROOT);
+    }
+
+    // --------------------------
+    // Canciones y géneros
+    // --------------------------
+
+    /**
+     * Devuelve los artistas y géneros de varias canciones listos para asignar a sus DTO.
+     *
+     * @param ids IDs de las canciones
+     * @param artistasPorCancion Se llena con los artistas (ID y nombre) de cada canción
+     * @param generosPorCancion Se llena con los géneros de cada canción
+     * @throws Exception si ocurre un error al acceder a la base de datos
+     */
+    void relacionesDe(Collection<Integer> ids, Map<Integer, List<ArtistaDTO>> artistasPorCancion,
+                      Map<Integer, List<Genero>> generosPorCancion) throws Exception {
+        Map<Integer, RelacionesCancion> relaciones = relaciones(ids);
+        Set<Integer> idsArtistas = new LinkedHashSet<>();
+        for (RelacionesCancion r : relaciones.values()) {
+            for (int idArtista : r.artistas) {
+                idsArtistas.add(idArtista);
+            }
+        }
+        Map<Integer, FichaArtista> fichas = fichas(idsArtistas);
+        relaciones.forEach((idCancion, r) -> {
+            List<ArtistaDTO> lista = new ArrayList<>(r.artistas.length);
+            for (int idArtista : r.artistas) {
+                // Un artista eliminado que la canción aún referencia se omite, como en un JOIN
+                FichaArtista ficha = fichas.get(idArtista);
+                if (ficha != null) {
+                    ArtistaDTO artista = new ArtistaDTO();
+                    artista.setId(ficha.id);
+                    artista.setNombre(ficha.nombre);
+                    lista.add(artista);
+                }
+            }
+            artistasPorCancion.put(idCancion, lista);
+            generosPorCancion.put(idCancion, new ArrayList<>(r.generos));
+        });
+    }
+
+    /**
+     * Devuelve los nombres de todos los géneros en orden de ID.
+     *
+     * @return Nombres de la tabla {@code Genero}
+     * @throws Exception si ocurre un error al acceder a la base de datos
+     */
+    List<String> nombresGeneros() throws Exception {
+        List<String> nombres = new ArrayList<>();
+        for (Genero genero : generosPorId().values()) {
+            nombres.add(genero.name());
+        }
+        return nombres;
+    }
+
+    /**
+     * Descarta los artistas y géneros de una canción después de registrarla, modificarla o
+     * eliminarla.
+     *
+     * @param idCancion ID de la canción
+     */
+    public synchronized void invalidarCancion(int idCancion) {
+        version++;
+        canciones.remove(idCancion);
+    }
+
+    /**
+     * Descarta todo el contenido, por ejemplo después de escribir las tablas sin pasar por
+     * los DAO. Los contadores se conservan.
+     */
+    public synchronized void invalidarTodo() {
+        version++;
+        artistas.clear();
+        artistasPorNombre.clear();
+        artistasPendientes.clear();
+        artistasCompletos = false;
+        imagenes.clear();
+        bytesImagenes = 0;
+        canciones.clear();
+        generos.clear();
+        generosCargados = false;
+    }
+
+    private Map<Integer, RelacionesCancion> relaciones(Collection<Integer> ids) throws Exception {
+        Map<Integer, RelacionesCancion> resultado = new HashMap<>();
+        List<Integer> faltantes = new ArrayList<>();
+        long versionLectura;
+        synchronized (this) {
+            for (Integer id : ids) {
+                RelacionesCancion r = canciones.get(id);
+                if (r != null) {
+                    canciones.aciertos++;
+                    resultado.put(id, r);
+                } else {
+                    canciones.fallos++;
+                    faltantes.add(id);
+                }
+            }
+            versionLectura = version;
+        }
+        if (!faltantes.isEmpty()) {
+            Map<Integer, RelacionesCancion> leidas = leerRelaciones(faltantes);
+            resultado.putAll(leidas);
+            synchronized (this) {
+                if (versionLectura == version) {
+                    canciones.putAll(leidas);
+                }
+            }
+        }
+        return resultado;
+    }
+
+    /**
+     * @return Géneros de la tabla por su ID, en orden de ID
+     */
+    private Map<Integer, Genero> generosPorId() throws Exception {
+        synchronized (this) {
+            if (generosCargados) {
+                generos.aciertos++;
+                return new TreeMap<>(generos);
+            }
+            generos.fallos++;
+        }
+        Map<Integer, Genero> leidos = leerGeneros();
+        synchronized (this) {
+            generos.clear();
+            generos.putAll(leidos);
+            generosCargados = true;
+        }
+        return leidos;
+    }
+
+    // --------------------------
+    // Lecturas de la base de datos
+    // --------------------------
+
+    /**
+     * Lee artistas con sus géneros con dos consultas.
+     *
+     * @param ids IDs a leer, o null para leer la tabla completa
+     */
+    private Map<Integer, FichaArtista> leerFichas(Collection<Integer> ids) throws Exception {
+        Map<Integer, FichaArtista> resultado = new TreeMap<>();
+        if (ids != null && ids.isEmpty()) {
+            return resultado;
+        }
+        String filtro = ids == null ? "" : " WHERE id_artista IN (" + HidratadorCanciones.IDS_PARAMETRO + ")";
+        Map<Integer, Genero> generosTabla = generosPorId();
+        Map<Integer, List<Genero>> generosArtista = new HashMap<>();
+        try (Connection conn = openReadConnection()) {
+            try (PreparedStatement ps = conn.prepareStatement("SELECT id_artista, id_genero FROM Artista_Genero" + filtro)) {
+                if (ids != null) {
+                    ps.setString(1, HidratadorCanciones.comoArregloJson(ids));
+                }
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        Genero genero = generosTabla.get(rs.getInt("id_genero"));
+                        if (genero != null) {
+                            generosArtista.computeIfAbsent(rs.getInt("id_artista"), k -> new ArrayList<>()).add(genero);
+                        }
+                    }
+                }
+            }
+            try (PreparedStatement ps = conn.prepareStatement("SELECT id_artista, nombre, biografia FROM Artista" + filtro)) {
+                if (ids != null) {
+                    ps.setString(1, HidratadorCanciones.comoArregloJson(ids));
+                }
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        int id = rs.getInt("id_artista");
+                        List<Genero> generosDe = generosArtista.get(id);
+                        resultado.put(id, new FichaArtista(id, rs.getString("nombre"), rs.getString("biografia"),
+                                generosDe == null ? List.of() : List.copyOf(generosDe)));
+                    }
+                }
+            }
+        } catch (Exception e) {
+            throw new Exception("Error al leer artistas: " + e.getMessage(), e);
+        }
+        return resultado;
+    }
+
+    private Map<Integer, byte[]> leerImagenes(Collection<Integer> ids) throws Exception {
+        Map<Integer, byte[]> resultado = new HashMap<>();
+        String sql = "SELECT id_artista, imagen FROM Artista WHERE id_artista IN (" + HidratadorCanciones.IDS_PARAMETRO + ")";
+        try (Connection conn = openReadConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setString(1, HidratadorCanciones.comoArregloJson(ids));
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    byte[] imagen = ReferenciasBlob.leer(rs, "imagen");
+                    resultado.put(rs.getInt("id_artista"), imagen != null ? imagen : SIN_IMAGEN);
+                }
+            }
+        } catch (Exception e) {
+            throw new Exception("Error al leer imágenes de artistas: " + e.getMessage(), e);
+        }
+        return resultado;
+    }
+
+    /**
+     * Lee los artistas y géneros de varias canciones con una consulta por tabla de relación.
+     * Todas las canciones pedidas quedan en el resultado, aunque no tengan relaciones.
+     */
+    private Map<Integer, RelacionesCancion> leerRelaciones(Collection<Integer> ids) throws Exception {
+        Map<Integer, List<Integer>> artistasDe = new HashMap<>();
+        Map<Integer, List<Genero>> generosDe = new HashMap<>();
+        Map<Integer, Genero> generosTabla = generosPorId();
+        String arreglo = HidratadorCanciones.comoArregloJson(ids);
+        try (Connection conn = openReadConnection()) {
+            try (PreparedStatement ps = conn.prepareStatement("SELECT id_cancion, id_artista FROM Cancion_Artista "
+                    + "WHERE id_cancion IN (" + HidratadorCanciones.IDS_PARAMETRO + ")")) {
+                ps.setString(1, arreglo);
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        artistasDe.computeIfAbsent(rs.getInt("id_cancion"), k -> new ArrayList<>()).add(rs.getInt("id_artista"));
+                    }
+                }
+            }
+            try (PreparedStatement ps = conn.prepareStatement("SELECT id_cancion, id_genero FROM Cancion_Genero "
+                    + "WHERE id_cancion IN (" + HidratadorCanciones.IDS_PARAMETRO + ")")) {
+                ps.setString(1, arreglo);
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        Genero genero = generosTabla.get(rs.getInt("id_genero"));
+                        if (genero != null) {
+                            generosDe.computeIfAbsent(rs.getInt("id_cancion"), k -> new ArrayList<>()).add(genero);
+                        }
+                    }
+                }
+            }
+        } catch (Exception e) {
+            throw new Exception("Error al leer artistas y géneros de canciones: " + e.getMessage(), e);
+        }
+        Map<Integer, RelacionesCancion> resultado = new HashMap<>();
+        for (Integer id : ids) {
+            List<Integer> artistasCancion = artistasDe.getOrDefault(id, List.of());
+            List<Genero> generosCancion = generosDe.get(id);
+            resultado.put(id, new RelacionesCancion(artistasCancion.stream().mapToInt(Integer::intValue).toArray(),
+                    generosCancion == null ? List.of() : List.copyOf(generosCancion)));
+        }
+        return resultado;
+    }
+
+    /**
+     * Lee la tabla Genero. Se espera que sus nombres coincidan con los valores del Enum Genero;
+     * los que no coinciden se ignoran.
+     */
+    private Map<Integer, Genero> leerGeneros() throws Exception {
+        Map<Integer, Genero> resultado = new TreeMap<>();
+        try (Connection conn = openReadConnection();
+             PreparedStatement ps = conn.prepareStatement("SELECT id_genero, nombre_genero FROM Genero ORDER BY id_genero");
+             ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) {
+                try {
+                    resultado.put(rs.getInt("id_genero"), Genero.valueOf(rs.getString("nombre_genero")));
+                } catch (IllegalArgumentException e) {
+                    System.err.println("Género desconocido en la base de datos: " + rs.getString("nombre_genero"));
+                }
+            }
+        } catch (Exception e) {
+            throw new Exception("Error al leer géneros: " + e.getMessage(), e);
+        }
+        return resultado;
+    }
+
+    // --------------------------
+    // Métricas
+    // --------------------------
+
+    /** @return Pedidos resueltos desde memoria, sumando todas las regiones */
+    public synchronized long getAciertos() {
+        return artistas.aciertos + imagenes.aciertos + canciones.aciertos + generos.aciertos;
+    }
+
+    /** @return Pedidos que tuvieron que consultar la base, sumando todas las regiones */
+    public synchronized long getFallos() {
+        return artistas.fallos + imagenes.fallos + canciones.fallos + generos.fallos;
+    }
+
+    /** @return Proporción de pedidos resueltos desde memoria (0 a 1) */
+    public synchronized double getTasaAciertos() {
+        long total = getAciertos() + getFallos();
+        return total == 0 ? 0 : (double) getAciertos() / total;
+    }
+
+    /** @return Entradas descartadas por superar la capacidad, sumando todas las regiones */
+    public synchronized long getExpulsiones() {
+        return artistas.expulsiones + imagenes.expulsiones + canciones.expulsiones + generos.expulsiones;
+    }
+
+    /**
+     * @return Resumen legible con el tamaño y los contadores de cada región
+     */
+    public synchronized String resumen() {
+        return String.format("Caché de entidades: %s; %s, %.1f MB; %s; %s", artistas.resumen(), imagenes.resumen(),
+                bytesImagenes / (1024.0 * 1024.0), canciones.resumen(), generos.resumen());
+    }
+}
@@ -10,14 +10,27 @@ Descripción: Objeto de transferencia de datos (DTO) que representa una canción
 package DataAccessComponent.DAO;
 
 import DataAccessComponent.DTO.CancionDTO;
+import DataAccessComponent.DTO.CancionResumenDTO;
+import DataAccessComponent.DTO.CriteriosRecomendacionDTO;
+import DataAccessComponent.DTO.DocumentoBusquedaDTO;
+import DataAccessComponent.DTO.MetadatosAudioDTO;
+import DataAccessComponent.DTO.RasgosCancionDTO;
 import DataAccessComponent.SQLiteDataHelper;
 import DataAccessComponent.DTO.ArtistaDTO;
 import BusinessLogic.Genero;
 
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Path;
 import java.sql.*;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * Clase CancionDAO que implementa operaciones CRUD sobre la entidad Cancion.
@@ -26,11 +39,38 @@ import java.util.List;
  * <p>Esta clase gestiona canciones, su metadata (título, duración, año), archivos binarios (MP3 y portada),
  * así como sus relaciones con artistas y géneros musicales.</p>
  *
+ * <p>Los listados deben usar los métodos {@code buscarResumen...}, que devuelven
+ * {@link CancionResumenDTO} sin leer las columnas BLOB. El audio y la portada se recuperan
+ * por separado con {@link #cargarAudio(int)} y {@link #cargarPortada(int)} solo cuando
+ * una canción se reproduce o se muestra.</p>
+ *
+ * <p>El MP3 y la portada no se guardan en la fila: las columnas {@code archivo_mp3} y
+ * {@code portada} tienen el hash de su contenido en el almacén de blobs (ver
+ * {@link ReferenciasBlob}), y el reproductor abre el archivo con {@link #rutaAudio(int)}.</p>
+ *
+ * <p>Los artistas y géneros de los listados se cargan por lotes con {@link HidratadorCanciones}:
+ * una consulta para las canciones y una por cada tabla de relación, sin importar el tamaño
+ * del catálogo. Quedan en {@link CacheEntidades}, así que volver a listar las mismas
+ * canciones no consulta las relaciones; registrar, actualizar o eliminar una canción
+ * invalida solo las suyas.</p>
+ *
  * @author Grupo A
  * @version 1.0
  * @since 18-07-2025
  */
-public class CancionDAO extends SQLiteDataHelper implements IDAO<CancionDTO> {
+public class CancionDAO extends SQLiteDataHelper implements IDAO<CancionDTO>, IPaginable<CancionResumenDTO> {
+
+    /** Tamaño del bloque con el que se copia el audio en {@link #copiarAudio(int, OutputStream)} */
+    public static final int TAMANIO_BLOQUE = 64 * 1024;
+
+    /** Formato con que se compara fecha_registro en SQL ({@code datetime()} de SQLite) */
+    private static final DateTimeFormatter FORMATO_SQLITE = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    /** Carga por lotes de artistas y géneros */
+    private final HidratadorCanciones hidratador = new HidratadorCanciones();
+
+    /** Artistas y géneros de cada canción en memoria; se invalidan al escribir */
+    private final CacheEntidades cache = CacheEntidades.getInstancia();
 
     /**
      * Inserta una nueva canción en la base de datos, incluyendo su relación con artistas y géneros.
@@ -41,50 +81,57 @@ public class CancionDAO extends SQLiteDataHelper implements IDAO<CancionDTO> {
      */
     @Override
     public boolean registrar(CancionDTO cancion) throws Exception {
-        String query = "INSERT INTO Cancion(titulo, archivo_mp3, duracion, anio, portada, fecha_registro) VALUES (?, ?, ?, ?, ?, ?)";
+        String query = "INSERT INTO Cancion(titulo, archivo_mp3, duracion, anio, portada, fecha_registro, tabla_busqueda, "
+                + "bitrate, frecuencia_muestreo, es_vbr, total_frames, portada_miniatura) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+        Connection conn = null;
+        ReferenciasBlob blobs = null;
         try {
-            Connection conn = openConnection();
-            PreparedStatement ps = conn.prepareStatement(query, Statement.RETURN_GENERATED_KEYS);
-            ps.setString(1, cancion.getTitulo());
-            ps.setBytes(2, cancion.getArchivoMP3());
-            ps.setDouble(3, cancion.getDuracion());
-            ps.setInt(4, cancion.getAnio());
-            ps.setBytes(5, cancion.getPortada());
-            ps.setString(6, cancion.getFechaRegistro().toString());
-            ps.executeUpdate();
-
-            // Recupera el ID generado automáticamente
-            ResultSet rs = ps.getGeneratedKeys();
-            if (rs.next()) {
-                int idGenerado = rs.getInt(1);
-                cancion.setIdCancion(idGenerado);
-
-                // Inserta relaciones con artistas (solo si no es null)
-                if (cancion.getArtistas() != null) {
-                    for (ArtistaDTO artista : cancion.getArtistas()) {
-                        String insertArtista = "INSERT INTO Cancion_Artista(id_cancion, id_artista) VALUES (?, ?)";
-                        PreparedStatement psa = conn.prepareStatement(insertArtista);
-                        psa.setInt(1, idGenerado);
-                        psa.setInt(2, artista.getId());
-                        psa.executeUpdate();
-                    }
-                }
+            conn = openConnection();
+            // Las referencias del almacén se cuentan en la misma transacción que la fila
+            conn.setAutoCommit(false);
+            blobs = new ReferenciasBlob(conn);
+            try (PreparedStatement ps = conn.prepareStatement(query, Statement.RETURN_GENERATED_KEYS)) {
+                ps.setString(1, cancion.getTitulo());
+                ps.setString(2, blobs.guardar(cancion.getArchivoMP3()));
+                ps.setDouble(3, cancion.getDuracion());
+                ps.setInt(4, cancion.getAnio());
+                ps.setString(5, blobs.guardar(cancion.getPortada()));
+                ps.setString(6, cancion.getFechaRegistro().toString());
+                ps.setBytes(7, cancion.getTablaBusqueda());
+                asignarMetadatosAudio(ps, 8, cancion.getMetadatosAudio());
+                ps.setBytes(12, cancion.getPortadaMiniatura());
+                ps.executeUpdate();
 
-                // Inserta relaciones con géneros (solo si no es null)
-                if (cancion.getGeneros() != null) {
-                    for (Genero genero : cancion.getGeneros()) {
-                        String insertGenero = "INSERT INTO Cancion_Genero(id_cancion, id_genero) VALUES (?, ?)";
-                        PreparedStatement psg = conn.prepareStatement(insertGenero);
-                        psg.setInt(1, idGenerado);
-                        psg.setInt(2, genero.ordinal() + 1); // Se asume que el ID en BD coincide con el orden del enum
-                        psg.executeUpdate();
+                // Recupera el ID generado automáticamente
+                try (ResultSet rs = ps.getGeneratedKeys()) {
+                    if (rs.next()) {
+                        int idGenerado = rs.getInt(1);
+                        cancion.setIdCancion(idGenerado);
+                        insertarRelaciones(conn, idGenerado, cancion.getArtistas(), cancion.getGeneros());
                     }
                 }
             }
 
+            conn.commit();
+            blobs.confirmar();
             return true;
         } catch (Exception e) {
+            if (conn != null) {
+                conn.rollback();
+                if (blobs != null) {
+                    blobs.deshacer();
+                }
+            }
+            cancion.setIdCancion(0);
             throw new Exception("Error al registrar canción: " + e.getMessage(), e);
+        } finally {
+            if (conn != null) {
+                conn.setAutoCommit(true);
+                conn.close();
+            }
+            if (cancion.getIdCancion() > 0) {
+                cache.invalidarCancion(cancion.getIdCancion());
+            }
         }
     }
 
@@ -99,27 +146,14 @@ public class CancionDAO extends SQLiteDataHelper implements IDAO<CancionDTO> {
         List<CancionDTO> lista = new ArrayList<>();
         String query = "SELECT id_cancion, titulo, duracion, anio, fecha_registro, archivo_mp3, portada FROM Cancion";
 
-        try {
-            Connection conn = openConnection();
-            Statement stmt = conn.createStatement();
-            ResultSet rs = stmt.executeQuery(query);
+        try (Connection conn = openReadConnection();
+             PreparedStatement ps = conn.prepareStatement(query);
+             ResultSet rs = ps.executeQuery()) {
 
             while (rs.next()) {
-                int id = rs.getInt("id_cancion");
-                String titulo = rs.getString("titulo");
-                double duracion = rs.getDouble("duracion");
-                int anio = rs.getInt("anio");
-                LocalDateTime fechaRegistro = LocalDateTime.parse(rs.getString("fecha_registro").replace(" ", "T"));
-                byte[] archivoMP3 = rs.getBytes("archivo_mp3");
-                byte[] portada = rs.getBytes("portada");
-
-                List<ArtistaDTO> artistas = getArtistasPorCancion(id);
-                List<Genero> generos = getGenerosPorCancion(id);
-
-                CancionDTO cancion = new CancionDTO(titulo, duracion, anio, fechaRegistro, archivoMP3, portada, artistas, generos);
-                cancion.setIdCancion(id);
-                lista.add(cancion);
+                lista.add(mapearCompleta(rs));
             }
+            hidratador.hidratar(lista);
 
             System.out.println("BuscarTodo completado exitosamente. Canciones encontradas: " + lista.size());
 
@@ -140,28 +174,17 @@ public class CancionDAO extends SQLiteDataHelper implements IDAO<CancionDTO> {
     @Override
     public CancionDTO buscarPorId(Integer id) throws Exception {
         String query = "SELECT id_cancion, titulo, duracion, anio, fecha_registro, archivo_mp3, portada FROM Cancion WHERE id_cancion = ?";
-        try {
-            Connection conn = openConnection();
-            PreparedStatement ps = conn.prepareStatement(query);
+        try (Connection conn = openReadConnection();
+             PreparedStatement ps = conn.prepareStatement(query)) {
             ps.setInt(1, id);
-            ResultSet rs = ps.executeQuery();
-
-            if (rs.next()) {
-                String titulo = rs.getString("titulo");
-                double duracion = rs.getDouble("duracion");
-                int anio = rs.getInt("anio");
-                LocalDateTime fechaRegistro = LocalDateTime.parse(rs.getString("fecha_registro"));
-                byte[] archivoMP3 = rs.getBytes("archivo_mp3");
-                byte[] portada = rs.getBytes("portada");
-
-                List<ArtistaDTO> artistas = getArtistasPorCancion(id);
-                List<Genero> generos = getGenerosPorCancion(id);
-
-                CancionDTO cancion = new CancionDTO(titulo, duracion, anio, fechaRegistro, archivoMP3, portada, artistas, generos);
-                cancion.setIdCancion(id);
-                return cancion;
-            } else {
-                return null;
+            try (ResultSet rs = ps.executeQuery()) {
+                if (rs.next()) {
+                    CancionDTO cancion = mapearCompleta(rs);
+                    hidratador.hidratar(List.of(cancion));
+                    return cancion;
+                } else {
+                    return null;
+                }
             }
         } catch (Exception e) {
             throw new Exception("Error al buscar canción: " + e.getMessage(), e);
@@ -178,29 +201,139 @@ public class CancionDAO extends SQLiteDataHelper implements IDAO<CancionDTO> {
         List<CancionDTO> lista = new ArrayList<>();
         String query = "SELECT id_cancion, titulo, duracion, anio, fecha_registro, archivo_mp3, portada FROM Cancion WHERE titulo = ?";
 
-        try {
-            Connection conn = openConnection();
-            PreparedStatement ps = conn.prepareStatement(query);
+        try (Connection conn = openReadConnection();
+             PreparedStatement ps = conn.prepareStatement(query)) {
             ps.setString(1, nombre);
-            ResultSet rs = ps.executeQuery();
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    lista.add(mapearCompleta(rs));
+                }
+            }
+            hidratador.hidratar(lista);
+
+        } catch (Exception e) {
+            throw new Exception("Error al buscar canciones por nombre: " + e.getMessage(), e);
+        }
+
+        return lista;
+    }
+
+    /**
+     * Recupera la metadata de todas las canciones sin cargar el archivo MP3 ni la portada.
+     *
+     * @return Lista de canciones en su proyección ligera.
+     * @throws Exception si ocurre un error al acceder a la base de datos.
+     */
+    public List<CancionResumenDTO> buscarResumenes() throws Exception {
+        List<CancionResumenDTO> lista = new ArrayList<>();
+        String query = "SELECT id_cancion, titulo, duracion, anio, fecha_registro FROM Cancion";
+
+        try (Connection conn = openReadConnection();
+             PreparedStatement ps = conn.prepareStatement(query);
+             ResultSet rs = ps.executeQuery()) {
 
             while (rs.next()) {
-                int id = rs.getInt("id_cancion");
-                String titulo = rs.getString("titulo");
-                double duracion = rs.getDouble("duracion");
-                int anio = rs.getInt("anio");
-                LocalDateTime fechaRegistro = LocalDateTime.parse(rs.getString("fecha_registro").replace(" ", "T"));
-                byte[] archivoMP3 = rs.getBytes("archivo_mp3");
-                byte[] portada = rs.getBytes("portada");
-
-                List<ArtistaDTO> artistas = getArtistasPorCancion(id);
-                List<Genero> generos = getGenerosPorCancion(id);
-
-                CancionDTO cancion = new CancionDTO(titulo, duracion, anio, fechaRegistro, archivoMP3, portada, artistas, generos);
-                cancion.setIdCancion(id);
-                lista.add(cancion);
+                lista.add(mapearResumen(rs));
             }
+            hidratador.hidratar(lista);
+        } catch (Exception e) {
+            throw new Exception("Error al obtener resumen de canciones: " + e.getMessage(), e);
+        }
+
+        return lista;
+    }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int contar() throws Exception {
+        return contarFilas("Cancion");
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Integer buscarIdEnPosicion(int posicion) throws Exception {
+        return buscarIdEnPosicion("Cancion", "id_cancion", posicion);
+    }
+
+    /**
+     * Recupera una página del catálogo como resúmenes sin datos binarios, con artistas y
+     * géneros, en orden de ID.
+     *
+     * @param despuesDeId Se devuelven las canciones con ID mayor a este; 0 para empezar.
+     * @param limite Cantidad máxima de canciones.
+     * @return Canciones de la página.
+     * @throws Exception si ocurre un error al acceder a la base de datos.
+     */
+    @Override
+    public List<CancionResumenDTO> buscarPagina(int despuesDeId, int limite) throws Exception {
+        List<CancionResumenDTO> lista = new ArrayList<>();
+        String query = "SELECT id_cancion, titulo, duracion, anio, fecha_registro FROM Cancion "
+                + "WHERE id_cancion > ? ORDER BY id_cancion LIMIT ?";
+        try (Connection conn = openReadConnection();
+             PreparedStatement ps = conn.prepareStatement(query)) {
+            ps.setInt(1, despuesDeId);
+            ps.setInt(2, limite);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    lista.add(mapearResumen(rs));
+                }
+            }
+            hidratador.hidratar(lista);
+        } catch (Exception e) {
+            throw new Exception("Error al obtener la página de canciones: " + e.getMessage(), e);
+        }
+        return lista;
+    }
+
+    /**
+     * Recupera la metadata de una canción según su ID, sin datos binarios.
+     *
+     * @param id ID de la canción.
+     * @return Proyección ligera de la canción, o null si no existe.
+     * @throws Exception si ocurre un error al acceder a la base de datos.
+     */
+    public CancionResumenDTO buscarResumenPorId(int id) throws Exception {
+        String query = "SELECT id_cancion, titulo, duracion, anio, fecha_registro FROM Cancion WHERE id_cancion = ?";
+        try (Connection conn = openReadConnection();
+             PreparedStatement ps = conn.prepareStatement(query)) {
+            ps.setInt(1, id);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (!rs.next()) {
+                    return null;
+                }
+                CancionResumenDTO cancion = mapearResumen(rs);
+                hidratador.hidratar(List.of(cancion));
+                return cancion;
+            }
+        } catch (Exception e) {
+            throw new Exception("Error al buscar resumen de canción: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Busca por coincidencia exacta de título la metadata de las canciones, sin datos binarios.
+     *
+     * @param nombre Título de la canción a buscar.
+     * @return Lista de canciones con ese título en su proyección ligera.
+     * @throws Exception si ocurre un error al acceder a la base de datos.
+     */
+    public List<CancionResumenDTO> buscarResumenesPorNombre(String nombre) throws Exception {
+        List<CancionResumenDTO> lista = new ArrayList<>();
+        String query = "SELECT id_cancion, titulo, duracion, anio, fecha_registro FROM Cancion WHERE titulo = ?";
+
+        try (Connection conn = openReadConnection();
+             PreparedStatement ps = conn.prepareStatement(query)) {
+            ps.setString(1, nombre);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    lista.add(mapearResumen(rs));
+                }
+            }
+            hidratador.hidratar(lista);
         } catch (Exception e) {
             throw new Exception("Error al buscar canciones por nombre: " + e.getMessage(), e);
         }
@@ -208,6 +341,455 @@ public class CancionDAO extends SQLiteDataHelper implements IDAO<CancionDTO> {
         return lista;
     }
 
+    /**
+     * Recupera la metadata de las canciones que cumplen los criterios de una cadena de
+     * recomendación, con una sola consulta que filtra en la base de datos.
+     *
+     * <p>Cada grupo de géneros se resuelve con el índice {@code idx_cancion_genero_genero},
+     * cada fragmento de artista recorre la tabla Artista (mucho menor que el catálogo) y
+     * llega a las canciones por {@code idx_cancion_artista_artista}, y la fecha usa el índice
+     * de expresión {@code idx_cancion_fecha_registro}. Solo se hidratan las canciones
+     * encontradas.</p>
+     *
+     * <p>Los nombres de artista se comparan con la función {@code normalizar()} que registra
+     * {@link DataAccessComponent.PoolConexiones}, la misma normalización de
+     * {@code NormalizadorTexto} que usa el filtro en memoria, así que ambos caminos
+     * encuentran las mismas canciones aunque el nombre tenga tildes o mayúsculas acentuadas.</p>
+     *
+     * @param criterios Condiciones acumuladas por la cadena de filtros.
+     * @return Canciones que cumplen todos los criterios, en orden de ID.
+     * @throws Exception si ocurre un error al acceder a la base de datos.
+     */
+    public List<CancionResumenDTO> buscarResumenesPorCriterios(CriteriosRecomendacionDTO criterios) throws Exception {
+        StringBuilder query = new StringBuilder("SELECT c.id_cancion, c.titulo, c.duracion, c.anio, c.fecha_registro FROM Cancion c WHERE 1 = 1");
+        List<String> parametros = new ArrayList<>();
+
+        for (Set<Integer> grupo : criterios.getGruposGeneros()) {
+            query.append(" AND c.id_cancion IN (SELECT cg.id_cancion FROM Cancion_Genero cg WHERE cg.id_genero IN (")
+                    .append(HidratadorCanciones.IDS_PARAMETRO).append("))");
+            parametros.add(HidratadorCanciones.comoArregloJson(grupo));
+        }
+        for (String fragmento : criterios.getFragmentosArtista()) {
+            query.append(" AND c.id_cancion IN (SELECT ca.id_cancion FROM Artista a JOIN Cancion_Artista ca")
+                    .append(" ON ca.id_artista = a.id_artista WHERE instr(normalizar(a.nombre), ?) > 0)");
+            parametros.add(fragmento);
+        }
+        if (criterios.getRegistradasDespuesDe() != null) {
+            query.append(" AND datetime(c.fecha_registro) > ?");
+            parametros.add(criterios.getRegistradasDespuesDe().format(FORMATO_SQLITE));
+        }
+        query.append(" ORDER BY c.id_cancion");
+
+        List<CancionResumenDTO> lista = new ArrayList<>();
+        try (Connection conn = openReadConnection();
+             PreparedStatement ps = conn.prepareStatement(query.toString())) {
+            for (int i = 0; i < parametros.size(); i++) {
+                ps.setString(i + 1, parametros.get(i));
+            }
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    lista.add(mapearResumen(rs));
+                }
+            }
+            hidratador.hidratar(lista);
+        } catch (Exception e) {
+            throw new Exception("Error al buscar canciones por criterios: " + e.getMessage(), e);
+        }
+        return lista;
+    }
+
+    /**
+     * Recupera la metadata de varias canciones, sin datos binarios, en el orden recibido.
+     *
+     * @param ids IDs de las canciones; los que no existen se omiten.
+     * @return Canciones en su proyección ligera, en el mismo orden que {@code ids}.
+     * @throws Exception si ocurre un error al acceder a la base de datos.
+     */
+    public List<CancionResumenDTO> buscarResumenesPorIds(Collection<Integer> ids) throws Exception {
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+        String query = "SELECT id_cancion, titulo, duracion, anio, fecha_registro FROM Cancion "
+                + "WHERE id_cancion IN (" + HidratadorCanciones.IDS_PARAMETRO + ")";
+        Map<Integer, CancionResumenDTO> encontradas = new HashMap<>();
+
+        try (Connection conn = openReadConnection();
+             PreparedStatement ps = conn.prepareStatement(query)) {
+            ps.setString(1, HidratadorCanciones.comoArregloJson(ids));
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    CancionResumenDTO cancion = mapearResumen(rs);
+                    encontradas.put(cancion.getIdCancion(), cancion);
+                }
+            }
+        } catch (Exception e) {
+            throw new Exception("Error al buscar canciones por ID: " + e.getMessage(), e);
+        }
+
+        List<CancionResumenDTO> lista = new ArrayList<>(encontradas.size());
+        for (Integer id : ids) {
+            CancionResumenDTO cancion = encontradas.get(id);
+            if (cancion != null) {
+                lista.add(cancion);
+            }
+        }
+        hidratador.hidratar(lista);
+        return lista;
+    }
+
+    /**
+     * Recupera los rasgos de contenido de todo el catálogo para el recomendador por
+     * similitud: año, duración, géneros, artistas y géneros de esos artistas.
+     *
+     * <p>Usa tres consultas sin importar el tamaño del catálogo y no lee datos binarios.</p>
+     *
+     * @return Rasgos de cada canción, en orden de ID.
+     * @throws Exception si ocurre un error al acceder a la base de datos.
+     */
+    public List<RasgosCancionDTO> buscarRasgos() throws Exception {
+        List<RasgosCancionDTO> lista = new ArrayList<>();
+        Map<Integer, RasgosCancionDTO> porId = new HashMap<>();
+
+        try (Connection conn = openReadConnection()) {
+            try (PreparedStatement ps = conn.prepareStatement(
+                    "SELECT id_cancion, anio, duracion FROM Cancion ORDER BY id_cancion");
+                 ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    RasgosCancionDTO rasgos = new RasgosCancionDTO(rs.getInt("id_cancion"), rs.getInt("anio"), rs.getDouble("duracion"));
+                    lista.add(rasgos);
+                    porId.put(rasgos.getIdCancion(), rasgos);
+                }
+            }
+            try (PreparedStatement ps = conn.prepareStatement("SELECT id_cancion, id_genero FROM Cancion_Genero");
+                 ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    RasgosCancionDTO rasgos = porId.get(rs.getInt("id_cancion"));
+                    if (rasgos != null) {
+                        rasgos.getGeneros().add(rs.getInt("id_genero"));
+                    }
+                }
+            }
+            // Un artista sin géneros registrados aparece una vez con id_genero NULL
+            try (PreparedStatement ps = conn.prepareStatement(
+                    "SELECT ca.id_cancion, ca.id_artista, ag.id_genero FROM Cancion_Artista ca "
+                            + "LEFT JOIN Artista_Genero ag ON ag.id_artista = ca.id_artista "
+                            + "ORDER BY ca.id_cancion, ca.id_artista");
+                 ResultSet rs = ps.executeQuery()) {
+                int ultimaCancion = -1;
+                int ultimoArtista = -1;
+                while (rs.next()) {
+                    int idCancion = rs.getInt("id_cancion");
+                    int idArtista = rs.getInt("id_artista");
+                    RasgosCancionDTO rasgos = porId.get(idCancion);
+                    if (rasgos == null) {
+                        continue;
+                    }
+                    if (idCancion != ultimaCancion || idArtista != ultimoArtista) {
+                        rasgos.getArtistas().add(idArtista);
+                        ultimaCancion = idCancion;
+                        ultimoArtista = idArtista;
+                    }
+                    int idGenero = rs.getInt("id_genero");
+                    if (!rs.wasNull()) {
+                        rasgos.getGenerosArtistas().add(idGenero);
+                    }
+                }
+            }
+        } catch (Exception e) {
+            throw new Exception("Error al obtener los rasgos de las canciones: " + e.getMessage(), e);
+        }
+        return lista;
+    }
+
+    /**
+     * Recupera los textos buscables de todas las canciones: título, nombres de sus artistas
+     * y nombres de sus géneros, para el índice de búsqueda.
+     *
+     * <p>Usa una sola consulta y no lee datos binarios.</p>
+     *
+     * @return Un documento por canción, en orden de ID.
+     * @throws Exception si ocurre un error al acceder a la base de datos.
+     */
+    public List<DocumentoBusquedaDTO> buscarDocumentosBusqueda() throws Exception {
+        String query = "SELECT c.id_cancion, c.titulo, "
+                + "(SELECT group_concat(a.nombre, ' ') FROM Cancion_Artista ca JOIN Artista a ON a.id_artista = ca.id_artista "
+                + "WHERE ca.id_cancion = c.id_cancion) AS artistas, "
+                + "(SELECT group_concat(g.nombre_genero, ' ') FROM Cancion_Genero cg JOIN Genero g ON g.id_genero = cg.id_genero "
+                + "WHERE cg.id_cancion = c.id_cancion) AS generos "
+                + "FROM Cancion c ORDER BY c.id_cancion";
+        List<DocumentoBusquedaDTO> lista = new ArrayList<>();
+        try (Connection conn = openReadConnection();
+             PreparedStatement ps = conn.prepareStatement(query);
+             ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) {
+                lista.add(new DocumentoBusquedaDTO(rs.getInt("id_cancion"), rs.getString("titulo"),
+                        rs.getString("artistas"), rs.getString("generos")));
+            }
+        } catch (Exception e) {
+            throw new Exception("Error al obtener los textos de búsqueda de las canciones: " + e.getMessage(), e);
+        }
+        return lista;
+    }
+
+    /**
+     * Recupera únicamente el archivo MP3 de una canción.
+     *
+     * @param idCancion ID de la canción.
+     * @return Bytes del archivo MP3, o null si la canción no existe o no tiene audio.
+     * @throws Exception si ocurre un error al acceder a la base de datos.
+     */
+    public byte[] cargarAudio(int idCancion) throws Exception {
+        return cargarBlob("archivo_mp3", idCancion);
+    }
+
+    /**
+     * Copia el archivo MP3 de una canción hacia un flujo de salida sin construir un arreglo
+     * con el archivo completo: desde el almacén de blobs con {@code FileChannel}, o por
+     * bloques de {@link #TAMANIO_BLOQUE} bytes si el audio sigue en línea en la fila.
+     *
+     * @param idCancion ID de la canción.
+     * @param destino Flujo donde se escribe el audio; no se cierra.
+     * @return Cantidad de bytes copiados, o -1 si la canción no existe o no tiene audio.
+     * @throws Exception si ocurre un error al acceder a la base de datos o al escribir.
+     */
+    public long copiarAudio(int idCancion, OutputStream destino) throws Exception {
+        String query = "SELECT typeof(archivo_mp3) AS tipo, archivo_mp3 FROM Cancion WHERE id_cancion = ?";
+        try (Connection conn = openReadConnection();
+             PreparedStatement ps = conn.prepareStatement(query)) {
+            ps.setInt(1, idCancion);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (!rs.next()) {
+                    return -1;
+                }
+                if ("text".equals(rs.getString("tipo"))) {
+                    return almacenBlobs().copiar(rs.getString("archivo_mp3"), destino);
+                }
+                try (InputStream audio = rs.getBinaryStream("archivo_mp3")) {
+                    if (audio == null) {
+                        return -1;
+                    }
+                    byte[] bloque = new byte[TAMANIO_BLOQUE];
+                    long total = 0;
+                    int leidos;
+                    while ((leidos = audio.read(bloque)) != -1) {
+                        destino.write(bloque, 0, leidos);
+                        total += leidos;
+                    }
+                    return total;
+                }
+            }
+        } catch (Exception e) {
+            throw new Exception("Error al copiar el audio de la canción: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Obtiene el archivo del almacén de blobs con el MP3 de una canción, para reproducirlo
+     * directamente sin copiarlo.
+     *
+     * @param idCancion ID de la canción.
+     * @return Ruta del MP3, o null si la canción no existe, no tiene audio o su audio aún
+     *         está en línea en la fila (en ese caso debe usarse {@link #copiarAudio(int, OutputStream)}).
+     * @throws Exception si ocurre un error al acceder a la base de datos.
+     */
+    public Path rutaAudio(int idCancion) throws Exception {
+        String query = "SELECT archivo_mp3 FROM Cancion WHERE id_cancion = ? AND typeof(archivo_mp3) = 'text'";
+        try (Connection conn = openReadConnection();
+             PreparedStatement ps = conn.prepareStatement(query)) {
+            ps.setInt(1, idCancion);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? ReferenciasBlob.ruta(rs.getString(1)) : null;
+            }
+        } catch (Exception e) {
+            throw new Exception("Error al buscar el archivo de audio de la canción: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Recupera la tabla de búsqueda (índice de frames) serializada de una canción.
+     *
+     * @param idCancion ID de la canción.
+     * @return Tabla serializada, o null si aún no se calculó.
+     * @throws Exception si ocurre un error al acceder a la base de datos.
+     */
+    public byte[] cargarTablaBusqueda(int idCancion) throws Exception {
+        return cargarBlob("tabla_busqueda", idCancion);
+    }
+
+    /**
+     * Guarda la tabla de búsqueda de una canción registrada antes de que existiera la columna.
+     *
+     * @param idCancion ID de la canción.
+     * @param tablaBusqueda Tabla serializada.
+     * @return true si se actualizó la canción.
+     * @throws Exception si ocurre un error al acceder a la base de datos.
+     */
+    public boolean guardarTablaBusqueda(int idCancion, byte[] tablaBusqueda) throws Exception {
+        String query = "UPDATE Cancion SET tabla_busqueda = ? WHERE id_cancion = ?";
+        try (Connection conn = openConnection();
+             PreparedStatement ps = conn.prepareStatement(query)) {
+            ps.setBytes(1, tablaBusqueda);
+            ps.setInt(2, idCancion);
+            return ps.executeUpdate() > 0;
+        } catch (Exception e) {
+            throw new Exception("Error al guardar la tabla de búsqueda: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Recupera los datos técnicos del MP3 de una canción calculados al registrarla.
+     *
+     * @param idCancion ID de la canción.
+     * @return Metadatos del audio, o null si la canción no existe o su audio aún no se analizó.
+     * @throws Exception si ocurre un error al acceder a la base de datos.
+     */
+    public MetadatosAudioDTO cargarMetadatosAudio(int idCancion) throws Exception {
+        String query = "SELECT duracion, bitrate, frecuencia_muestreo, es_vbr, total_frames FROM Cancion "
+                + "WHERE id_cancion = ? AND total_frames IS NOT NULL";
+        try (Connection conn = openReadConnection();
+             PreparedStatement ps = conn.prepareStatement(query)) {
+            ps.setInt(1, idCancion);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (!rs.next()) {
+                    return null;
+                }
+                return new MetadatosAudioDTO(rs.getDouble("duracion"), rs.getInt("bitrate"),
+                        rs.getInt("frecuencia_muestreo"), rs.getInt("es_vbr") == 1, rs.getInt("total_frames"));
+            }
+        } catch (Exception e) {
+            throw new Exception("Error al cargar los metadatos de audio: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Recupera los IDs de las canciones con audio que todavía no tienen sus datos técnicos,
+     * por ejemplo porque se registraron antes de que existieran las columnas.
+     *
+     * @return IDs en orden ascendente.
+     * @throws Exception si ocurre un error al acceder a la base de datos.
+     */
+    public List<Integer> buscarIdsSinMetadatosAudio() throws Exception {
+        List<Integer> ids = new ArrayList<>();
+        String query = "SELECT id_cancion FROM Cancion WHERE total_frames IS NULL AND archivo_mp3 IS NOT NULL ORDER BY id_cancion";
+        try (Connection conn = openReadConnection();
+             PreparedStatement ps = conn.prepareStatement(query);
+             ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) {
+                ids.add(rs.getInt(1));
+            }
+        } catch (Exception e) {
+            throw new Exception("Error al buscar canciones sin metadatos de audio: " + e.getMessage(), e);
+        }
+        return ids;
+    }
+
+    /**
+     * Guarda en una sola transacción los datos técnicos de varias canciones, reemplazando
+     * también su duración por la calculada a partir del audio.
+     *
+     * @param metadatos Metadatos por ID de canción.
+     * @return Cantidad de canciones actualizadas.
+     * @throws Exception si ocurre un error al acceder a la base de datos.
+     */
+    public int guardarMetadatosAudio(Map<Integer, MetadatosAudioDTO> metadatos) throws Exception {
+        if (metadatos.isEmpty()) {
+            return 0;
+        }
+        String query = "UPDATE Cancion SET duracion = ?, bitrate = ?, frecuencia_muestreo = ?, es_vbr = ?, total_frames = ? "
+                + "WHERE id_cancion = ?";
+        Connection conn = null;
+        try {
+            conn = openConnection();
+            conn.setAutoCommit(false);
+            int actualizadas = 0;
+            try (PreparedStatement ps = conn.prepareStatement(query)) {
+                for (Map.Entry<Integer, MetadatosAudioDTO> entrada : metadatos.entrySet()) {
+                    ps.setDouble(1, entrada.getValue().getDuracion());
+                    asignarMetadatosAudio(ps, 2, entrada.getValue());
+                    ps.setInt(6, entrada.getKey());
+                    ps.addBatch();
+                }
+                for (int filas : ps.executeBatch()) {
+                    actualizadas += Math.max(filas, 0);
+                }
+            }
+            conn.commit();
+            return actualizadas;
+        } catch (Exception e) {
+            if (conn != null) {
+                conn.rollback();
+            }
+            throw new Exception("Error al guardar los metadatos de audio: " + e.getMessage(), e);
+        } finally {
+            if (conn != null) {
+                conn.setAutoCommit(true);
+                conn.close();
+            }
+        }
+    }
+
+    /**
+     * Recupera la duración registrada de una canción sin leer ninguna otra columna.
+     *
+     * @param idCancion ID de la canción.
+     * @return Duración en segundos, o 0 si la canción no existe.
+     * @throws Exception si ocurre un error al acceder a la base de datos.
+     */
+    public double obtenerDuracion(int idCancion) throws Exception {
+        String query = "SELECT duracion FROM Cancion WHERE id_cancion = ?";
+        try (Connection conn = openReadConnection();
+             PreparedStatement ps = conn.prepareStatement(query)) {
+            ps.setInt(1, idCancion);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? rs.getDouble(1) : 0;
+            }
+        } catch (Exception e) {
+            throw new Exception("Error al obtener la duración de la canción: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Recupera únicamente la imagen de portada de una canción.
+     *
+     * @param idCancion ID de la canción.
+     * @return Bytes de la portada, o null si la canción no existe o no tiene portada.
+     * @throws Exception si ocurre un error al acceder a la base de datos.
+     */
+    public byte[] cargarPortada(int idCancion) throws Exception {
+        return cargarBlob("portada", idCancion);
+    }
+
+    /**
+     * Recupera la miniatura de la portada de una canción, pensada para listados.
+     *
+     * @param idCancion ID de la canción.
+     * @return Miniatura en JPEG, o null si no tiene portada o aún no se generó.
+     * @throws Exception si ocurre un error al acceder a la base de datos.
+     */
+    public byte[] cargarMiniatura(int idCancion) throws Exception {
+        return cargarBlob("portada_miniatura", idCancion);
+    }
+
+    /**
+     * Guarda la miniatura de una canción registrada antes de que existiera la columna.
+     *
+     * @param idCancion ID de la canción.
+     * @param miniatura Miniatura en JPEG.
+     * @return true si se actualizó la canción.
+     * @throws Exception si ocurre un error al acceder a la base de datos.
+     */
+    public boolean guardarMiniatura(int idCancion, byte[] miniatura) throws Exception {
+        String query = "UPDATE Cancion SET portada_miniatura = ? WHERE id_cancion = ?";
+        try (Connection conn = openConnection();
+             PreparedStatement ps = conn.prepareStatement(query)) {
+            ps.setBytes(1, miniatura);
+            ps.setInt(2, idCancion);
+            return ps.executeUpdate() > 0;
+        } catch (Exception e) {
+            throw new Exception("Error al guardar la miniatura: " + e.getMessage(), e);
+        }
+    }
+
     /**
      * Actualiza los atributos básicos de una canción.
      *
@@ -220,78 +802,107 @@ public class CancionDAO extends SQLiteDataHelper implements IDAO<CancionDTO> {
      */
     @Override
     public boolean actualizar(CancionDTO entity) throws Exception {
-        StringBuilder queryBuilder = new StringBuilder("UPDATE Cancion SET titulo = ?, anio = ?");
-        List<Object> parametros = new ArrayList<>();
-        parametros.add(entity.getTitulo());
-        parametros.add(entity.getAnio());
-
-        // Agregar campos binarios solo si el usuario los proporcionó
-        if (entity.getArchivoMP3() != null) {
-            queryBuilder.append(", archivo_mp3 = ?");
-            parametros.add(entity.getArchivoMP3());
-        }
-        if (entity.getPortada() != null) {
-            queryBuilder.append(", portada = ?");
-            parametros.add(entity.getPortada());
-        }
-
-        queryBuilder.append(" WHERE id_cancion = ?");
-        parametros.add(entity.getIdCancion());
-
+        Connection conn = null;
+        ReferenciasBlob blobs = null;
         try {
-            Connection conn = openConnection();
-            PreparedStatement ps = conn.prepareStatement(queryBuilder.toString());
+            conn = openConnection();
+            // Las referencias del almacén se cuentan en la misma transacción que la fila
+            conn.setAutoCommit(false);
+            blobs = new ReferenciasBlob(conn);
+            StringBuilder queryBuilder = new StringBuilder("UPDATE Cancion SET titulo = ?, anio = ?");
+            List<Object> parametros = new ArrayList<>();
+            List<String> reemplazadas = new ArrayList<>();
+            parametros.add(entity.getTitulo());
+            parametros.add(entity.getAnio());
 
-            // Asignar parámetros dinámicamente
-            for (int i = 0; i < parametros.size(); i++) {
-                Object valor = parametros.get(i);
-                if (valor instanceof String) {
-                    ps.setString(i + 1, (String) valor);
-                } else if (valor instanceof Integer) {
-                    ps.setInt(i + 1, (Integer) valor);
-                } else if (valor instanceof byte[]) {
-                    ps.setBytes(i + 1, (byte[]) valor);
+            // Agregar campos binarios solo si el usuario los proporcionó
+            if (entity.getArchivoMP3() != null) {
+                queryBuilder.append(", archivo_mp3 = ?");
+                parametros.add(blobs.guardar(entity.getArchivoMP3()));
+                reemplazadas.add("archivo_mp3");
+                // La tabla de búsqueda corresponde al audio anterior; se reemplaza o se descarta
+                if (entity.getTablaBusqueda() != null) {
+                    queryBuilder.append(", tabla_busqueda = ?");
+                    parametros.add(entity.getTablaBusqueda());
+                } else {
+                    queryBuilder.append(", tabla_busqueda = NULL");
+                }
+                MetadatosAudioDTO metadatos = entity.getMetadatosAudio();
+                if (metadatos != null) {
+                    queryBuilder.append(", duracion = ?, bitrate = ?, frecuencia_muestreo = ?, es_vbr = ?, total_frames = ?");
+                    parametros.add(metadatos.getDuracion());
+                    parametros.add(metadatos.getBitrate());
+                    parametros.add(metadatos.getFrecuenciaMuestreo());
+                    parametros.add(metadatos.isVbr() ? 1 : 0);
+                    parametros.add(metadatos.getTotalFrames());
+                } else {
+                    queryBuilder.append(", bitrate = NULL, frecuencia_muestreo = NULL, es_vbr = NULL, total_frames = NULL");
+                }
+            }
+            if (entity.getPortada() != null) {
+                queryBuilder.append(", portada = ?");
+                parametros.add(blobs.guardar(entity.getPortada()));
+                reemplazadas.add("portada");
+                // La miniatura se reemplaza junto con la portada; si no se generó, se recalcula al pedirla
+                if (entity.getPortadaMiniatura() != null) {
+                    queryBuilder.append(", portada_miniatura = ?");
+                    parametros.add(entity.getPortadaMiniatura());
+                } else {
+                    queryBuilder.append(", portada_miniatura = NULL");
                 }
             }
 
-            ps.executeUpdate();
-
-            //Actualizar artistas
-            String eliminarArtistas = "DELETE FROM Cancion_Artista WHERE id_cancion = ?";
-            PreparedStatement psDelete = conn.prepareStatement(eliminarArtistas);
-            psDelete.setInt(1, entity.getIdCancion());
-            psDelete.executeUpdate();
+            queryBuilder.append(" WHERE id_cancion = ?");
+            parametros.add(entity.getIdCancion());
 
-            for (ArtistaDTO artista : entity.getArtistas()) {
-                String insertarArtista = "INSERT INTO Cancion_Artista(id_cancion, id_artista) VALUES (?, ?)";
-                PreparedStatement psInsert = conn.prepareStatement(insertarArtista);
-                psInsert.setInt(1, entity.getIdCancion());
-                psInsert.setInt(2, artista.getId());
-                psInsert.executeUpdate();
+            if (!reemplazadas.isEmpty()) {
+                blobs.liberarFila("Cancion", "id_cancion", entity.getIdCancion(), reemplazadas.toArray(new String[0]));
             }
+            try (PreparedStatement ps = conn.prepareStatement(queryBuilder.toString())) {
+                // Asignar parámetros dinámicamente
+                for (int i = 0; i < parametros.size(); i++) {
+                    Object valor = parametros.get(i);
+                    if (valor instanceof String) {
+                        ps.setString(i + 1, (String) valor);
+                    } else if (valor instanceof Integer) {
+                        ps.setInt(i + 1, (Integer) valor);
+                    } else if (valor instanceof Double) {
+                        ps.setDouble(i + 1, (Double) valor);
+                    } else if (valor instanceof byte[]) {
+                        ps.setBytes(i + 1, (byte[]) valor);
+                    }
+                }
 
-            //  Actualizar géneros
-            String eliminarGeneros = "DELETE FROM Cancion_Genero WHERE id_cancion = ?";
-            PreparedStatement psDelete2 = conn.prepareStatement(eliminarGeneros);
-            psDelete2.setInt(1, entity.getIdCancion());
-            psDelete2.executeUpdate();
-
-            for (Genero genero : entity.getGeneros()) {
-                String insertarGenero = "INSERT INTO Cancion_Genero(id_cancion, id_genero) VALUES (?, ?)";
-                PreparedStatement psInsert2 = conn.prepareStatement(insertarGenero);
-                psInsert2.setInt(1, entity.getIdCancion());
-                psInsert2.setInt(2, genero.ordinal() + 1); // Se asume ID = ordinal + 1
-                psInsert2.executeUpdate();
+                ps.executeUpdate();
             }
 
+            // Reemplazar artistas y géneros
+            eliminarRelaciones(conn, entity.getIdCancion());
+            insertarRelaciones(conn, entity.getIdCancion(), entity.getArtistas(), entity.getGeneros());
+
+            conn.commit();
+            blobs.confirmar();
             return true;
         } catch (Exception e) {
+            if (conn != null) {
+                conn.rollback();
+                if (blobs != null) {
+                    blobs.deshacer();
+                }
+            }
             throw new Exception("Error al actualizar canción: " + e.getMessage(), e);
+        } finally {
+            if (conn != null) {
+                conn.setAutoCommit(true);
+                conn.close();
+            }
+            cache.invalidarCancion(entity.getIdCancion());
         }
     }
 
     /**
-     * Elimina una canción de la base de datos según su ID.
+     * Elimina una canción de la base de datos según su ID, junto con el audio y la portada
+     * del almacén de blobs si ninguna otra fila los usa.
      *
      * @param id ID de la canción a eliminar.
      * @return true si se eliminó correctamente.
@@ -299,91 +910,199 @@ public class CancionDAO extends SQLiteDataHelper implements IDAO<CancionDTO> {
     @Override
     public boolean eliminar(Integer id) throws Exception {
         String query = "DELETE FROM Cancion WHERE id_cancion = ?";
-        String query2 = "DELETE FROM Cancion_Artista WHERE id_cancion = ?";
-        String query3 = "DELETE FROM Cancion_Genero WHERE id_cancion = ?";
+        Connection conn = null;
+        ReferenciasBlob blobs = null;
         try {
-            Connection conn = openConnection();
-            PreparedStatement ps = conn.prepareStatement(query);
-            ps.setInt(1, id);
-            ps.executeUpdate();
-
-            PreparedStatement psDelete = conn.prepareStatement(query2);
-            psDelete.setInt(1, id);
-            psDelete.executeUpdate();
+            conn = openConnection();
+            conn.setAutoCommit(false);
+            blobs = new ReferenciasBlob(conn);
+            blobs.liberarFila("Cancion", "id_cancion", id, "archivo_mp3", "portada");
+            try (PreparedStatement ps = conn.prepareStatement(query)) {
+                ps.setInt(1, id);
+                ps.executeUpdate();
+            }
 
-            PreparedStatement psDelete2 = conn.prepareStatement(query3);
-            psDelete2.setInt(1, id);
-            psDelete2.executeUpdate();
+            eliminarRelaciones(conn, id);
+            conn.commit();
+            blobs.confirmar();
             return true;
         } catch (Exception e) {
+            if (conn != null) {
+                conn.rollback();
+                if (blobs != null) {
+                    blobs.deshacer();
+                }
+            }
             throw new Exception("Error al eliminar canción: " + e.getMessage(), e);
+        } finally {
+            if (conn != null) {
+                conn.setAutoCommit(true);
+                conn.close();
+            }
+            cache.invalidarCancion(id);
         }
     }
 
     /**
-     * Recupera los artistas asociados a una canción específica.
+     * Inserta en lote las relaciones de una canción con sus artistas y géneros,
+     * usando una sola sentencia preparada por tabla.
      *
+     * @param conn Conexión de escritura en uso.
      * @param idCancion ID de la canción.
-     * @return Lista de artistas relacionados.
-     * @throws Exception si ocurre un error al acceder a la base de datos.
+     * @param artistas Artistas a asociar (puede ser null).
+     * @param generos Géneros a asociar (puede ser null).
+     * @throws Exception si ocurre un error al insertar.
      */
-    private List<ArtistaDTO> getArtistasPorCancion(int idCancion) throws Exception {
-        List<ArtistaDTO> lista = new ArrayList<>();
-        String query = "SELECT a.id_artista, a.nombre FROM Artista a " +
-                "JOIN Cancion_Artista ca ON a.id_artista = ca.id_artista " +
-                "WHERE ca.id_cancion = ?";
+    private void insertarRelaciones(Connection conn, int idCancion, List<ArtistaDTO> artistas,
+                                    List<Genero> generos) throws Exception {
+        if (artistas != null && !artistas.isEmpty()) {
+            try (PreparedStatement psa = conn.prepareStatement(
+                    "INSERT INTO Cancion_Artista(id_cancion, id_artista) VALUES (?, ?)")) {
+                for (ArtistaDTO artista : artistas) {
+                    psa.setInt(1, idCancion);
+                    psa.setInt(2, artista.getId());
+                    psa.addBatch();
+                }
+                psa.executeBatch();
+            }
+        }
 
-        Connection conn = openConnection();
-        PreparedStatement ps = conn.prepareStatement(query);
-        ps.setInt(1, idCancion);
-        ResultSet rs = ps.executeQuery();
+        if (generos != null && !generos.isEmpty()) {
+            try (PreparedStatement psg = conn.prepareStatement(
+                    "INSERT INTO Cancion_Genero(id_cancion, id_genero) VALUES (?, ?)")) {
+                for (Genero genero : generos) {
+                    psg.setInt(1, idCancion);
+                    psg.setInt(2, genero.ordinal() + 1); // Se asume que el ID en BD coincide con el orden del enum
+                    psg.addBatch();
+                }
+                psg.executeBatch();
+            }
+        }
+    }
 
-        while (rs.next()) {
-            ArtistaDTO artista = new ArtistaDTO();
-            artista.setId(rs.getInt("id_artista"));
-            artista.setNombre(rs.getString("nombre"));
-            lista.add(artista);
+    /**
+     * Asigna bitrate, frecuencia de muestreo, VBR y cantidad de frames a cuatro parámetros
+     * consecutivos; si no hay metadatos quedan en NULL.
+     *
+     * @param ps Sentencia en preparación.
+     * @param indice Posición del parámetro del bitrate.
+     * @param metadatos Metadatos del audio (puede ser null).
+     * @throws SQLException si ocurre un error al asignar los parámetros.
+     */
+    private static void asignarMetadatosAudio(PreparedStatement ps, int indice, MetadatosAudioDTO metadatos) throws SQLException {
+        if (metadatos == null) {
+            for (int i = 0; i < 4; i++) {
+                ps.setNull(indice + i, Types.INTEGER);
+            }
+            return;
         }
-        return lista;
+        ps.setInt(indice, metadatos.getBitrate());
+        ps.setInt(indice + 1, metadatos.getFrecuenciaMuestreo());
+        ps.setInt(indice + 2, metadatos.isVbr() ? 1 : 0);
+        ps.setInt(indice + 3, metadatos.getTotalFrames());
     }
 
     /**
-     * Recupera los géneros asociados a una canción.
-     * Se espera que el nombre en la tabla Género coincida con los valores del Enum Genero.
+     * Elimina todas las relaciones de una canción con artistas y géneros.
      *
+     * @param conn Conexión de escritura en uso.
      * @param idCancion ID de la canción.
-     * @return Lista de géneros como enums.
+     * @throws Exception si ocurre un error al eliminar.
      */
-    private List<Genero> getGenerosPorCancion(int idCancion) throws Exception {
-        List<Genero> lista = new ArrayList<>();
-        String query = "SELECT g.nombre_genero FROM Genero g " +
-                "JOIN Cancion_Genero cg ON g.id_genero = cg.id_genero " +
-                "WHERE cg.id_cancion = ?";
-
-        Connection conn = openConnection();
-        PreparedStatement ps = conn.prepareStatement(query);
-        ps.setInt(1, idCancion);
-        ResultSet rs = ps.executeQuery();
+    private void eliminarRelaciones(Connection conn, int idCancion) throws Exception {
+        try (PreparedStatement psArtistas = conn.prepareStatement("DELETE FROM Cancion_Artista WHERE id_cancion = ?");
+             PreparedStatement psGeneros = conn.prepareStatement("DELETE FROM Cancion_Genero WHERE id_cancion = ?")) {
+            psArtistas.setInt(1, idCancion);
+            psArtistas.executeUpdate();
+            psGeneros.setInt(1, idCancion);
+            psGeneros.executeUpdate();
+        }
+    }
 
-        while (rs.next()) {
-            String nombre = rs.getString("nombre_genero");
-            lista.add(Genero.valueOf(nombre));
+    /**
+     * Lee una columna BLOB de la tabla Cancion para una sola fila.
+     *
+     * @param columna Nombre de la columna (por ejemplo "archivo_mp3" o "portada"), nunca proviene del usuario.
+     * @param idCancion ID de la canción.
+     * @return Contenido de la columna, o null si no existe.
+     * @throws Exception si ocurre un error al acceder a la base de datos.
+     */
+    private byte[] cargarBlob(String columna, int idCancion) throws Exception {
+        String query = "SELECT " + columna + " FROM Cancion WHERE id_cancion = ?";
+        try (Connection conn = openReadConnection();
+             PreparedStatement ps = conn.prepareStatement(query)) {
+            ps.setInt(1, idCancion);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? ReferenciasBlob.leer(rs, 1) : null;
+            }
+        } catch (Exception e) {
+            throw new Exception("Error al cargar " + columna + " de la canción: " + e.getMessage(), e);
         }
-        return lista;
+    }
+
+    /**
+     * Construye la proyección ligera de la fila actual del ResultSet.
+     * Los artistas y géneros quedan vacíos hasta que {@link HidratadorCanciones} los asigna.
+     *
+     * @param rs ResultSet posicionado en una fila con id_cancion, titulo, duracion, anio y fecha_registro.
+     * @return Canción sin datos binarios.
+     * @throws Exception si ocurre un error al leer la fila.
+     */
+    private CancionResumenDTO mapearResumen(ResultSet rs) throws Exception {
+        return new CancionResumenDTO(
+                rs.getInt("id_cancion"),
+                rs.getString("titulo"),
+                rs.getDouble("duracion"),
+                rs.getInt("anio"),
+                leerFechaRegistro(rs),
+                new ArrayList<>(),
+                new ArrayList<>());
+    }
+
+    /**
+     * Construye la canción completa (con MP3 y portada) de la fila actual del ResultSet.
+     * Los artistas y géneros quedan vacíos hasta que {@link HidratadorCanciones} los asigna.
+     *
+     * @param rs ResultSet posicionado en una fila con la metadata, archivo_mp3 y portada.
+     * @return Canción completa sin relaciones.
+     * @throws Exception si ocurre un error al leer la fila.
+     */
+    static CancionDTO mapearCompleta(ResultSet rs) throws Exception {
+        CancionDTO cancion = new CancionDTO(
+                rs.getString("titulo"),
+                rs.getDouble("duracion"),
+                rs.getInt("anio"),
+                leerFechaRegistro(rs),
+                ReferenciasBlob.leer(rs, "archivo_mp3"),
+                ReferenciasBlob.leer(rs, "portada"),
+                new ArrayList<>(),
+                new ArrayList<>());
+        cancion.setIdCancion(rs.getInt("id_cancion"));
+        return cancion;
+    }
+
+    /**
+     * Lee la fecha de registro aceptando tanto el formato ISO como el de SQLite ("yyyy-MM-dd HH:mm:ss").
+     *
+     * @param rs ResultSet posicionado en una fila con fecha_registro.
+     * @return Fecha de registro.
+     * @throws Exception si ocurre un error al leer la columna.
+     */
+    private static LocalDateTime leerFechaRegistro(ResultSet rs) throws Exception {
+        return LocalDateTime.parse(rs.getString("fecha_registro").replace(" ", "T"));
     }
 
 
         public boolean existeCancionConTitulo(String titulo) {
         String sql = "SELECT COUNT(*) FROM Cancion WHERE Titulo = ? AND Estado = 'A'";
 
-        try {
-            Connection conn = openConnection();
-            PreparedStatement stmt = conn.prepareStatement(sql);
+        try (Connection conn = openReadConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setString(1, titulo);
-            ResultSet rs = stmt.executeQuery();
-
-            if (rs.next()) {
-                return rs.getInt(1) > 0;
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    return rs.getInt(1) > 0;
+                }
             }
             return false;
 
@@ -0,0 +1,269 @@
+/*
+|-----------------------------------------------|
+| © 2025 EPN-FIS, Todos los derechos reservados |
+| GR1SW                                         |
+|-----------------------------------------------|
+Autores: Grupo A
+Descripción: Conteos de reproducciones por canción, artista, género y usuario, por día y semana.
+*/
+
+package DataAccessComponent.DAO;
+
+import DataAccessComponent.DTO.AgregadoReproduccion;
+import DataAccessComponent.DTO.ConteoReproduccionDTO;
+import DataAccessComponent.DTO.PeriodoConteo;
+import DataAccessComponent.SQLiteDataHelper;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Clase ConteoReproduccionDAO que mantiene y consulta las tablas {@code Conteo_*}: cuántas
+ * veces se reprodujo cada canción, artista, género y usuario por día, por semana y en total.
+ *
+ * <p>Los conteos se actualizan de forma incremental: {@link ReproduccionDAO#registrar(List)}
+ * llama a {@link #acumular(Connection, long)} dentro de la misma transacción en que inserta
+ * un lote de eventos, y solo se agrupan las filas nuevas. Así, los rankings se leen con una
+ * búsqueda por índice sin recorrer el historial.</p>
+ *
+ * <p>Cuenta como reproducción llegar a los 30 segundos de una canción, o terminar una
+ * canción más corta. El artista y el género se toman de la canción al momento de acumular;
+ * si después cambian, {@link #verificar()} lo reporta como diferencia y
+ * {@link #reconstruir()} vuelve a calcular todo desde Reproduccion.</p>
+ *
+ * @author Grupo A
+ * @version 1.0
+ * @since 18-07-2025
+ */
+public class ConteoReproduccionDAO extends SQLiteDataHelper {
+
+    /** Eventos que cuentan como una reproducción */
+    private static final String ES_REPRODUCCION =
+            "(r.tipo_evento = 'TREINTA_SEGUNDOS' OR (r.tipo_evento = 'COMPLETA' AND r.posicion < 30))";
+
+    /** Repite cada evento una vez por periodo */
+    private static final String PERIODOS =
+            " JOIN (SELECT 'DIA' AS periodo UNION ALL SELECT 'SEMANA' UNION ALL SELECT 'TOTAL') p";
+
+    /** Inicio del periodo de cada evento; la semana empieza el lunes */
+    private static final String INICIO = "CASE p.periodo WHEN 'DIA' THEN date(r.fecha_hora) "
+            + "WHEN 'SEMANA' THEN date(r.fecha_hora, 'weekday 0', '-6 days') ELSE '' END";
+
+    /**
+     * Tabla de conteos, columnas de ID, clave primaria y origen de cada conteo. El origen
+     * agrupa las reproducciones con {@code id_reproduccion > ?}. Las cuatro primeras siguen
+     * el orden de {@link AgregadoReproduccion}.
+     */
+    private static final String[][] CONTEOS = {
+            {"Conteo_Cancion", "id_cancion", "id_cancion, periodo, inicio",
+                    "SELECT r.id_cancion, p.periodo, " + INICIO + ", COUNT(*) FROM Reproduccion r" + PERIODOS
+                            + " WHERE r.id_reproduccion > ? AND r.id_cancion IS NOT NULL AND " + ES_REPRODUCCION
+                            + " GROUP BY 1, 2, 3"},
+            {"Conteo_Artista", "id_artista", "id_artista, periodo, inicio",
+                    "SELECT ca.id_artista, p.periodo, " + INICIO + ", COUNT(*) FROM Reproduccion r"
+                            + " JOIN Cancion_Artista ca ON ca.id_cancion = r.id_cancion" + PERIODOS
+                            + " WHERE r.id_reproduccion > ? AND " + ES_REPRODUCCION + " GROUP BY 1, 2, 3"},
+            {"Conteo_Genero", "id_genero", "id_genero, periodo, inicio",
+                    "SELECT cg.id_genero, p.periodo, " + INICIO + ", COUNT(*) FROM Reproduccion r"
+                            + " JOIN Cancion_Genero cg ON cg.id_cancion = r.id_cancion" + PERIODOS
+                            + " WHERE r.id_reproduccion > ? AND " + ES_REPRODUCCION + " GROUP BY 1, 2, 3"},
+            {"Conteo_Usuario", "id_usuario", "id_usuario, periodo, inicio",
+                    "SELECT r.id_usuario, p.periodo, " + INICIO + ", COUNT(*) FROM Reproduccion r" + PERIODOS
+                            + " WHERE r.id_reproduccion > ? AND r.id_usuario IS NOT NULL AND " + ES_REPRODUCCION
+                            + " GROUP BY 1, 2, 3"},
+            {"Conteo_Genero_Cancion", "id_genero, id_cancion", "id_genero, periodo, inicio, id_cancion",
+                    "SELECT cg.id_genero, r.id_cancion, p.periodo, " + INICIO + ", COUNT(*) FROM Reproduccion r"
+                            + " JOIN Cancion_Genero cg ON cg.id_cancion = r.id_cancion" + PERIODOS
+                            + " WHERE r.id_reproduccion > ? AND " + ES_REPRODUCCION + " GROUP BY 1, 2, 3, 4"},
+    };
+
+    /**
+     * Suma a los conteos las reproducciones con ID mayor al indicado. Debe ejecutarse en la
+     * misma transacción que insertó esas reproducciones.
+     *
+     * @param conn Conexión de escritura con la transacción abierta.
+     * @param desdeId Mayor id_reproduccion ya acumulado.
+     * @throws Exception si ocurre un error al escribir.
+     */
+    static void acumular(Connection conn, long desdeId) throws Exception {
+        for (String[] conteo : CONTEOS) {
+            // El WHERE del origen evita la ambigüedad de SQLite entre SELECT y ON CONFLICT
+            String query = "INSERT INTO " + conteo[0] + "(" + conteo[1] + ", periodo, inicio, reproducciones) "
+                    + conteo[3] + " ON CONFLICT(" + conteo[2] + ") DO UPDATE SET reproducciones = reproducciones + excluded.reproducciones";
+            try (PreparedStatement ps = conn.prepareStatement(query)) {
+                ps.setLong(1, desdeId);
+                ps.executeUpdate();
+            }
+        }
+    }
+
+    /**
+     * Recupera las entidades más reproducidas en un periodo.
+     *
+     * @param agregado Entidad que se cuenta.
+     * @param periodo Día, semana o total.
+     * @param fecha Cualquier fecha dentro del periodo (se ignora para TOTAL).
+     * @param limite Cantidad máxima de resultados.
+     * @return Conteos de mayor a menor; a igual cantidad, por ID.
+     * @throws Exception si ocurre un error al acceder a la base de datos.
+     */
+    public List<ConteoReproduccionDTO> buscarMasReproducidos(AgregadoReproduccion agregado, PeriodoConteo periodo,
+                                                             LocalDate fecha, int limite) throws Exception {
+        String[] conteo = CONTEOS[agregado.ordinal()];
+        String query = "SELECT " + conteo[1] + " AS id, reproducciones FROM " + conteo[0]
+                + " WHERE periodo = ? AND inicio = ? ORDER BY reproducciones DESC, " + conteo[1] + " LIMIT ?";
+        List<ConteoReproduccionDTO> lista = new ArrayList<>();
+        try (Connection conn = openReadConnection();
+             PreparedStatement ps = conn.prepareStatement(query)) {
+            ps.setString(1, periodo.name());
+            ps.setString(2, inicioDe(periodo, fecha));
+            ps.setInt(3, limite);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    lista.add(new ConteoReproduccionDTO(rs.getInt("id"), rs.getLong("reproducciones")));
+                }
+            }
+        } catch (Exception e) {
+            throw new Exception("Error al obtener los más reproducidos: " + e.getMessage(), e);
+        }
+        return lista;
+    }
+
+    /**
+     * Recupera las canciones más reproducidas de un conjunto de géneros en un periodo.
+     *
+     * <p>Lee las primeras {@code limite} canciones de cada género por el índice
+     * {@code idx_conteo_genero_cancion_ranking} y las combina, así que el costo depende de
+     * la cantidad de géneros y del límite, no del tamaño del historial.</p>
+     *
+     * @param idsGeneros IDs de los géneros.
+     * @param periodo Día, semana o total.
+     * @param fecha Cualquier fecha dentro del periodo (se ignora para TOTAL).
+     * @param limite Cantidad máxima de canciones.
+     * @return Conteos por canción de mayor a menor; a igual cantidad, por ID.
+     * @throws Exception si ocurre un error al acceder a la base de datos.
+     */
+    public List<ConteoReproduccionDTO> buscarMasReproducidasEnGeneros(Collection<Integer> idsGeneros, PeriodoConteo periodo,
+                                                                      LocalDate fecha, int limite) throws Exception {
+        String query = "SELECT id_cancion, reproducciones FROM Conteo_Genero_Cancion "
+                + "WHERE id_genero = ? AND periodo = ? AND inicio = ? ORDER BY reproducciones DESC, id_cancion LIMIT ?";
+        // Una canción de varios géneros aparece en cada uno con la misma cantidad
+        Map<Integer, Long> porCancion = new HashMap<>();
+        try (Connection conn = openReadConnection();
+             PreparedStatement ps = conn.prepareStatement(query)) {
+            for (Integer idGenero : idsGeneros) {
+                ps.setInt(1, idGenero);
+                ps.setString(2, periodo.name());
+                ps.setString(3, inicioDe(periodo, fecha));
+                ps.setInt(4, limite);
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        porCancion.put(rs.getInt("id_cancion"), rs.getLong("reproducciones"));
+                    }
+                }
+            }
+        } catch (Exception e) {
+            throw new Exception("Error al obtener las canciones populares por género: " + e.getMessage(), e);
+        }
+
+        List<ConteoReproduccionDTO> lista = new ArrayList<>(porCancion.size());
+        porCancion.forEach((id, reproducciones) -> lista.add(new ConteoReproduccionDTO(id, reproducciones)));
+        lista.sort((a, b) -> a.getReproducciones() != b.getReproducciones()
+                ? Long.compare(b.getReproducciones(), a.getReproducciones())
+                : Integer.compare(a.getId(), b.getId()));
+        return lista.size() > limite ? new ArrayList<>(lista.subList(0, limite)) : lista;
+    }
+
+    /**
+     * Borra todos los conteos y los vuelve a calcular desde la tabla Reproduccion, en una
+     * sola transacción.
+     *
+     * @return Filas de conteo escritas.
+     * @throws Exception si ocurre un error; en ese caso los conteos quedan como estaban.
+     */
+    public int reconstruir() throws Exception {
+        Connection conn = null;
+        try {
+            conn = openConnection();
+            conn.setAutoCommit(false);
+            int filas = 0;
+            try (Statement stmt = conn.createStatement()) {
+                for (String[] conteo : CONTEOS) {
+                    stmt.executeUpdate("DELETE FROM " + conteo[0]);
+                }
+            }
+            acumular(conn, 0);
+            try (Statement stmt = conn.createStatement()) {
+                for (String[] conteo : CONTEOS) {
+                    try (ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM " + conteo[0])) {
+                        filas += rs.next() ? rs.getInt(1) : 0;
+                    }
+                }
+            }
+            conn.commit();
+            return filas;
+        } catch (Exception e) {
+            if (conn != null) {
+                conn.rollback();
+            }
+            throw new Exception("Error al reconstruir los conteos de reproducciones: " + e.getMessage(), e);
+        } finally {
+            if (conn != null) {
+                conn.setAutoCommit(true);
+                conn.close();
+            }
+        }
+    }
+
+    /**
+     * Compara cada tabla de conteos con un cálculo completo desde Reproduccion.
+     *
+     * @return Por tabla, las filas que sobran más las que faltan (una fila con otra cantidad
+     *         cuenta en ambos lados); todas en 0 si los conteos incrementales son correctos.
+     * @throws Exception si ocurre un error al acceder a la base de datos.
+     */
+    public Map<String, Integer> verificar() throws Exception {
+        Map<String, Integer> diferencias = new LinkedHashMap<>();
+        try (Connection conn = openReadConnection()) {
+            for (String[] conteo : CONTEOS) {
+                String guardado = "SELECT " + conteo[1] + ", periodo, inicio, reproducciones FROM " + conteo[0];
+                String query = "SELECT (SELECT COUNT(*) FROM (" + guardado + " EXCEPT " + conteo[3] + ")) + "
+                        + "(SELECT COUNT(*) FROM (" + conteo[3] + " EXCEPT " + guardado + "))";
+                try (PreparedStatement ps = conn.prepareStatement(query)) {
+                    ps.setLong(1, 0);
+                    ps.setLong(2, 0);
+                    try (ResultSet rs = ps.executeQuery()) {
+                        diferencias.put(conteo[0], rs.next() ? rs.getInt(1) : 0);
+                    }
+                }
+            }
+        } catch (Exception e) {
+            throw new Exception("Error al verificar los conteos de reproducciones: " + e.getMessage(), e);
+        }
+        return diferencias;
+    }
+
+    /**
+     * Valor de la columna inicio para el periodo que contiene una fecha.
+     */
+    private static String inicioDe(PeriodoConteo periodo, LocalDate fecha) {
+        switch (periodo) {
+            case DIA:
+                return fecha.toString();
+            case SEMANA:
+                return fecha.with(DayOfWeek.MONDAY).toString();
+            default:
+                return "";
+        }
+    }
+}
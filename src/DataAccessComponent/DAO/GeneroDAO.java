@@ -1,9 +1,6 @@
 package DataAccessComponent.DAO;
 
 //imports
-import java.sql.Connection;
-import java.sql.PreparedStatement;
-import java.sql.ResultSet;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -45,23 +42,13 @@ public class GeneroDAO extends SQLiteDataHelper {
      * @throws SQLException Si ocurre un error durante la ejecución de la consulta SQL
      */
     public static List<String> obtenerTodos() {
-        List<String> generos = new ArrayList<>();
-        String sql = "SELECT nombre_genero FROM Genero";
-
         try {
-            Connection conn = openConnection();
-            PreparedStatement ps = conn.prepareStatement(sql);
-            ResultSet rs = ps.executeQuery();
-
-            while (rs.next()) {
-                generos.add(rs.getString("nombre_genero"));
-            }
-
+            // La tabla Genero no cambia: después de la primera lectura se sirve desde memoria
+            return CacheEntidades.getInstancia().nombresGeneros();
         } catch (Exception e) {
             System.err.println("Error al obtener géneros desde la base de datos:");
             e.printStackTrace();
+            return new ArrayList<>();
         }
-
-        return generos;
     }
 }
\ No newline at end of file
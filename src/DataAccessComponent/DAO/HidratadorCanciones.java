@@ -0,0 +1,88 @@
+/*
+|-----------------------------------------------|
+| © 2025 EPN-FIS, Todos los derechos reservados |
+| GR1SW                                         |
+|-----------------------------------------------|
+Autores: Grupo A
+Descripción: Carga por lotes de los artistas y géneros de un conjunto de canciones.
+*/
+
+package DataAccessComponent.DAO;
+
+import BusinessLogic.Genero;
+import DataAccessComponent.DTO.ArtistaDTO;
+import DataAccessComponent.DTO.CancionResumenDTO;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Clase HidratadorCanciones que completa las relaciones de varias canciones a la vez.
+ *
+ * <p>Los artistas y géneros de cada canción se piden a {@link CacheEntidades}, que los tiene
+ * en memoria después de la primera lectura. Para las canciones que todavía no conoce, en
+ * lugar de consultar {@code Cancion_Artista} y {@code Cancion_Genero} una vez por canción,
+ * ejecuta una sola consulta por tabla de relación sobre todo el conjunto de IDs. Así,
+ * hidratar un catálogo completo cuesta unas pocas consultas sin importar cuántas canciones
+ * tenga, y ninguna si ya se hidrató antes.</p>
+ *
+ * <p>Los IDs viajan como un único parámetro con un arreglo JSON que se expande con
+ * {@code json_each}, de modo que no se alcanza el límite de parámetros por sentencia de
+ * SQLite ni hace falta dividir la consulta en bloques.</p>
+ *
+ * @author Grupo A
+ * @version 1.0
+ * @since 18-07-2025
+ */
+class HidratadorCanciones {
+
+    /** Subconsulta que expande el arreglo JSON de IDs recibido como parámetro */
+    static final String IDS_PARAMETRO = "SELECT value FROM json_each(?)";
+
+    /**
+     * Asigna artistas y géneros a cada canción de la lista, leyendo de la base solo los de
+     * las canciones que no están en {@link CacheEntidades}.
+     *
+     * @param canciones Canciones cuyo ID ya está establecido.
+     * @throws Exception si ocurre un error al acceder a la base de datos.
+     */
+    void hidratar(List<? extends CancionResumenDTO> canciones) throws Exception {
+        if (canciones.isEmpty()) {
+            return;
+        }
+        List<Integer> ids = new ArrayList<>(canciones.size());
+        for (CancionResumenDTO cancion : canciones) {
+            ids.add(cancion.getIdCancion());
+        }
+
+        Map<Integer, List<ArtistaDTO>> artistas = new HashMap<>();
+        Map<Integer, List<Genero>> generos = new HashMap<>();
+        CacheEntidades.getInstancia().relacionesDe(ids, artistas, generos);
+
+        for (CancionResumenDTO cancion : canciones) {
+            cancion.setArtistas(artistas.getOrDefault(cancion.getIdCancion(), new ArrayList<>()));
+            cancion.setGeneros(generos.getOrDefault(cancion.getIdCancion(), new ArrayList<>()));
+        }
+    }
+
+    /**
+     * Serializa los IDs como arreglo JSON (por ejemplo {@code [1,2,3]}) para usarlos con
+     * {@link #IDS_PARAMETRO}.
+     *
+     * @param ids IDs a serializar.
+     * @return Arreglo JSON con los IDs en el orden recibido.
+     */
+    static String comoArregloJson(Collection<Integer> ids) {
+        StringBuilder sb = new StringBuilder(ids.size() * 6 + 2).append('[');
+        for (Integer id : ids) {
+            if (sb.length() > 1) {
+                sb.append(',');
+            }
+            sb.append(id.intValue());
+        }
+        return sb.append(']').toString();
+    }
+}
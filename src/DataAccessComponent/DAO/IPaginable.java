@@ -0,0 +1,47 @@
+package DataAccessComponent.DAO;
+import java.util.List;
+
+/**
+ * Interfaz para los DAO que pueden leer una tabla por páginas en orden de ID.
+ *
+ * <p>Las páginas se piden por clave ({@code WHERE id > ? ORDER BY id LIMIT ?}) y no por
+ * desplazamiento: cada página cuesta lo mismo sin importar en qué parte de la tabla esté,
+ * porque SQLite baja directo por el índice de la clave primaria hasta el ID indicado.</p>
+ *
+ * <p>Para saltar a una posición sin haber leído las páginas anteriores (por ejemplo, al
+ * arrastrar la barra de desplazamiento) se obtiene primero el ID en esa posición con
+ * {@link #buscarIdEnPosicion(int)} y desde ahí se sigue por clave.</p>
+ *
+ * @param <T> El tipo de entidad de cada fila
+ * @author Grupo A
+ * @version 1.0
+ * @since 18-07-2025
+ */
+public interface IPaginable<T> {
+    /**
+     * Cuenta las filas de la tabla.
+     *
+     * @return Cantidad de filas
+     * @throws Exception Si ocurre un error durante la consulta a la base de datos
+     */
+    public int contar() throws Exception;
+
+    /**
+     * Busca el ID de la fila que ocupa una posición en orden de ID.
+     *
+     * @param posicion Posición empezando en 0
+     * @return ID en esa posición, o null si la tabla tiene menos filas
+     * @throws Exception Si ocurre un error durante la consulta a la base de datos
+     */
+    public Integer buscarIdEnPosicion(int posicion) throws Exception;
+
+    /**
+     * Recupera las filas siguientes a un ID, en orden de ID.
+     *
+     * @param despuesDeId Se devuelven las filas con ID mayor a este; 0 para empezar
+     * @param limite Cantidad máxima de filas
+     * @return Filas de la página; menos que {@code limite} si se llegó al final
+     * @throws Exception Si ocurre un error durante la consulta a la base de datos
+     */
+    public List<T> buscarPagina(int despuesDeId, int limite) throws Exception;
+}
@@ -0,0 +1,231 @@
+/*
+|-----------------------------------------------|
+| © 2025 EPN-FIS, Todos los derechos reservados |
+| GR1SW                                         |
+|-----------------------------------------------|
+Autores: Grupo A
+Descripción: Registro por lotes de las canciones de la importación masiva de MP3.
+*/
+
+package DataAccessComponent.DAO;
+
+import BusinessLogic.Genero;
+import DataAccessComponent.DTO.ArchivoImportadoDTO;
+import DataAccessComponent.DTO.ArtistaDTO;
+import DataAccessComponent.DTO.CancionDTO;
+import DataAccessComponent.DTO.MetadatosAudioDTO;
+import DataAccessComponent.SQLiteDataHelper;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Clase ImportacionDAO que registra muchas canciones a la vez para la importación masiva
+ * de una carpeta de MP3.
+ *
+ * <p>A diferencia de {@link CancionDAO#registrar(CancionDTO)}, que inserta una fila por
+ * sentencia y confirma cada una, un lote completo se escribe en una sola transacción con
+ * sentencias {@code INSERT} de varias filas en {@code Cancion}, {@code Cancion_Artista},
+ * {@code Cancion_Genero} e {@code Importacion_Archivo}. Los IDs de las canciones se asignan
+ * dentro de la transacción a partir del mayor ID usado, lo que es seguro porque la conexión
+ * de escritura es única.</p>
+ *
+ * <p>Como los archivos quedan registrados en la misma transacción que sus canciones, una
+ * importación interrumpida no deja canciones a medias y al reanudarla
+ * {@link #buscarArchivosImportados()} indica qué archivos omitir.</p>
+ *
+ * @author Grupo A
+ * @version 1.0
+ * @since 18-07-2025
+ */
+public class ImportacionDAO extends SQLiteDataHelper {
+
+    /** Canciones por sentencia; cada una lleva su audio, así que se insertan pocas a la vez */
+    private static final int FILAS_CANCION = 16;
+
+    /** Filas por sentencia en las tablas de relación (dos parámetros por fila) */
+    private static final int FILAS_RELACION = 400;
+
+    /** Filas por sentencia en Importacion_Archivo (cinco parámetros por fila) */
+    private static final int FILAS_ARCHIVO = 150;
+
+    private static final String INSERTAR_CANCION = "INSERT INTO Cancion(id_cancion, titulo, archivo_mp3, duracion, anio, "
+            + "portada, fecha_registro, tabla_busqueda, bitrate, frecuencia_muestreo, es_vbr, total_frames, "
+            + "portada_miniatura) VALUES ";
+
+    private final CacheEntidades cache = CacheEntidades.getInstancia();
+
+    /**
+     * Recupera los archivos importados anteriormente.
+     *
+     * @return Huella ({@code tamaño:modificado}) de cada archivo por su ruta
+     * @throws Exception si ocurre un error al acceder a la base de datos
+     */
+    public Map<String, String> buscarArchivosImportados() throws Exception {
+        Map<String, String> archivos = new HashMap<>();
+        String sql = "SELECT ruta, tamanio, modificado FROM Importacion_Archivo";
+        try (Connection conn = openReadConnection();
+             PreparedStatement ps = conn.prepareStatement(sql);
+             ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) {
+                archivos.put(rs.getString("ruta"), huella(rs.getLong("tamanio"), rs.getLong("modificado")));
+            }
+        } catch (Exception e) {
+            throw new Exception("Error al buscar los archivos importados: " + e.getMessage(), e);
+        }
+        return archivos;
+    }
+
+    /**
+     * Registra en una sola transacción las canciones de un lote, sus relaciones y los
+     * archivos de los que provienen. Si algo falla no se guarda nada del lote.
+     *
+     * @param lote Archivos con su canción; los artistas de cada canción ya deben tener ID
+     * @return Cantidad de canciones registradas; al terminar, cada canción tiene su ID asignado
+     * @throws Exception si ocurre un error al escribir en la base de datos
+     */
+    public int registrarLote(List<ArchivoImportadoDTO> lote) throws Exception {
+        if (lote.isEmpty()) {
+            return 0;
+        }
+        List<Object[]> canciones = new ArrayList<>(lote.size());
+        List<Object[]> artistas = new ArrayList<>();
+        List<Object[]> generos = new ArrayList<>();
+        List<Object[]> archivos = new ArrayList<>(lote.size());
+        List<Integer> ids = new ArrayList<>(lote.size());
+        String ahora = LocalDateTime.now().toString();
+
+        Connection conn = null;
+        ReferenciasBlob blobs = null;
+        try {
+            conn = openConnection();
+            conn.setAutoCommit(false);
+            blobs = new ReferenciasBlob(conn);
+            int siguiente = siguienteIdCancion(conn);
+            for (ArchivoImportadoDTO archivo : lote) {
+                CancionDTO cancion = archivo.getCancion();
+                int id = siguiente++;
+                ids.add(id);
+                canciones.add(filaCancion(id, cancion, blobs));
+                for (ArtistaDTO artista : cancion.getArtistas()) {
+                    if (artista.getId() <= 0) {
+                        throw new IllegalArgumentException("el artista " + artista.getNombre() + " no tiene ID");
+                    }
+                    artistas.add(new Object[]{id, artista.getId()});
+                }
+                for (Genero genero : cancion.getGeneros()) {
+                    generos.add(new Object[]{id, genero.ordinal() + 1}); // Se asume que el ID en BD coincide con el orden del enum
+                }
+                archivos.add(new Object[]{archivo.getRuta(), archivo.getTamanio(), archivo.getModificado(), id, ahora});
+            }
+
+            insertarFilas(conn, INSERTAR_CANCION, 13, FILAS_CANCION, canciones);
+            insertarFilas(conn, "INSERT OR IGNORE INTO Cancion_Artista(id_cancion, id_artista) VALUES ", 2, FILAS_RELACION, artistas);
+            insertarFilas(conn, "INSERT OR IGNORE INTO Cancion_Genero(id_cancion, id_genero) VALUES ", 2, FILAS_RELACION, generos);
+            insertarFilas(conn, "INSERT OR REPLACE INTO Importacion_Archivo(ruta, tamanio, modificado, id_cancion, fecha_importacion) VALUES ",
+                    5, FILAS_ARCHIVO, archivos);
+            conn.commit();
+            blobs.confirmar();
+        } catch (Exception e) {
+            if (conn != null) {
+                conn.rollback();
+                if (blobs != null) {
+                    blobs.deshacer();
+                }
+            }
+            throw new Exception("Error al registrar el lote de canciones importadas: " + e.getMessage(), e);
+        } finally {
+            if (conn != null) {
+                conn.setAutoCommit(true);
+                conn.close();
+            }
+        }
+
+        for (int i = 0; i < lote.size(); i++) {
+            lote.get(i).getCancion().setIdCancion(ids.get(i));
+            cache.invalidarCancion(ids.get(i));
+        }
+        return lote.size();
+    }
+
+    /**
+     * @return Huella con la que se detecta si un archivo cambió desde que se importó
+     */
+    public static String huella(long tamanio, long modificado) {
+        return tamanio + ":" + modificado;
+    }
+
+    /**
+     * Primer ID libre de Cancion: mayor que cualquier ID usado, aunque su canción se haya
+     * eliminado, para no reutilizar IDs que otras partes (como la caché de audio) recuerdan.
+     */
+    private static int siguienteIdCancion(Connection conn) throws SQLException {
+        String sql = "SELECT MAX(COALESCE((SELECT MAX(id_cancion) FROM Cancion), 0), "
+                + "COALESCE((SELECT seq FROM sqlite_sequence WHERE name = 'Cancion'), 0)) + 1";
+        try (PreparedStatement ps = conn.prepareStatement(sql);
+             ResultSet rs = ps.executeQuery()) {
+            return rs.next() ? rs.getInt(1) : 1;
+        }
+    }
+
+    /**
+     * Valores de la fila de una canción; el audio y la portada se guardan en el almacén de
+     * blobs y la fila lleva su hash.
+     */
+    private static Object[] filaCancion(int id, CancionDTO cancion, ReferenciasBlob blobs) throws Exception {
+        MetadatosAudioDTO metadatos = cancion.getMetadatosAudio();
+        return new Object[]{
+                id, cancion.getTitulo(), blobs.guardar(cancion.getArchivoMP3()), cancion.getDuracion(), cancion.getAnio(),
+                blobs.guardar(cancion.getPortada()), cancion.getFechaRegistro().toString(), cancion.getTablaBusqueda(),
+                metadatos != null ? metadatos.getBitrate() : null,
+                metadatos != null ? metadatos.getFrecuenciaMuestreo() : null,
+                metadatos != null ? (metadatos.isVbr() ? 1 : 0) : null,
+                metadatos != null ? metadatos.getTotalFrames() : null,
+                cancion.getPortadaMiniatura(),
+        };
+    }
+
+    /**
+     * Inserta filas con sentencias de hasta {@code filasPorSentencia} filas cada una.
+     *
+     * @param insercion Inicio de la sentencia hasta {@code VALUES } inclusive
+     * @param columnas Valores por fila
+     */
+    private static void insertarFilas(Connection conn, String insercion, int columnas, int filasPorSentencia,
+                                      List<Object[]> filas) throws SQLException {
+        String fila = "(" + "?, ".repeat(columnas - 1) + "?)";
+        for (int desde = 0; desde < filas.size(); desde += filasPorSentencia) {
+            int cantidad = Math.min(filasPorSentencia, filas.size() - desde);
+            // Los lotes completos repiten el mismo SQL y reutilizan la sentencia compilada
+            String sql = insercion + String.join(", ", Collections.nCopies(cantidad, fila));
+            try (PreparedStatement ps = conn.prepareStatement(sql)) {
+                int indice = 1;
+                for (Object[] valores : filas.subList(desde, desde + cantidad)) {
+                    for (Object valor : valores) {
+                        asignar(ps, indice++, valor);
+                    }
+                }
+                ps.executeUpdate();
+            }
+        }
+    }
+
+    private static void asignar(PreparedStatement ps, int indice, Object valor) throws SQLException {
+        if (valor == null) {
+            ps.setNull(indice, Types.NULL);
+        } else if (valor instanceof byte[]) {
+            ps.setBytes(indice, (byte[]) valor);
+        } else {
+            ps.setObject(indice, valor);
+        }
+    }
+}
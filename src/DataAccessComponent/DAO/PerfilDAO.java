@@ -26,7 +26,7 @@ import java.text.SimpleDateFormat;
  * @version 1.0
  * @since 1.0
  */
-public class PerfilDAO extends SQLiteDataHelper {
+public class PerfilDAO extends SQLiteDataHelper implements IPaginable<PerfilDTO> {
 
     /**
      * Constructor por defecto de PerfilDAO.
@@ -62,9 +62,8 @@ public class PerfilDAO extends SQLiteDataHelper {
                     VALUES (?, ?, ?, ?, ?, ?, ?)
                 """;
 
-        try {
-            Connection conn = openConnection();
-            PreparedStatement pstmt = conn.prepareStatement(sql);
+        try (Connection conn = openConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
 
             pstmt.setString(1, perfil.getNombre());
             pstmt.setString(2, perfil.getApellido());
@@ -75,7 +74,6 @@ public class PerfilDAO extends SQLiteDataHelper {
             pstmt.setString(7, perfil.getTipoUsuario().toString());
 
             pstmt.executeUpdate();
-            pstmt.close();
         } catch (Exception e) {
             e.printStackTrace();
         }
@@ -98,20 +96,15 @@ public class PerfilDAO extends SQLiteDataHelper {
     public PerfilDTO buscarPorEmail(String correo) {
         String sql = "SELECT * FROM Usuario WHERE correo = ?";
 
-        try {
-            Connection conn = openConnection();
-            PreparedStatement pstmt = conn.prepareStatement(sql);
+        try (Connection conn = openReadConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
             pstmt.setString(1, correo);
             ResultSet rs = pstmt.executeQuery();
 
             if (rs.next()) {
                 PerfilDTO perfil = crearPerfilDesdeResultSet(rs);
-                rs.close();
-                pstmt.close();
                 return perfil;
             }
-            rs.close();
-            pstmt.close();
         } catch (Exception e) {
             e.printStackTrace();
         }
@@ -134,22 +127,96 @@ public class PerfilDAO extends SQLiteDataHelper {
         List<PerfilDTO> perfiles = new ArrayList<>();
         String sql = "SELECT * FROM Usuario";
 
-        try {
-            Connection conn = openConnection();
-            Statement stmt = conn.createStatement();
-            ResultSet rs = stmt.executeQuery(sql);
+        try (Connection conn = openReadConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql);
+             ResultSet rs = stmt.executeQuery()) {
 
             while (rs.next()) {
                 perfiles.add(crearPerfilDesdeResultSet(rs));
             }
-            rs.close();
-            stmt.close();
         } catch (Exception e) {
             e.printStackTrace();
         }
         return perfiles;
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int contar() throws Exception {
+        return contarFilas("Usuario");
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Integer buscarIdEnPosicion(int posicion) throws Exception {
+        return buscarIdEnPosicion("Usuario", "id_usuario", posicion);
+    }
+
+    /**
+     * Obtiene una página de perfiles de usuario en orden de ID.
+     *
+     * @param despuesDeId Se devuelven los usuarios con ID mayor a este; 0 para empezar
+     * @param limite Cantidad máxima de usuarios
+     * @return Los perfiles de la página
+     *
+     * @throws Exception Si ocurre un error durante la ejecución de la consulta SQL
+     */
+    @Override
+    public List<PerfilDTO> buscarPagina(int despuesDeId, int limite) throws Exception {
+        List<PerfilDTO> perfiles = new ArrayList<>();
+        String sql = "SELECT * FROM Usuario WHERE id_usuario > ? ORDER BY id_usuario LIMIT ?";
+
+        try (Connection conn = openReadConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setInt(1, despuesDeId);
+            stmt.setInt(2, limite);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    perfiles.add(crearPerfilDesdeResultSet(rs));
+                }
+            }
+        } catch (Exception e) {
+            throw new Exception("Error al obtener la página de usuarios: " + e.getMessage(), e);
+        }
+        return perfiles;
+    }
+
+    /**
+     * Busca los perfiles cuyo correo empieza con un texto, en orden de correo.
+     *
+     * <p>El filtro se resuelve en SQLite, sin traer todos los usuarios a memoria, y no
+     * distingue mayúsculas. Los caracteres % y _ del texto se buscan literalmente.</p>
+     *
+     * @param prefijo Comienzo del correo
+     * @param limite Cantidad máxima de perfiles
+     * @return Los perfiles encontrados
+     *
+     * @throws Exception Si ocurre un error durante la ejecución de la consulta SQL
+     */
+    public List<PerfilDTO> buscarPorCorreoPrefijo(String prefijo, int limite) throws Exception {
+        List<PerfilDTO> perfiles = new ArrayList<>();
+        String sql = "SELECT * FROM Usuario WHERE correo LIKE ? ESCAPE '\\' ORDER BY correo LIMIT ?";
+        String patron = prefijo.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+
+        try (Connection conn = openReadConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setString(1, patron);
+            stmt.setInt(2, limite);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    perfiles.add(crearPerfilDesdeResultSet(rs));
+                }
+            }
+        } catch (Exception e) {
+            throw new Exception("Error al buscar usuarios por correo: " + e.getMessage(), e);
+        }
+        return perfiles;
+    }
+
     /**
      * Elimina un perfil de usuario de la base de datos.
      * 
@@ -166,12 +233,10 @@ public class PerfilDAO extends SQLiteDataHelper {
     public void eliminar(PerfilDTO perfil) {
         String sql = "DELETE FROM Usuario WHERE Correo = ?";
 
-        try {
-            Connection conn = openConnection();
-            PreparedStatement pstmt = conn.prepareStatement(sql);
+        try (Connection conn = openConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
             pstmt.setString(1, perfil.getCorreo());
             pstmt.executeUpdate();
-            pstmt.close();
         } catch (Exception e) {
             e.printStackTrace();
         }
@@ -199,16 +264,14 @@ public class PerfilDAO extends SQLiteDataHelper {
                     WHERE correo = ?
                 """;
 
-        try {
-            Connection conn = openConnection();
-            PreparedStatement pstmt = conn.prepareStatement(sql);
+        try (Connection conn = openConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
 
             pstmt.setString(1, perfil.getEstado_cuenta());
             pstmt.setString(2, perfil.getTipoUsuario().toString());
             pstmt.setString(3, perfil.getCorreo());
 
             pstmt.executeUpdate();
-            pstmt.close();
         } catch (Exception e) {
             e.printStackTrace();
         }
@@ -230,12 +293,10 @@ public class PerfilDAO extends SQLiteDataHelper {
     public void desactivar(PerfilDTO perfil) {
         String sql = "UPDATE Usuario SET cuenta_activa = 0 WHERE Correo = ?";
 
-        try {
-            Connection conn = openConnection();
-            PreparedStatement pstmt = conn.prepareStatement(sql);
+        try (Connection conn = openConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
             pstmt.setString(1, perfil.getCorreo());
             pstmt.executeUpdate();
-            pstmt.close();
         } catch (Exception e) {
             e.printStackTrace();
         }
@@ -257,6 +318,7 @@ public class PerfilDAO extends SQLiteDataHelper {
     private PerfilDTO crearPerfilDesdeResultSet(ResultSet rs) throws SQLException {
 
         PerfilDTO perfil = new PerfilDTO();
+        perfil.setIdUsuario(rs.getInt(1));
         perfil.setNombre(rs.getString(2));
         perfil.setApellido(rs.getString(3));
         perfil.setCorreo(rs.getString(4));
@@ -9,6 +9,7 @@ DAO para gestionar operaciones CRUD de playlists en la base de datos.
 package DataAccessComponent.DAO;
 
 import DataAccessComponent.DTO.PlaylistDTO;
+import DataAccessComponent.DTO.DocumentoBusquedaDTO;
 import DataAccessComponent.DTO.CancionDTO;
 import DataAccessComponent.SQLiteDataHelper;
 import BusinessLogic.ServicioValidacionPlaylist;
@@ -16,7 +17,10 @@ import BusinessLogic.ServicioValidacionPlaylist;
 import java.sql.*;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Clase PlaylistDAO que implementa operaciones CRUD sobre la entidad Playlist.
@@ -26,7 +30,7 @@ import java.util.List;
  * @version 1.0
  * @since 31-07-2025
  */
-public class PlaylistDAO extends SQLiteDataHelper implements IDAO<PlaylistDTO> {
+public class PlaylistDAO extends SQLiteDataHelper implements IDAO<PlaylistDTO>, IPaginable<PlaylistDTO> {
 
     private ServicioValidacionPlaylist validador = new ServicioValidacionPlaylist();
 
@@ -48,51 +52,50 @@ public class PlaylistDAO extends SQLiteDataHelper implements IDAO<PlaylistDTO> {
         String insertCancionPlaylist = "INSERT INTO playlist_elementos(id_playlist, id_cancion, orden) VALUES (?, ?, ?)";
 
         Connection conn = null;
+        ReferenciasBlob blobs = null;
         try {
             conn = openConnection();
             conn.setAutoCommit(false); // Iniciar transacción
+            blobs = new ReferenciasBlob(conn);
 
             // Insertar playlist
-            PreparedStatement psPlaylist = conn.prepareStatement(insertPlaylist, Statement.RETURN_GENERATED_KEYS);
-            psPlaylist.setString(1, playlist.getTituloPlaylist());
-            psPlaylist.setString(2, playlist.getDescripcion());
-            psPlaylist.setInt(3, playlist.getIdPropietario());
-            psPlaylist.setBytes(4, playlist.getImagenPortada());
-            psPlaylist.setString(5, playlist.getFechaCreacion().toString());
-
-            psPlaylist.executeUpdate();
-
-            // Obtener ID generado
-            ResultSet rs = psPlaylist.getGeneratedKeys();
-            if (rs.next()) {
-                int idPlaylist = rs.getInt(1);
-                playlist.setIdPlaylist(idPlaylist);
-
-                // Insertar canciones de la playlist
-                if (playlist.getCancionesIds() != null && !playlist.getCancionesIds().isEmpty()) {
-                    PreparedStatement psCancion = conn.prepareStatement(insertCancionPlaylist);
-                    int orden = 1;
-
-                    for (Integer idCancion : playlist.getCancionesIds()) {
-                        psCancion.setInt(1, idPlaylist);
-                        psCancion.setInt(2, idCancion);
-                        psCancion.setInt(3, orden++);
-                        psCancion.executeUpdate();
+            try (PreparedStatement psPlaylist = conn.prepareStatement(insertPlaylist, Statement.RETURN_GENERATED_KEYS)) {
+                psPlaylist.setString(1, playlist.getTituloPlaylist());
+                psPlaylist.setString(2, playlist.getDescripcion());
+                psPlaylist.setInt(3, playlist.getIdPropietario());
+                psPlaylist.setString(4, blobs.guardar(playlist.getImagenPortada()));
+                psPlaylist.setString(5, playlist.getFechaCreacion().toString());
+
+                psPlaylist.executeUpdate();
+
+                // Obtener ID generado
+                try (ResultSet rs = psPlaylist.getGeneratedKeys()) {
+                    if (rs.next()) {
+                        int idPlaylist = rs.getInt(1);
+                        playlist.setIdPlaylist(idPlaylist);
+
+                        // Insertar canciones de la playlist
+                        insertarCanciones(conn, insertCancionPlaylist, idPlaylist, playlist.getCancionesIds());
                     }
                 }
             }
 
             conn.commit(); // Confirmar transacción
+            blobs.confirmar();
             return true;
 
         } catch (Exception e) {
             if (conn != null) {
                 conn.rollback(); // Revertir cambios si hay error
+                if (blobs != null) {
+                    blobs.deshacer();
+                }
             }
             throw e;
         } finally {
             if (conn != null) {
                 conn.setAutoCommit(true);
+                conn.close(); // Devolver la conexión de escritura al pool
             }
         }
     }
@@ -109,35 +112,111 @@ public class PlaylistDAO extends SQLiteDataHelper implements IDAO<PlaylistDTO> {
      *
      * @return Lista de todas las playlists registradas en el sistema
      * @throws Exception si hay errores en la consulta a la base de datos
-     * @see #obtenerCancionesDePlaylist(int)
+     * @see #asignarCancionesIds(List)
      */
     @Override
     public List<PlaylistDTO> buscarTodo() throws Exception {
         List<PlaylistDTO> playlists = new ArrayList<>();
         String query = "SELECT id_playlist, titulo, descripcion, id_propietario, imagen_portada, fecha_creacion FROM Playlist";
 
-        Connection conn = openConnection();
-        Statement stmt = conn.createStatement();
-        ResultSet rs = stmt.executeQuery(query);
+        try (Connection conn = openReadConnection();
+             PreparedStatement stmt = conn.prepareStatement(query);
+             ResultSet rs = stmt.executeQuery()) {
 
-        while (rs.next()) {
-            PlaylistDTO playlist = new PlaylistDTO();
-            playlist.setIdPlaylist(rs.getInt("id_playlist"));
-            playlist.setTituloPlaylist(rs.getString("titulo"));
-            playlist.setDescripcion(rs.getString("descripcion"));
-            playlist.setIdPropietario(rs.getInt("id_propietario"));
-            playlist.setImagenPortada(rs.getBytes("imagen_portada"));
-            playlist.setFechaCreacion(LocalDateTime.parse(rs.getString("fecha_creacion")));
+            while (rs.next()) {
+                PlaylistDTO playlist = new PlaylistDTO();
+                playlist.setIdPlaylist(rs.getInt("id_playlist"));
+                playlist.setTituloPlaylist(rs.getString("titulo"));
+                playlist.setDescripcion(rs.getString("descripcion"));
+                playlist.setIdPropietario(rs.getInt("id_propietario"));
+                playlist.setImagenPortada(ReferenciasBlob.leer(rs, "imagen_portada"));
+                playlist.setFechaCreacion(LocalDateTime.parse(rs.getString("fecha_creacion")));
 
-            // Obtener IDs de canciones
-            playlist.setCancionesIds(obtenerCancionesDePlaylist(playlist.getIdPlaylist()));
+                playlists.add(playlist);
+            }
+
+            // Obtener IDs de canciones de todas las playlists a la vez
+            asignarCancionesIds(playlists);
 
-            playlists.add(playlist);
+            return playlists;
         }
+    }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int contar() throws Exception {
+        return contarFilas("Playlist");
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Integer buscarIdEnPosicion(int posicion) throws Exception {
+        return buscarIdEnPosicion("Playlist", "id_playlist", posicion);
+    }
+
+    /**
+     * Recupera una página de playlists con los IDs de sus canciones, en orden de ID.
+     *
+     * @param despuesDeId Se devuelven las playlists con ID mayor a este; 0 para empezar
+     * @param limite Cantidad máxima de playlists
+     * @return Playlists de la página
+     * @throws Exception si hay errores en la consulta a la base de datos
+     * @see #asignarCancionesIds(List)
+     */
+    @Override
+    public List<PlaylistDTO> buscarPagina(int despuesDeId, int limite) throws Exception {
+        List<PlaylistDTO> playlists = new ArrayList<>();
+        String query = "SELECT id_playlist, titulo, descripcion, id_propietario, imagen_portada, fecha_creacion FROM Playlist "
+                + "WHERE id_playlist > ? ORDER BY id_playlist LIMIT ?";
+
+        try (Connection conn = openReadConnection();
+             PreparedStatement stmt = conn.prepareStatement(query)) {
+            stmt.setInt(1, despuesDeId);
+            stmt.setInt(2, limite);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    PlaylistDTO playlist = new PlaylistDTO();
+                    playlist.setIdPlaylist(rs.getInt("id_playlist"));
+                    playlist.setTituloPlaylist(rs.getString("titulo"));
+                    playlist.setDescripcion(rs.getString("descripcion"));
+                    playlist.setIdPropietario(rs.getInt("id_propietario"));
+                    playlist.setImagenPortada(ReferenciasBlob.leer(rs, "imagen_portada"));
+                    playlist.setFechaCreacion(LocalDateTime.parse(rs.getString("fecha_creacion")));
+                    playlists.add(playlist);
+                }
+            }
+            asignarCancionesIds(playlists);
+        }
         return playlists;
     }
 
+    /**
+     * Recupera el título y la descripción de todas las playlists para el índice de búsqueda,
+     * sin leer portadas ni canciones.
+     *
+     * @return Un documento por playlist, en orden de ID
+     * @throws Exception si hay errores en la consulta a la base de datos
+     */
+    public List<DocumentoBusquedaDTO> buscarDocumentosBusqueda() throws Exception {
+        String query = "SELECT id_playlist, titulo, descripcion FROM Playlist ORDER BY id_playlist";
+        List<DocumentoBusquedaDTO> lista = new ArrayList<>();
+        try (Connection conn = openReadConnection();
+             PreparedStatement stmt = conn.prepareStatement(query);
+             ResultSet rs = stmt.executeQuery()) {
+            while (rs.next()) {
+                lista.add(new DocumentoBusquedaDTO(rs.getInt("id_playlist"), rs.getString("titulo"),
+                        rs.getString("descripcion"), null));
+            }
+        } catch (Exception e) {
+            throw new Exception("Error al obtener los textos de búsqueda de las playlists: " + e.getMessage(), e);
+        }
+        return lista;
+    }
+
     /**
      * Recupera una playlist específica según su ID.
      *
@@ -157,27 +236,28 @@ public class PlaylistDAO extends SQLiteDataHelper implements IDAO<PlaylistDTO> {
     public PlaylistDTO buscarPorId(Integer id) throws Exception {
         String query = "SELECT id_playlist, titulo, descripcion, id_propietario, imagen_portada, fecha_creacion FROM Playlist WHERE id_playlist = ?";
 
-        Connection conn = openConnection();
-        PreparedStatement ps = conn.prepareStatement(query);
-        ps.setInt(1, id);
-        ResultSet rs = ps.executeQuery();
-
-        if (rs.next()) {
-            PlaylistDTO playlist = new PlaylistDTO();
-            playlist.setIdPlaylist(rs.getInt("id_playlist"));
-            playlist.setTituloPlaylist(rs.getString("titulo"));
-            playlist.setDescripcion(rs.getString("descripcion"));
-            playlist.setIdPropietario(rs.getInt("id_propietario"));
-            playlist.setImagenPortada(rs.getBytes("imagen_portada"));
-            playlist.setFechaCreacion(LocalDateTime.parse(rs.getString("fecha_creacion")));
+        try (Connection conn = openReadConnection();
+             PreparedStatement ps = conn.prepareStatement(query)) {
+            ps.setInt(1, id);
+            ResultSet rs = ps.executeQuery();
 
-            // Obtener IDs de canciones
-            playlist.setCancionesIds(obtenerCancionesDePlaylist(id));
+            if (rs.next()) {
+                PlaylistDTO playlist = new PlaylistDTO();
+                playlist.setIdPlaylist(rs.getInt("id_playlist"));
+                playlist.setTituloPlaylist(rs.getString("titulo"));
+                playlist.setDescripcion(rs.getString("descripcion"));
+                playlist.setIdPropietario(rs.getInt("id_propietario"));
+                playlist.setImagenPortada(ReferenciasBlob.leer(rs, "imagen_portada"));
+                playlist.setFechaCreacion(LocalDateTime.parse(rs.getString("fecha_creacion")));
+
+                // Obtener IDs de canciones
+                playlist.setCancionesIds(obtenerCancionesDePlaylist(id));
+
+                return playlist;
+            }
 
-            return playlist;
+            return null;
         }
-
-        return null;
     }
     /**
      * Actualiza los datos de una playlist existente en la base de datos.
@@ -207,47 +287,48 @@ public class PlaylistDAO extends SQLiteDataHelper implements IDAO<PlaylistDTO> {
         String insertCancionPlaylist = "INSERT INTO Playlist_Cancion(id_playlist, id_cancion, orden) VALUES (?, ?, ?)";
 
         Connection conn = null;
+        ReferenciasBlob blobs = null;
         try {
             conn = openConnection();
             conn.setAutoCommit(false);
-
-            // Actualizar playlist
-            PreparedStatement psUpdate = conn.prepareStatement(updatePlaylist);
-            psUpdate.setString(1, playlist.getTituloPlaylist());
-            psUpdate.setString(2, playlist.getDescripcion());
-            psUpdate.setBytes(3, playlist.getImagenPortada());
-            psUpdate.setInt(4, playlist.getIdPlaylist());
-            psUpdate.executeUpdate();
+            blobs = new ReferenciasBlob(conn);
+
+            // Actualizar playlist; la portada anterior pierde una referencia
+            String portada = blobs.guardar(playlist.getImagenPortada());
+            blobs.liberarFila("Playlist", "id_playlist", playlist.getIdPlaylist(), "imagen_portada");
+            try (PreparedStatement psUpdate = conn.prepareStatement(updatePlaylist)) {
+                psUpdate.setString(1, playlist.getTituloPlaylist());
+                psUpdate.setString(2, playlist.getDescripcion());
+                psUpdate.setString(3, portada);
+                psUpdate.setInt(4, playlist.getIdPlaylist());
+                psUpdate.executeUpdate();
+            }
 
             // Eliminar canciones actuales
-            PreparedStatement psDelete = conn.prepareStatement(deleteCancionesPlaylist);
-            psDelete.setInt(1, playlist.getIdPlaylist());
-            psDelete.executeUpdate();
+            try (PreparedStatement psDelete = conn.prepareStatement(deleteCancionesPlaylist)) {
+                psDelete.setInt(1, playlist.getIdPlaylist());
+                psDelete.executeUpdate();
+            }
 
             // Insertar nuevas canciones
-            if (playlist.getCancionesIds() != null && !playlist.getCancionesIds().isEmpty()) {
-                PreparedStatement psInsert = conn.prepareStatement(insertCancionPlaylist);
-                int orden = 1;
-
-                for (Integer idCancion : playlist.getCancionesIds()) {
-                    psInsert.setInt(1, playlist.getIdPlaylist());
-                    psInsert.setInt(2, idCancion);
-                    psInsert.setInt(3, orden++);
-                    psInsert.executeUpdate();
-                }
-            }
+            insertarCanciones(conn, insertCancionPlaylist, playlist.getIdPlaylist(), playlist.getCancionesIds());
 
             conn.commit();
+            blobs.confirmar();
             return true;
 
         } catch (Exception e) {
             if (conn != null) {
                 conn.rollback();
+                if (blobs != null) {
+                    blobs.deshacer();
+                }
             }
             throw e;
         } finally {
             if (conn != null) {
                 conn.setAutoCommit(true);
+                conn.close(); // Devolver la conexión de escritura al pool
             }
         }
     }
@@ -268,12 +349,35 @@ public class PlaylistDAO extends SQLiteDataHelper implements IDAO<PlaylistDTO> {
     public boolean eliminar(Integer id) throws Exception {
         String query = "DELETE FROM Playlist WHERE id_playlist = ?";
 
-        Connection conn = openConnection();
-        PreparedStatement ps = conn.prepareStatement(query);
-        ps.setInt(1, id);
-        ps.executeUpdate();
+        Connection conn = null;
+        ReferenciasBlob blobs = null;
+        try {
+            conn = openConnection();
+            conn.setAutoCommit(false); // La referencia de la portada se libera junto con la fila
+            blobs = new ReferenciasBlob(conn);
+            blobs.liberarFila("Playlist", "id_playlist", id, "imagen_portada");
+            try (PreparedStatement ps = conn.prepareStatement(query)) {
+                ps.setInt(1, id);
+                ps.executeUpdate();
+            }
 
-        return true;
+            conn.commit();
+            blobs.confirmar();
+            return true;
+        } catch (Exception e) {
+            if (conn != null) {
+                conn.rollback();
+                if (blobs != null) {
+                    blobs.deshacer();
+                }
+            }
+            throw e;
+        } finally {
+            if (conn != null) {
+                conn.setAutoCommit(true);
+                conn.close();
+            }
+        }
     }
 
     // ====================================================================
@@ -289,32 +393,33 @@ public class PlaylistDAO extends SQLiteDataHelper implements IDAO<PlaylistDTO> {
      * @param nombre el nombre o parte del nombre de las playlists a buscar
      * @return Lista de playlists que coinciden con el criterio de búsqueda
      * @throws Exception si hay errores en la consulta a la base de datos
-     * @see #obtenerCancionesDePlaylist(int)
+     * @see #asignarCancionesIds(List)
      */
     public List<PlaylistDTO> buscarPorNombre(String nombre) throws Exception {
         List<PlaylistDTO> playlists = new ArrayList<>();
         String query = "SELECT id_playlist, titulo, descripcion, id_propietario, imagen_portada, fecha_creacion FROM Playlist WHERE titulo LIKE ?";
 
-        Connection conn = openConnection();
-        PreparedStatement ps = conn.prepareStatement(query);
-        ps.setString(1, "%" + nombre + "%");
-        ResultSet rs = ps.executeQuery();
-
-        while (rs.next()) {
-            PlaylistDTO playlist = new PlaylistDTO();
-            playlist.setIdPlaylist(rs.getInt("id_playlist"));
-            playlist.setTituloPlaylist(rs.getString("titulo"));
-            playlist.setDescripcion(rs.getString("descripcion"));
-            playlist.setIdPropietario(rs.getInt("id_propietario"));
-            playlist.setImagenPortada(rs.getBytes("imagen_portada"));
-            playlist.setFechaCreacion(LocalDateTime.parse(rs.getString("fecha_creacion")));
+        try (Connection conn = openReadConnection();
+             PreparedStatement ps = conn.prepareStatement(query)) {
+            ps.setString(1, "%" + nombre + "%");
+            ResultSet rs = ps.executeQuery();
+
+            while (rs.next()) {
+                PlaylistDTO playlist = new PlaylistDTO();
+                playlist.setIdPlaylist(rs.getInt("id_playlist"));
+                playlist.setTituloPlaylist(rs.getString("titulo"));
+                playlist.setDescripcion(rs.getString("descripcion"));
+                playlist.setIdPropietario(rs.getInt("id_propietario"));
+                playlist.setImagenPortada(ReferenciasBlob.leer(rs, "imagen_portada"));
+                playlist.setFechaCreacion(LocalDateTime.parse(rs.getString("fecha_creacion")));
+
+                playlists.add(playlist);
+            }
 
-            playlist.setCancionesIds(obtenerCancionesDePlaylist(playlist.getIdPlaylist()));
+            asignarCancionesIds(playlists);
 
-            playlists.add(playlist);
+            return playlists;
         }
-
-        return playlists;
     }
 
     /**
@@ -327,32 +432,33 @@ public class PlaylistDAO extends SQLiteDataHelper implements IDAO<PlaylistDTO> {
      * @param idUsuario el ID del usuario propietario de las playlists
      * @return Lista de playlists pertenecientes al usuario especificado
      * @throws Exception si hay errores en la consulta a la base de datos
-     * @see #obtenerCancionesDePlaylist(int)
+     * @see #asignarCancionesIds(List)
      */
     public List<PlaylistDTO> obtenerPlaylistPorUsuario(int idUsuario) throws Exception {
         List<PlaylistDTO> playlists = new ArrayList<>();
         String query = "SELECT id_playlist, titulo, descripcion, id_propietario, imagen_portada, fecha_creacion FROM Playlist WHERE id_propietario = ?";
 
-        Connection conn = openConnection();
-        PreparedStatement ps = conn.prepareStatement(query);
-        ps.setInt(1, idUsuario);
-        ResultSet rs = ps.executeQuery();
-
-        while (rs.next()) {
-            PlaylistDTO playlist = new PlaylistDTO();
-            playlist.setIdPlaylist(rs.getInt("id_playlist"));
-            playlist.setTituloPlaylist(rs.getString("titulo"));
-            playlist.setDescripcion(rs.getString("descripcion"));
-            playlist.setIdPropietario(rs.getInt("id_propietario"));
-            playlist.setImagenPortada(rs.getBytes("imagen_portada"));
-            playlist.setFechaCreacion(LocalDateTime.parse(rs.getString("fecha_creacion")));
+        try (Connection conn = openReadConnection();
+             PreparedStatement ps = conn.prepareStatement(query)) {
+            ps.setInt(1, idUsuario);
+            ResultSet rs = ps.executeQuery();
+
+            while (rs.next()) {
+                PlaylistDTO playlist = new PlaylistDTO();
+                playlist.setIdPlaylist(rs.getInt("id_playlist"));
+                playlist.setTituloPlaylist(rs.getString("titulo"));
+                playlist.setDescripcion(rs.getString("descripcion"));
+                playlist.setIdPropietario(rs.getInt("id_propietario"));
+                playlist.setImagenPortada(ReferenciasBlob.leer(rs, "imagen_portada"));
+                playlist.setFechaCreacion(LocalDateTime.parse(rs.getString("fecha_creacion")));
+
+                playlists.add(playlist);
+            }
 
-            playlist.setCancionesIds(obtenerCancionesDePlaylist(playlist.getIdPlaylist()));
+            asignarCancionesIds(playlists);
 
-            playlists.add(playlist);
+            return playlists;
         }
-
-        return playlists;
     }
 
     // ====================================================================
@@ -374,16 +480,88 @@ public class PlaylistDAO extends SQLiteDataHelper implements IDAO<PlaylistDTO> {
         List<Integer> cancionesIds = new ArrayList<>();
         String query = "SELECT id_cancion FROM Playlist_Cancion WHERE id_playlist = ? ORDER BY orden";
 
-        Connection conn = openConnection();
-        PreparedStatement ps = conn.prepareStatement(query);
-        ps.setInt(1, idPlaylist);
-        ResultSet rs = ps.executeQuery();
+        try (Connection conn = openReadConnection();
+             PreparedStatement ps = conn.prepareStatement(query)) {
+            ps.setInt(1, idPlaylist);
+            ResultSet rs = ps.executeQuery();
 
-        while (rs.next()) {
-            cancionesIds.add(rs.getInt("id_cancion"));
+            while (rs.next()) {
+                cancionesIds.add(rs.getInt("id_cancion"));
+            }
+
+            return cancionesIds;
         }
+    }
 
-        return cancionesIds;
+    /**
+     * Inserta en lote las canciones de una playlist con una sola sentencia preparada,
+     * numerando el orden desde 1.
+     *
+     * @param conn Conexión de escritura con la transacción en curso
+     * @param insert Sentencia INSERT con parámetros (id_playlist, id_cancion, orden)
+     * @param idPlaylist ID de la playlist
+     * @param cancionesIds IDs de canciones en el orden deseado (puede ser null)
+     * @throws Exception si hay errores al insertar
+     */
+    private void insertarCanciones(Connection conn, String insert, int idPlaylist, List<Integer> cancionesIds) throws Exception {
+        if (cancionesIds == null || cancionesIds.isEmpty()) {
+            return;
+        }
+        try (PreparedStatement psCancion = conn.prepareStatement(insert)) {
+            int orden = 1;
+            for (Integer idCancion : cancionesIds) {
+                psCancion.setInt(1, idPlaylist);
+                psCancion.setInt(2, idCancion);
+                psCancion.setInt(3, orden++);
+                psCancion.addBatch();
+            }
+            psCancion.executeBatch();
+        }
+    }
+
+    /**
+     * Asigna a cada playlist los IDs de sus canciones usando una sola consulta.
+     *
+     * <p>Reemplaza el llamado a {@link #obtenerCancionesDePlaylist(int)} por cada fila, de modo
+     * que listar N playlists cuesta una consulta adicional y no N.</p>
+     *
+     * @param playlists Playlists cuyo ID ya está establecido
+     * @throws Exception si hay errores en la consulta a la base de datos
+     */
+    private void asignarCancionesIds(List<PlaylistDTO> playlists) throws Exception {
+        List<Integer> ids = new ArrayList<>(playlists.size());
+        for (PlaylistDTO playlist : playlists) {
+            ids.add(playlist.getIdPlaylist());
+        }
+        Map<Integer, List<Integer>> cancionesPorPlaylist = obtenerCancionesDePlaylists(ids);
+        for (PlaylistDTO playlist : playlists) {
+            playlist.setCancionesIds(cancionesPorPlaylist.getOrDefault(playlist.getIdPlaylist(), new ArrayList<>()));
+        }
+    }
+
+    /**
+     * Obtiene los IDs de las canciones de varias playlists, respetando el orden de cada una.
+     *
+     * @param idsPlaylists IDs de las playlists
+     * @return Mapa de ID de playlist a los IDs de sus canciones en orden
+     * @throws Exception si hay errores en la consulta a la base de datos
+     */
+    private Map<Integer, List<Integer>> obtenerCancionesDePlaylists(Collection<Integer> idsPlaylists) throws Exception {
+        Map<Integer, List<Integer>> resultado = new HashMap<>();
+        String query = "SELECT id_playlist, id_cancion FROM Playlist_Cancion WHERE id_playlist IN ("
+                + HidratadorCanciones.IDS_PARAMETRO + ") ORDER BY id_playlist, orden";
+
+        try (Connection conn = openReadConnection();
+             PreparedStatement ps = conn.prepareStatement(query)) {
+            ps.setString(1, HidratadorCanciones.comoArregloJson(idsPlaylists));
+            ResultSet rs = ps.executeQuery();
+
+            while (rs.next()) {
+                resultado.computeIfAbsent(rs.getInt("id_playlist"), k -> new ArrayList<>())
+                        .add(rs.getInt("id_cancion"));
+            }
+            return resultado;
+        }
     }
 
     /**
@@ -393,41 +571,86 @@ public class PlaylistDAO extends SQLiteDataHelper implements IDAO<PlaylistDTO> {
      * con la tabla Cancion para obtener los datos completos de todas las
      * canciones que pertenecen a una playlist específica.</p>
      * 
-     * <p>Utiliza CancionDAO para obtener los datos completos de cada canción,
-     * incluyendo artistas, géneros y otros metadatos.</p>
+     * <p>Las canciones se leen en la misma consulta y sus artistas y géneros se
+     * cargan por lotes con {@link HidratadorCanciones}, sin volver a consultar cada
+     * canción por separado.</p>
      * 
      * @param idPlaylist el ID de la playlist
      * @return Lista de objetos CancionDTO con datos completos
      * @throws Exception si hay errores en la consulta a la base de datos
-     * @see CancionDAO#buscarPorId(Integer)
+     * @see HidratadorCanciones#hidratar(List)
      */
     public List<CancionDTO> obtenerCancionesCompletasDePlaylist(int idPlaylist) throws Exception {
+        return leerCancionesDePlaylist(idPlaylist, "c.archivo_mp3");
+    }
+
+    /**
+     * Obtiene las canciones de una playlist con su portada pero sin el archivo MP3.
+     *
+     * <p>Es la variante que deben usar las pantallas que listan y reproducen una playlist:
+     * el reproductor solo necesita los IDs y lee el audio de cada canción cuando le toca
+     * sonar, por lo que cargar aquí todos los MP3 solo ocuparía memoria.</p>
+     *
+     * @param idPlaylist el ID de la playlist
+     * @return Lista de CancionDTO en el orden de la playlist, con {@code archivoMP3} en null
+     * @throws Exception si hay errores en la consulta a la base de datos
+     */
+    public List<CancionDTO> obtenerCancionesSinAudioDePlaylist(int idPlaylist) throws Exception {
+        return leerCancionesDePlaylist(idPlaylist, "NULL");
+    }
+
+    /**
+     * Suma en la base de datos la duración de las canciones de una playlist, sin leer su audio.
+     *
+     * @param idPlaylist el ID de la playlist
+     * @return Duración total en segundos (0 si está vacía)
+     * @throws Exception si hay errores en la consulta a la base de datos
+     */
+    public double obtenerDuracionTotal(int idPlaylist) throws Exception {
+        String query = "SELECT COALESCE(SUM(c.duracion), 0) FROM Playlist_Cancion pc "
+                + "JOIN Cancion c ON c.id_cancion = pc.id_cancion WHERE pc.id_playlist = ?";
+        try (Connection conn = openReadConnection();
+             PreparedStatement ps = conn.prepareStatement(query)) {
+            ps.setInt(1, idPlaylist);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? rs.getDouble(1) : 0;
+            }
+        } catch (Exception e) {
+            throw new Exception("Error al calcular la duración de la playlist: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Lee las canciones de una playlist en orden e hidrata sus relaciones por lotes.
+     *
+     * @param idPlaylist el ID de la playlist
+     * @param columnaAudio Expresión SQL para archivo_mp3 ("c.archivo_mp3" o "NULL"), nunca proviene del usuario
+     * @return Lista de CancionDTO
+     * @throws Exception si hay errores en la consulta a la base de datos
+     */
+    private List<CancionDTO> leerCancionesDePlaylist(int idPlaylist, String columnaAudio) throws Exception {
         List<CancionDTO> canciones = new ArrayList<>();
         String query = """
             SELECT c.id_cancion, c.titulo, c.duracion, c.anio, c.fecha_registro, 
-                   c.archivo_mp3, c.portada
+                   %s AS archivo_mp3, c.portada
             FROM Cancion c 
             JOIN Playlist_Cancion pc ON c.id_cancion = pc.id_cancion 
             WHERE pc.id_playlist = ? 
             ORDER BY pc.orden
-        """;
-
-        Connection conn = openConnection();
-        PreparedStatement ps = conn.prepareStatement(query);
-        ps.setInt(1, idPlaylist);
-        ResultSet rs = ps.executeQuery();
-
-        CancionDAO cancionDAO = new CancionDAO();
-
-        while (rs.next()) {
-            int idCancion = rs.getInt("id_cancion");
-            CancionDTO cancion = cancionDAO.buscarPorId(idCancion);
-            if (cancion != null) {
-                canciones.add(cancion);
+        """.formatted(columnaAudio);
+
+        try (Connection conn = openReadConnection();
+             PreparedStatement ps = conn.prepareStatement(query)) {
+            ps.setInt(1, idPlaylist);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    canciones.add(CancionDAO.mapearCompleta(rs));
+                }
             }
-        }
+            new HidratadorCanciones().hidratar(canciones);
 
-        return canciones;
+            return canciones;
+        }
     }
 
 }
@@ -0,0 +1,228 @@
+/*
+|-----------------------------------------------|
+| © 2025 EPN-FIS, Todos los derechos reservados |
+| GR1SW                                         |
+|-----------------------------------------------|
+Autores: Grupo A
+Descripción: Escritura y lectura de las columnas binarias guardadas en el almacén de blobs.
+*/
+
+package DataAccessComponent.DAO;
+
+import DataAccessComponent.AlmacenBlobs;
+import DataAccessComponent.SQLiteDataHelper;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Clase ReferenciasBlob que traduce entre los bytes de las columnas binarias grandes
+ * ({@code Cancion.archivo_mp3}, {@code Cancion.portada}, {@code Artista.imagen} y
+ * {@code Playlist.imagen_portada}) y el hash con que se guardan en el {@link AlmacenBlobs}.
+ *
+ * <p>Estas columnas guardan como texto el hash del contenido. Las bases anteriores pueden
+ * conservar todavía el BLOB en la fila hasta ejecutar {@code MigradorBlobs}, así que
+ * {@link #leer(ResultSet, String)} acepta ambas formas según el tipo del valor.</p>
+ *
+ * <p>Para escribir se crea una instancia por operación con la conexión de escritura ya
+ * arrendada: {@link #guardar(byte[])} y {@link #liberar(Object)} mantienen la cuenta de
+ * referencias en {@code Contenido_Blob} sobre esa conexión, y {@link #confirmar()}, llamado
+ * después de confirmar los cambios y antes de devolver la conexión, borra los archivos que
+ * quedaron sin referencias. Si la operación se revierte, {@link #deshacer()}, llamado después
+ * del {@code rollback()}, borra los archivos que escribió y que no quedaron referenciados. Mientras se tiene la conexión de escritura ningún otro hilo
+ * puede guardar ni liberar, así que un archivo nunca se borra justo cuando otro lo reutiliza.</p>
+ *
+ * @author Grupo A
+ * @version 1.0
+ * @since 18-07-2025
+ */
+final class ReferenciasBlob {
+
+    private static final String SUMAR = "INSERT INTO Contenido_Blob(hash, tamanio, referencias) VALUES (?, ?, 1) "
+            + "ON CONFLICT(hash) DO UPDATE SET referencias = referencias + 1";
+
+    private static final String RESTAR = "UPDATE Contenido_Blob SET referencias = referencias - 1 WHERE hash = ?";
+
+    private static final String QUITAR_SIN_REFERENCIAS = "DELETE FROM Contenido_Blob WHERE hash = ? AND referencias <= 0";
+
+    private final Connection conn;
+    private final AlmacenBlobs almacen = SQLiteDataHelper.almacenBlobs();
+
+    /** Contenidos que perdieron una referencia en esta operación */
+    private final Set<String> liberados = new LinkedHashSet<>();
+
+    /** Contenidos escritos en el almacén en esta operación */
+    private final Set<String> creados = new LinkedHashSet<>();
+
+    /**
+     * @param conn Conexión de escritura arrendada por el DAO
+     */
+    ReferenciasBlob(Connection conn) {
+        this.conn = conn;
+    }
+
+    /**
+     * Guarda el contenido en el almacén y le suma una referencia.
+     *
+     * @param contenido Bytes a guardar (puede ser null)
+     * @return Hash a escribir en la columna, o null si no hay contenido
+     * @throws IOException si no se puede escribir en el almacén
+     * @throws SQLException si no se puede actualizar la cuenta de referencias
+     */
+    String guardar(byte[] contenido) throws IOException, SQLException {
+        if (contenido == null) {
+            return null;
+        }
+        String hash = almacen.guardar(contenido);
+        creados.add(hash);
+        try (PreparedStatement ps = conn.prepareStatement(SUMAR)) {
+            ps.setString(1, hash);
+            ps.setLong(2, contenido.length);
+            ps.executeUpdate();
+        }
+        return hash;
+    }
+
+    /**
+     * Resta una referencia al contenido que tenía una columna antes de reemplazarla o de
+     * eliminar su fila.
+     *
+     * @param valorAnterior Valor leído de la columna; los BLOB en línea y null se ignoran
+     * @throws SQLException si no se puede actualizar la cuenta de referencias
+     */
+    void liberar(Object valorAnterior) throws SQLException {
+        if (!(valorAnterior instanceof String)) {
+            return;
+        }
+        String hash = (String) valorAnterior;
+        try (PreparedStatement restar = conn.prepareStatement(RESTAR);
+             PreparedStatement quitar = conn.prepareStatement(QUITAR_SIN_REFERENCIAS)) {
+            restar.setString(1, hash);
+            restar.executeUpdate();
+            quitar.setString(1, hash);
+            quitar.executeUpdate();
+        }
+        liberados.add(hash);
+    }
+
+    /**
+     * Resta una referencia a los contenidos que tienen ahora unas columnas de una fila, antes
+     * de reemplazarlas o de eliminar la fila.
+     *
+     * @param tabla Tabla de la fila (constante del DAO)
+     * @param columnaId Columna de la clave primaria
+     * @param id ID de la fila
+     * @param columnas Columnas binarias de la fila
+     * @throws SQLException si ocurre un error al leer la fila o al actualizar las cuentas
+     */
+    void liberarFila(String tabla, String columnaId, int id, String... columnas) throws SQLException {
+        StringBuilder sql = new StringBuilder("SELECT ");
+        for (int i = 0; i < columnas.length; i++) {
+            // Solo interesan los hashes; así un BLOB en línea no se lee completo para descartarlo
+            sql.append(i > 0 ? ", " : "").append("CASE WHEN typeof(").append(columnas[i]).append(") = 'text' THEN ")
+                    .append(columnas[i]).append(" END");
+        }
+        sql.append(" FROM ").append(tabla).append(" WHERE ").append(columnaId).append(" = ?");
+
+        String[] hashes = new String[columnas.length];
+        try (PreparedStatement ps = conn.prepareStatement(sql.toString())) {
+            ps.setInt(1, id);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (!rs.next()) {
+                    return;
+                }
+                for (int i = 0; i < hashes.length; i++) {
+                    hashes[i] = rs.getString(i + 1);
+                }
+            }
+        }
+        for (String hash : hashes) {
+            liberar(hash);
+        }
+    }
+
+    /**
+     * Borra del almacén los contenidos liberados que ya no tienen referencias. Debe llamarse
+     * después de confirmar los cambios y antes de cerrar la conexión; si la operación se
+     * revirtió no se llama y los archivos se conservan.
+     */
+    void confirmar() {
+        Set<String> hashes = new LinkedHashSet<>(liberados);
+        Set<String> escritos = new LinkedHashSet<>(creados);
+        liberados.clear();
+        creados.clear();
+        // Si esta operación corre anidada, los cambios aún pueden revertirse con la externa
+        SQLiteDataHelper.getPool().alConfirmar(() -> borrarSinReferencias(hashes));
+        SQLiteDataHelper.getPool().alRevertir(() -> borrarSinReferencias(escritos));
+    }
+
+    /**
+     * Borra del almacén los archivos que escribió esta operación y que, tras revertirla, no
+     * tienen ninguna referencia. Debe llamarse después del {@code rollback()} y antes de
+     * cerrar la conexión; un contenido que ya existía y sigue referenciado se conserva.
+     */
+    void deshacer() {
+        Set<String> escritos = new LinkedHashSet<>(creados);
+        creados.clear();
+        liberados.clear();
+        borrarSinReferencias(escritos);
+    }
+
+    private void borrarSinReferencias(Set<String> hashes) {
+        for (String hash : hashes) {
+            try (PreparedStatement ps = conn.prepareStatement("SELECT 1 FROM Contenido_Blob WHERE hash = ?")) {
+                ps.setString(1, hash);
+                try (ResultSet rs = ps.executeQuery()) {
+                    if (!rs.next()) {
+                        almacen.eliminar(hash);
+                    }
+                }
+            } catch (SQLException e) {
+                // El archivo huérfano se recolecta con MigradorBlobs
+                System.err.println("No se pudo verificar el contenido " + hash + ": " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Lee una columna binaria, tanto si guarda el hash como si aún tiene el BLOB en línea.
+     *
+     * @param rs ResultSet posicionado en la fila
+     * @param columna Nombre de la columna
+     * @return Contenido, o null si la columna está vacía
+     * @throws SQLException si ocurre un error al leer la fila
+     * @throws IOException si el contenido no está en el almacén
+     */
+    static byte[] leer(ResultSet rs, String columna) throws SQLException, IOException {
+        return desdeValor(rs.getObject(columna));
+    }
+
+    /**
+     * @see #leer(ResultSet, String)
+     */
+    static byte[] leer(ResultSet rs, int columna) throws SQLException, IOException {
+        return desdeValor(rs.getObject(columna));
+    }
+
+    /**
+     * @param valor Valor de la columna leído como texto
+     * @return Archivo local del contenido, o null si la columna no guarda un hash o el
+     *         almacén no usa archivos locales
+     */
+    static Path ruta(String valor) {
+        return valor != null ? SQLiteDataHelper.almacenBlobs().ruta(valor) : null;
+    }
+
+    private static byte[] desdeValor(Object valor) throws IOException {
+        if (valor instanceof String) {
+            return SQLiteDataHelper.almacenBlobs().leer((String) valor);
+        }
+        return (byte[]) valor;
+    }
+}
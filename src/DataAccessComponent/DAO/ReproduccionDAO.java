@@ -0,0 +1,118 @@
+/*
+|-----------------------------------------------|
+| © 2025 EPN-FIS, Todos los derechos reservados |
+| GR1SW                                         |
+|-----------------------------------------------|
+Autores: Grupo A
+Descripción: Acceso al historial de reproducciones de los usuarios.
+*/
+
+package DataAccessComponent.DAO;
+
+import DataAccessComponent.DTO.EventoReproduccionDTO;
+import DataAccessComponent.SQLiteDataHelper;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Types;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Clase ReproduccionDAO que escribe y consulta la tabla Reproduccion, donde queda registrado
+ * cada evento (inicio, 30 segundos, fin o salto) de las canciones que escucha un usuario.
+ *
+ * @author Grupo A
+ * @version 1.0
+ * @since 18-07-2025
+ */
+public class ReproduccionDAO extends SQLiteDataHelper {
+
+    /** Formato de fecha_hora, el mismo de CURRENT_TIMESTAMP con milisegundos */
+    private static final DateTimeFormatter FORMATO_FECHA = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSS");
+
+    /**
+     * Inserta un lote de eventos en una sola transacción y, en la misma, suma las
+     * reproducciones nuevas a los conteos de {@link ConteoReproduccionDAO}.
+     *
+     * @param eventos Eventos a registrar.
+     * @return Cantidad de filas insertadas.
+     * @throws Exception si ocurre un error al escribir; en ese caso no se inserta ninguno.
+     */
+    public int registrar(List<EventoReproduccionDTO> eventos) throws Exception {
+        if (eventos.isEmpty()) {
+            return 0;
+        }
+        String query = "INSERT INTO Reproduccion(id_usuario, id_cancion, fecha_hora, tipo_evento, posicion) VALUES (?, ?, ?, ?, ?)";
+        Connection conn = null;
+        try {
+            conn = openConnection();
+            conn.setAutoCommit(false);
+            long ultimoId;
+            try (PreparedStatement ps = conn.prepareStatement("SELECT COALESCE(MAX(id_reproduccion), 0) FROM Reproduccion");
+                 ResultSet rs = ps.executeQuery()) {
+                ultimoId = rs.next() ? rs.getLong(1) : 0;
+            }
+            int insertadas = 0;
+            try (PreparedStatement ps = conn.prepareStatement(query)) {
+                for (EventoReproduccionDTO evento : eventos) {
+                    if (evento.getIdUsuario() != null) {
+                        ps.setInt(1, evento.getIdUsuario());
+                    } else {
+                        ps.setNull(1, Types.INTEGER);
+                    }
+                    ps.setInt(2, evento.getIdCancion());
+                    ps.setString(3, evento.getFechaHora().format(FORMATO_FECHA));
+                    ps.setString(4, evento.getTipo().name());
+                    ps.setDouble(5, evento.getPosicion());
+                    ps.addBatch();
+                }
+                for (int filas : ps.executeBatch()) {
+                    insertadas += Math.max(filas, 0);
+                }
+            }
+            ConteoReproduccionDAO.acumular(conn, ultimoId);
+            conn.commit();
+            return insertadas;
+        } catch (Exception e) {
+            if (conn != null) {
+                conn.rollback();
+            }
+            throw new Exception("Error al registrar reproducciones: " + e.getMessage(), e);
+        } finally {
+            if (conn != null) {
+                conn.setAutoCommit(true);
+                conn.close();
+            }
+        }
+    }
+
+    /**
+     * Recupera las canciones que un usuario escuchó más recientemente, sin repetir.
+     *
+     * @param idUsuario ID del usuario.
+     * @param limite Cantidad máxima de canciones.
+     * @return IDs de canción, de la reproducción más reciente a la más antigua.
+     * @throws Exception si ocurre un error al acceder a la base de datos.
+     */
+    public List<Integer> buscarIdsRecientes(int idUsuario, int limite) throws Exception {
+        String query = "SELECT id_cancion FROM Reproduccion WHERE id_usuario = ? AND id_cancion IS NOT NULL "
+                + "GROUP BY id_cancion ORDER BY MAX(fecha_hora) DESC, MAX(id_reproduccion) DESC LIMIT ?";
+        List<Integer> ids = new ArrayList<>();
+        try (Connection conn = openReadConnection();
+             PreparedStatement ps = conn.prepareStatement(query)) {
+            ps.setInt(1, idUsuario);
+            ps.setInt(2, limite);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    ids.add(rs.getInt("id_cancion"));
+                }
+            }
+        } catch (Exception e) {
+            throw new Exception("Error al obtener el historial de reproducciones: " + e.getMessage(), e);
+        }
+        return ids;
+    }
+}
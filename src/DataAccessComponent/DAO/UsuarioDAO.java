@@ -46,9 +46,8 @@ public class UsuarioDAO extends SQLiteDataHelper {
      */
     public boolean guardarPreferencias(PerfilDTO perfil, List<GeneroDTO> generos) {
         String sql = "UPDATE Usuario SET preferencias_musicales = ? WHERE correo = ?";
-        try {
-            Connection conn = openConnection();
-            PreparedStatement pstmt = conn.prepareStatement(sql);
+        try (Connection conn = openConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
             
             // Validar géneros contra la BD
             pstmt.setString(1, BusinessLogic.Usuario.preferenciasToJSON(generos));
@@ -78,9 +77,8 @@ public class UsuarioDAO extends SQLiteDataHelper {
      */
     public List<GeneroDTO> obtenerPreferencias(PerfilDTO perfil) {
         String sql = "SELECT preferencias_musicales FROM Usuario WHERE correo = ?";
-        try {
-            Connection conn = openConnection();
-            PreparedStatement pstmt = conn.prepareStatement(sql);
+        try (Connection conn = openReadConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
             
             pstmt.setString(1, perfil.getCorreo());
             ResultSet rs = pstmt.executeQuery();
@@ -104,9 +102,8 @@ public class UsuarioDAO extends SQLiteDataHelper {
      */
     public int obtenerIdUsuarioPorCorreo(String correo) {
         String sql = "SELECT id_usuario FROM Usuario WHERE correo = ?";
-        try {
-            Connection conn = openConnection();
-            PreparedStatement pstmt = conn.prepareStatement(sql);
+        try (Connection conn = openReadConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
             pstmt.setString(1, correo);
             ResultSet rs = pstmt.executeQuery();
             if (rs.next()) {
@@ -166,16 +163,14 @@ public class UsuarioDAO extends SQLiteDataHelper {
         sql.append(" WHERE correo = ?");
         parametros.add(correoOriginal); // Aquí usamos el correo original para buscar la fila
 
-        try {
-            Connection conn = openConnection();
-            PreparedStatement pstmt = conn.prepareStatement(sql.toString());
+        try (Connection conn = openConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql.toString())) {
 
             for (int i = 0; i < parametros.size(); i++) {
                 pstmt.setObject(i + 1, parametros.get(i));
             }
 
             int filas = pstmt.executeUpdate();
-            pstmt.close();
             return filas > 0;
         } catch (Exception e) {
             System.err.println("Error al actualizar usuario: " + e.getMessage());
@@ -0,0 +1,22 @@
+package DataAccessComponent.DTO;
+
+/**
+ * Enumeración de las entidades por las que se cuentan las reproducciones.
+ *
+ * @author Grupo A
+ * @version 1.0
+ * @since 18-07-2025
+ */
+public enum AgregadoReproduccion {
+    /** Reproducciones de cada canción. */
+    CANCION,
+
+    /** Reproducciones de las canciones de cada artista. */
+    ARTISTA,
+
+    /** Reproducciones de las canciones de cada género. */
+    GENERO,
+
+    /** Reproducciones de cada usuario. */
+    USUARIO
+}
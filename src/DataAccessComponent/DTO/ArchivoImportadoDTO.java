@@ -0,0 +1,60 @@
+/*
+|-----------------------------------------------|
+| © 2025 EPN-FIS, Todos los derechos reservados |
+| GR1SW                                         |
+|-----------------------------------------------|
+Autores: Grupo A
+Descripción: Archivo MP3 leído por la importación masiva, con la canción que se registrará.
+*/
+
+package DataAccessComponent.DTO;
+
+/**
+ * Clase ArchivoImportadoDTO que asocia un archivo de la biblioteca con la canción creada a
+ * partir de él. La ruta, el tamaño y la fecha de modificación se guardan en la tabla
+ * {@code Importacion_Archivo} junto con la canción, para no volver a importarlo.
+ *
+ * @author Grupo A
+ * @version 1.0
+ * @since 18-07-2025
+ */
+public class ArchivoImportadoDTO {
+
+    private final String ruta;
+    private final long tamanio;
+    private final long modificado;
+    private final CancionDTO cancion;
+
+    /**
+     * @param ruta Ruta absoluta y normalizada del archivo
+     * @param tamanio Tamaño en bytes
+     * @param modificado Fecha de modificación en milisegundos desde 1970
+     * @param cancion Canción a registrar; sus artistas pueden venir solo con nombre (ID 0)
+     */
+    public ArchivoImportadoDTO(String ruta, long tamanio, long modificado, CancionDTO cancion) {
+        this.ruta = ruta;
+        this.tamanio = tamanio;
+        this.modificado = modificado;
+        this.cancion = cancion;
+    }
+
+    /** @return Ruta absoluta y normalizada del archivo */
+    public String getRuta() {
+        return ruta;
+    }
+
+    /** @return Tamaño del archivo en bytes */
+    public long getTamanio() {
+        return tamanio;
+    }
+
+    /** @return Fecha de modificación en milisegundos desde 1970 */
+    public long getModificado() {
+        return modificado;
+    }
+
+    /** @return Canción creada a partir del archivo */
+    public CancionDTO getCancion() {
+        return cancion;
+    }
+}
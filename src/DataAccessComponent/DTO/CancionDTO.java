@@ -28,28 +28,15 @@ import java.util.List;
  * industria musical donde las colaboraciones son comunes.</p>
  *
  * <p>Los datos binarios (archivoMP3 y portada) se almacenan como arreglos
- * de bytes para facilitar su transferencia y almacenamiento en base de datos.</p>
+ * de bytes para facilitar su transferencia y almacenamiento en base de datos.
+ * La metadata se hereda de {@link CancionResumenDTO}; para listados se debe usar
+ * directamente esa proyección y evitar cargar los BLOB.</p>
  *
  * @author Grupo A
  * @version 1.0
  * @since 18-07-2025
  */
-public class CancionDTO {
-
-    /** Identificador único de la canción autogenerado por la base de datos */
-    private int idCancion;
-
-    /** Título o nombre de la canción */
-    private String titulo;
-
-    /** Duración de la canción expresada en segundos como número decimal */
-    private double duracion;
-
-    /** Año de lanzamiento o publicación de la canción */
-    private int anio;
-
-    /** Fecha y hora de registro de la canción en el sistema */
-    private LocalDateTime fechaRegistro;
+public class CancionDTO extends CancionResumenDTO {
 
     /** Archivo de audio en formato MP3 almacenado como arreglo de bytes */
     private byte[] archivoMP3;
@@ -57,11 +44,14 @@ public class CancionDTO {
     /** Imagen de portada de la canción almacenada como arreglo de bytes */
     private byte[] portada;
 
-    /** Lista de artistas que participan en la canción (soporte para colaboraciones) */
-    private List<ArtistaDTO> artistas;
+    /** Portada reducida a miniatura JPEG para los listados */
+    private byte[] portadaMiniatura;
 
-    /** Lista de géneros musicales asociados a la canción */
-    private List<Genero> generos;
+    /** Índice de frames del MP3 serializado (ver {@code BusinessLogic.utilities.TablaBusqueda}) */
+    private byte[] tablaBusqueda;
+
+    /** Datos técnicos del MP3 (duración exacta, bitrate, frecuencia, VBR y frames) */
+    private MetadatosAudioDTO metadatosAudio;
 
     /**
      * Constructor vacío requerido por frameworks de mapeo objeto-relacional.
@@ -93,14 +83,9 @@ public class CancionDTO {
     public CancionDTO(String titulo, double duracion, int anio, LocalDateTime fechaRegistro,
                       byte[] archivoMP3, byte[] portada,
                       List<ArtistaDTO> artistas, List<Genero> generos) {
-        this.titulo = titulo;
-        this.duracion = duracion;
-        this.anio = anio;
-        this.fechaRegistro = fechaRegistro;
+        super(0, titulo, duracion, anio, fechaRegistro, artistas, generos);
         this.archivoMP3 = archivoMP3;
         this.portada = portada;
-        this.artistas = artistas;
-        this.generos = generos;
     }
 
     public CancionDTO() {
@@ -108,114 +93,6 @@ public class CancionDTO {
 
     // ==================== MÉTODOS GETTER Y SETTER ====================
 
-    /**
-     * Obtiene el identificador único de la canción.
-     *
-     * @return ID de la canción como entero
-     */
-    public int getIdCancion() {
-        return idCancion;
-    }
-
-    /**
-     * Establece el identificador único de la canción.
-     *
-     * Generalmente utilizado por el DAO al recuperar canciones de la base de datos
-     * donde el ID ya ha sido asignado automáticamente.
-     *
-     * @param idCancion ID único de la canción
-     */
-    public void setIdCancion(int idCancion) {
-        this.idCancion = idCancion;
-    }
-
-    /**
-     * Obtiene el título de la canción.
-     *
-     * @return Título de la canción como cadena de texto
-     */
-    public String getTitulo() {
-        return titulo;
-    }
-
-    /**
-     * Establece el título de la canción.
-     *
-     * El título debe cumplir con las validaciones definidas en ServicioValidacionCancion
-     * (longitud entre 1 y 100 caracteres, unicidad en el sistema).
-     *
-     * @param titulo Nuevo título para la canción
-     */
-    public void setTitulo(String titulo) {
-        this.titulo = titulo;
-    }
-
-    /**
-     * Obtiene la duración de la canción en segundos.
-     *
-     * La duración se almacena como double para permitir precisión decimal,
-     * aunque normalmente representa segundos completos.
-     *
-     * @return Duración de la canción en segundos
-     */
-    public double getDuracion() {
-        return duracion;
-    }
-
-    /**
-     * Establece la duración de la canción en segundos.
-     *
-     * La duración debe ser un valor positivo. Generalmente se calcula
-     * automáticamente a partir del archivo MP3 durante el registro.
-     *
-     * @param duracion Duración en segundos como número decimal
-     */
-    public void setDuracion(double duracion) {
-        this.duracion = duracion;
-    }
-
-    /**
-     * Obtiene el año de lanzamiento de la canción.
-     *
-     * @return Año de publicación como entero
-     */
-    public int getAnio() {
-        return anio;
-    }
-
-    /**
-     * Establece el año de lanzamiento de la canción.
-     *
-     * El año debe ser validado para asegurar que sea un valor positivo
-     * y no mayor al año actual según las reglas de negocio.
-     *
-     * @param anio Año de publicación
-     */
-    public void setAnio(int anio) {
-        this.anio = anio;
-    }
-
-    /**
-     * Obtiene la fecha y hora de registro de la canción en el sistema.
-     *
-     * @return Fecha de registro como LocalDateTime
-     */
-    public LocalDateTime getFechaRegistro() {
-        return fechaRegistro;
-    }
-
-    /**
-     * Establece la fecha y hora de registro de la canción.
-     *
-     * Generalmente se asigna automáticamente al momento de crear
-     * la canción usando LocalDateTime.now().
-     *
-     * @param fechaRegistro Fecha y hora de registro
-     */
-    public void setFechaRegistro(LocalDateTime fechaRegistro) {
-        this.fechaRegistro = fechaRegistro;
-    }
-
     /**
      * Obtiene el archivo de audio MP3 como arreglo de bytes.
      *
@@ -262,48 +139,63 @@ public class CancionDTO {
     }
 
     /**
-     * Obtiene la lista de artistas asociados a la canción.
+     * Obtiene la miniatura de la portada tal como se guarda en la base de datos.
+     *
+     * Solo se completa al registrar o actualizar la portada; las consultas no la cargan.
      *
-     * El sistema permite múltiples artistas por canción para soportar
-     * colaboraciones musicales y featuring entre artistas.
+     * @return Miniatura en JPEG, null si no se generó
+     */
+    public byte[] getPortadaMiniatura() {
+        return portadaMiniatura;
+    }
+
+    /**
+     * Establece la miniatura generada a partir de la portada.
      *
-     * @return Lista de objetos ArtistaDTO asociados a la canción
+     * @param portadaMiniatura Miniatura en JPEG
      */
-    public List<ArtistaDTO> getArtistas() {
-        return artistas;
+    public void setPortadaMiniatura(byte[] portadaMiniatura) {
+        this.portadaMiniatura = portadaMiniatura;
     }
 
     /**
-     * Establece la lista de artistas asociados a la canción.
+     * Obtiene la tabla de búsqueda del MP3 tal como se guarda en la base de datos.
      *
-     * Debe contener al menos un artista según las reglas de validación
-     * del sistema. Permite múltiples artistas para colaboraciones.
+     * Solo se completa al registrar o actualizar el audio; las consultas no la cargan.
      *
-     * @param artistas Lista de artistas participantes
+     * @return Tabla serializada, null si no se calculó
      */
-    public void setArtistas(List<ArtistaDTO> artistas) {
-        this.artistas = artistas;
+    public byte[] getTablaBusqueda() {
+        return tablaBusqueda;
     }
 
     /**
-     * Obtiene la lista de géneros musicales asociados a la canción.
+     * Establece la tabla de búsqueda calculada a partir del archivo MP3.
      *
-     * @return Lista de géneros musicales de tipo Genero enum
+     * @param tablaBusqueda Tabla serializada
      */
-    public List<Genero> getGeneros() {
-        return generos;
+    public void setTablaBusqueda(byte[] tablaBusqueda) {
+        this.tablaBusqueda = tablaBusqueda;
     }
 
     /**
-     * Establece la lista de géneros musicales asociados a la canción.
+     * Obtiene los datos técnicos calculados a partir del archivo MP3.
+     *
+     * Igual que la tabla de búsqueda, solo se completa al registrar o actualizar el audio.
      *
-     * Debe contener al menos un género según las reglas de validación.
-     * Permite múltiples géneros para canciones que fusionan estilos musicales.
+     * @return Metadatos del audio, null si no se analizó
+     */
+    public MetadatosAudioDTO getMetadatosAudio() {
+        return metadatosAudio;
+    }
+
+    /**
+     * Establece los datos técnicos del archivo MP3.
      *
-     * @param generos Lista de géneros musicales
+     * @param metadatosAudio Resultado del análisis de encabezados
      */
-    public void setGeneros(List<Genero> generos) {
-        this.generos = generos;
+    public void setMetadatosAudio(MetadatosAudioDTO metadatosAudio) {
+        this.metadatosAudio = metadatosAudio;
     }
 
     /**
@@ -317,15 +209,8 @@ public class CancionDTO {
      */
     @Override
     public String toString() {
-        return "\n" + getClass().getName()
-                + "\nIdCancion      : " + idCancion
-                + "\nTitulo         : " + titulo
-                + "\nDuracion       : " + duracion
-                + "\nAnio           : " + anio
-                + "\nFechaRegistro  : " + fechaRegistro
+        return super.toString()
                 + "\nArchivoMP3     : " + (archivoMP3 != null ? "Sí" : "No")
-                + "\nPortada        : " + (portada != null ? "Sí" : "No")
-                + "\nArtistas       : " + artistas
-                + "\nGeneros        : " + generos;
+                + "\nPortada        : " + (portada != null ? "Sí" : "No");
     }
 }
\ No newline at end of file
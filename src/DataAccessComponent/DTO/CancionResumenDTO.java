@@ -0,0 +1,227 @@
+/*
+|-----------------------------------------------|
+| © 2025 EPN-FIS, Todos los derechos reservados |
+| GR1SW                                         |
+|-----------------------------------------------|
+Autores: Grupo A
+Descripción: Proyección ligera de una canción (solo metadata) para listados del sistema InkHarmony.
+*/
+
+package DataAccessComponent.DTO;
+
+import BusinessLogic.Genero;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Clase CancionResumenDTO que representa la metadata de una canción sin sus datos binarios.
+ *
+ * <p>Es la proyección utilizada por las pantallas de listado (catálogo, agregar canciones,
+ * recomendaciones) y por los {@code Recomendador}. No transporta el archivo MP3 ni la
+ * portada: esos BLOB se recuperan bajo demanda mediante
+ * {@code CancionDAO.cargarAudio(int)} y {@code CancionDAO.cargarPortada(int)}.</p>
+ *
+ * <p>{@link CancionDTO} extiende esta clase agregando los datos binarios, por lo que
+ * cualquier código que solo lea metadata puede trabajar con ambos tipos.</p>
+ *
+ * @author Grupo A
+ * @version 1.0
+ * @since 18-07-2025
+ */
+public class CancionResumenDTO {
+
+    /** Identificador único de la canción autogenerado por la base de datos */
+    private int idCancion;
+
+    /** Título o nombre de la canción */
+    private String titulo;
+
+    /** Duración de la canción expresada en segundos como número decimal */
+    private double duracion;
+
+    /** Año de lanzamiento o publicación de la canción */
+    private int anio;
+
+    /** Fecha y hora de registro de la canción en el sistema */
+    private LocalDateTime fechaRegistro;
+
+    /** Lista de artistas que participan en la canción */
+    private List<ArtistaDTO> artistas;
+
+    /** Lista de géneros musicales asociados a la canción */
+    private List<Genero> generos;
+
+    /**
+     * Constructor vacío.
+     */
+    public CancionResumenDTO() {
+    }
+
+    /**
+     * Constructor con toda la metadata de la canción.
+     *
+     * @param idCancion ID de la canción
+     * @param titulo Título de la canción
+     * @param duracion Duración en segundos
+     * @param anio Año de publicación
+     * @param fechaRegistro Fecha y hora de registro en el sistema
+     * @param artistas Lista de artistas participantes
+     * @param generos Lista de géneros musicales asociados
+     */
+    public CancionResumenDTO(int idCancion, String titulo, double duracion, int anio,
+                             LocalDateTime fechaRegistro, List<ArtistaDTO> artistas, List<Genero> generos) {
+        this.idCancion = idCancion;
+        this.titulo = titulo;
+        this.duracion = duracion;
+        this.anio = anio;
+        this.fechaRegistro = fechaRegistro;
+        this.artistas = artistas;
+        this.generos = generos;
+    }
+
+    // ==================== MÉTODOS GETTER Y SETTER ====================
+
+    /**
+     * Obtiene el identificador único de la canción.
+     *
+     * @return ID de la canción como entero
+     */
+    public int getIdCancion() {
+        return idCancion;
+    }
+
+    /**
+     * Establece el identificador único de la canción.
+     *
+     * @param idCancion ID único de la canción
+     */
+    public void setIdCancion(int idCancion) {
+        this.idCancion = idCancion;
+    }
+
+    /**
+     * Obtiene el título de la canción.
+     *
+     * @return Título de la canción como cadena de texto
+     */
+    public String getTitulo() {
+        return titulo;
+    }
+
+    /**
+     * Establece el título de la canción.
+     *
+     * @param titulo Nuevo título para la canción
+     */
+    public void setTitulo(String titulo) {
+        this.titulo = titulo;
+    }
+
+    /**
+     * Obtiene la duración de la canción en segundos.
+     *
+     * @return Duración de la canción en segundos
+     */
+    public double getDuracion() {
+        return duracion;
+    }
+
+    /**
+     * Establece la duración de la canción en segundos.
+     *
+     * @param duracion Duración en segundos como número decimal
+     */
+    public void setDuracion(double duracion) {
+        this.duracion = duracion;
+    }
+
+    /**
+     * Obtiene el año de lanzamiento de la canción.
+     *
+     * @return Año de publicación como entero
+     */
+    public int getAnio() {
+        return anio;
+    }
+
+    /**
+     * Establece el año de lanzamiento de la canción.
+     *
+     * @param anio Año de publicación
+     */
+    public void setAnio(int anio) {
+        this.anio = anio;
+    }
+
+    /**
+     * Obtiene la fecha y hora de registro de la canción en el sistema.
+     *
+     * @return Fecha de registro como LocalDateTime
+     */
+    public LocalDateTime getFechaRegistro() {
+        return fechaRegistro;
+    }
+
+    /**
+     * Establece la fecha y hora de registro de la canción.
+     *
+     * @param fechaRegistro Fecha y hora de registro
+     */
+    public void setFechaRegistro(LocalDateTime fechaRegistro) {
+        this.fechaRegistro = fechaRegistro;
+    }
+
+    /**
+     * Obtiene la lista de artistas asociados a la canción.
+     *
+     * @return Lista de objetos ArtistaDTO asociados a la canción
+     */
+    public List<ArtistaDTO> getArtistas() {
+        return artistas;
+    }
+
+    /**
+     * Establece la lista de artistas asociados a la canción.
+     *
+     * @param artistas Lista de artistas participantes
+     */
+    public void setArtistas(List<ArtistaDTO> artistas) {
+        this.artistas = artistas;
+    }
+
+    /**
+     * Obtiene la lista de géneros musicales asociados a la canción.
+     *
+     * @return Lista de géneros musicales de tipo Genero enum
+     */
+    public List<Genero> getGeneros() {
+        return generos;
+    }
+
+    /**
+     * Establece la lista de géneros musicales asociados a la canción.
+     *
+     * @param generos Lista de géneros musicales
+     */
+    public void setGeneros(List<Genero> generos) {
+        this.generos = generos;
+    }
+
+    /**
+     * Devuelve una representación textual de la metadata de la canción para depuración.
+     *
+     * @return Representación en cadena de texto de los atributos de la canción
+     */
+    @Override
+    public String toString() {
+        return "\n" + getClass().getName()
+                + "\nIdCancion      : " + idCancion
+                + "\nTitulo         : " + titulo
+                + "\nDuracion       : " + duracion
+                + "\nAnio           : " + anio
+                + "\nFechaRegistro  : " + fechaRegistro
+                + "\nArtistas       : " + artistas
+                + "\nGeneros        : " + generos;
+    }
+}
@@ -0,0 +1,48 @@
+/*
+|-----------------------------------------------|
+| © 2025 EPN-FIS, Todos los derechos reservados |
+| GR1SW                                         |
+|-----------------------------------------------|
+Autores: Grupo A
+Descripción: Cantidad de reproducciones de una entidad en un periodo.
+*/
+
+package DataAccessComponent.DTO;
+
+/**
+ * Clase ConteoReproduccionDTO con las reproducciones de una canción, artista, género o
+ * usuario en un periodo.
+ *
+ * @author Grupo A
+ * @version 1.0
+ * @since 18-07-2025
+ */
+public class ConteoReproduccionDTO {
+
+    private final int id;
+    private final long reproducciones;
+
+    /**
+     * @param id ID de la canción, artista, género o usuario
+     * @param reproducciones Reproducciones en el periodo
+     */
+    public ConteoReproduccionDTO(int id, long reproducciones) {
+        this.id = id;
+        this.reproducciones = reproducciones;
+    }
+
+    /** @return ID de la canción, artista, género o usuario */
+    public int getId() {
+        return id;
+    }
+
+    /** @return Reproducciones en el periodo */
+    public long getReproducciones() {
+        return reproducciones;
+    }
+
+    @Override
+    public String toString() {
+        return "ConteoReproduccionDTO{id=" + id + ", reproducciones=" + reproducciones + "}";
+    }
+}
@@ -0,0 +1,105 @@
+/*
+|-----------------------------------------------|
+| © 2025 EPN-FIS, Todos los derechos reservados |
+| GR1SW                                         |
+|-----------------------------------------------|
+Autores: Grupo A
+Descripción: Condiciones de una cadena de recomendación para resolverlas con una sola consulta SQL.
+*/
+
+package DataAccessComponent.DTO;
+
+import BusinessLogic.utilities.NormalizadorTexto;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Clase CriteriosRecomendacionDTO que acumula las condiciones que aporta cada filtro de una
+ * cadena {@code Recomendador}.
+ *
+ * <p>Todas las condiciones se combinan con AND:</p>
+ * <ul>
+ *   <li>Cada grupo de géneros exige que la canción tenga al menos uno de ellos (un filtro
+ *       de género aporta un grupo de un elemento; las preferencias, un grupo con todos los
+ *       géneros preferidos).</li>
+ *   <li>Cada fragmento de artista exige que algún artista de la canción lo contenga, sin
+ *       distinguir mayúsculas, minúsculas ni tildes ({@link NormalizadorTexto}).</li>
+ *   <li>La fecha mínima exige que la canción se haya registrado después de ella; si se
+ *       indican varias, se conserva la más reciente.</li>
+ * </ul>
+ *
+ * <p>{@code CancionDAO.buscarResumenesPorCriterios} traduce estos criterios a una consulta
+ * que devuelve únicamente las canciones que los cumplen.</p>
+ *
+ * @author Grupo A
+ * @version 1.0
+ * @since 18-07-2025
+ */
+public class CriteriosRecomendacionDTO {
+
+    /** Grupos de IDs de género; la canción debe tener al menos uno de cada grupo */
+    private final List<Set<Integer>> gruposGeneros = new ArrayList<>();
+
+    /** Fragmentos normalizados que deben aparecer en el nombre normalizado de algún artista */
+    private final List<String> fragmentosArtista = new ArrayList<>();
+
+    /** Fecha de registro a partir de la cual se aceptan canciones, o null */
+    private LocalDateTime registradasDespuesDe;
+
+    /**
+     * Exige que la canción pertenezca a alguno de los géneros indicados.
+     *
+     * @param idsGeneros IDs de género de la tabla Genero; si está vacío no agrega condición
+     */
+    public void agregarGeneros(Collection<Integer> idsGeneros) {
+        if (!idsGeneros.isEmpty()) {
+            gruposGeneros.add(new LinkedHashSet<>(idsGeneros));
+        }
+    }
+
+    /**
+     * Exige que algún artista de la canción contenga el texto indicado.
+     *
+     * @param fragmento Texto ingresado por el usuario
+     */
+    public void agregarArtista(String fragmento) {
+        fragmentosArtista.add(NormalizadorTexto.normalizar(fragmento));
+    }
+
+    /**
+     * Exige que la canción se haya registrado después de una fecha.
+     *
+     * @param fecha Fecha límite (exclusiva)
+     */
+    public void registradasDespuesDe(LocalDateTime fecha) {
+        if (registradasDespuesDe == null || fecha.isAfter(registradasDespuesDe)) {
+            registradasDespuesDe = fecha;
+        }
+    }
+
+    /** @return Grupos de géneros acumulados */
+    public List<Set<Integer>> getGruposGeneros() {
+        return gruposGeneros;
+    }
+
+    /** @return Fragmentos de nombre de artista normalizados */
+    public List<String> getFragmentosArtista() {
+        return fragmentosArtista;
+    }
+
+    /** @return Fecha mínima de registro, o null si no hay condición de fecha */
+    public LocalDateTime getRegistradasDespuesDe() {
+        return registradasDespuesDe;
+    }
+
+    @Override
+    public String toString() {
+        return "CriteriosRecomendacionDTO{generos=" + gruposGeneros + ", artistas=" + fragmentosArtista
+                + ", despuesDe=" + registradasDespuesDe + "}";
+    }
+}
@@ -0,0 +1,71 @@
+/*
+|-----------------------------------------------|
+| © 2025 EPN-FIS, Todos los derechos reservados |
+| GR1SW                                         |
+|-----------------------------------------------|
+Autores: Grupo A
+Descripción: Textos de una canción, artista o playlist que se indexan para la búsqueda.
+*/
+
+package DataAccessComponent.DTO;
+
+/**
+ * Clase DocumentoBusquedaDTO con los textos buscables de un elemento del catálogo, repartidos
+ * en tres campos según su importancia:
+ * <ul>
+ *   <li>Canción: título, nombres de sus artistas y nombres de sus géneros.</li>
+ *   <li>Artista: nombre, biografía y nombres de sus géneros.</li>
+ *   <li>Playlist: título y descripción; no tiene etiquetas.</li>
+ * </ul>
+ *
+ * <p>Los campos que no existen o están vacíos se guardan como cadena vacía.</p>
+ *
+ * @author Grupo A
+ * @version 1.0
+ * @since 18-07-2025
+ */
+public class DocumentoBusquedaDTO {
+
+    private final int id;
+    private final String titulo;
+    private final String detalle;
+    private final String etiquetas;
+
+    /**
+     * @param id ID del elemento en su tabla
+     * @param titulo Título o nombre
+     * @param detalle Artistas, biografía o descripción
+     * @param etiquetas Nombres de géneros separados por espacios
+     */
+    public DocumentoBusquedaDTO(int id, String titulo, String detalle, String etiquetas) {
+        this.id = id;
+        this.titulo = titulo != null ? titulo : "";
+        this.detalle = detalle != null ? detalle : "";
+        this.etiquetas = etiquetas != null ? etiquetas : "";
+    }
+
+    /** @return ID del elemento en su tabla */
+    public int getId() {
+        return id;
+    }
+
+    /** @return Título o nombre */
+    public String getTitulo() {
+        return titulo;
+    }
+
+    /** @return Artistas, biografía o descripción */
+    public String getDetalle() {
+        return detalle;
+    }
+
+    /** @return Nombres de géneros separados por espacios */
+    public String getEtiquetas() {
+        return etiquetas;
+    }
+
+    @Override
+    public String toString() {
+        return "DocumentoBusquedaDTO{id=" + id + ", titulo='" + titulo + "'}";
+    }
+}
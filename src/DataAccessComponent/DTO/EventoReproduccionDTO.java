@@ -0,0 +1,75 @@
+/*
+|-----------------------------------------------|
+| © 2025 EPN-FIS, Todos los derechos reservados |
+| GR1SW                                         |
+|-----------------------------------------------|
+Autores: Grupo A
+Descripción: Fila de la tabla Reproduccion: un evento de reproducción de una canción.
+*/
+
+package DataAccessComponent.DTO;
+
+import java.time.LocalDateTime;
+
+/**
+ * Clase EventoReproduccionDTO que representa un registro de la tabla Reproduccion.
+ *
+ * @author Grupo A
+ * @version 1.0
+ * @since 18-07-2025
+ */
+public class EventoReproduccionDTO {
+
+    private final Integer idUsuario;
+    private final int idCancion;
+    private final TipoEventoReproduccion tipo;
+    private final LocalDateTime fechaHora;
+    private final double posicion;
+
+    /**
+     * @param idUsuario ID del usuario que escuchaba, o null si no había sesión
+     * @param idCancion ID de la canción
+     * @param tipo Momento de la reproducción
+     * @param fechaHora Instante del evento
+     * @param posicion Segundos reproducidos al ocurrir el evento
+     */
+    public EventoReproduccionDTO(Integer idUsuario, int idCancion, TipoEventoReproduccion tipo,
+                                 LocalDateTime fechaHora, double posicion) {
+        this.idUsuario = idUsuario;
+        this.idCancion = idCancion;
+        this.tipo = tipo;
+        this.fechaHora = fechaHora;
+        this.posicion = posicion;
+    }
+
+    /** @return ID del usuario, o null si no había sesión */
+    public Integer getIdUsuario() {
+        return idUsuario;
+    }
+
+    /** @return ID de la canción */
+    public int getIdCancion() {
+        return idCancion;
+    }
+
+    /** @return Momento de la reproducción */
+    public TipoEventoReproduccion getTipo() {
+        return tipo;
+    }
+
+    /** @return Instante del evento */
+    public LocalDateTime getFechaHora() {
+        return fechaHora;
+    }
+
+    /** @return Segundos reproducidos al ocurrir el evento */
+    public double getPosicion() {
+        return posicion;
+    }
+
+    @Override
+    public String toString() {
+        return "EventoReproduccionDTO{usuario=" + idUsuario + ", cancion=" + idCancion + ", tipo=" + tipo
+                + ", fechaHora=" + fechaHora + ", posicion=" + posicion + "}";
+    }
+}
@@ -0,0 +1,88 @@
+/*
+|-----------------------------------------------|
+| © 2025 EPN-FIS, Todos los derechos reservados |
+| GR1SW                                         |
+|-----------------------------------------------|
+Autores: Grupo A
+Descripción: Objeto de transferencia de datos (DTO) con las características técnicas del MP3 de una canción.
+*/
+
+package DataAccessComponent.DTO;
+
+/**
+ * Clase MetadatosAudioDTO que agrupa los datos técnicos de un archivo MP3 obtenidos al
+ * recorrer los encabezados de sus frames.
+ *
+ * <p>Se calculan una sola vez al registrar o reemplazar el audio y se guardan en las
+ * columnas {@code duracion}, {@code bitrate}, {@code frecuencia_muestreo}, {@code es_vbr}
+ * y {@code total_frames} de la tabla Cancion.</p>
+ *
+ * @author Grupo A
+ * @version 1.0
+ * @since 18-07-2025
+ */
+public class MetadatosAudioDTO {
+
+    /** Duración exacta en segundos (muestras totales / frecuencia) */
+    private final double duracion;
+
+    /** Bitrate promedio en kbps */
+    private final int bitrate;
+
+    /** Frecuencia de muestreo en Hz */
+    private final int frecuenciaMuestreo;
+
+    /** Indica si el archivo tiene bitrate variable */
+    private final boolean vbr;
+
+    /** Cantidad de frames de audio */
+    private final int totalFrames;
+
+    /**
+     * Constructor principal.
+     *
+     * @param duracion Duración en segundos
+     * @param bitrate Bitrate promedio en kbps
+     * @param frecuenciaMuestreo Frecuencia de muestreo en Hz
+     * @param vbr true si el bitrate cambia entre frames
+     * @param totalFrames Cantidad de frames
+     */
+    public MetadatosAudioDTO(double duracion, int bitrate, int frecuenciaMuestreo, boolean vbr, int totalFrames) {
+        this.duracion = duracion;
+        this.bitrate = bitrate;
+        this.frecuenciaMuestreo = frecuenciaMuestreo;
+        this.vbr = vbr;
+        this.totalFrames = totalFrames;
+    }
+
+    /** @return Duración exacta en segundos */
+    public double getDuracion() {
+        return duracion;
+    }
+
+    /** @return Bitrate promedio en kbps */
+    public int getBitrate() {
+        return bitrate;
+    }
+
+    /** @return Frecuencia de muestreo en Hz */
+    public int getFrecuenciaMuestreo() {
+        return frecuenciaMuestreo;
+    }
+
+    /** @return true si el archivo tiene bitrate variable */
+    public boolean isVbr() {
+        return vbr;
+    }
+
+    /** @return Cantidad de frames de audio */
+    public int getTotalFrames() {
+        return totalFrames;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("MetadatosAudioDTO{duracion=%.3fs, bitrate=%dkbps, frecuencia=%dHz, vbr=%s, frames=%d}",
+                duracion, bitrate, frecuenciaMuestreo, vbr, totalFrames);
+    }
+}
@@ -18,6 +18,9 @@ import java.util.Date;
  * @since 1.0
  */
 public class PerfilDTO {
+    /** Identificador del usuario en la base de datos */
+    private int idUsuario;
+
     /** Nombre del usuario */
     private String nombre;
     
@@ -78,6 +81,24 @@ public class PerfilDTO {
     }
 
     // Getters y setters
+
+    /**
+     * Obtiene el identificador del usuario.
+     *
+     * @return El ID del usuario, o 0 si el perfil aún no se guardó
+     */
+    public int getIdUsuario() {
+        return idUsuario;
+    }
+
+    /**
+     * Establece el identificador del usuario.
+     *
+     * @param idUsuario El ID del usuario
+     */
+    public void setIdUsuario(int idUsuario) {
+        this.idUsuario = idUsuario;
+    }
     
     /**
      * Obtiene el nombre del usuario.
@@ -0,0 +1,19 @@
+package DataAccessComponent.DTO;
+
+/**
+ * Enumeración de los periodos en que se acumulan los conteos de reproducciones.
+ *
+ * @author Grupo A
+ * @version 1.0
+ * @since 18-07-2025
+ */
+public enum PeriodoConteo {
+    /** Reproducciones de un día; el inicio es la fecha. */
+    DIA,
+
+    /** Reproducciones de una semana; el inicio es el lunes de esa semana. */
+    SEMANA,
+
+    /** Reproducciones de todo el historial; no tiene inicio. */
+    TOTAL
+}
@@ -0,0 +1,76 @@
+/*
+|-----------------------------------------------|
+| © 2025 EPN-FIS, Todos los derechos reservados |
+| GR1SW                                         |
+|-----------------------------------------------|
+Autores: Grupo A
+Descripción: Datos de una canción con los que se calcula su vector de similitud.
+*/
+
+package DataAccessComponent.DTO;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Clase RasgosCancionDTO con los datos de una canción que describen su contenido para el
+ * recomendador por similitud: géneros propios, artistas, géneros de esos artistas, año y
+ * duración.
+ *
+ * <p>Los géneros se guardan como su ID en la tabla Genero. En {@link #getGenerosArtistas()}
+ * un género aparece una vez por cada artista de la canción que lo tiene registrado.</p>
+ *
+ * @author Grupo A
+ * @version 1.0
+ * @since 18-07-2025
+ */
+public class RasgosCancionDTO {
+
+    private final int idCancion;
+    private final int anio;
+    private final double duracion;
+    private final List<Integer> generos = new ArrayList<>();
+    private final List<Integer> artistas = new ArrayList<>();
+    private final List<Integer> generosArtistas = new ArrayList<>();
+
+    /**
+     * @param idCancion ID de la canción
+     * @param anio Año de lanzamiento
+     * @param duracion Duración en segundos
+     */
+    public RasgosCancionDTO(int idCancion, int anio, double duracion) {
+        this.idCancion = idCancion;
+        this.anio = anio;
+        this.duracion = duracion;
+    }
+
+    /** @return ID de la canción */
+    public int getIdCancion() {
+        return idCancion;
+    }
+
+    /** @return Año de lanzamiento */
+    public int getAnio() {
+        return anio;
+    }
+
+    /** @return Duración en segundos */
+    public double getDuracion() {
+        return duracion;
+    }
+
+    /** @return IDs de los géneros de la canción */
+    public List<Integer> getGeneros() {
+        return generos;
+    }
+
+    /** @return IDs de los artistas de la canción */
+    public List<Integer> getArtistas() {
+        return artistas;
+    }
+
+    /** @return IDs de los géneros de los artistas, repetidos una vez por artista */
+    public List<Integer> getGenerosArtistas() {
+        return generosArtistas;
+    }
+}
@@ -0,0 +1,22 @@
+package DataAccessComponent.DTO;
+
+/**
+ * Enumeración de los momentos de una reproducción que se registran en la tabla Reproduccion.
+ *
+ * @author Grupo A
+ * @version 1.0
+ * @since 18-07-2025
+ */
+public enum TipoEventoReproduccion {
+    /** La canción empezó a sonar. */
+    INICIO,
+
+    /** La canción llegó a los 30 segundos de reproducción. */
+    TREINTA_SEGUNDOS,
+
+    /** La canción sonó hasta el final. */
+    COMPLETA,
+
+    /** El usuario pasó a otra canción antes de que terminara. */
+    SALTADA
+}
@@ -0,0 +1,125 @@
+/*
+|-----------------------------------------------|
+| © 2025 EPN-FIS, Todos los derechos reservados |
+| GR1SW                                         |
+|-----------------------------------------------|
+Autores: Grupo A
+Descripción: Actualización de bases SQLite creadas con versiones anteriores del DDL.
+*/
+
+package DataAccessComponent;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Clase MigracionEsquema que agrega a una base existente las tablas y columnas incorporadas
+ * al esquema después de su creación, junto con sus índices.
+ *
+ * <p>{@code scriptsBD/DDL_InkHarmony.sql} crea las tablas desde cero; esta clase permite
+ * que una base ya poblada siga funcionando sin recrearla. Cada cambio es idempotente:
+ * las tablas nuevas se crean con {@code IF NOT EXISTS} y las columnas e índices solo se
+ * aplican si su tabla existe y ellos todavía no. El pool la ejecuta una vez,
+ * antes de abrir su primera conexión.</p>
+ *
+ * @author Grupo A
+ * @version 1.0
+ * @since 18-07-2025
+ */
+final class MigracionEsquema {
+
+    /** Tablas agregadas al esquema, en orden de creación */
+    private static final String[] TABLAS = {
+            "CREATE TABLE IF NOT EXISTS Conteo_Cancion (id_cancion INTEGER NOT NULL, periodo TEXT NOT NULL, "
+                    + "inicio TEXT NOT NULL, reproducciones INTEGER NOT NULL, PRIMARY KEY (id_cancion, periodo, inicio))",
+            "CREATE TABLE IF NOT EXISTS Conteo_Artista (id_artista INTEGER NOT NULL, periodo TEXT NOT NULL, "
+                    + "inicio TEXT NOT NULL, reproducciones INTEGER NOT NULL, PRIMARY KEY (id_artista, periodo, inicio))",
+            "CREATE TABLE IF NOT EXISTS Conteo_Genero (id_genero INTEGER NOT NULL, periodo TEXT NOT NULL, "
+                    + "inicio TEXT NOT NULL, reproducciones INTEGER NOT NULL, PRIMARY KEY (id_genero, periodo, inicio))",
+            "CREATE TABLE IF NOT EXISTS Conteo_Usuario (id_usuario INTEGER NOT NULL, periodo TEXT NOT NULL, "
+                    + "inicio TEXT NOT NULL, reproducciones INTEGER NOT NULL, PRIMARY KEY (id_usuario, periodo, inicio))",
+            "CREATE TABLE IF NOT EXISTS Conteo_Genero_Cancion (id_genero INTEGER NOT NULL, id_cancion INTEGER NOT NULL, "
+                    + "periodo TEXT NOT NULL, inicio TEXT NOT NULL, reproducciones INTEGER NOT NULL, "
+                    + "PRIMARY KEY (id_genero, periodo, inicio, id_cancion))",
+            "CREATE TABLE IF NOT EXISTS Importacion_Archivo (ruta TEXT PRIMARY KEY, tamanio INTEGER NOT NULL, "
+                    + "modificado INTEGER NOT NULL, id_cancion INTEGER NOT NULL, fecha_importacion TEXT NOT NULL)",
+            "CREATE TABLE IF NOT EXISTS Contenido_Blob (hash TEXT PRIMARY KEY, tamanio INTEGER NOT NULL, "
+                    + "referencias INTEGER NOT NULL)",
+    };
+
+    /** Columnas agregadas al esquema: tabla, columna y definición */
+    private static final String[][] COLUMNAS = {
+            {"Cancion", "tabla_busqueda", "BLOB"},
+            {"Cancion", "bitrate", "INTEGER"},
+            {"Cancion", "frecuencia_muestreo", "INTEGER"},
+            {"Cancion", "es_vbr", "INTEGER"},
+            {"Cancion", "total_frames", "INTEGER"},
+            {"Cancion", "portada_miniatura", "BLOB"},
+            {"Reproduccion", "tipo_evento", "TEXT NOT NULL DEFAULT 'INICIO'"},
+            {"Reproduccion", "posicion", "REAL"},
+    };
+
+    /** Índices agregados al esquema: tabla y sentencia de creación */
+    private static final String[][] INDICES = {
+            {"Cancion_Genero", "CREATE INDEX IF NOT EXISTS idx_cancion_genero_genero ON Cancion_Genero(id_genero, id_cancion)"},
+            {"Cancion_Artista", "CREATE INDEX IF NOT EXISTS idx_cancion_artista_artista ON Cancion_Artista(id_artista, id_cancion)"},
+            {"Cancion", "CREATE INDEX IF NOT EXISTS idx_cancion_fecha_registro ON Cancion(datetime(fecha_registro))"},
+            {"Reproduccion", "CREATE INDEX IF NOT EXISTS idx_reproduccion_usuario_fecha ON Reproduccion(id_usuario, fecha_hora)"},
+            {"Conteo_Cancion", "CREATE INDEX IF NOT EXISTS idx_conteo_cancion_ranking ON Conteo_Cancion(periodo, inicio, reproducciones DESC, id_cancion)"},
+            {"Conteo_Artista", "CREATE INDEX IF NOT EXISTS idx_conteo_artista_ranking ON Conteo_Artista(periodo, inicio, reproducciones DESC, id_artista)"},
+            {"Conteo_Genero", "CREATE INDEX IF NOT EXISTS idx_conteo_genero_ranking ON Conteo_Genero(periodo, inicio, reproducciones DESC, id_genero)"},
+            {"Conteo_Usuario", "CREATE INDEX IF NOT EXISTS idx_conteo_usuario_ranking ON Conteo_Usuario(periodo, inicio, reproducciones DESC, id_usuario)"},
+            {"Conteo_Genero_Cancion", "CREATE INDEX IF NOT EXISTS idx_conteo_genero_cancion_ranking "
+                    + "ON Conteo_Genero_Cancion(id_genero, periodo, inicio, reproducciones DESC, id_cancion)"},
+    };
+
+    private MigracionEsquema() {
+    }
+
+    /**
+     * Aplica las migraciones pendientes sobre una conexión de escritura.
+     *
+     * @param conn Conexión con permiso de escritura
+     * @throws SQLException si ocurre un error al consultar o modificar el esquema
+     */
+    static void aplicar(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            // Solo se agregan tablas a una base que ya tiene el esquema; una base vacía la crea el DDL
+            if (existeTabla(stmt, "Cancion")) {
+                for (String tabla : TABLAS) {
+                    stmt.execute(tabla);
+                }
+            }
+            for (String[] columna : COLUMNAS) {
+                if (existeTabla(stmt, columna[0]) && !existeColumna(stmt, columna[0], columna[1])) {
+                    stmt.execute("ALTER TABLE " + columna[0] + " ADD COLUMN " + columna[1] + " " + columna[2]);
+                }
+            }
+            for (String[] indice : INDICES) {
+                if (existeTabla(stmt, indice[0])) {
+                    stmt.execute(indice[1]);
+                }
+            }
+        }
+    }
+
+    private static boolean existeTabla(Statement stmt, String tabla) throws SQLException {
+        try (ResultSet rs = stmt.executeQuery(
+                "SELECT 1 FROM sqlite_master WHERE type = 'table' AND name = '" + tabla + "'")) {
+            return rs.next();
+        }
+    }
+
+    private static boolean existeColumna(Statement stmt, String tabla, String columna) throws SQLException {
+        try (ResultSet rs = stmt.executeQuery("PRAGMA table_info(" + tabla + ")")) {
+            while (rs.next()) {
+                if (columna.equalsIgnoreCase(rs.getString("name"))) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
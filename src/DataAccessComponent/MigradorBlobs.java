@@ -0,0 +1,264 @@
+/*
+|-----------------------------------------------|
+| © 2025 EPN-FIS, Todos los derechos reservados |
+| GR1SW                                         |
+|-----------------------------------------------|
+Autores: Grupo A
+Descripción: Traslado de los BLOB en línea de la base al almacén de blobs.
+*/
+
+package DataAccessComponent;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Clase MigradorBlobs que saca de las filas de una base existente el audio y las imágenes
+ * guardados como BLOB y los lleva al {@link AlmacenBlobs}, dejando en cada columna solo el
+ * hash del contenido.
+ *
+ * <p>Las filas se trasladan por lotes de {@link #TAMANIO_LOTE}, cada uno en su propia
+ * transacción, así que el proceso puede interrumpirse y volver a ejecutarse: solo se
+ * procesan las columnas que aún tienen un BLOB. Al final recalcula la cuenta de referencias
+ * de {@code Contenido_Blob} a partir de las filas, por si quedó desfasada, y borra del
+ * almacén los archivos que ninguna fila usa. Con {@code --compactar} ejecuta además
+ * {@code VACUUM} para devolver al sistema el espacio que ocupaban los BLOB.</p>
+ *
+ * <p>Uso: {@code java DataAccessComponent.MigradorBlobs [--compactar]}</p>
+ *
+ * @author Grupo A
+ * @version 1.0
+ * @since 18-07-2025
+ */
+public final class MigradorBlobs extends SQLiteDataHelper {
+
+    /** Filas trasladadas por transacción; cada una puede traer un MP3 completo */
+    public static final int TAMANIO_LOTE = 32;
+
+    /** Columnas binarias que se guardan en el almacén: tabla, clave primaria y columna */
+    private static final String[][] COLUMNAS = {
+            {"Cancion", "id_cancion", "archivo_mp3"},
+            {"Cancion", "id_cancion", "portada"},
+            {"Artista", "id_artista", "imagen"},
+            {"Playlist", "id_playlist", "imagen_portada"},
+    };
+
+    private static final String SUMAR = "INSERT INTO Contenido_Blob(hash, tamanio, referencias) VALUES (?, ?, 1) "
+            + "ON CONFLICT(hash) DO UPDATE SET referencias = referencias + 1";
+
+    private final AlmacenBlobs almacen = almacenBlobs();
+
+    private int trasladados;
+    private long bytesTrasladados;
+    private int referenciasCorregidas;
+    private int huerfanosEliminados;
+
+    public static void main(String[] args) throws Exception {
+        boolean compactar = args.length > 0 && "--compactar".equals(args[0]);
+        MigradorBlobs migrador = new MigradorBlobs();
+        long inicio = System.nanoTime();
+        migrador.ejecutar(compactar);
+        System.out.println(migrador.resumen() + String.format(" en %d ms", (System.nanoTime() - inicio) / 1_000_000));
+    }
+
+    /**
+     * Traslada todos los BLOB pendientes, corrige las referencias y recolecta los huérfanos.
+     *
+     * @param compactar true para ejecutar {@code VACUUM} al terminar
+     * @throws Exception si ocurre un error al leer o escribir la base o el almacén
+     */
+    public void ejecutar(boolean compactar) throws Exception {
+        for (String[] columna : COLUMNAS) {
+            int lote;
+            do {
+                lote = trasladarLote(columna[0], columna[1], columna[2]);
+                if (lote > 0) {
+                    System.out.printf("Blobs: %d contenidos trasladados (%.1f MB)%n", trasladados,
+                            bytesTrasladados / (1024.0 * 1024.0));
+                }
+            } while (lote > 0);
+        }
+        recontarYRecolectar();
+        if (compactar) {
+            // VACUUM falla si la conexión tiene sentencias preparadas abiertas, como las que
+            // guarda la caché del pool; al cerrarlo, la siguiente conexión se abre limpia
+            closeConnection();
+            try (Connection conn = openConnection();
+                 Statement st = conn.createStatement()) {
+                st.execute("VACUUM");
+            } catch (Exception e) {
+                throw new Exception("Error al compactar la base: " + e.getMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * Traslada al almacén hasta {@link #TAMANIO_LOTE} BLOB de una columna en una transacción.
+     *
+     * @return Cantidad de filas trasladadas; 0 si no quedaban
+     */
+    private int trasladarLote(String tabla, String columnaId, String columna) throws Exception {
+        String pendientes = "SELECT " + columnaId + " FROM " + tabla
+                + " WHERE typeof(" + columna + ") = 'blob' LIMIT " + TAMANIO_LOTE;
+        String lectura = "SELECT " + columna + " FROM " + tabla + " WHERE " + columnaId + " = ?";
+        String actualizacion = "UPDATE " + tabla + " SET " + columna + " = ? WHERE " + columnaId + " = ?";
+        Connection conn = null;
+        try {
+            conn = openConnection();
+            conn.setAutoCommit(false);
+            List<Integer> ids = new ArrayList<>();
+            try (PreparedStatement ps = conn.prepareStatement(pendientes);
+                 ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    ids.add(rs.getInt(1));
+                }
+            }
+            // Se lee un BLOB a la vez para no tener en memoria todo el lote
+            int filas = 0;
+            try (PreparedStatement psLeer = conn.prepareStatement(lectura);
+                 PreparedStatement psActualizar = conn.prepareStatement(actualizacion);
+                 PreparedStatement psSumar = conn.prepareStatement(SUMAR)) {
+                for (int id : ids) {
+                    byte[] contenido;
+                    psLeer.setInt(1, id);
+                    try (ResultSet rs = psLeer.executeQuery()) {
+                        contenido = rs.next() ? rs.getBytes(1) : null;
+                    }
+                    if (contenido == null) {
+                        // Un BLOB vacío puede leerse como null; se guarda igual para no volver a encontrarlo
+                        contenido = new byte[0];
+                    }
+                    String hash = almacen.guardar(contenido);
+                    psActualizar.setString(1, hash);
+                    psActualizar.setInt(2, id);
+                    psActualizar.executeUpdate();
+                    psSumar.setString(1, hash);
+                    psSumar.setLong(2, contenido.length);
+                    psSumar.executeUpdate();
+                    filas++;
+                    bytesTrasladados += contenido.length;
+                }
+            }
+            conn.commit();
+            trasladados += filas;
+            return filas;
+        } catch (Exception e) {
+            if (conn != null) {
+                conn.rollback();
+            }
+            throw new Exception("Error al trasladar " + tabla + "." + columna + " al almacén: " + e.getMessage(), e);
+        } finally {
+            if (conn != null) {
+                conn.setAutoCommit(true);
+                conn.close();
+            }
+        }
+    }
+
+    /**
+     * Recalcula las referencias de cada contenido contando las filas que lo usan y borra del
+     * almacén los archivos sin referencias. Todo ocurre con la conexión de escritura
+     * arrendada, así que ningún DAO guarda un contenido mientras se decide qué borrar.
+     */
+    private void recontarYRecolectar() throws Exception {
+        StringBuilder usos = new StringBuilder("SELECT hash, COUNT(*) FROM (");
+        for (int i = 0; i < COLUMNAS.length; i++) {
+            usos.append(i > 0 ? " UNION ALL " : "").append("SELECT ").append(COLUMNAS[i][2]).append(" AS hash FROM ")
+                    .append(COLUMNAS[i][0]).append(" WHERE typeof(").append(COLUMNAS[i][2]).append(") = 'text'");
+        }
+        usos.append(") GROUP BY hash");
+
+        Connection conn = null;
+        try {
+            conn = openConnection();
+            conn.setAutoCommit(false);
+            Map<String, Integer> referencias = new HashMap<>();
+            try (PreparedStatement ps = conn.prepareStatement(usos.toString());
+                 ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    referencias.put(rs.getString(1), rs.getInt(2));
+                }
+            }
+            Map<String, Integer> registradas = new HashMap<>();
+            try (PreparedStatement ps = conn.prepareStatement("SELECT hash, referencias FROM Contenido_Blob");
+                 ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    registradas.put(rs.getString(1), rs.getInt(2));
+                }
+            }
+            corregirReferencias(conn, referencias, registradas);
+            conn.commit();
+
+            List<String> huerfanos = new ArrayList<>();
+            for (String hash : almacen.listar()) {
+                if (!referencias.containsKey(hash)) {
+                    huerfanos.add(hash);
+                }
+            }
+            for (String hash : huerfanos) {
+                if (almacen.eliminar(hash)) {
+                    huerfanosEliminados++;
+                }
+            }
+        } catch (Exception e) {
+            if (conn != null) {
+                conn.rollback();
+            }
+            throw new Exception("Error al recontar las referencias del almacén: " + e.getMessage(), e);
+        } finally {
+            if (conn != null) {
+                conn.setAutoCommit(true);
+                conn.close();
+            }
+        }
+    }
+
+    private void corregirReferencias(Connection conn, Map<String, Integer> referencias,
+                                     Map<String, Integer> registradas) throws SQLException, IOException {
+        Set<String> sobrantes = new HashSet<>(registradas.keySet());
+        sobrantes.removeAll(referencias.keySet());
+        try (PreparedStatement borrar = conn.prepareStatement("DELETE FROM Contenido_Blob WHERE hash = ?");
+             PreparedStatement fijar = conn.prepareStatement("INSERT INTO Contenido_Blob(hash, tamanio, referencias) "
+                     + "VALUES (?, ?, ?) ON CONFLICT(hash) DO UPDATE SET referencias = excluded.referencias")) {
+            for (String hash : sobrantes) {
+                borrar.setString(1, hash);
+                borrar.executeUpdate();
+                referenciasCorregidas++;
+            }
+            for (Map.Entry<String, Integer> uso : referencias.entrySet()) {
+                if (uso.getValue().equals(registradas.get(uso.getKey()))) {
+                    continue;
+                }
+                Path archivo = almacen.ruta(uso.getKey());
+                if (!almacen.existe(uso.getKey())) {
+                    System.err.println("El contenido " + uso.getKey() + " está referenciado pero no existe en el almacén");
+                }
+                fijar.setString(1, uso.getKey());
+                fijar.setLong(2, archivo != null ? Files.size(archivo) : 0);
+                fijar.setInt(3, uso.getValue());
+                fijar.executeUpdate();
+                referenciasCorregidas++;
+            }
+        }
+    }
+
+    /**
+     * @return Resumen legible de la última ejecución
+     */
+    public String resumen() {
+        return String.format("Blobs: trasladados=%d (%.1f MB) referencias corregidas=%d huérfanos eliminados=%d",
+                trasladados, bytesTrasladados / (1024.0 * 1024.0), referenciasCorregidas, huerfanosEliminados);
+    }
+}
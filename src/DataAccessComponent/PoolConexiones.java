@@ -0,0 +1,858 @@
+/*
+|-----------------------------------------------|
+| © 2025 EPN-FIS, Todos los derechos reservados |
+| GR1SW                                         |
+|-----------------------------------------------|
+Autores: Grupo A
+Descripción: Pool de conexiones SQLite con un escritor serializado y varios lectores en modo WAL.
+*/
+
+package DataAccessComponent;
+
+import BusinessLogic.utilities.NormalizadorTexto;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.sqlite.Function;
+
+/**
+ * Clase PoolConexiones que arrienda conexiones SQLite a los DAO y las recupera al cerrarlas.
+ *
+ * <p>El pool mantiene una única conexión de escritura, protegida por un candado justo para
+ * que las escrituras y transacciones se ejecuten de una en una, y hasta {@code N} conexiones
+ * de solo lectura ({@code PRAGMA query_only}) que permiten leer en paralelo. La base se
+ * configura con {@code journal_mode=WAL}, por lo que los lectores no se bloquean mientras el
+ * escritor confirma una transacción.</p>
+ *
+ * <p>Cada arriendo es una {@link Connection} envolvente: al llamar a {@code close()} se cierran
+ * las sentencias creadas durante el arriendo y la conexión real vuelve al pool. Los arriendos
+ * son reentrantes por hilo: si un hilo ya tiene una conexión, los arriendos anidados reciben
+ * la misma, y una lectura dentro de una escritura usa la conexión del escritor para ver los
+ * cambios aún no confirmados.</p>
+ *
+ * <p>Una transacción pertenece al arriendo que la abrió con {@code setAutoCommit(false)}. En
+ * un arriendo anidado, {@code setAutoCommit(false)} se une a la transacción abierta y
+ * {@code commit()} y {@code setAutoCommit(true)} no hacen nada: confirma el arriendo externo.
+ * Un {@code rollback()} anidado revierte todo y hace fallar el {@code commit()} externo. Las
+ * acciones que deben esperar a la confirmación real se registran con
+ * {@link #alConfirmar(Runnable)} y {@link #alRevertir(Runnable)}.</p>
+ *
+ * <p>Cada conexión física tiene una {@link CacheSentencias}: {@code prepareStatement(sql)}
+ * devuelve una sentencia ya compilada si existe y {@code close()} sobre ella la devuelve a
+ * la caché en lugar de destruirla, de modo que SQLite compila cada SQL una vez por conexión.</p>
+ *
+ * <p>Cada conexión física registra la función SQL {@code normalizar(texto)}, que aplica
+ * {@link NormalizadorTexto}: el {@code lower()} de SQLite solo convierte letras ASCII, y así
+ * las búsquedas en la base comparan igual que las que se resuelven en memoria.</p>
+ *
+ * <p>Expone métricas de tamaño, uso y tiempo de espera para diagnosticar contención, y
+ * contadores de fugas: sentencias y {@link ResultSet} que un DAO dejó sin cerrar al devolver
+ * la conexión. Esos recursos se cierran igualmente, pero quedan registrados para que
+ * {@link #verificarSinFugas(long, long)} pueda detectarlos.</p>
+ *
+ * @author Grupo A
+ * @version 1.0
+ * @since 18-07-2025
+ */
+public final class PoolConexiones {
+
+    /** Tiempo máximo de espera por una conexión antes de fallar */
+    private static final long ESPERA_MAXIMA_MS = 30_000;
+
+    /** Milisegundos que SQLite reintenta una operación bloqueada antes de devolver SQLITE_BUSY */
+    private static final int BUSY_TIMEOUT_MS = 5_000;
+
+    /** Ruta JDBC de la base de datos */
+    private final String url;
+
+    /** Número máximo de conexiones de lectura */
+    private final int maxLectores;
+
+    /** Candado que serializa el uso de la conexión de escritura */
+    private final ReentrantLock candadoEscritura = new ReentrantLock(true);
+
+    /** Conexión de escritura, creada en el primer arriendo */
+    private ConexionFisica escritor;
+
+    /** Se pidió cerrar la conexión de escritura mientras estaba arrendada; se cierra al devolverla */
+    private volatile boolean cerrarEscritor;
+
+    /** Conexiones de lectura disponibles */
+    private final BlockingQueue<ConexionFisica> lectoresLibres;
+
+    /** Si ya se verificó el esquema de la base con {@link MigracionEsquema} */
+    private boolean esquemaMigrado;
+
+    /** Conexiones de lectura creadas hasta el momento */
+    private final AtomicInteger lectoresCreados = new AtomicInteger();
+
+    /** Arriendos vigentes del hilo actual (uno de escritura y uno de lectura como máximo) */
+    private final ThreadLocal<Arriendo[]> arriendosDelHilo = ThreadLocal.withInitial(() -> new Arriendo[2]);
+
+    // ==================== MÉTRICAS ====================
+
+    private final AtomicLong arriendosLectura = new AtomicLong();
+    private final AtomicLong arriendosEscritura = new AtomicLong();
+    private final AtomicLong esperaTotalNanos = new AtomicLong();
+    private final AtomicLong esperaMaximaNanos = new AtomicLong();
+    private final AtomicInteger lectoresEnUso = new AtomicInteger();
+    private final AtomicLong sentenciasCreadas = new AtomicLong();
+    private final AtomicLong sentenciasCompiladas = new AtomicLong();
+    private final AtomicLong resultadosAbiertos = new AtomicLong();
+    private final AtomicLong sentenciasFugadas = new AtomicLong();
+    private final AtomicLong resultadosFugados = new AtomicLong();
+
+    /**
+     * Crea un pool sobre la base indicada. Las conexiones se abren a medida que se necesitan.
+     *
+     * @param url Ruta JDBC de la base SQLite
+     * @param maxLectores Número máximo de conexiones de solo lectura (mínimo 1)
+     */
+    public PoolConexiones(String url, int maxLectores) {
+        this.url = url;
+        this.maxLectores = Math.max(1, maxLectores);
+        this.lectoresLibres = new ArrayBlockingQueue<>(this.maxLectores);
+    }
+
+    /**
+     * Arrienda la conexión de escritura. Bloquea mientras otro hilo la tenga.
+     * La conexión debe cerrarse (idealmente con try-with-resources) para liberarla.
+     *
+     * @return Conexión de escritura arrendada
+     * @throws SQLException si no se puede abrir la conexión o se agota el tiempo de espera
+     */
+    public Connection arrendarEscritura() throws SQLException {
+        Arriendo[] propios = arriendosDelHilo.get();
+        if (propios[0] != null) {
+            propios[0].profundidad++;
+            return propios[0].envoltura;
+        }
+
+        long inicio = System.nanoTime();
+        try {
+            if (!candadoEscritura.tryLock(ESPERA_MAXIMA_MS, TimeUnit.MILLISECONDS)) {
+                throw new SQLException("Tiempo de espera agotado para la conexión de escritura");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrumpido esperando la conexión de escritura", e);
+        }
+        registrarEspera(System.nanoTime() - inicio);
+
+        try {
+            if (escritor == null || escritor.real.isClosed()) {
+                escritor = abrir(false);
+            }
+        } catch (SQLException e) {
+            candadoEscritura.unlock();
+            throw e;
+        }
+        arriendosEscritura.incrementAndGet();
+        propios[0] = new Arriendo(escritor, true);
+        return propios[0].envoltura;
+    }
+
+    /**
+     * Arrienda una conexión de solo lectura. Si el hilo ya tiene la conexión de escritura,
+     * se reutiliza esa para leer sus propios cambios.
+     *
+     * @return Conexión de lectura arrendada
+     * @throws SQLException si no se puede abrir la conexión o se agota el tiempo de espera
+     */
+    public Connection arrendarLectura() throws SQLException {
+        Arriendo[] propios = arriendosDelHilo.get();
+        if (propios[0] != null) {
+            propios[0].profundidad++;
+            return propios[0].envoltura;
+        }
+        if (propios[1] != null) {
+            propios[1].profundidad++;
+            return propios[1].envoltura;
+        }
+
+        long inicio = System.nanoTime();
+        ConexionFisica real = lectoresLibres.poll();
+        if (real == null && lectoresCreados.getAndIncrement() < maxLectores) {
+            try {
+                real = abrir(true);
+            } catch (SQLException e) {
+                lectoresCreados.decrementAndGet();
+                throw e;
+            }
+        } else if (real == null) {
+            lectoresCreados.decrementAndGet();
+            try {
+                real = lectoresLibres.poll(ESPERA_MAXIMA_MS, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new SQLException("Interrumpido esperando una conexión de lectura", e);
+            }
+            if (real == null) {
+                throw new SQLException("Tiempo de espera agotado para una conexión de lectura");
+            }
+        }
+        registrarEspera(System.nanoTime() - inicio);
+
+        arriendosLectura.incrementAndGet();
+        lectoresEnUso.incrementAndGet();
+        propios[1] = new Arriendo(real, false);
+        return propios[1].envoltura;
+    }
+
+    /**
+     * Cierra todas las conexiones libres y la de escritura. Las conexiones de lectura
+     * arrendadas en este momento se cierran cuando se devuelven. Si la de escritura está
+     * arrendada, incluso por el hilo que llama, se cierra cuando termine ese arriendo, para
+     * no cortar una transacción en curso.
+     *
+     * @throws SQLException si ocurre un error al cerrar alguna conexión
+     */
+    public synchronized void cerrar() throws SQLException {
+        ConexionFisica lector;
+        while ((lector = lectoresLibres.poll()) != null) {
+            lector.cerrar();
+            lectoresCreados.decrementAndGet();
+        }
+        cerrarEscritor = true;
+        if (!candadoEscritura.isHeldByCurrentThread() && candadoEscritura.tryLock()) {
+            try {
+                cerrarEscritorLibre();
+            } finally {
+                candadoEscritura.unlock();
+            }
+        }
+    }
+
+    /**
+     * Cierra la conexión de escritura si se pidió. Debe llamarse con el candado de escritura
+     * tomado y sin arriendos vigentes.
+     */
+    private void cerrarEscritorLibre() throws SQLException {
+        if (!cerrarEscritor) {
+            return;
+        }
+        cerrarEscritor = false;
+        if (escritor != null) {
+            ConexionFisica cerrada = escritor;
+            escritor = null;
+            cerrada.cerrar();
+        }
+    }
+
+    /**
+     * Ejecuta una acción cuando los cambios del hilo quedan confirmados. Si el hilo está en un
+     * arriendo de escritura anidado dentro de una transacción abierta por otro externo, la
+     * acción espera al {@code commit()} de ese arriendo y se descarta si se revierte; si no,
+     * se ejecuta de inmediato.
+     *
+     * @param accion Acción a ejecutar, por ejemplo borrar archivos que quedaron sin uso
+     */
+    public void alConfirmar(Runnable accion) {
+        Arriendo arriendo = arriendosDelHilo.get()[0];
+        if (arriendo != null && arriendo.anidado()) {
+            arriendo.alConfirmar.add(accion);
+        } else {
+            accion.run();
+        }
+    }
+
+    /**
+     * Registra una acción que deshace efectos externos a la base (por ejemplo, archivos
+     * escritos) si la transacción que abrió un arriendo externo termina revirtiéndose. Fuera
+     * de un arriendo anidado los cambios ya están confirmados y la acción se descarta.
+     *
+     * @param accion Acción a ejecutar si la transacción externa se revierte
+     */
+    public void alRevertir(Runnable accion) {
+        Arriendo arriendo = arriendosDelHilo.get()[0];
+        if (arriendo != null && arriendo.anidado()) {
+            arriendo.alRevertir.add(accion);
+        }
+    }
+
+    // ==================== MÉTRICAS PÚBLICAS ====================
+
+    /** @return Número máximo de conexiones de lectura */
+    public int getMaxLectores() {
+        return maxLectores;
+    }
+
+    /** @return Conexiones de lectura abiertas hasta el momento */
+    public int getLectoresCreados() {
+        return lectoresCreados.get();
+    }
+
+    /** @return Conexiones de lectura arrendadas en este momento */
+    public int getLectoresEnUso() {
+        return lectoresEnUso.get();
+    }
+
+    /** @return true si algún hilo tiene arrendada la conexión de escritura */
+    public boolean isEscrituraEnUso() {
+        return candadoEscritura.isLocked();
+    }
+
+    /** @return Hilos esperando la conexión de escritura */
+    public int getEsperandoEscritura() {
+        return candadoEscritura.getQueueLength();
+    }
+
+    /** @return Arriendos de lectura concedidos (sin contar los reentrantes) */
+    public long getArriendosLectura() {
+        return arriendosLectura.get();
+    }
+
+    /** @return Arriendos de escritura concedidos (sin contar los reentrantes) */
+    public long getArriendosEscritura() {
+        return arriendosEscritura.get();
+    }
+
+    /** @return Tiempo promedio de espera por una conexión, en milisegundos */
+    public double getEsperaPromedioMs() {
+        long total = arriendosLectura.get() + arriendosEscritura.get();
+        return total == 0 ? 0 : esperaTotalNanos.get() / 1_000_000.0 / total;
+    }
+
+    /** @return Mayor tiempo de espera observado por una conexión, en milisegundos */
+    public double getEsperaMaximaMs() {
+        return esperaMaximaNanos.get() / 1_000_000.0;
+    }
+
+    /** @return Sentencias creadas sobre las conexiones del pool */
+    public long getSentenciasCreadas() {
+        return sentenciasCreadas.get();
+    }
+
+    /** Reinicia el contador de sentencias creadas. */
+    public void reiniciarSentenciasCreadas() {
+        sentenciasCreadas.set(0);
+    }
+
+    /** @return Sentencias que hubo que compilar porque no estaban en la caché */
+    public long getSentenciasCompiladas() {
+        return sentenciasCompiladas.get();
+    }
+
+    /** @return ResultSet abiertos en este momento en todas las conexiones */
+    public long getResultadosAbiertos() {
+        return resultadosAbiertos.get();
+    }
+
+    /** @return Sentencias que seguían abiertas cuando se devolvió su conexión */
+    public long getSentenciasFugadas() {
+        return sentenciasFugadas.get();
+    }
+
+    /** @return ResultSet que seguían abiertos cuando se devolvió su conexión */
+    public long getResultadosFugados() {
+        return resultadosFugados.get();
+    }
+
+    /**
+     * Comprueba que no se hayan registrado fugas nuevas desde los valores de referencia.
+     * Pensado para ejecutarse después de una llamada a un DAO:
+     * <pre>
+     * long s = pool.getSentenciasFugadas(), r = pool.getResultadosFugados();
+     * dao.buscarTodo();
+     * pool.verificarSinFugas(s, r);
+     * </pre>
+     *
+     * @param sentenciasAntes Valor de {@link #getSentenciasFugadas()} antes de la operación
+     * @param resultadosAntes Valor de {@link #getResultadosFugados()} antes de la operación
+     * @throws IllegalStateException si la operación dejó sentencias o ResultSet sin cerrar
+     */
+    public void verificarSinFugas(long sentenciasAntes, long resultadosAntes) {
+        long sentencias = sentenciasFugadas.get() - sentenciasAntes;
+        long resultados = resultadosFugados.get() - resultadosAntes;
+        if (sentencias != 0 || resultados != 0) {
+            throw new IllegalStateException("Recursos JDBC sin cerrar: " + sentencias
+                    + " sentencias y " + resultados + " ResultSet");
+        }
+    }
+
+    /**
+     * Devuelve un resumen legible de las métricas del pool.
+     *
+     * @return Texto con tamaño, uso y tiempos de espera
+     */
+    public String resumen() {
+        return String.format(
+                "Pool SQLite: lectores %d/%d en uso (%d creados), escritor %s (%d esperando), "
+                        + "arriendos L=%d E=%d, espera prom=%.2f ms max=%.2f ms, "
+                        + "sentencias %d (%d compiladas), fugas S=%d R=%d",
+                getLectoresEnUso(), maxLectores, getLectoresCreados(),
+                isEscrituraEnUso() ? "ocupado" : "libre", getEsperandoEscritura(),
+                getArriendosLectura(), getArriendosEscritura(),
+                getEsperaPromedioMs(), getEsperaMaximaMs(),
+                getSentenciasCreadas(), getSentenciasCompiladas(),
+                getSentenciasFugadas(), getResultadosFugados());
+    }
+
+    // ==================== IMPLEMENTACIÓN ====================
+
+    /**
+     * Abre una conexión real, la configura para WAL y le registra la función {@code normalizar}.
+     *
+     * @param soloLectura true para impedir escrituras en la conexión
+     * @return Conexión configurada con su caché de sentencias
+     * @throws SQLException si ocurre un error al abrirla
+     */
+    private ConexionFisica abrir(boolean soloLectura) throws SQLException {
+        migrarEsquema();
+        Connection conn = DriverManager.getConnection(url);
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("PRAGMA busy_timeout = " + BUSY_TIMEOUT_MS);
+            if (soloLectura) {
+                stmt.execute("PRAGMA query_only = ON");
+            } else {
+                stmt.execute("PRAGMA journal_mode = WAL");
+                stmt.execute("PRAGMA synchronous = NORMAL");
+            }
+        }
+        Function.create(conn, "normalizar", new Function() {
+            @Override
+            protected void xFunc() throws SQLException {
+                String texto = value_text(0);
+                result(texto == null ? null : NormalizadorTexto.normalizar(texto));
+            }
+        }, 1, Function.FLAG_DETERMINISTIC);
+        return new ConexionFisica(conn);
+    }
+
+    /**
+     * Aplica {@link MigracionEsquema} la primera vez que se abre una conexión, para que las
+     * sentencias que se compilen después ya vean las columnas nuevas.
+     *
+     * @throws SQLException si la migración falla
+     */
+    private synchronized void migrarEsquema() throws SQLException {
+        if (esquemaMigrado) {
+            return;
+        }
+        try (Connection conn = DriverManager.getConnection(url)) {
+            MigracionEsquema.aplicar(conn);
+        }
+        esquemaMigrado = true;
+    }
+
+    private void registrarEspera(long nanos) {
+        esperaTotalNanos.addAndGet(nanos);
+        esperaMaximaNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    /**
+     * Libera un arriendo cuando su último cierre anidado se produce.
+     */
+    private void liberar(Arriendo arriendo) throws SQLException {
+        if (--arriendo.profundidad > 0) {
+            return;
+        }
+        Arriendo[] propios = arriendosDelHilo.get();
+        propios[arriendo.escritura ? 0 : 1] = null;
+        arriendo.cerrarSentencias();
+
+        Connection real = arriendo.fisica.real;
+        if (arriendo.escritura) {
+            try {
+                // Una transacción olvidada no debe filtrarse al siguiente arriendo
+                if (!real.getAutoCommit()) {
+                    real.rollback();
+                    real.setAutoCommit(true);
+                    arriendo.terminarTransaccion(false);
+                }
+            } finally {
+                try {
+                    cerrarEscritorLibre();
+                } finally {
+                    candadoEscritura.unlock();
+                }
+            }
+        } else {
+            lectoresEnUso.decrementAndGet();
+            if (real.isClosed() || !lectoresLibres.offer(arriendo.fisica)) {
+                arriendo.fisica.cerrar();
+                lectoresCreados.decrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Crea un proxy de {@code interfaz} que delega en {@code real} salvo en los métodos que
+     * maneja {@code manejador}; este devuelve {@link #DELEGAR} para dejar pasar la llamada.
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> T envolver(Class<T> interfaz, T real, Manejador manejador) {
+        return (T) Proxy.newProxyInstance(interfaz.getClassLoader(), new Class<?>[]{interfaz},
+                (proxy, metodo, args) -> {
+                    Object resultado = manejador.manejar(metodo.getName(), args);
+                    if (resultado != DELEGAR) {
+                        return resultado;
+                    }
+                    try {
+                        return metodo.invoke(real, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                });
+    }
+
+    /** Marca que indica a {@link #envolver} que la llamada debe ir al objeto real */
+    private static final Object DELEGAR = new Object();
+
+    /** Intercepta llamadas de un proxy JDBC por nombre de método */
+    @FunctionalInterface
+    private interface Manejador {
+        Object manejar(String metodo, Object[] args) throws Throwable;
+    }
+
+    /**
+     * Conexión física abierta junto con su caché de sentencias.
+     */
+    private static final class ConexionFisica {
+        final Connection real;
+        final CacheSentencias cache;
+
+        ConexionFisica(Connection real) {
+            this.real = real;
+            this.cache = new CacheSentencias(real);
+        }
+
+        void cerrar() throws SQLException {
+            cache.cerrar();
+            real.close();
+        }
+    }
+
+    /**
+     * Arriendo vigente de una conexión física por parte de un hilo.
+     */
+    private final class Arriendo {
+        final ConexionFisica fisica;
+        final boolean escritura;
+        final Connection envoltura;
+        final List<SentenciaArrendada> sentencias = new ArrayList<>();
+        int profundidad = 1;
+
+        /** Profundidad del arriendo que abrió la transacción en curso; 0 si no hay */
+        int nivelTransaccion;
+
+        /** Un arriendo anidado revirtió la transacción; el commit externo debe fallar */
+        boolean revertida;
+
+        /** Acciones pendientes de la confirmación de la transacción externa */
+        final List<Runnable> alConfirmar = new ArrayList<>();
+
+        /** Acciones a ejecutar si la transacción externa se revierte */
+        final List<Runnable> alRevertir = new ArrayList<>();
+
+        Arriendo(ConexionFisica fisica, boolean escritura) {
+            this.fisica = fisica;
+            this.escritura = escritura;
+            this.envoltura = envolver(Connection.class, fisica.real, (metodo, args) -> {
+                switch (metodo) {
+                    case "close":
+                        liberar(this);
+                        return null;
+                    case "isClosed":
+                        return profundidad <= 0 || fisica.real.isClosed();
+                    case "setAutoCommit":
+                        return cambiarAutoCommit((Boolean) args[0]);
+                    case "commit":
+                        confirmar();
+                        return null;
+                    case "rollback":
+                        if (args != null && args.length > 0) {
+                            return DELEGAR; // Hasta un savepoint: no termina la transacción
+                        }
+                        revertir();
+                        return null;
+                    case "prepareStatement":
+                        if (args.length == 1) {
+                            return preparar((String) args[0], Statement.NO_GENERATED_KEYS);
+                        }
+                        if (args.length == 2 && args[1] instanceof Integer) {
+                            return preparar((String) args[0], (Integer) args[1]);
+                        }
+                        return registrar(new SentenciaArrendada(prepararSinCache(args), null, 0));
+                    case "createStatement":
+                        if (args == null || args.length == 0) {
+                            return registrar(new SentenciaArrendada(fisica.real.createStatement(), null, 0));
+                        }
+                        return DELEGAR;
+                    default:
+                        return DELEGAR;
+                }
+            });
+        }
+
+        /**
+         * @return true si hay una transacción abierta por un arriendo más externo que el actual
+         */
+        boolean anidado() {
+            return nivelTransaccion > 0 && profundidad > nivelTransaccion;
+        }
+
+        private Object cambiarAutoCommit(boolean autoCommit) throws SQLException {
+            if (!autoCommit) {
+                if (nivelTransaccion == 0) {
+                    fisica.real.setAutoCommit(false);
+                    nivelTransaccion = profundidad;
+                    revertida = false;
+                }
+                // Dentro de una transacción abierta, el arriendo anidado se une a ella
+                return null;
+            }
+            if (nivelTransaccion == 0 || anidado()) {
+                return null;
+            }
+            // Según JDBC, volver a autocommit confirma lo pendiente
+            if (revertida) {
+                fisica.real.rollback();
+            }
+            fisica.real.setAutoCommit(true);
+            terminarTransaccion(!revertida);
+            return null;
+        }
+
+        private void confirmar() throws SQLException {
+            if (anidado()) {
+                return; // Confirma el arriendo que abrió la transacción
+            }
+            if (revertida) {
+                fisica.real.rollback();
+                terminarTransaccion(false);
+                nivelTransaccion = profundidad;
+                throw new SQLException("La transacción se revirtió en una operación anidada");
+            }
+            fisica.real.commit();
+            ejecutar(alConfirmar);
+            alRevertir.clear();
+        }
+
+        private void revertir() throws SQLException {
+            fisica.real.rollback();
+            ejecutar(alRevertir);
+            alConfirmar.clear();
+            if (anidado()) {
+                revertida = true;
+            }
+        }
+
+        /**
+         * Cierra la transacción del arriendo: ejecuta las acciones de confirmación o las de
+         * reversión según cómo terminó.
+         */
+        void terminarTransaccion(boolean confirmada) {
+            ejecutar(confirmada ? alConfirmar : alRevertir);
+            alConfirmar.clear();
+            alRevertir.clear();
+            nivelTransaccion = 0;
+            revertida = false;
+        }
+
+        private void ejecutar(List<Runnable> acciones) {
+            List<Runnable> pendientes = new ArrayList<>(acciones);
+            acciones.clear();
+            for (Runnable accion : pendientes) {
+                try {
+                    accion.run();
+                } catch (RuntimeException e) {
+                    System.err.println("Error al completar la transacción: " + e.getMessage());
+                }
+            }
+        }
+
+        /**
+         * Obtiene una sentencia de la caché de la conexión o la compila si no existe.
+         */
+        private Statement preparar(String sql, int clavesGeneradas) throws SQLException {
+            PreparedStatement ps = fisica.cache.tomar(sql, clavesGeneradas);
+            if (ps == null) {
+                sentenciasCompiladas.incrementAndGet();
+                ps = fisica.cache.compilar(sql, clavesGeneradas);
+            }
+            return registrar(new SentenciaArrendada(ps, sql, clavesGeneradas));
+        }
+
+        /**
+         * Compila una sentencia con las opciones de las demás variantes de
+         * {@code prepareStatement} (columnas de claves generadas, tipo, concurrencia o
+         * permanencia del ResultSet). No pasa por la caché, que solo distingue el SQL y si
+         * devuelve claves generadas.
+         */
+        private PreparedStatement prepararSinCache(Object[] args) throws SQLException {
+            String sql = (String) args[0];
+            if (args[1] instanceof int[]) {
+                return fisica.real.prepareStatement(sql, (int[]) args[1]);
+            }
+            if (args[1] instanceof String[]) {
+                return fisica.real.prepareStatement(sql, (String[]) args[1]);
+            }
+            if (args.length == 3) {
+                return fisica.real.prepareStatement(sql, (Integer) args[1], (Integer) args[2]);
+            }
+            return fisica.real.prepareStatement(sql, (Integer) args[1], (Integer) args[2], (Integer) args[3]);
+        }
+
+        private Statement registrar(SentenciaArrendada sentencia) {
+            sentenciasCreadas.incrementAndGet();
+            sentencias.add(sentencia);
+            return sentencia.envoltura;
+        }
+
+        /**
+         * Cierra lo que el DAO dejó abierto y lo contabiliza como fuga.
+         */
+        void cerrarSentencias() {
+            for (SentenciaArrendada sentencia : sentencias) {
+                if (!sentencia.cerrada) {
+                    sentenciasFugadas.incrementAndGet();
+                    sentencia.cerrar(true);
+                }
+            }
+            sentencias.clear();
+        }
+
+        /**
+         * Sentencia entregada al DAO. Si proviene de la caché ({@code sql != null}), al cerrarla
+         * vuelve a la caché; si no, se cierra de verdad.
+         */
+        private final class SentenciaArrendada {
+            final Statement real;
+            final String sql;
+            final int clavesGeneradas;
+            final Statement envoltura;
+            final List<ResultadoArrendado> resultados = new ArrayList<>();
+            boolean cerrada;
+
+            SentenciaArrendada(Statement real, String sql, int clavesGeneradas) {
+                this.real = real;
+                this.sql = sql;
+                this.clavesGeneradas = clavesGeneradas;
+                Manejador manejador = (metodo, args) -> {
+                    switch (metodo) {
+                        case "close":
+                            cerrar(false);
+                            return null;
+                        case "isClosed":
+                            return cerrada;
+                        case "getConnection":
+                            return Arriendo.this.envoltura;
+                        case "executeQuery":
+                        case "getGeneratedKeys":
+                        case "getResultSet":
+                            if (cerrada) {
+                                throw new SQLException("La sentencia ya fue cerrada");
+                            }
+                            return envolverResultado(metodo, args);
+                        default:
+                            return DELEGAR;
+                    }
+                };
+                this.envoltura = real instanceof PreparedStatement
+                        ? envolver(PreparedStatement.class, (PreparedStatement) real, manejador)
+                        : envolver(Statement.class, real, manejador);
+            }
+
+            private Object envolverResultado(String metodo, Object[] args) throws SQLException {
+                ResultSet rs;
+                if (metodo.equals("getGeneratedKeys")) {
+                    rs = real.getGeneratedKeys();
+                } else if (metodo.equals("getResultSet")) {
+                    rs = real.getResultSet();
+                } else if (args == null || args.length == 0) {
+                    rs = ((PreparedStatement) real).executeQuery();
+                } else {
+                    rs = real.executeQuery((String) args[0]);
+                }
+                if (rs == null) {
+                    return null;
+                }
+                ResultadoArrendado resultado = new ResultadoArrendado(rs);
+                resultados.add(resultado);
+                return resultado.envoltura;
+            }
+
+            /**
+             * Cierra la sentencia y sus ResultSet. Cerrar la sentencia cierra sus ResultSet
+             * según JDBC; solo se cuentan como fuga si la sentencia misma quedó abierta.
+             */
+            void cerrar(boolean porFuga) {
+                if (cerrada) {
+                    return;
+                }
+                cerrada = true;
+                for (ResultadoArrendado resultado : resultados) {
+                    if (!resultado.cerrado) {
+                        if (porFuga) {
+                            resultadosFugados.incrementAndGet();
+                        }
+                        resultado.cerrar();
+                    }
+                }
+                resultados.clear();
+                if (sql != null) {
+                    fisica.cache.devolver(sql, clavesGeneradas, (PreparedStatement) real);
+                } else {
+                    try {
+                        real.close();
+                    } catch (SQLException ignored) {
+                        // La sentencia se descarta de todos modos
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * ResultSet entregado al DAO; lleva la cuenta de los abiertos.
+     */
+    private final class ResultadoArrendado {
+        final ResultSet real;
+        final ResultSet envoltura;
+        boolean cerrado;
+
+        ResultadoArrendado(ResultSet real) {
+            this.real = real;
+            resultadosAbiertos.incrementAndGet();
+            this.envoltura = envolver(ResultSet.class, real, (metodo, args) -> {
+                switch (metodo) {
+                    case "close":
+                        cerrar();
+                        return null;
+                    case "isClosed":
+                        return cerrado || real.isClosed();
+                    default:
+                        return DELEGAR;
+                }
+            });
+        }
+
+        void cerrar() {
+            if (cerrado) {
+                return;
+            }
+            cerrado = true;
+            resultadosAbiertos.decrementAndGet();
+            try {
+                real.close();
+            } catch (SQLException ignored) {
+                // El ResultSet ya no es utilizable
+            }
+        }
+    }
+}
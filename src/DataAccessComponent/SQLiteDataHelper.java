@@ -9,9 +9,11 @@ Descripcion: Data Helper para SQLite
 
 package DataAccessComponent;
 
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.sql.Connection;
-import java.sql.DriverManager;
-import java.sql.SQLException;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 
 /**
  * Clase abstracta que proporciona funcionalidades de conexión a la base de datos SQLite.
@@ -20,12 +22,21 @@ import java.sql.SQLException;
  * SQLite utilizada por el sistema InkHarmony. Proporciona métodos para abrir y cerrar
  * conexiones de manera segura y sincronizada.</p>
  * 
- * <p>La clase implementa un patrón Singleton para la conexión, asegurando que solo
- * exista una instancia de conexión activa en todo momento. Los métodos son estáticos
- * y sincronizados para garantizar thread-safety en entornos multi-hilo.</p>
+ * <p>Las conexiones se arriendan desde un {@link PoolConexiones} compartido: una única
+ * conexión de escritura serializada y varias de solo lectura que pueden usarse en paralelo
+ * (por ejemplo, cargar portadas mientras se sube una canción). Cada arriendo debe cerrarse,
+ * preferentemente con try-with-resources, para devolver la conexión al pool:</p>
+ * <pre>
+ * try (Connection conn = openReadConnection()) {
+ *     ...
+ * }
+ * </pre>
  * 
  * <p>Esta clase es la base para todas las clases DAO del sistema, proporcionándoles
  * la funcionalidad de conexión a la base de datos de manera transparente.</p>
+ *
+ * <p>El pool cuenta cada sentencia preparada o creada, lo que permite medir cuántas
+ * consultas ejecuta una operación mediante {@link #getConsultasEjecutadas()}.</p>
  * 
  * @author Grupo E - InkHarmony Team
  * @version 1.0
@@ -33,11 +44,17 @@ import java.sql.SQLException;
  */
 public abstract class SQLiteDataHelper {
     
-    /** Ruta de conexión a la base de datos SQLite */
-    private static String DBPathConnection = "jdbc:sqlite:database\\InkHarmony.sqlite";
-    
-    /** Instancia única de la conexión a la base de datos */
-    private static Connection conn = null;
+    /** Ruta de conexión a la base de datos SQLite; puede sobrescribirse con la propiedad {@code inkharmony.db} */
+    private static String DBPathConnection = System.getProperty("inkharmony.db", "jdbc:sqlite:database\\InkHarmony.sqlite");
+
+    /** Conexiones de lectura del pool; puede sobrescribirse con la propiedad {@code inkharmony.db.lectores} */
+    private static final int LECTORES = Integer.getInteger("inkharmony.db.lectores", 4);
+
+    /** Pool único de conexiones compartido por todos los DAO */
+    private static final PoolConexiones pool = new PoolConexiones(DBPathConnection, LECTORES);
+
+    /** Almacén del audio y las imágenes; se crea al primer uso si no se instaló otro */
+    private static volatile AlmacenBlobs almacenBlobs;
 
     /**
      * Constructor protegido de SQLiteDataHelper.
@@ -49,50 +66,158 @@ public abstract class SQLiteDataHelper {
     protected SQLiteDataHelper() {}
 
     /**
-     * Abre una conexión a la base de datos SQLite de manera sincronizada.
-     * 
-     * <p>Este método implementa un patrón Singleton para la conexión a la base de datos.
-     * Si no existe una conexión activa, crea una nueva. Si ya existe una conexión,
-     * retorna la conexión existente. El método es sincronizado para garantizar
-     * thread-safety en entornos multi-hilo.</p>
+     * Arrienda la conexión de escritura de la base de datos SQLite.
      * 
-     * <p>La conexión se establece utilizando el driver JDBC de SQLite y la ruta
-     * de conexión configurada en la variable DBPathConnection.</p>
+     * <p>Solo un hilo a la vez puede tener la conexión de escritura, por lo que las
+     * transacciones ({@code setAutoCommit(false)}) ya no se mezclan con operaciones de
+     * otros hilos. Si el hilo ya la tiene, se devuelve la misma conexión. Al cerrarla,
+     * cualquier transacción sin confirmar se revierte.</p>
      * 
-     * @return La conexión a la base de datos SQLite
+     * @return La conexión de escritura arrendada; debe cerrarse para liberarla
      * 
-     * @throws SQLException Si ocurre un error durante la conexión a la base de datos
-     * @throws Exception Si ocurre un error general durante el proceso de conexión
+     * @throws Exception Si ocurre un error al abrir la conexión o se agota el tiempo de espera
      */
-    protected static synchronized Connection openConnection() throws Exception {
-        try {
-            if (conn == null)
-                conn = DriverManager.getConnection(DBPathConnection);
-        } catch (SQLException e) {
-            throw e;
-        }
-        return conn;
+    protected static Connection openConnection() throws Exception {
+        return pool.arrendarEscritura();
     }
 
     /**
-     * Cierra la conexión activa a la base de datos SQLite.
+     * Arrienda una conexión de solo lectura de la base de datos SQLite.
      * 
-     * <p>Este método cierra la conexión actual a la base de datos si existe.
-     * Después de cerrar la conexión, la variable conn se establece en null,
-     * permitiendo que se cree una nueva conexión en futuras llamadas a openConnection().</p>
+     * <p>Varias lecturas de distintos hilos se ejecutan en paralelo gracias al modo WAL.
+     * Si el hilo tiene la conexión de escritura, se reutiliza para ver sus propios cambios.</p>
+     * 
+     * @return Una conexión de lectura arrendada; debe cerrarse para liberarla
+     * 
+     * @throws Exception Si ocurre un error al abrir la conexión o se agota el tiempo de espera
+     */
+    protected static Connection openReadConnection() throws Exception {
+        return pool.arrendarLectura();
+    }
+
+    /**
+     * Cierra las conexiones del pool.
      * 
      * <p>Es importante cerrar las conexiones cuando ya no se necesiten para
-     * liberar recursos del sistema y evitar problemas de memoria.</p>
+     * liberar recursos del sistema. Un arriendo posterior vuelve a abrir las conexiones.</p>
      * 
-     * @throws SQLException Si ocurre un error durante el cierre de la conexión
-     * @throws Exception Si ocurre un error general durante el proceso de cierre
+     * @throws Exception Si ocurre un error durante el cierre de las conexiones
      */
     protected static void closeConnection() throws Exception {
-        try {
-            if (conn != null)
-                conn.close();
-        } catch (SQLException e) {
-            throw e;
+        pool.cerrar();
+    }
+
+    /**
+     * Cuenta las filas de una tabla; base de {@code IPaginable.contar()}.
+     *
+     * @param tabla Nombre de la tabla (constante del DAO, nunca texto del usuario)
+     * @return Cantidad de filas
+     * @throws Exception Si ocurre un error durante la consulta
+     */
+    protected static int contarFilas(String tabla) throws Exception {
+        try (Connection conn = openReadConnection();
+             PreparedStatement ps = conn.prepareStatement("SELECT COUNT(*) FROM " + tabla);
+             ResultSet rs = ps.executeQuery()) {
+            return rs.next() ? rs.getInt(1) : 0;
+        } catch (Exception e) {
+            throw new Exception("Error al contar las filas de " + tabla + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Busca el ID que ocupa una posición en orden de ID; base de
+     * {@code IPaginable.buscarIdEnPosicion(int)}. Recorre solo el índice de la clave primaria.
+     *
+     * @param tabla Nombre de la tabla (constante del DAO)
+     * @param columnaId Columna de la clave primaria
+     * @param posicion Posición empezando en 0
+     * @return ID en esa posición, o null si la tabla tiene menos filas
+     * @throws Exception Si ocurre un error durante la consulta
+     */
+    protected static Integer buscarIdEnPosicion(String tabla, String columnaId, int posicion) throws Exception {
+        String sql = "SELECT " + columnaId + " FROM " + tabla + " ORDER BY " + columnaId + " LIMIT 1 OFFSET ?";
+        try (Connection conn = openReadConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setInt(1, Math.max(0, posicion));
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? rs.getInt(1) : null;
+            }
+        } catch (Exception e) {
+            throw new Exception("Error al buscar la posición " + posicion + " de " + tabla + ": " + e.getMessage(), e);
         }
     }
+
+    /**
+     * Devuelve el almacén donde se guardan el audio y las imágenes fuera de la base.
+     *
+     * <p>Por defecto es un {@link AlmacenBlobsArchivos} en el directorio indicado por la
+     * propiedad {@code inkharmony.blobs} o, si no se indica, en un directorio junto al archivo
+     * de la base con su mismo nombre y el sufijo {@code -blobs} (como los archivos
+     * {@code -wal} y {@code -shm} de SQLite).</p>
+     *
+     * @return Almacén compartido por los DAO
+     */
+    public static AlmacenBlobs almacenBlobs() {
+        AlmacenBlobs almacen = almacenBlobs;
+        if (almacen == null) {
+            synchronized (SQLiteDataHelper.class) {
+                if (almacenBlobs == null) {
+                    almacenBlobs = new AlmacenBlobsArchivos(directorioBlobsPorDefecto());
+                }
+                almacen = almacenBlobs;
+            }
+        }
+        return almacen;
+    }
+
+    /**
+     * Reemplaza el almacén de blobs, por ejemplo por uno en otro disco. Debe llamarse antes
+     * de usar los DAO; los contenidos del almacén anterior no se copian.
+     *
+     * @param almacen Almacén a usar desde ahora
+     */
+    public static void usarAlmacenBlobs(AlmacenBlobs almacen) {
+        synchronized (SQLiteDataHelper.class) {
+            almacenBlobs = almacen;
+        }
+    }
+
+    private static Path directorioBlobsPorDefecto() {
+        String configurado = System.getProperty("inkharmony.blobs");
+        if (configurado != null && !configurado.isBlank()) {
+            return Paths.get(configurado);
+        }
+        // La URL por defecto usa '\' como separador; se normaliza para que funcione en cualquier sistema
+        String archivo = DBPathConnection.replaceFirst("^jdbc:sqlite:(file:)?", "").replaceFirst("\\?.*$", "").replace('\\', '/');
+        if (archivo.isEmpty() || archivo.startsWith(":memory:")) {
+            return Paths.get(System.getProperty("java.io.tmpdir"), "inkharmony-blobs");
+        }
+        return Paths.get(archivo + "-blobs");
+    }
+
+    /**
+     * Obtiene el pool de conexiones para consultar sus métricas de tamaño, uso y espera.
+     *
+     * @return Pool compartido por los DAO
+     */
+    public static PoolConexiones getPool() {
+        return pool;
+    }
+
+    /**
+     * Obtiene el número de sentencias SQL creadas desde el inicio de la aplicación o desde
+     * el último llamado a {@link #reiniciarContadorConsultas()}.
+     *
+     * @return Cantidad de sentencias preparadas o creadas sobre las conexiones del pool
+     */
+    public static long getConsultasEjecutadas() {
+        return pool.getSentenciasCreadas();
+    }
+
+    /**
+     * Reinicia a cero el contador de sentencias SQL.
+     */
+    public static void reiniciarContadorConsultas() {
+        pool.reiniciarSentenciasCreadas();
+    }
 }
@@ -8,6 +8,8 @@ import BusinessLogic.Sesion;
 import DataAccessComponent.DTO.AdministradorDTO;
 import DataAccessComponent.DTO.PerfilDTO;
 import DataAccessComponent.DTO.TipoUsuario;
+import UserInterface.Utils.BusquedaAsincrona;
+import UserInterface.Utils.ListaPaginada;
 import UserInterface.Utils.RecursosPerfil;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
@@ -80,8 +82,12 @@ public class AdministracionUsuarioController {
     @FXML
     private TableColumn<PerfilDTO, String> colRol;
 
-    // Lista original para búsqueda
+    // Máximo de usuarios que muestra una búsqueda por correo
+    private static final int LIMITE_RESULTADOS = 500;
+
+    // Lista original, leída por páginas a medida que se muestra
     private ObservableList<PerfilDTO> listaOriginalUsuarios = FXCollections.observableArrayList();
+    private BusquedaAsincrona<List<PerfilDTO>> busqueda;
 
     @FXML
     public void initialize() {
@@ -120,10 +126,9 @@ public class AdministracionUsuarioController {
     }
 
     private void configurarListeners() {
-        // Listener para búsqueda activa
-        txtBuscarCorreo.textProperty().addListener((observable, oldValue, newValue) -> {
-            filtrarUsuariosPorCorreo(newValue);
-        });
+        // Listener para búsqueda activa, filtrada fuera del hilo de JavaFX
+        busqueda = new BusquedaAsincrona<>("usuarios", this::filtrarUsuariosPorCorreo, this::mostrarUsuarios);
+        txtBuscarCorreo.textProperty().addListener((observable, oldValue, newValue) -> busqueda.solicitar(newValue));
 
         // Listener para selección de fila
         tblUsuarios.getSelectionModel().selectedItemProperty().addListener((obs, oldSelection, newSelection) -> {
@@ -141,10 +146,12 @@ public class AdministracionUsuarioController {
     }
 
     private void cargarUsuarios() {
-        List<PerfilDTO> usuarios = administrador.consultarUsuarios();
-        listaOriginalUsuarios.setAll(usuarios);
+        try {
+            listaOriginalUsuarios = new ListaPaginada<>(administrador.paginasUsuarios(), PerfilDTO::getIdUsuario);
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
         tblUsuarios.setItems(listaOriginalUsuarios);
-    
     }
 
     private void actualizarImagenPerfil() {
@@ -182,22 +189,17 @@ public class AdministracionUsuarioController {
         });
     }
 
-    private void filtrarUsuariosPorCorreo(String filtro) {
+    // Se ejecuta en segundo plano y filtra en la base de datos; null indica que se muestre la lista original
+    private List<PerfilDTO> filtrarUsuariosPorCorreo(String filtro) throws Exception {
 
         if (filtro == null || filtro.trim().isEmpty()) {
-            tblUsuarios.setItems(listaOriginalUsuarios);
-        } else {
-            ObservableList<PerfilDTO> filtrados = FXCollections.observableArrayList();
-            String filtroLower = filtro.toLowerCase().trim();
-            
-            for (PerfilDTO perfil : listaOriginalUsuarios) {
-                String correo = perfil.getCorreo();
-                if (correo != null && correo.toLowerCase().startsWith(filtroLower)) {
-                    filtrados.add(perfil);
-                }
-            }
-            tblUsuarios.setItems(filtrados);
+            return null;
         }
+        return administrador.buscarUsuariosPorCorreo(filtro.trim(), LIMITE_RESULTADOS);
+    }
+
+    private void mostrarUsuarios(List<PerfilDTO> filtrados) {
+        tblUsuarios.setItems(filtrados == null ? listaOriginalUsuarios : FXCollections.observableArrayList(filtrados));
     }
 
     @FXML
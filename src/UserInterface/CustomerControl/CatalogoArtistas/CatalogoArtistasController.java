@@ -1,6 +1,9 @@
 package UserInterface.CustomerControl.CatalogoArtistas;
 
 import BusinessLogic.Artista;
+import BusinessLogic.MotorBusqueda;
+import UserInterface.Utils.BusquedaAsincrona;
+import UserInterface.Utils.ListaPaginada;
 import DataAccessComponent.DTO.ArtistaDTO;
 import BusinessLogic.Genero;
 import javafx.beans.binding.Bindings;
@@ -43,8 +46,12 @@ public class CatalogoArtistasController {
     @FXML
     private TextField txtBuscar;
 
+    // Máximo de resultados que muestra una búsqueda
+    private static final int LIMITE_RESULTADOS = 500;
+
     private Artista artistaBL = new Artista();
     private ObservableList<ArtistaDTO> listaObservable;
+    private BusquedaAsincrona<List<ArtistaDTO>> busqueda;
 
     @FXML
     private TableColumn<ArtistaDTO, ArtistaDTO> colNombreConImagen;
@@ -64,25 +71,24 @@ public class CatalogoArtistasController {
     }
 
     private void configurarBusqueda() {
-        txtBuscar.textProperty().addListener((observable, oldValue, newValue) -> {
-            filtrarArtistas(newValue);
-        });
+        MotorBusqueda.getInstancia().precargar();
+        busqueda = new BusquedaAsincrona<>("artistas", this::filtrarArtistas, this::mostrarArtistas);
+        txtBuscar.textProperty().addListener((observable, oldValue, newValue) -> busqueda.solicitar(newValue));
     }
 
-    private void filtrarArtistas(String filtro) {
-        if (filtro == null || filtro.isBlank()) {
-            tableArtistas.setItems(listaObservable);
-            agregarColumnaAcciones();
-            return;
+    // Se ejecuta en segundo plano: por nombre, biografía o géneros, los más relevantes primero,
+    // leyendo de la base de datos solo los artistas encontrados
+    private List<ArtistaDTO> filtrarArtistas(String filtro) throws Exception {
+        List<ArtistaDTO> artistas = listaObservable;
+        if (filtro.isBlank()) {
+            return artistas;
         }
+        List<Integer> ids = MotorBusqueda.getInstancia().buscar(MotorBusqueda.Tipo.ARTISTA, filtro, LIMITE_RESULTADOS);
+        return artistaBL.buscarPorIds(ids);
+    }
 
-        ObservableList<ArtistaDTO> filtrados = FXCollections.observableArrayList(
-                listaObservable.stream()
-                        .filter(artista -> artista.getNombre().toLowerCase().contains(filtro.toLowerCase()))
-                        .collect(Collectors.toList())
-        );
-
-        tableArtistas.setItems(filtrados);
+    private void mostrarArtistas(List<ArtistaDTO> artistas) {
+        tableArtistas.setItems(artistas == listaObservable ? listaObservable : FXCollections.observableArrayList(artistas));
         agregarColumnaAcciones();
     }
 
@@ -163,11 +169,9 @@ public class CatalogoArtistasController {
     }
 
 
+    // Cada página de artistas se lee de la base de datos cuando la tabla la muestra
     private void cargarArtistas() throws Exception {
-        List<ArtistaDTO> lista = artistaBL.buscarTodo();
-        System.out.println("Artistas cargados desde DAO:");
-        lista.forEach(System.out::println);
-        listaObservable = FXCollections.observableArrayList(lista);
+        listaObservable = new ListaPaginada<>(artistaBL.paginas(), ArtistaDTO::getId);
         tableArtistas.setItems(listaObservable);
     }
 
@@ -1,5 +1,6 @@
 package UserInterface.CustomerControl.CatalogoArtistas;
 
+import BusinessLogic.MotorBusqueda;
 import BusinessLogic.ServicioValidacionArtista;
 import DataAccessComponent.DTO.ArtistaDTO;
 import DataAccessComponent.DAO.ArtistaDAO;
@@ -55,6 +56,7 @@ public class EliminarArtistasController {
             try {
                 boolean eliminado = artistaDAO.eliminar(artista.getId());
                 if (eliminado) {
+                    MotorBusqueda.getInstancia().invalidar(MotorBusqueda.Tipo.ARTISTA, MotorBusqueda.Tipo.CANCION);
                     mostrarAlerta("El artista fue eliminado correctamente.");
                     if (catalogoController != null) {
                         catalogoController.actualizarTabla(); // Actualizar catálogo
@@ -10,9 +10,14 @@ Descripción: Controlador del catálogo de canciones.
 package UserInterface.CustomerControl.CatalogoCanciones;
 
 
+import BusinessLogic.CacheImagenes;
 import BusinessLogic.Cancion;
+import BusinessLogic.MotorBusqueda;
+import UserInterface.Utils.BusquedaAsincrona;
+import UserInterface.Utils.ListaPaginada;
 import DataAccessComponent.DTO.ArtistaDTO;
 import DataAccessComponent.DTO.CancionDTO;
+import DataAccessComponent.DTO.CancionResumenDTO;
 import BusinessLogic.Genero;
 import javafx.beans.binding.Bindings;
 import javafx.beans.property.SimpleObjectProperty;
@@ -34,7 +39,6 @@ import javafx.stage.Stage;
 
 import javafx.event.ActionEvent;
 
-import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -83,24 +87,24 @@ public class CatalogoCancionesController {
         }
     }
     @FXML
-    private TableColumn<CancionDTO, Void> colAcciones;
+    private TableColumn<CancionResumenDTO, Void> colAcciones;
 
 
     // Referencia a la tabla principal que muestra las canciones
     @FXML
-    private TableView<CancionDTO> tableCanciones;
+    private TableView<CancionResumenDTO> tableCanciones;
 
     // Columnas de la tabla
     @FXML
-    private TableColumn<CancionDTO, String> colGenero;
+    private TableColumn<CancionResumenDTO, String> colGenero;
     @FXML
-    private TableColumn<CancionDTO, String> colDuracion;
+    private TableColumn<CancionResumenDTO, String> colDuracion;
     @FXML
-    private TableColumn<CancionDTO, CancionDTO> colTituloConImagen;
+    private TableColumn<CancionResumenDTO, CancionResumenDTO> colTituloConImagen;
     @FXML
-    private TableColumn<CancionDTO, String> colAnio;
+    private TableColumn<CancionResumenDTO, String> colAnio;
     @FXML
-    private TableColumn<CancionDTO, String> colArtista;
+    private TableColumn<CancionResumenDTO, String> colArtista;
 
     // Campo de texto para búsqueda de canciones por título
     @FXML
@@ -109,8 +113,14 @@ public class CatalogoCancionesController {
     // Instancia de la capa de lógica de negocio para manejo de canciones
     private Cancion cancionBL = new Cancion();
 
-    // Lista observable que se vincula a la tabla para actualización dinámica
-    private ObservableList<CancionDTO> listaObservable;
+    // Máximo de resultados que muestra una búsqueda
+    private static final int LIMITE_RESULTADOS = 500;
+
+    // Lista paginada con el catálogo completo; se lee de la base de datos a medida que se muestra
+    private ObservableList<CancionResumenDTO> listaObservable;
+
+    // Filtra en segundo plano mientras se escribe en txtBuscar
+    private BusquedaAsincrona<List<CancionResumenDTO>> busqueda;
 
     /**
      * Inicializa el controlador configurando la tabla, botones, búsqueda y cargando datos.
@@ -130,29 +140,36 @@ public class CatalogoCancionesController {
      * Configura el campo de búsqueda para filtrar canciones en tiempo real.
      */
     private void configurarBusqueda() {
-        txtBuscar.textProperty().addListener((observable, oldValue, newValue) -> {
-            filtrarCanciones(newValue);
-        });
+        MotorBusqueda.getInstancia().precargar();
+        busqueda = new BusquedaAsincrona<>("canciones", this::filtrarCanciones, this::mostrarCanciones);
+        txtBuscar.textProperty().addListener((observable, oldValue, newValue) -> busqueda.solicitar(newValue));
     }
 
     /**
-     * Filtra la lista de canciones según el texto ingresado en el campo de búsqueda.
+     * Busca canciones según el texto ingresado en el campo de búsqueda, por título, artistas
+     * o géneros, sin distinguir tildes y tolerando errores de tipeo. Se ejecuta en segundo
+     * plano, fuera del hilo de JavaFX, y lee de la base de datos solo las canciones encontradas.
      *
-     * @param filtro Texto para buscar coincidencias en los títulos de las canciones.
+     * @param filtro Texto para buscar coincidencias en las canciones.
+     * @return Hasta {@value #LIMITE_RESULTADOS} canciones de la más a la menos relevante, o la
+     *         lista completa si no hay filtro.
+     * @throws Exception si no se puede consultar el índice de búsqueda.
      */
-    private void filtrarCanciones(String filtro) {
-        if (filtro == null || filtro.isBlank()) {
-            tableCanciones.setItems(listaObservable);
-            return;
+    private List<CancionResumenDTO> filtrarCanciones(String filtro) throws Exception {
+        List<CancionResumenDTO> catalogo = listaObservable;
+        if (filtro.isBlank()) {
+            return catalogo;
         }
+        List<Integer> ids = MotorBusqueda.getInstancia().buscar(MotorBusqueda.Tipo.CANCION, filtro, LIMITE_RESULTADOS);
+        return cancionBL.buscarResumenesPorIds(ids);
+    }
 
-        ObservableList<CancionDTO> filtrados = FXCollections.observableArrayList(
-                listaObservable.stream()
-                        .filter(cancion -> cancion.getTitulo().toLowerCase().contains(filtro.toLowerCase()))
-                        .collect(Collectors.toList())
-        );
-
-        tableCanciones.setItems(filtrados);
+    /**
+     * Muestra en la tabla el resultado de la última búsqueda.
+     */
+    private void mostrarCanciones(List<CancionResumenDTO> canciones) {
+        tableCanciones.setItems(canciones == listaObservable ? listaObservable
+                : FXCollections.observableArrayList(canciones));
     }
 /*
     * Configura la tabla de canciones estableciendo políticas de ajuste, deshabilitando reordenamiento
@@ -201,6 +218,7 @@ public class CatalogoCancionesController {
             private final HBox contenedor = new HBox(10);
             private final ImageView imageView = new ImageView();
             private final Label label = new Label();
+            private final Image portadaDefecto = loadDefaultImage();
 
             {
                 imageView.setFitHeight(40);
@@ -211,20 +229,13 @@ public class CatalogoCancionesController {
             Método que actualiza el contenido de la celda con la imagen y el título de la canción.
              */
             @Override
-            protected void updateItem(CancionDTO cancion, boolean empty) {
+            protected void updateItem(CancionResumenDTO cancion, boolean empty) {
                 super.updateItem(cancion, empty);
                 if (empty || cancion == null) {
                     setGraphic(null);
                 } else {
-                    if (cancion.getPortada() != null) {
-                        try {
-                            imageView.setImage(new Image(new ByteArrayInputStream(cancion.getPortada())));
-                        } catch (Exception e) {
-                            imageView.setImage(loadDefaultImage());
-                        }
-                    } else {
-                        imageView.setImage(loadDefaultImage());
-                    }
+                    // La miniatura se lee en segundo plano; mientras tanto se ve la imagen por defecto
+                    CacheImagenes.getInstancia().mostrarPortadaCancion(imageView, cancion.getIdCancion(), portadaDefecto);
                     label.setText(cancion.getTitulo());
                     setGraphic(contenedor);
                 }
@@ -250,20 +261,12 @@ public class CatalogoCancionesController {
     }
 
     /**
-     * Carga las canciones desde la base de datos y las asigna a la tabla observable.
+     * Asigna a la tabla el catálogo de canciones. Solo se cuentan las canciones; cada página
+     * se lee de la base de datos cuando la tabla la muestra.
      */
     private void cargarCanciones() throws Exception {
-        System.out.println("Obteniendo canciones desde la base de datos...");
-        List<CancionDTO> lista = cancionBL.buscarTodo();
-        System.out.println("Canciones cargadas desde DAO (" + lista.size() + " canciones):");
-        lista.forEach(cancion -> System.out.println("  - " + cancion.getTitulo() + " (" + cancion.getAnio() + ")"));
-        
-        // Crear nueva lista observable
-        listaObservable = FXCollections.observableArrayList(lista);
-        
-        // Actualizar la tabla
+        listaObservable = new ListaPaginada<>(cancionBL.paginas(), CancionResumenDTO::getIdCancion);
         tableCanciones.setItems(listaObservable);
-        
         System.out.println("Tabla actualizada con " + listaObservable.size() + " canciones");
     }
     /**
@@ -283,13 +286,13 @@ public class CatalogoCancionesController {
                 btnEliminar.setStyle("-fx-background-color: transparent;");
 
                 btnEditar.setOnAction(event -> {
-                    CancionDTO cancion = getTableView().getItems().get(getIndex());
-                    irAPantallaEditarCancion(cancion);
+                    CancionResumenDTO cancion = getTableView().getItems().get(getIndex());
+                    irAPantallaEditarCancion(cargarCancionCompleta(cancion));
                 });
 
                 btnEliminar.setOnAction(event -> {
-                    CancionDTO cancion = getTableView().getItems().get(getIndex());
-                    irAPantallaEliminarCancion(cancion);
+                    CancionResumenDTO cancion = getTableView().getItems().get(getIndex());
+                    irAPantallaEliminarCancion(cargarCancionCompleta(cancion));
                 });
             }
 
@@ -311,6 +314,21 @@ public class CatalogoCancionesController {
     }
 
 
+    /**
+     * Recupera la canción completa (con portada y audio) solo cuando se va a editar o eliminar.
+     *
+     * @param resumen Fila seleccionada en la tabla.
+     * @return Canción completa, o null si no pudo cargarse.
+     */
+    private CancionDTO cargarCancionCompleta(CancionResumenDTO resumen) {
+        try {
+            return cancionBL.buscarPorId(resumen.getIdCancion());
+        } catch (Exception e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
+
     /**
      * Carga un icono desde una ruta específica del proyecto.
      *
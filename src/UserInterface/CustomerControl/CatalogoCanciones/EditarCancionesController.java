@@ -6,7 +6,7 @@ import DataAccessComponent.DTO.ArtistaDTO;
 import DataAccessComponent.DTO.CancionDTO;
 
 // Importación del DAO (Data Access Object) que representa una canción y artista
-import DataAccessComponent.DAO.CancionDAO;
+import BusinessLogic.Cancion;
 import DataAccessComponent.DAO.ArtistaDAO;
 
 import java.io.ByteArrayInputStream;
@@ -46,7 +46,7 @@ public class EditarCancionesController {
 
     private CancionDTO cancion;
 
-    private CancionDAO cancionDAO = new CancionDAO();
+    private final Cancion cancionBL = new Cancion();
 
     private CatalogoCancionesController catalogoController;
 
@@ -141,7 +141,7 @@ public class EditarCancionesController {
                 cancion.setArchivoMP3(archivoBytes);
             }
 
-            boolean exito = cancionDAO.actualizar(cancion);
+            boolean exito = cancionBL.actualizar(cancion);
 
             if (exito) {
                 System.out.println("Canción actualizada exitosamente: " + nuevoTitulo);
@@ -9,6 +9,7 @@ Descripción: Controlador para la eliminación de canciones del catálogo del si
 
 package UserInterface.CustomerControl.CatalogoCanciones;
 
+import BusinessLogic.MotorBusqueda;
 import BusinessLogic.ServicioValidacionCancion;
 import DataAccessComponent.DAO.CancionDAO;
 import DataAccessComponent.DTO.CancionDTO;
@@ -156,6 +157,7 @@ public class EliminarCancionesController {
             }
 
             if (eliminado) {
+                MotorBusqueda.getInstancia().invalidar(MotorBusqueda.Tipo.CANCION);
                 // Eliminación exitosa: mostrar confirmación y actualizar catálogo
                 mostrarAlerta("Canción eliminada correctamente.");
                 if (catalogoController != null) {
@@ -10,10 +10,12 @@ Descripción: Controlador para subir nuevas canciones al catálogo del sistema I
 package UserInterface.CustomerControl.CatalogoCanciones;
 
 import BusinessLogic.Cancion;
+import BusinessLogic.MotorBusqueda;
 import BusinessLogic.Genero;
 import BusinessLogic.Artista; // AGREGADO
 import BusinessLogic.ServicioValidacionCancion;
 import DataAccessComponent.DTO.ArtistaDTO; // AGREGADO
+import DataAccessComponent.DTO.MetadatosAudioDTO;
 import java.io.File;
 import java.net.URI;
 import java.nio.file.Files;
@@ -239,9 +241,13 @@ public class SubirCancionesController {
         if (filtro == null || filtro.trim().isEmpty()) {
             artistasFiltrados = todosLosArtistas;
         } else {
-            artistasFiltrados = todosLosArtistas.stream()
-                    .filter(artista -> artista.getNombre().toLowerCase().contains(filtro.toLowerCase()))
-                    .collect(Collectors.toList());
+            try {
+                artistasFiltrados = MotorBusqueda.getInstancia().filtrar(MotorBusqueda.Tipo.ARTISTA, filtro,
+                        todosLosArtistas, ArtistaDTO::getId);
+            } catch (Exception e) {
+                System.err.println("Error al buscar artistas: " + e.getMessage());
+                artistasFiltrados = todosLosArtistas;
+            }
         }
 
         // Actualizar solo los CheckMenuItems (mantener el campo de búsqueda)
@@ -621,10 +627,9 @@ public class SubirCancionesController {
                 // Calcular duración automáticamente usando el método de la clase Cancion
                 Cancion cancionLogic = new Cancion();
                 try {
-                    // Usar reflection para acceder al método privado obtenerDuracionDesdeMP3
-                    java.lang.reflect.Method metodo = Cancion.class.getDeclaredMethod("obtenerDuracionDesdeMP3", byte[].class);
-                    metodo.setAccessible(true);
-                    duracionSegundos = (Double) metodo.invoke(cancionLogic, archivoMP3);
+                    // Duración exacta a partir de los encabezados de los frames
+                    MetadatosAudioDTO metadatos = cancionLogic.analizarAudio(archivoMP3);
+                    duracionSegundos = metadatos != null ? metadatos.getDuracion() : 0.0;
 
                     if (duracionSegundos > 0) {
                         String duracionFormateada = formatearDuracion(duracionSegundos);
@@ -10,10 +10,12 @@ Descripción: Controlador para agregar canciones a una playlist.
 
 package UserInterface.CustomerControl.Playlist;
 
+import BusinessLogic.CacheImagenes;
 import BusinessLogic.Cancion;
+import BusinessLogic.MotorBusqueda;
 import BusinessLogic.Playlist;
 import DataAccessComponent.DTO.ArtistaDTO;
-import DataAccessComponent.DTO.CancionDTO;
+import DataAccessComponent.DTO.CancionResumenDTO;
 import DataAccessComponent.DTO.PlaylistDTO;
 import BusinessLogic.Genero;
 import javafx.beans.property.BooleanProperty;
@@ -27,12 +29,10 @@ import javafx.geometry.Insets;
 import javafx.scene.control.*;
 import javafx.scene.control.cell.CheckBoxTableCell;
 import javafx.scene.control.cell.PropertyValueFactory;
-import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
 import javafx.scene.layout.HBox;
 import javafx.stage.Stage;
 
-import java.io.ByteArrayInputStream;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -58,14 +58,14 @@ public class AgregarCancionesController {
     private static final int PADDING_CONTENEDOR = 5;
 
     // === COMPONENTES DE LA INTERFAZ ===
-    @FXML private TableView<CancionDTO> tableCanciones;
-    @FXML private TableColumn<CancionDTO, Boolean> colSeleccionar;
-    @FXML private TableColumn<CancionDTO, CancionDTO> colTituloConImagen;
-    @FXML private TableColumn<CancionDTO, String> colArtista;
-    @FXML private TableColumn<CancionDTO, String> colGenero;
-    @FXML private TableColumn<CancionDTO, String> colAnio;
-    @FXML private TableColumn<CancionDTO, String> colDuracion;
-    @FXML private TableColumn<CancionDTO, CancionDTO> colAcciones;
+    @FXML private TableView<CancionResumenDTO> tableCanciones;
+    @FXML private TableColumn<CancionResumenDTO, Boolean> colSeleccionar;
+    @FXML private TableColumn<CancionResumenDTO, CancionResumenDTO> colTituloConImagen;
+    @FXML private TableColumn<CancionResumenDTO, String> colArtista;
+    @FXML private TableColumn<CancionResumenDTO, String> colGenero;
+    @FXML private TableColumn<CancionResumenDTO, String> colAnio;
+    @FXML private TableColumn<CancionResumenDTO, String> colDuracion;
+    @FXML private TableColumn<CancionResumenDTO, CancionResumenDTO> colAcciones;
     @FXML private TextField txtBuscar;
     @FXML private Label lblNombrePlaylist;
     @FXML private Label lblCancionesSeleccionadas;
@@ -79,8 +79,8 @@ public class AgregarCancionesController {
     private final Playlist playlistBL = new Playlist();
 
     // === DATOS ===
-    private ObservableList<CancionDTO> listaObservable;
-    private final List<CancionDTO> cancionesSeleccionadas = new ArrayList<>();
+    private ObservableList<CancionResumenDTO> listaObservable;
+    private final List<CancionResumenDTO> cancionesSeleccionadas = new ArrayList<>();
 
     /**
      * Inicializa el controlador configurando la tabla y cargando las canciones.
@@ -184,8 +184,8 @@ public class AgregarCancionesController {
         colSeleccionar.setEditable(true);
     }
 
-    private BooleanProperty createSelectionCellValue(TableColumn.CellDataFeatures<CancionDTO, Boolean> cellData) {
-        CancionDTO cancion = cellData.getValue();
+    private BooleanProperty createSelectionCellValue(TableColumn.CellDataFeatures<CancionResumenDTO, Boolean> cellData) {
+        CancionResumenDTO cancion = cellData.getValue();
         BooleanProperty selected = new SimpleBooleanProperty(cancionesSeleccionadas.contains(cancion));
 
         selected.addListener((obs, wasSelected, isSelected) -> {
@@ -195,7 +195,7 @@ public class AgregarCancionesController {
         return selected;
     }
 
-    private void handleSelectionChange(CancionDTO cancion, boolean isSelected) {
+    private void handleSelectionChange(CancionResumenDTO cancion, boolean isSelected) {
         if (isSelected) {
             addToSelection(cancion);
         } else {
@@ -205,13 +205,13 @@ public class AgregarCancionesController {
         tableCanciones.refresh();
     }
 
-    private void addToSelection(CancionDTO cancion) {
+    private void addToSelection(CancionResumenDTO cancion) {
         if (!cancionesSeleccionadas.contains(cancion)) {
             cancionesSeleccionadas.add(cancion);
         }
     }
 
-    private void removeFromSelection(CancionDTO cancion) {
+    private void removeFromSelection(CancionResumenDTO cancion) {
         cancionesSeleccionadas.remove(cancion);
     }
 
@@ -219,15 +219,15 @@ public class AgregarCancionesController {
         tableCanciones.setRowFactory(tv -> createCustomTableRow());
     }
 
-    private TableRow<CancionDTO> createCustomTableRow() {
-        TableRow<CancionDTO> row = new TableRow<>();
+    private TableRow<CancionResumenDTO> createCustomTableRow() {
+        TableRow<CancionResumenDTO> row = new TableRow<>();
         row.itemProperty().addListener((obs, previousCancion, currentCancion) -> {
             updateRowStyle(row, currentCancion);
         });
         return row;
     }
 
-    private void updateRowStyle(TableRow<CancionDTO> row, CancionDTO cancion) {
+    private void updateRowStyle(TableRow<CancionResumenDTO> row, CancionResumenDTO cancion) {
         if (cancion != null) {
             String style = cancionesSeleccionadas.contains(cancion) ?
                     ESTILO_FILA_SELECCIONADA : ESTILO_FILA_NORMAL;
@@ -281,7 +281,7 @@ public class AgregarCancionesController {
 
     // === CLASES INTERNAS PARA CELDAS PERSONALIZADAS ===
 
-    private class TitleWithImageCell extends TableCell<CancionDTO, CancionDTO> {
+    private class TitleWithImageCell extends TableCell<CancionResumenDTO, CancionResumenDTO> {
         private final HBox contenedor = new HBox(ESPACIADO_CONTENEDOR);
         private final ImageView imageView = new ImageView();
         private final Label labelTitulo = new Label();
@@ -303,7 +303,7 @@ public class AgregarCancionesController {
         }
 
         @Override
-        protected void updateItem(CancionDTO cancion, boolean empty) {
+        protected void updateItem(CancionResumenDTO cancion, boolean empty) {
             super.updateItem(cancion, empty);
 
             if (empty || cancion == null) {
@@ -314,40 +314,19 @@ public class AgregarCancionesController {
             }
         }
 
-        private void updateCellContent(CancionDTO cancion) {
+        private void updateCellContent(CancionResumenDTO cancion) {
             labelTitulo.setText(cancion.getTitulo());
             loadSongImage(cancion);
         }
 
-        private void loadSongImage(CancionDTO cancion) {
-            if (cancion.getPortada() != null) {
-                loadImageFromBytes(cancion.getPortada());
-            } else {
-                cargarImagenPorDefecto();
-            }
-        }
-
-        private void loadImageFromBytes(byte[] imageData) {
-            try {
-                ByteArrayInputStream inputStream = new ByteArrayInputStream(imageData);
-                Image imagen = new Image(inputStream);
-                imageView.setImage(imagen);
-            } catch (Exception e) {
-                cargarImagenPorDefecto();
-            }
-        }
-
-        private void cargarImagenPorDefecto() {
-            try {
-                Image imagenPorDefecto = new Image(getClass().getResourceAsStream(IMAGEN_DEFAULT_PATH));
-                imageView.setImage(imagenPorDefecto);
-            } catch (Exception e) {
-                imageView.setImage(null);
-            }
+        private void loadSongImage(CancionResumenDTO cancion) {
+            // La miniatura se lee y decodifica fuera del hilo de JavaFX
+            CacheImagenes imagenes = CacheImagenes.getInstancia();
+            imagenes.mostrarPortadaCancion(imageView, cancion.getIdCancion(), imagenes.recurso(IMAGEN_DEFAULT_PATH));
         }
     }
 
-    private class ActionButtonCell extends TableCell<CancionDTO, CancionDTO> {
+    private class ActionButtonCell extends TableCell<CancionResumenDTO, CancionResumenDTO> {
         private final Button btnAgregar = new Button("+");
 
         public ActionButtonCell() {
@@ -361,12 +340,12 @@ public class AgregarCancionesController {
         }
 
         private void handleAddButtonClick() {
-            CancionDTO cancion = getTableView().getItems().get(getIndex());
+            CancionResumenDTO cancion = getTableView().getItems().get(getIndex());
             agregarCancionIndividual(cancion);
         }
 
         @Override
-        protected void updateItem(CancionDTO cancion, boolean empty) {
+        protected void updateItem(CancionResumenDTO cancion, boolean empty) {
             super.updateItem(cancion, empty);
             setGraphic(empty || cancion == null ? null : btnAgregar);
         }
@@ -376,7 +355,7 @@ public class AgregarCancionesController {
 
     private void cargarCanciones() throws Exception {
         System.out.println("Cargando canciones disponibles...");
-        List<CancionDTO> lista = cancionBL.buscarTodo();
+        List<CancionResumenDTO> lista = cancionBL.buscarResumenes();
         System.out.println("Canciones cargadas: " + lista.size());
 
         listaObservable = FXCollections.observableArrayList(lista);
@@ -395,7 +374,7 @@ public class AgregarCancionesController {
             return;
         }
 
-        ObservableList<CancionDTO> filtrados = createFilteredList(filtro);
+        ObservableList<CancionResumenDTO> filtrados = createFilteredList(filtro);
         tableCanciones.setItems(filtrados);
     }
 
@@ -403,19 +382,15 @@ public class AgregarCancionesController {
         return filtro == null || filtro.isBlank();
     }
 
-    private ObservableList<CancionDTO> createFilteredList(String filtro) {
-        return FXCollections.observableArrayList(
-                listaObservable.stream()
-                        .filter(cancion -> matchesFilter(cancion, filtro))
-                        .collect(Collectors.toList())
-        );
-    }
-
-    private boolean matchesFilter(CancionDTO cancion, String filtro) {
-        String filterLower = filtro.toLowerCase();
-        return cancion.getTitulo().toLowerCase().contains(filterLower) ||
-                cancion.getArtistas().stream().anyMatch(artista ->
-                        artista.getNombre().toLowerCase().contains(filterLower));
+    private ObservableList<CancionResumenDTO> createFilteredList(String filtro) {
+        ObservableList<CancionResumenDTO> filtrados = FXCollections.observableArrayList();
+        try {
+            filtrados.setAll(MotorBusqueda.getInstancia().filtrar(MotorBusqueda.Tipo.CANCION, filtro,
+                    listaObservable, CancionResumenDTO::getIdCancion));
+        } catch (Exception e) {
+            System.err.println("Error al buscar canciones: " + e.getMessage());
+        }
+        return filtrados;
     }
 
     // === MANEJO DE EVENTOS ===
@@ -451,7 +426,7 @@ public class AgregarCancionesController {
 
     // === LÓGICA DE AGREGAR CANCIONES ===
 
-    private void agregarCancionIndividual(CancionDTO cancion) {
+    private void agregarCancionIndividual(CancionResumenDTO cancion) {
         try {
             boolean agregada = playlistBL.agregarCancion(cancion.getIdCancion());
             handleIndividualAddResult(cancion, agregada);
@@ -460,7 +435,7 @@ public class AgregarCancionesController {
         }
     }
 
-    private void handleIndividualAddResult(CancionDTO cancion, boolean agregada) {
+    private void handleIndividualAddResult(CancionResumenDTO cancion, boolean agregada) {
         if (agregada) {
             showSuccessMessage(cancion);
         } else {
@@ -468,19 +443,19 @@ public class AgregarCancionesController {
         }
     }
 
-    private void showSuccessMessage(CancionDTO cancion) {
+    private void showSuccessMessage(CancionResumenDTO cancion) {
         mostrarAlerta("Éxito",
                 "Canción '" + cancion.getTitulo() + "' agregada a la playlist correctamente.",
                 Alert.AlertType.INFORMATION);
     }
 
-    private void showDuplicateMessage(CancionDTO cancion) {
+    private void showDuplicateMessage(CancionResumenDTO cancion) {
         mostrarAlerta("Información",
                 "La canción '" + cancion.getTitulo() + "' ya existe en la playlist.",
                 Alert.AlertType.WARNING);
     }
 
-    private void handleAddSongError(CancionDTO cancion, Exception e) {
+    private void handleAddSongError(CancionResumenDTO cancion, Exception e) {
         mostrarAlerta("Error",
                 "Error al agregar canción: " + e.getMessage(),
                 Alert.AlertType.ERROR);
@@ -511,14 +486,14 @@ public class AgregarCancionesController {
     private ProcessResult processSelectedSongs() {
         ProcessResult result = new ProcessResult();
 
-        for (CancionDTO cancion : cancionesSeleccionadas) {
+        for (CancionResumenDTO cancion : cancionesSeleccionadas) {
             processSingleSong(cancion, result);
         }
 
         return result;
     }
 
-    private void processSingleSong(CancionDTO cancion, ProcessResult result) {
+    private void processSingleSong(CancionResumenDTO cancion, ProcessResult result) {
         try {
             boolean agregada = playlistBL.agregarCancion(cancion.getIdCancion());
             if (agregada) {
@@ -1,5 +1,6 @@
 package UserInterface.CustomerControl.Playlist;
 
+import BusinessLogic.CacheImagenes;
 import BusinessLogic.ReproductorMP3;
 import BusinessLogic.EstadoPausado;
 import DataAccessComponent.DTO.CancionDTO;
@@ -16,7 +17,6 @@ import javafx.scene.image.ImageView;
 import javafx.scene.layout.HBox;
 import javafx.util.Duration;
 
-import java.io.ByteArrayInputStream;
 import java.net.URL;
 import java.util.ArrayList;
 import java.util.List;
@@ -84,9 +84,9 @@ public class BarraReproduccionPlaylistController implements Initializable {
      */
     private void inicializarImagenes() {
         try {
-            imagenPlay = new Image(getClass().getResourceAsStream("/UserInterface/Resources/img/boton-de-play.png"));
-            imagenPause = new Image(getClass().getResourceAsStream("/UserInterface/Resources/img/boton-de-pausa.png"));
-            imagenPortadaGenerica = new Image(getClass().getResourceAsStream("/UserInterface/Resources/img/portada-generica.jpg"));
+            imagenPlay = CacheImagenes.getInstancia().recurso("/UserInterface/Resources/img/boton-de-play.png");
+            imagenPause = CacheImagenes.getInstancia().recurso("/UserInterface/Resources/img/boton-de-pausa.png");
+            imagenPortadaGenerica = CacheImagenes.getInstancia().recurso("/UserInterface/Resources/img/portada-generica.jpg");
         } catch (Exception e) {
             System.err.println("Error cargando imágenes para la barra de reproducción: " + e.getMessage());
         }
@@ -135,19 +135,13 @@ public class BarraReproduccionPlaylistController implements Initializable {
         this.playlistActual = playlist;
         this.cancionesActuales = new ArrayList<>(canciones);
 
-        // Convertir canciones a byte arrays para el reproductor
-        List<byte[]> archivosMp3 = canciones.stream()
-                .map(CancionDTO::getArchivoMP3)
-                .filter(archivo -> archivo != null)
+        // La cola del reproductor solo lleva los IDs; el audio se lee al reproducir cada canción
+        List<Integer> idsCanciones = canciones.stream()
+                .map(CancionDTO::getIdCancion)
                 .collect(Collectors.toList());
 
-        if (archivosMp3.isEmpty()) {
-            System.out.println("No hay archivos MP3 válidos en la playlist");
-            return;
-        }
-
         // Cambiar playlist en el reproductor
-        reproductor.cambiarPlaylist(archivosMp3);
+        reproductor.cambiarPlaylist(idsCanciones);
         reproductor.reproducir();
 
         // Mostrar barra y actualizar información
@@ -336,18 +330,8 @@ public class BarraReproduccionPlaylistController implements Initializable {
             lblNombreArtista.setText("Artista Desconocido");
         }
 
-        // Actualizar portada
-        try {
-            Image portada;
-            if (cancion.getPortada() != null && cancion.getPortada().length > 0) {
-                portada = new Image(new ByteArrayInputStream(cancion.getPortada()));
-            } else {
-                portada = imagenPortadaGenerica;
-            }
-            imgCancionActual.setImage(portada);
-        } catch (Exception e) {
-            imgCancionActual.setImage(imagenPortadaGenerica);
-        }
+        // Actualizar portada (se decodifica en segundo plano)
+        CacheImagenes.getInstancia().mostrarPortadaCancion(imgCancionActual, cancion.getIdCancion(), imagenPortadaGenerica);
 
         // Actualizar duración
         duracionRealCancion = cancion.getDuracion();
@@ -1,4 +1,7 @@
 package UserInterface.CustomerControl.Playlist;
+import BusinessLogic.CacheImagenes;
+import BusinessLogic.DatosAsincronos;
+import BusinessLogic.EjecutorDatos;
 import BusinessLogic.ReproductorMP3;
 import BusinessLogic.EstadoPausado;
 import javafx.animation.KeyFrame;
@@ -25,17 +28,13 @@ import BusinessLogic.Playlist;
 import DataAccessComponent.DTO.PlaylistDTO;
 import UserInterface.Utils.RecursosPerfil;
 import DataAccessComponent.DTO.CancionDTO;
-import DataAccessComponent.DAO.CancionDAO;
-import DataAccessComponent.DAO.PlaylistDAO;
-import DataAccessComponent.DAO.UsuarioDAO;
+import DataAccessComponent.DTO.CancionResumenDTO;
 import BusinessLogic.Sesion;
 import java.net.URL;
 import java.util.ResourceBundle;
 import java.util.List;
 import java.util.ArrayList;
 import java.util.stream.Collectors;
-import java.io.ByteArrayInputStream;
-import java.io.InputStream;
 
 
 /**
@@ -43,6 +42,9 @@ import java.io.InputStream;
  * Gestiona la interfaz de usuario para mostrar, buscar y administrar playlists.
  */
 public class CatalogoPlaylistController implements Initializable {
+    /** Imagen que se muestra mientras carga la portada o si la playlist no tiene una */
+    private static final String IMAGEN_PLAYLIST_DEFECTO = "/UserInterface/Resources/img/CatalogoPlaylist/simbolo-aplicacion.png";
+
     //sesion
     private List<String> rutasImagenes = RecursosPerfil.obtenerRutasImagenes();
     private int indiceActual = Integer.parseInt(Sesion.getSesion().obtenerUsuarioActual().getFoto());
@@ -126,12 +128,19 @@ public class CatalogoPlaylistController implements Initializable {
     private ObservableList<PlaylistDTO> listPlaylistsData;
     private ObservableList<Object> listCancionesData;
     private PlaylistDTO playlistSeleccionada;
+
+    // Consultas a la base de datos fuera del hilo de JavaFX
+    private final DatosAsincronos datos = new DatosAsincronos();
+    private final EjecutorDatos ejecutor = EjecutorDatos.getInstancia();
+    // Número de la última consulta de playlists y de canciones; las respuestas anteriores se descartan
+    private int consultaPlaylists;
+    private int consultaCanciones;
     
     // Variables para el reproductor de playlist
     private ReproductorMP3 reproductor;
     private Timeline timeline;
     private PlaylistDTO playlistReproduciendose;
-    private List<CancionDTO> cancionesReproduciendose;
+    private List<CancionResumenDTO> cancionesReproduciendose;
     private boolean usuarioArrastrando = false;
     private double duracionRealCancion = 0;
     private double tiempoActualSegundos = 0;
@@ -450,17 +459,15 @@ public class CatalogoPlaylistController implements Initializable {
      * Actualiza la playlist seleccionada desde la base de datos
      */
     private void actualizarPlaylistSeleccionada() {
-        try {
-            if (playlistSeleccionada != null) {
-                Playlist playlistLogic = new Playlist();
-                PlaylistDTO playlistActualizada = playlistLogic.buscarPorId(playlistSeleccionada.getIdPlaylist());
-                if (playlistActualizada != null) {
-                    playlistSeleccionada = playlistActualizada;
-                }
+        if (playlistSeleccionada == null) return;
+        int idPlaylist = playlistSeleccionada.getIdPlaylist();
+        ejecutor.alTerminar(datos.buscarPlaylist(idPlaylist), "playlist", playlistActualizada -> {
+            // Solo si sigue seleccionada la misma playlist
+            if (playlistActualizada != null && playlistSeleccionada != null
+                    && playlistSeleccionada.getIdPlaylist() == idPlaylist) {
+                playlistSeleccionada = playlistActualizada;
             }
-        } catch (Exception e) {
-            System.out.println("Error al actualizar playlist seleccionada: " + e.getMessage());
-        }
+        }, e -> System.out.println("Error al actualizar playlist seleccionada: " + e.getMessage()));
     }
 
     /**
@@ -487,19 +494,24 @@ public class CatalogoPlaylistController implements Initializable {
      * Abre la ventana de eliminar playlist
      */
     private void abrirEliminarPlaylist(PlaylistDTO playlist) {
-        try {
-            System.out.println("=== ABRIENDO VENTANA ELIMINAR PLAYLIST ===");
-            System.out.println("Playlist a eliminar: " + playlist.getTituloPlaylist());
-
-            // Cargar la playlist completa desde la base de datos para asegurar que tiene todos los datos
-            Playlist playlistLogic = new Playlist();
-            PlaylistDTO playlistCompleta = playlistLogic.buscarPorId(playlist.getIdPlaylist());
+        System.out.println("=== ABRIENDO VENTANA ELIMINAR PLAYLIST ===");
+        System.out.println("Playlist a eliminar: " + playlist.getTituloPlaylist());
 
+        // Cargar la playlist completa desde la base de datos para asegurar que tiene todos los datos
+        ejecutor.alTerminar(datos.buscarPlaylist(playlist.getIdPlaylist()), "playlist.eliminar", playlistCompleta -> {
             if (playlistCompleta == null) {
                 mostrarAlerta("Error", "No se pudo cargar la información completa de la playlist", Alert.AlertType.ERROR);
                 return;
             }
+            mostrarVentanaEliminarPlaylist(playlistCompleta);
+        }, e -> mostrarAlerta("Error", "Error al abrir la ventana de eliminar playlist: " + e.getMessage(), Alert.AlertType.ERROR));
+    }
 
+    /**
+     * Muestra la ventana de eliminar playlist con la playlist ya leída de la base de datos
+     */
+    private void mostrarVentanaEliminarPlaylist(PlaylistDTO playlistCompleta) {
+        try {
             // Cargar el FXML de la ventana eliminar
             FXMLLoader loader = new FXMLLoader(getClass().getResource("/UserInterface/GUI/Playlist/frameEliminarPlaylist.fxml"));
             Parent root = loader.load();
@@ -602,12 +614,12 @@ public class CatalogoPlaylistController implements Initializable {
         clip.setArcHeight(10);
         imagen.setClip(clip);
 
-        try {
-            imagen.setImage(new Image(imagePath));
-        } catch (Exception e) {
+        Image imagenTarjeta = CacheImagenes.getInstancia().recurso(imagePath);
+        if (imagenTarjeta == null) {
             // Imagen por defecto si no se encuentra la imagen
-            imagen.setImage(new Image("/UserInterface/Resources/img/CatalogoPlaylist/playlist-default.png"));
+            imagenTarjeta = CacheImagenes.getInstancia().recurso("/UserInterface/Resources/img/CatalogoPlaylist/playlist-default.png");
         }
+        imagen.setImage(imagenTarjeta);
 
         contenedorImagen.getChildren().add(imagen);
 
@@ -665,24 +677,9 @@ public class CatalogoPlaylistController implements Initializable {
         imgPortadaPlaylistVacia.setPreserveRatio(false); // CLAVE: false para llenar completamente
         imgPortadaPlaylistVacia.setSmooth(true); // Mejor calidad visual
 
-        // Cargar imagen de portada
-        try {
-            if (playlist.getImagenPortada() != null && playlist.getImagenPortada().length > 0) {
-                InputStream imageStream = new ByteArrayInputStream(playlist.getImagenPortada());
-                Image imagen = new Image(imageStream);
-                imgPortadaPlaylistVacia.setImage(imagen);
-                System.out.println("Imagen de playlist cargada: " + imagen.getWidth() + "x" + imagen.getHeight());
-            } else {
-                Image imagenDefecto = new Image("/UserInterface/Resources/img/CatalogoPlaylist/simbolo-aplicacion.png");
-                imgPortadaPlaylistVacia.setImage(imagenDefecto);
-                System.out.println("Cargando imagen por defecto");
-            }
-        } catch (Exception e) {
-            Image imagenDefecto = new Image("/UserInterface/Resources/img/CatalogoPlaylist/simbolo-aplicacion.png");
-            imgPortadaPlaylistVacia.setImage(imagenDefecto);
-            System.out.println("Error cargando imagen, usando por defecto: " + e.getMessage());
-            e.printStackTrace();
-        }
+        // Cargar imagen de portada (se decodifica en segundo plano)
+        CacheImagenes.getInstancia().mostrarPortadaPlaylist(imgPortadaPlaylistVacia, playlist,
+                CacheImagenes.getInstancia().recurso(IMAGEN_PLAYLIST_DEFECTO));
     }
     /**
      * Muestra la vista de playlist con canciones
@@ -698,22 +695,9 @@ public class CatalogoPlaylistController implements Initializable {
                 playlist.getDescripcion() != null ? playlist.getDescripcion() : "Sin descripción"
         );
 
-        // Cargar imagen de portada
-        try {
-            if (playlist.getImagenPortada() != null && playlist.getImagenPortada().length > 0) {
-                InputStream imageStream = new ByteArrayInputStream(playlist.getImagenPortada());
-                imgPortadaPlaylistCanciones.setImage(new Image(imageStream));
-            } else {
-                imgPortadaPlaylistCanciones.setImage(
-                        new Image("/UserInterface/Resources/img/CatalogoPlaylist/simbolo-aplicacion.png")
-                );
-            }
-        } catch (Exception e) {
-            imgPortadaPlaylistCanciones.setImage(
-                    new Image("/UserInterface/Resources/img/CatalogoPlaylist/simbolo-aplicacion.png")
-            );
-            e.printStackTrace(); // Ayuda a depurar si falla la carga
-        }
+        // Cargar imagen de portada (se decodifica en segundo plano)
+        CacheImagenes.getInstancia().mostrarPortadaPlaylist(imgPortadaPlaylistCanciones, playlist,
+                CacheImagenes.getInstancia().recurso(IMAGEN_PLAYLIST_DEFECTO));
 
         // Actualizar información de canciones
         int numCanciones = playlist.getCancionesIds() != null ? playlist.getCancionesIds().size() : 0;
@@ -843,13 +827,11 @@ private void handleRecomendaciones() {
      */
     private void reproducirCancionSeleccionada(Object cancionSeleccionada) {
         if (cancionSeleccionada instanceof CancionDTO && playlistSeleccionada != null) {
-            try {
-                CancionDTO cancion = (CancionDTO) cancionSeleccionada;
-                
-                // Cargar todas las canciones de la playlist
-                PlaylistDAO playlistDAO = new PlaylistDAO();
-                List<CancionDTO> todasLasCanciones = playlistDAO.obtenerCancionesCompletasDePlaylist(playlistSeleccionada.getIdPlaylist());
-                
+            CancionDTO cancion = (CancionDTO) cancionSeleccionada;
+            PlaylistDTO playlist = playlistSeleccionada;
+
+            // Cargar todas las canciones de la playlist
+            ejecutor.alTerminar(datos.buscarCancionesDePlaylist(playlist.getIdPlaylist()), "playlist.reproducir", todasLasCanciones -> {
                 if (todasLasCanciones != null && !todasLasCanciones.isEmpty()) {
                     // Encontrar el índice de la canción seleccionada
                     int indiceCancion = -1;
@@ -861,17 +843,17 @@ private void handleRecomendaciones() {
                     }
                     
                     if (indiceCancion >= 0) {
-                        iniciarReproduccionDesdeCancion(playlistSeleccionada, todasLasCanciones, indiceCancion);
+                        iniciarReproduccionDesdeCancion(playlist, todasLasCanciones, indiceCancion);
                     } else {
                         mostrarAlerta("Error", "No se encontró la canción en la playlist", Alert.AlertType.ERROR);
                     }
                 } else {
                     mostrarAlerta("Error", "No se pudieron cargar las canciones de la playlist", Alert.AlertType.ERROR);
                 }
-            } catch (Exception e) {
+            }, e -> {
                 System.err.println("Error al reproducir canción específica: " + e.getMessage());
                 mostrarAlerta("Error", "Error al reproducir la canción: " + e.getMessage(), Alert.AlertType.ERROR);
-            }
+            });
         }
     }
 
@@ -894,23 +876,21 @@ private void handleRecomendaciones() {
             System.out.println("Playlist seleccionada: " + playlistSeleccionada.getTituloPlaylist());
             System.out.println("ID de playlist: " + playlistSeleccionada.getIdPlaylist());
             
-            try {
-                // Cargar las canciones de la playlist desde la base de datos
-                PlaylistDAO playlistDAO = new PlaylistDAO();
-                List<CancionDTO> canciones = playlistDAO.obtenerCancionesCompletasDePlaylist(playlistSeleccionada.getIdPlaylist());
-                
+            // Cargar las canciones de la playlist desde la base de datos
+            PlaylistDTO playlist = playlistSeleccionada;
+            ejecutor.alTerminar(datos.buscarCancionesDePlaylist(playlist.getIdPlaylist()), "playlist.reproducir", canciones -> {
                 System.out.println("Canciones cargadas: " + (canciones != null ? canciones.size() : "null"));
-                
+
                 if (canciones != null && !canciones.isEmpty()) {
-                    iniciarReproduccionPlaylist(playlistSeleccionada, canciones);
+                    iniciarReproduccionPlaylist(playlist, canciones);
                 } else {
                     mostrarAlerta("Información", "La playlist no tiene canciones para reproducir", Alert.AlertType.INFORMATION);
                 }
-            } catch (Exception e) {
+            }, e -> {
                 System.err.println("Error al reproducir playlist: " + e.getMessage());
                 e.printStackTrace();
                 mostrarAlerta("Error", "Error al iniciar la reproducción: " + e.getMessage(), Alert.AlertType.ERROR);
-            }
+            });
         } else {
             System.out.println("playlistSeleccionada es NULL");
             mostrarAlerta("Advertencia", "Por favor, selecciona una playlist para reproducir", Alert.AlertType.WARNING);
@@ -977,9 +957,9 @@ private void handleRecomendaciones() {
     private void inicializarReproductor() {
         try {
             // Cargar imágenes
-            imagenPlay = new Image(getClass().getResourceAsStream("/UserInterface/Resources/img/boton-de-play.png"));
-            imagenPause = new Image(getClass().getResourceAsStream("/UserInterface/Resources/img/boton-de-pausa.png"));
-            imagenPortadaGenerica = new Image(getClass().getResourceAsStream("/UserInterface/Resources/img/portada-generica.jpg"));
+            imagenPlay = CacheImagenes.getInstancia().recurso("/UserInterface/Resources/img/boton-de-play.png");
+            imagenPause = CacheImagenes.getInstancia().recurso("/UserInterface/Resources/img/boton-de-pausa.png");
+            imagenPortadaGenerica = CacheImagenes.getInstancia().recurso("/UserInterface/Resources/img/portada-generica.jpg");
         } catch (Exception e) {
             System.err.println("Error cargando imágenes del reproductor: " + e.getMessage());
         }
@@ -1038,19 +1018,13 @@ private void handleRecomendaciones() {
         this.playlistReproduciendose = playlist;
         this.cancionesReproduciendose = new ArrayList<>(canciones);
 
-        // Convertir canciones a byte arrays
-        List<byte[]> archivosMp3 = canciones.stream()
-                .map(CancionDTO::getArchivoMP3)
-                .filter(archivo -> archivo != null)
+        // La cola del reproductor solo lleva los IDs; el audio se lee al reproducir cada canción
+        List<Integer> idsCanciones = canciones.stream()
+                .map(CancionDTO::getIdCancion)
                 .collect(Collectors.toList());
 
-        if (archivosMp3.isEmpty()) {
-            mostrarAlerta("Error", "No hay archivos MP3 válidos en la playlist", Alert.AlertType.ERROR);
-            return;
-        }
-
         // Cambiar playlist en el reproductor
-        reproductor.cambiarPlaylist(archivosMp3);
+        reproductor.cambiarPlaylist(idsCanciones);
         reproductor.reproducir();
 
         // Mostrar reproductor y actualizar información
@@ -1123,7 +1097,7 @@ private void handleRecomendaciones() {
 
         int indiceActual = reproductor.getPlaylist().getIndiceActual();
         if (indiceActual >= 0 && indiceActual < cancionesReproduciendose.size()) {
-            CancionDTO cancionActual = cancionesReproduciendose.get(indiceActual);
+            CancionResumenDTO cancionActual = cancionesReproduciendose.get(indiceActual);
             mostrarInformacionCancionReproductor(cancionActual);
         }
     }
@@ -1131,7 +1105,7 @@ private void handleRecomendaciones() {
     /**
      * Muestra información de la canción en el reproductor
      */
-    private void mostrarInformacionCancionReproductor(CancionDTO cancion) {
+    private void mostrarInformacionCancionReproductor(CancionResumenDTO cancion) {
         if (cancion == null) return;
 
         // Actualizar nombre de canción
@@ -1153,17 +1127,7 @@ private void handleRecomendaciones() {
 
         // Actualizar imagen
         if (imgCancionActual != null) {
-            try {
-                Image portada;
-                if (cancion.getPortada() != null && cancion.getPortada().length > 0) {
-                    portada = new Image(new ByteArrayInputStream(cancion.getPortada()));
-                } else {
-                    portada = imagenPortadaGenerica;
-                }
-                imgCancionActual.setImage(portada);
-            } catch (Exception e) {
-                imgCancionActual.setImage(imagenPortadaGenerica);
-            }
+            CacheImagenes.getInstancia().mostrarPortadaCancion(imgCancionActual, cancion.getIdCancion(), imagenPortadaGenerica);
         }
 
         // Actualizar duración
@@ -1336,42 +1300,28 @@ private void handleRecomendaciones() {
     }
 
     /**
-     * Carga las canciones en la tabla desde la base de datos
+     * Carga las canciones en la tabla desde la base de datos, en segundo plano y con una
+     * sola consulta para toda la playlist
      */
     private void cargarCancionesEnTabla(PlaylistDTO playlist) {
-        try {
-            // Limpiar tabla actual
-            listCancionesData.clear();
+        // Limpiar tabla actual
+        listCancionesData.clear();
+        int consulta = ++consultaCanciones;
 
-            if (playlist.getCancionesIds() != null && !playlist.getCancionesIds().isEmpty()) {
-                // Cargar las canciones reales desde la base de datos
-                CancionDAO cancionDAO = new CancionDAO();
-                
-                for (Integer idCancion : playlist.getCancionesIds()) {
-                    try {
-                        CancionDTO cancion = cancionDAO.buscarPorId(idCancion);
-                        if (cancion != null) {
-                            listCancionesData.add(cancion);
-                            System.out.println("Canción cargada: " + cancion.getTitulo());
-                        } else {
-                            System.out.println("No se encontró la canción con ID: " + idCancion);
-                        }
-                    } catch (Exception e) {
-                        System.out.println("Error al cargar canción con ID " + idCancion + ": " + e.getMessage());
-                        // Agregar placeholder para canciones que no se pueden cargar
-                        listCancionesData.add("Error al cargar canción (ID: " + idCancion + ")");
-                    }
-                }
-                
-                System.out.println("Total de canciones cargadas en la tabla: " + listCancionesData.size());
-            } else {
-                System.out.println("La playlist no tiene canciones o la lista de IDs es nula");
-            }
+        if (playlist.getCancionesIds() == null || playlist.getCancionesIds().isEmpty()) {
+            System.out.println("La playlist no tiene canciones o la lista de IDs es nula");
+            return;
+        }
 
-        } catch (Exception e) {
+        ejecutor.alTerminar(datos.buscarCancionesDePlaylist(playlist.getIdPlaylist()), "playlist.canciones", canciones -> {
+            // Se seleccionó otra playlist mientras se leían las canciones
+            if (consulta != consultaCanciones) return;
+            listCancionesData.setAll(canciones);
+            System.out.println("Total de canciones cargadas en la tabla: " + listCancionesData.size());
+        }, e -> {
             System.out.println("Error al cargar canciones en la tabla: " + e.getMessage());
             e.printStackTrace();
-        }
+        });
     }
 
     /**
@@ -1383,25 +1333,12 @@ private void handleRecomendaciones() {
             return;
         }
 
-        try {
-            // Obtener el ID del usuario actual
-            int idUsuarioActual = obtenerIdUsuarioActual();
-            if (idUsuarioActual <= 0) {
-                System.err.println("No se pudo obtener el ID del usuario actual para filtrar");
-                return;
-            }
-
-            // Obtener solo las playlists del usuario actual
-            PlaylistDAO playlistDAO = new PlaylistDAO();
-            List<PlaylistDTO> todasLasPlaylists = playlistDAO.obtenerPlaylistPorUsuario(idUsuarioActual);
-
-            listPlaylistsData.clear();
-
-            for (PlaylistDTO playlist : todasLasPlaylists) {
-                if (playlist.getTituloPlaylist().toLowerCase().contains(filtro.toLowerCase())) {
-                    listPlaylistsData.add(playlist);
-                }
-            }
+        // Solo las playlists del usuario actual, filtradas en segundo plano
+        int consulta = ++consultaPlaylists;
+        String correo = Sesion.getSesion().obtenerUsuarioActual().getCorreo();
+        ejecutor.alTerminar(datos.buscarPlaylistsDeUsuario(correo, filtro), "playlists.filtro", filtradas -> {
+            if (consulta != consultaPlaylists) return;
+            listPlaylistsData.setAll(filtradas);
 
             if (listPlaylistsData.isEmpty()) {
                 Label noResultsLabel = new Label("No se encontraron playlists\ncon ese nombre");
@@ -1410,25 +1347,27 @@ private void handleRecomendaciones() {
             } else {
                 listPlaylists.setPlaceholder(null);
             }
-
-        } catch (Exception e) {
-            System.out.println("Error al filtrar playlists: " + e.getMessage());
-        }
+        }, e -> System.out.println("Error al filtrar playlists: " + e.getMessage()));
     }
 
     /**
      * Abre la pantalla de editar playlist
      */
     private void abrirEditarPlaylist(PlaylistDTO playlist) {
-        try {
-            Playlist playlistLogic = new Playlist();
-            PlaylistDTO playlistCompleta = playlistLogic.buscarPorId(playlist.getIdPlaylist());
-
+        ejecutor.alTerminar(datos.buscarPlaylist(playlist.getIdPlaylist()), "playlist.editar", playlistCompleta -> {
             if (playlistCompleta == null) {
                 mostrarAlerta("Error", "No se pudo cargar la playlist", Alert.AlertType.ERROR);
                 return;
             }
+            mostrarVentanaEditarPlaylist(playlistCompleta);
+        }, e -> mostrarAlerta("Error", "Error al abrir editar playlist: " + e.getMessage(), Alert.AlertType.ERROR));
+    }
 
+    /**
+     * Muestra la ventana de editar playlist con la playlist ya leída de la base de datos
+     */
+    private void mostrarVentanaEditarPlaylist(PlaylistDTO playlistCompleta) {
+        try {
             FXMLLoader loader = new FXMLLoader(getClass().getResource("/UserInterface/GUI/Playlist/frameEditarPlaylist.fxml"));
             Parent root = loader.load();
 
@@ -1507,66 +1446,52 @@ private void handleRecomendaciones() {
      * Carga las playlists del usuario desde la base de datos
      */
     private void cargarPlaylists() {
-        try {
-            // Obtener el ID del usuario actual
-            int idUsuarioActual = obtenerIdUsuarioActual();
-            if (idUsuarioActual <= 0) {
-                System.err.println("No se pudo obtener el ID del usuario actual");
-                mostrarAlerta("Error", "No se pudo identificar al usuario actual. Por favor, inicia sesión nuevamente.", Alert.AlertType.ERROR);
-                return;
+        // Se leen en segundo plano las playlists del usuario actual
+        int consulta = ++consultaPlaylists;
+        String correo = Sesion.getSesion().obtenerUsuarioActual().getCorreo();
+        ejecutor.alTerminar(datos.buscarPlaylistsDeUsuario(correo, null), "playlists.usuario", playlists -> {
+            if (consulta == consultaPlaylists) {
+                mostrarPlaylists(playlists);
             }
-
-            // Usar el método que filtra por usuario
-            PlaylistDAO playlistDAO = new PlaylistDAO();
-            List<PlaylistDTO> playlists = playlistDAO.obtenerPlaylistPorUsuario(idUsuarioActual);
-
-            listPlaylistsData.clear();
-
-            if (playlists.isEmpty()) {
-                vboxCrearPrimera.setVisible(true);
-                listPlaylists.setVisible(false);
-            } else {
-                vboxCrearPrimera.setVisible(false);
-                listPlaylists.setVisible(true);
-
-                for (PlaylistDTO playlist : playlists) {
-                    listPlaylistsData.add(playlist);
-                }
-                listPlaylists.setPlaceholder(null);
+        }, e -> {
+            if (consulta == consultaPlaylists) {
+                mostrarErrorPlaylists(e);
             }
+        });
+    }
 
-        } catch (Exception e) {
+    /**
+     * Muestra en la biblioteca las playlists del usuario, o el botón de crear la primera
+     */
+    private void mostrarPlaylists(List<PlaylistDTO> playlists) {
+        listPlaylistsData.clear();
+
+        if (playlists.isEmpty()) {
+            vboxCrearPrimera.setVisible(true);
+            listPlaylists.setVisible(false);
+        } else {
             vboxCrearPrimera.setVisible(false);
             listPlaylists.setVisible(true);
-            listPlaylistsData.clear();
 
-            Label errorLabel = new Label("Error al cargar playlists:\n" + e.getMessage());
-            errorLabel.setStyle("-fx-font-size: 14px; -fx-text-fill: #AFAFC7; -fx-text-alignment: center;");
-            listPlaylists.setPlaceholder(errorLabel);
-            System.out.println("Error al cargar playlists: " + e.getMessage());
+            for (PlaylistDTO playlist : playlists) {
+                listPlaylistsData.add(playlist);
+            }
+            listPlaylists.setPlaceholder(null);
         }
     }
 
     /**
-     * Obtiene el ID del usuario actualmente logueado
-     * @return ID del usuario actual, o -1 si no se puede obtener
+     * Muestra en la biblioteca el error al leer las playlists
      */
-    private int obtenerIdUsuarioActual() {
-        try {
-            UsuarioDAO usuarioDAO = new UsuarioDAO();
-            String correoUsuario = Sesion.getSesion().obtenerUsuarioActual().getCorreo();
-            int idUsuario = usuarioDAO.obtenerIdUsuarioPorCorreo(correoUsuario);
-            
-            if (idUsuario <= 0) {
-                System.err.println("No se pudo obtener un ID válido para el usuario con correo: " + correoUsuario);
-            }
-            
-            return idUsuario;
-        } catch (Exception e) {
-            System.err.println("Error al obtener ID del usuario actual: " + e.getMessage());
-            e.printStackTrace();
-            return -1;
-        }
+    private void mostrarErrorPlaylists(Exception e) {
+        vboxCrearPrimera.setVisible(false);
+        listPlaylists.setVisible(true);
+        listPlaylistsData.clear();
+
+        Label errorLabel = new Label("Error al cargar playlists:\n" + e.getMessage());
+        errorLabel.setStyle("-fx-font-size: 14px; -fx-text-fill: #AFAFC7; -fx-text-alignment: center;");
+        listPlaylists.setPlaceholder(errorLabel);
+        System.out.println("Error al cargar playlists: " + e.getMessage());
     }
 
     /**
@@ -1592,8 +1517,8 @@ private void handleRecomendaciones() {
         }
     }
 
-    public void setReproduccionActual(java.util.List<DataAccessComponent.DTO.CancionDTO> canciones, int indiceActual) {
-        this.cancionesReproduciendose = canciones;
+    public void setReproduccionActual(List<? extends CancionResumenDTO> canciones, int indiceActual) {
+        this.cancionesReproduciendose = List.copyOf(canciones);
         if (reproductor != null && reproductor.getPlaylist() != null) {
             reproductor.getPlaylist().setIndiceActual(indiceActual);
         }
@@ -1602,7 +1527,7 @@ private void handleRecomendaciones() {
     private void actualizarImagenPerfil() {
         try {
             String ruta = rutasImagenes.get(indiceActual);
-            Image imagen = new Image(getClass().getResourceAsStream(ruta));
+            Image imagen = CacheImagenes.getInstancia().recurso(ruta);
             ImagePattern patron = new ImagePattern(imagen);
             imgPerfil.setFill(patron);
         } catch (Exception e) {
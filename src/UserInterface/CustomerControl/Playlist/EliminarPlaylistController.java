@@ -12,11 +12,11 @@ import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
 import javafx.stage.Stage;
 import javafx.application.Platform;
+import BusinessLogic.CacheImagenes;
 import BusinessLogic.Playlist;
 import DataAccessComponent.DTO.PlaylistDTO;
 import java.net.URL;
 import java.util.ResourceBundle;
-import java.io.ByteArrayInputStream;
 import java.util.Optional;
 
 /**
@@ -330,10 +330,10 @@ public class EliminarPlaylistController implements Initializable {
      * Carga la imagen por defecto desde recursos
      */
     private Image cargarImagenPorDefecto() {
-        Image imagen = new Image(getClass().getResourceAsStream(RUTA_IMAGEN_SIMBOLO));
+        Image imagen = CacheImagenes.getInstancia().recurso(RUTA_IMAGEN_SIMBOLO);
 
-        if (imagen.isError()) {
-            imagen = new Image(getClass().getResourceAsStream(RUTA_IMAGEN_DEFAULT));
+        if (!esImagenValida(imagen)) {
+            imagen = CacheImagenes.getInstancia().recurso(RUTA_IMAGEN_DEFAULT);
         }
 
         return imagen;
@@ -516,7 +516,8 @@ public class EliminarPlaylistController implements Initializable {
      */
     private void cargarImagenPlaylist(PlaylistDTO playlist) {
         if (tieneImagen(playlist)) {
-            cargarImagenDesdeBytes(playlist.getImagenPortada());
+            // Se decodifica en segundo plano; mientras tanto se ve la imagen por defecto
+            CacheImagenes.getInstancia().mostrarPortadaPlaylist(imgPortada, playlist, cargarImagenPorDefecto());
         } else {
             establecerImagenPorDefecto();
         }
@@ -528,25 +529,4 @@ public class EliminarPlaylistController implements Initializable {
     private boolean tieneImagen(PlaylistDTO playlist) {
         return playlist.getImagenPortada() != null && playlist.getImagenPortada().length > 0;
     }
-
-    /**
-     * Carga imagen desde array de bytes
-     */
-    private void cargarImagenDesdeBytes(byte[] imagenBytes) {
-        try {
-            ByteArrayInputStream bis = new ByteArrayInputStream(imagenBytes);
-            Image imagen = new Image(bis);
-
-            if (esImagenValida(imagen)) {
-                imgPortada.setImage(imagen);
-                System.out.println("Imagen de portada cargada - " + imagen.getWidth() + "x" + imagen.getHeight());
-            } else {
-                establecerImagenPorDefecto();
-            }
-
-        } catch (Exception e) {
-            System.err.println("Error cargando imagen: " + e.getMessage());
-            establecerImagenPorDefecto();
-        }
-    }
-}
\ No newline at end of file
+}
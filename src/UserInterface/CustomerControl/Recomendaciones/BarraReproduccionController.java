@@ -1,7 +1,7 @@
 package UserInterface.CustomerControl.Recomendaciones;
 
 import BusinessLogic.*;
-import DataAccessComponent.DTO.CancionDTO;
+import DataAccessComponent.DTO.CancionResumenDTO;
 import javafx.animation.*;
 import javafx.application.Platform;
 import javafx.fxml.FXML;
@@ -12,7 +12,6 @@ import javafx.scene.image.ImageView;
 import javafx.scene.layout.HBox;
 import javafx.util.Duration;
 
-import java.io.ByteArrayInputStream;
 import java.net.URL;
 import java.util.*;
 import java.util.stream.Collectors;
@@ -36,7 +35,7 @@ public class BarraReproduccionController implements Initializable {
 
     /* ───── estado ───── */
     private final ReproductorMP3 reproductor = ReproductorMP3.getInstancia(new ArrayList<>());
-    private List<CancionDTO> canciones = List.of();
+    private List<CancionResumenDTO> canciones = List.of();
     private Timeline timeline;
     private double duracion = 0, posActual = 0;
     private boolean arrastrando = false;
@@ -62,16 +61,16 @@ public class BarraReproduccionController implements Initializable {
 
     /* ===== PUBLIC API ===== */
 
-    public void reproducir(List<CancionDTO> lista, int indice) {
+    public void reproducir(List<CancionResumenDTO> lista, int indice) {
         if (lista == null || lista.isEmpty())
             return;
 
         canciones = List.copyOf(lista);
 
-        List<byte[]> mp3 = lista.stream()
-                .map(CancionDTO::getArchivoMP3)
-                .filter(Objects::nonNull).toList();
-        reproductor.cambiarPlaylist(mp3);
+        List<Integer> ids = lista.stream()
+                .map(CancionResumenDTO::getIdCancion)
+                .collect(Collectors.toList());
+        reproductor.cambiarPlaylist(ids);
         reproductor.getPlaylist().setIndiceActual(indice);
         reproductor.reproducir();
 
@@ -81,9 +80,9 @@ public class BarraReproduccionController implements Initializable {
         setIcono(false);
     }
 
-    public void mostrarSiActiva(List<CancionDTO> lista) {
+    public void mostrarSiActiva(List<? extends CancionResumenDTO> lista) {
         if (reproductor.estaReproduciendo() || reproductor.estaPausado()) {
-            canciones = lista;
+            canciones = List.copyOf(lista);
             mostrar();
             actualizarInfo();
             actualizarDur();
@@ -202,19 +201,22 @@ public class BarraReproduccionController implements Initializable {
         lblNombreArtista.setText(c.getArtistas() == null || c.getArtistas().isEmpty()
                 ? "Artista desconocido"
                 : c.getArtistas().stream().map(a -> a.getNombre()).collect(Collectors.joining(", ")));
-        Image cover;
-        try {
-            cover = c.getPortada() != null && c.getPortada().length > 0
-                    ? new Image(new ByteArrayInputStream(c.getPortada()))
-                    : coverDefault;
-        } catch (Exception ex) {
-            cover = coverDefault;
-        }
-        imgCancionActual.setImage(cover);
+        mostrarPortada(c);
         duracion = c.getDuracion();
         lblTiempoTotal.setText(fmt(duracion));
     }
 
+    /**
+     * Muestra la portada de la canción desde la caché de imágenes; si no está en memoria se
+     * lee en segundo plano mientras se ve la portada genérica.
+     */
+    private void mostrarPortada(CancionResumenDTO c) {
+        if (coverDefault == null) {
+            coverDefault = CacheImagenes.getInstancia().recurso("/UserInterface/Resources/img/portada-generica.jpg");
+        }
+        CacheImagenes.getInstancia().mostrarPortadaCancion(imgCancionActual, c.getIdCancion(), coverDefault);
+    }
+
     private void reiniciar() {
         timeline.stop();
         pgbProgresoCancion.setValue(0);
@@ -259,31 +261,23 @@ public class BarraReproduccionController implements Initializable {
 
         int indiceActual = reproductor.getPlaylist().getIndiceActual();
         // Usa la lista que guardaste al abrir la ventana
-        List<CancionDTO> cancionesActuales = this.canciones;
+        List<CancionResumenDTO> cancionesActuales = this.canciones;
         if (cancionesActuales == null || cancionesActuales.isEmpty()) return;
 
         if (indiceActual >= 0 && indiceActual < cancionesActuales.size()) {
-            CancionDTO cancionActual = cancionesActuales.get(indiceActual);
+            CancionResumenDTO cancionActual = cancionesActuales.get(indiceActual);
             lblNombreCancion.setText(cancionActual.getTitulo());
             lblNombreArtista.setText(
                 cancionActual.getArtistas() == null || cancionActual.getArtistas().isEmpty()
                     ? "Artista desconocido"
                     : cancionActual.getArtistas().stream().map(a -> a.getNombre()).collect(Collectors.joining(", "))
             );
-            Image cover;
-            try {
-                cover = cancionActual.getPortada() != null && cancionActual.getPortada().length > 0
-                        ? new Image(new ByteArrayInputStream(cancionActual.getPortada()))
-                        : coverDefault;
-            } catch (Exception ex) {
-                cover = coverDefault;
-            }
-            imgCancionActual.setImage(cover);
+            mostrarPortada(cancionActual);
             duracion = cancionActual.getDuracion();
             lblTiempoTotal.setText(fmt(duracion));
         }
     }
-public void setCanciones(List<CancionDTO> canciones) {
+public void setCanciones(List<? extends CancionResumenDTO> canciones) {
     if (canciones != null && !canciones.isEmpty()) {
         this.canciones = List.copyOf(canciones);
     }
@@ -1,7 +1,7 @@
 package UserInterface.CustomerControl.Recomendaciones;
 
 import BusinessLogic.*;
-import DataAccessComponent.DTO.CancionDTO;
+import DataAccessComponent.DTO.CancionResumenDTO;
 import UserInterface.CustomerControl.Playlist.CatalogoPlaylistController;
 import UserInterface.CustomerControl.Recomendaciones.BarraReproduccionController;
 import javafx.application.Platform;
@@ -23,7 +23,6 @@ import javafx.scene.image.ImageView;
 import javafx.scene.layout.HBox;
 import javafx.scene.layout.StackPane;
 import javafx.stage.Stage;
-import java.io.ByteArrayInputStream;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -45,11 +44,13 @@ public class RecomendacionesController {
     private boolean filtroEstrenos = false;
 
     // ---------- servicios y datos ----------
-    private final ServicioRecomendaciones servicio = new ServicioRecomendaciones();
-    private final ObservableList<CancionDTO> datos = FXCollections.observableArrayList();
-    private List<CancionDTO> canciones;
+    private final DatosAsincronos servicio = new DatosAsincronos();
+    // número de la última consulta; una respuesta anterior llega tarde y se descarta
+    private int consultaActual;
+    private final ObservableList<CancionResumenDTO> datos = FXCollections.observableArrayList();
+    private List<? extends CancionResumenDTO> canciones;
 
-    public List<CancionDTO> getCanciones() {
+    public List<? extends CancionResumenDTO> getCanciones() {
         return canciones;
     }
 
@@ -65,13 +66,13 @@ public class RecomendacionesController {
     @FXML
     private Label mensajeBienvenida, mensajeSelecciona;
     @FXML
-    private TableView<CancionDTO> tablaCanciones;
+    private TableView<CancionResumenDTO> tablaCanciones;
     @FXML
-    private TableColumn<CancionDTO, CancionDTO> colTituloConImagen;
+    private TableColumn<CancionResumenDTO, CancionResumenDTO> colTituloConImagen;
     @FXML
-    private TableColumn<CancionDTO, String> colArtista, colGenero, colAnio, colDuracion;
+    private TableColumn<CancionResumenDTO, String> colArtista, colGenero, colAnio, colDuracion;
     @FXML
-    private TableColumn<CancionDTO, Void> colPlay;
+    private TableColumn<CancionResumenDTO, Void> colPlay;
     @FXML
     private StackPane contentPane;
 
@@ -217,6 +218,7 @@ public class RecomendacionesController {
 
     /** Llena la tabla según los filtros activos y el texto escrito. */
     private void refrescarTabla() {
+        int consulta = ++consultaActual;
 
         /* ---------- A. Sin filtros ---------- */
         if (!mostrarFiltrosActivos()) {
@@ -251,20 +253,27 @@ public class RecomendacionesController {
             return;
         }
 
-        /* ---------- C. Consulta al servicio ---------- */
-        List<CancionDTO> base = servicio.recomendar(
+        /* ---------- C. Consulta al servicio, fuera del hilo de JavaFX ---------- */
+        EjecutorDatos.getInstancia().alTerminar(servicio.recomendar(
                 filtroPrefer, null,
                 filtroArtista ? textoArtista : null,
-                filtroEstrenos);
+                filtroEstrenos), "recomendaciones", base -> {
+            if (consulta == consultaActual) {
+                mostrarRecomendaciones(base, textoGenero);
+            }
+        }, e -> System.err.println("Error al consultar recomendaciones: " + e.getMessage()));
+    }
 
-        List<CancionDTO> resultado = base;
-        if (filtroGenero && !textoGenero.isBlank()) {
-            String patron = textoGenero.toLowerCase();
+    /** Aplica el filtro de género y muestra el resultado de la consulta. */
+    private void mostrarRecomendaciones(List<CancionResumenDTO> base, String textoGenero) {
+
+        List<CancionResumenDTO> resultado = base;
+        if (!textoGenero.isBlank()) {
+            // Sin tildes, por prefijo de palabra y con tolerancia a errores ("electronca", "rock alt")
             resultado = base.stream()
                     .filter(c -> c.getGeneros() != null &&
                             c.getGeneros().stream()
-                                    .anyMatch(g -> g.name().toLowerCase()
-                                            .contains(patron)))
+                                    .anyMatch(g -> MotorBusqueda.coincide(g.name(), textoGenero)))
                     .toList();
         }
 
@@ -318,13 +327,13 @@ public class RecomendacionesController {
             }
 
             @Override
-            protected void updateItem(CancionDTO c, boolean empty) {
+            protected void updateItem(CancionResumenDTO c, boolean empty) {
                 super.updateItem(c, empty);
                 if (empty || c == null) {
                     setGraphic(null);
                 } else {
-                    if (c.getPortada() != null)
-                        portada.setImage(new Image(new ByteArrayInputStream(c.getPortada())));
+                    // se lee y decodifica en segundo plano
+                    CacheImagenes.getInstancia().mostrarPortadaCancion(portada, c.getIdCancion(), null);
                     titulo.setText(c.getTitulo());
                     setGraphic(box);
                 }
@@ -398,12 +407,13 @@ public class RecomendacionesController {
             ex.printStackTrace();
         }
     }
-    public void setReproduccionActual(List<CancionDTO> canciones, int indiceActual) {
+
+    public void setReproduccionActual(List<? extends CancionResumenDTO> canciones, int indiceActual) {
     if (barraCtrl != null) {
         barraCtrl.actualizarUIDesdeReproductor();
     }
 }
-public void setCanciones(List<CancionDTO> canciones) {
+public void setCanciones(List<? extends CancionResumenDTO> canciones) {
     this.canciones = canciones;
     if (barraCtrl != null) {
         barraCtrl.setCanciones(canciones);
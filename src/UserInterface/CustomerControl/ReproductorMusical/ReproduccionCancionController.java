@@ -1,9 +1,11 @@
 package UserInterface.CustomerControl.ReproductorMusical;
 
+import BusinessLogic.CacheImagenes;
+import BusinessLogic.DatosAsincronos;
+import BusinessLogic.EjecutorDatos;
 import BusinessLogic.ReproductorMP3;
 import BusinessLogic.EstadoPausado;
-import DataAccessComponent.DAO.CancionDAO;
-import DataAccessComponent.DTO.CancionDTO;
+import DataAccessComponent.DTO.CancionResumenDTO;
 import UserInterface.CustomerControl.Playlist.CatalogoPlaylistController;
 import javafx.animation.KeyFrame;
 import javafx.animation.Timeline;
@@ -21,7 +23,6 @@ import javafx.scene.layout.Pane;
 import javafx.stage.Stage;
 import javafx.util.Duration;
 
-import java.io.ByteArrayInputStream;
 import java.net.URL;
 import java.util.ArrayList;
 import java.util.List;
@@ -39,13 +40,15 @@ public class ReproduccionCancionController implements Initializable {
     private Timeline timeline;
     private double duracionRealCancion = 0;
     private double tiempoActualSegundos = 0;
-    private List<CancionDTO> cancionesDTO;
-    private List<byte[]> cancionesByteArray;
+    private final DatosAsincronos datos = new DatosAsincronos();
+    private List<CancionResumenDTO> cancionesDTO;
     private boolean usuarioArrastrando = false;
-    private CancionDTO cancionActual;
+    private CancionResumenDTO cancionActual;
     private boolean datosExternos = false;
+    // Índice recibido antes de que el reproductor estuviera listo
+    private int indicePendiente = -1;
 
-    public void setCancionActual(DataAccessComponent.DTO.CancionDTO cancion) {
+    public void setCancionActual(CancionResumenDTO cancion) {
         this.cancionActual = cancion;
         datosExternos = true;
         mostrarInformacionCancion(cancion);
@@ -63,11 +66,13 @@ public class ReproduccionCancionController implements Initializable {
     @FXML private ImageView imgAlbumActualAbajo;
     @FXML private Pane panImageAlbum1;
     @FXML private Button btnVolver;
-    public void setDatosReproduccion(java.util.List<DataAccessComponent.DTO.CancionDTO> canciones, int indiceActual) {
-        this.cancionesDTO = canciones;
+    public void setDatosReproduccion(List<? extends CancionResumenDTO> canciones, int indiceActual) {
+        this.cancionesDTO = List.copyOf(canciones);
         datosExternos = true;
         if (reproductor != null && reproductor.getPlaylist() != null) {
             reproductor.getPlaylist().setIndiceActual(indiceActual);
+        } else {
+            indicePendiente = indiceActual;
         }
         mostrarCancionActual();
     }
@@ -100,17 +105,26 @@ public class ReproduccionCancionController implements Initializable {
             double progreso = pgbProgresoCancion.getValue();
             saltarAProgreso(progreso);
         });
+    }
 
-        if (reproductor != null) {
-            reproductor.setOnSongChange(() -> {
-                javafx.application.Platform.runLater(() -> {
-                    mostrarCancionActual();
-                    reiniciarProgresoYTiempo();
-                    cambiarAImagenPause();
-                    timeline.play();
-                });
-            });
+    /**
+     * Conecta la pantalla con el reproductor una vez que está listo: aplica el índice
+     * recibido mientras se cargaban las canciones y escucha los cambios de canción.
+     */
+    private void conectarReproductor() {
+        if (indicePendiente >= 0 && reproductor.getPlaylist() != null) {
+            reproductor.getPlaylist().setIndiceActual(indicePendiente);
+            indicePendiente = -1;
         }
+        reproductor.setOnSongChange(() -> {
+            javafx.application.Platform.runLater(() -> {
+                mostrarCancionActual();
+                reiniciarProgresoYTiempo();
+                cambiarAImagenPause();
+                timeline.play();
+            });
+        });
+        mostrarCancionActual();
     }
 
     /**
@@ -127,32 +141,32 @@ public class ReproduccionCancionController implements Initializable {
     }
 
     /**
-     * Carga todas las canciones desde la base de datos a través del DAO,
-     * prepara los datos para el reproductor e inicializa la UI con la primera canción.
+     * Carga en segundo plano la metadata de todas las canciones, arma la cola de
+     * reproducción con sus IDs e inicializa la UI con la primera canción.
+     * El audio no se lee aquí: el reproductor lo carga cuando cada canción empieza a sonar.
      */
     private void cargarCanciones() {
-        try {
-            CancionDAO cancionDAO = new CancionDAO();
-            cancionesDTO = cancionDAO.buscarTodo();
-            cancionesByteArray = new ArrayList<>();
+        EjecutorDatos.getInstancia().alTerminar(datos.buscarResumenesCanciones(), "reproduccion.canciones", canciones -> {
+            // Las canciones recibidas de otra pantalla tienen prioridad sobre el catálogo completo
+            if (!datosExternos) {
+                cancionesDTO = canciones;
+            }
+            List<Integer> idsCanciones = new ArrayList<>(canciones.size());
 
-            for (CancionDTO cancion : cancionesDTO) {
-                if (cancion.getArchivoMP3() != null) {
-                    cancionesByteArray.add(cancion.getArchivoMP3());
-                }
+            for (CancionResumenDTO cancion : canciones) {
+                idsCanciones.add(cancion.getIdCancion());
             }
 
-            if (!cancionesByteArray.isEmpty()) {
-                reproductor = ReproductorMP3.getInstancia(cancionesByteArray);
-                mostrarCancionActual();
+            if (!idsCanciones.isEmpty()) {
+                reproductor = ReproductorMP3.getInstancia(idsCanciones);
+                conectarReproductor();
             } else {
                 System.out.println("No hay canciones en la base de datos");
             }
-
-        } catch (Exception e) {
+        }, e -> {
             System.err.println("Error al cargar canciones: " + e.getMessage());
             e.printStackTrace();
-        }
+        });
     }
 
     /**
@@ -304,7 +318,7 @@ public class ReproduccionCancionController implements Initializable {
      * Muestra la información de una canción (título, artista, portada) en la UI.
      * @param cancion El DTO de la canción a mostrar.
      */
-    public void mostrarInformacionCancion(CancionDTO cancion) {
+    public void mostrarInformacionCancion(CancionResumenDTO cancion) {
         lblNombreCancion.setText(cancion.getTitulo());
         lblNombreCancion1.setText(cancion.getTitulo());
         if (cancion.getArtistas() != null && !cancion.getArtistas().isEmpty()) {
@@ -324,22 +338,12 @@ public class ReproduccionCancionController implements Initializable {
      * Carga la imagen de portada de una canción en los `ImageView` correspondientes.
      * @param cancion El DTO de la canción cuya portada se va a mostrar.
      */
-    private void mostrarPortadaCancion(CancionDTO cancion) {
-        try {
-            Image portada;
-            if (cancion.getPortada() != null && cancion.getPortada().length > 0) {
-                portada = new Image(new ByteArrayInputStream(cancion.getPortada()));
-            } else {
-                portada = new Image(getClass().getResourceAsStream("/UserInterface/Resources//img/portada-generica.jpg"));
-            }
-            imgAlbumArtCentral.setImage(portada);
-            imgAlbumActualAbajo.setImage(portada);
-        } catch (Exception e) {
-            System.err.println("Error cargando portada: " + e.getMessage());
-            Image errorImage = new Image(getClass().getResourceAsStream("/UserInterface/Resources//img/portada-generica.jpg"));
-            imgAlbumArtCentral.setImage(errorImage);
-            imgAlbumActualAbajo.setImage(errorImage);
-        }
+    private void mostrarPortadaCancion(CancionResumenDTO cancion) {
+        // La portada se lee y decodifica en segundo plano; mientras tanto se ve la genérica
+        CacheImagenes cache = CacheImagenes.getInstancia();
+        Image generica = cache.recurso("/UserInterface/Resources/img/portada-generica.jpg");
+        cache.mostrarPortadaCancion(imgAlbumArtCentral, cancion.getIdCancion(), generica);
+        cache.mostrarPortadaCancion(imgAlbumActualAbajo, cancion.getIdCancion(), generica);
     }
 
     /**
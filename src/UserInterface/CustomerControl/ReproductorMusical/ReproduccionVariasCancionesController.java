@@ -1,5 +1,6 @@
 package UserInterface.CustomerControl.ReproductorMusical;
 
+import BusinessLogic.CacheImagenes;
 import BusinessLogic.ReproductorMP3;
 import BusinessLogic.Sesion;
 import BusinessLogic.Usuario;
@@ -23,8 +24,6 @@ import javafx.scene.layout.TilePane;
 import javafx.scene.layout.VBox;
 import javafx.util.Duration;
 
-import java.io.ByteArrayInputStream;
-import java.io.InputStream;
 import java.net.URL;
 import java.util.ArrayList;
 import java.util.List;
@@ -70,8 +69,7 @@ public class ReproduccionVariasCancionesController implements Initializable {
     @Override
     public void initialize(URL location, ResourceBundle resources) {
        
-        InputStream stream = getClass().getResourceAsStream("/UserInterface/Resources/img/portada-generica.jpg");
-        portadaGenerica = (stream != null) ? new Image(stream) : null;
+        portadaGenerica = CacheImagenes.getInstancia().recurso("/UserInterface/Resources/img/portada-generica.jpg");
 
         playlistDAO = new PlaylistDAO();
         reproductor = ReproductorMP3.getInstancia(new ArrayList<>());
@@ -113,8 +111,8 @@ public class ReproduccionVariasCancionesController implements Initializable {
      */
     private void mostrarCancionesDePlaylist(PlaylistDTO playlist) {
         try {
-            cancionesMostradas = playlistDAO.obtenerCancionesCompletasDePlaylist(playlist.getIdPlaylist());
-            imgPlaylistHeader.setImage(playlist.getImagenPortada() != null ? new Image(new ByteArrayInputStream(playlist.getImagenPortada())) : portadaGenerica);
+            cancionesMostradas = playlistDAO.obtenerCancionesSinAudioDePlaylist(playlist.getIdPlaylist());
+            CacheImagenes.getInstancia().mostrarPortadaPlaylist(imgPlaylistHeader, playlist, portadaGenerica);
             lblPlaylistTituloHeader.setText(playlist.getTituloPlaylist());
             lblAutorHeader.setText("InkHarmony");
             tablaCanciones.getItems().setAll(cancionesMostradas);
@@ -128,9 +126,10 @@ public class ReproduccionVariasCancionesController implements Initializable {
      * @return Un VBox que representa la tarjeta de la playlist, con su evento de clic configurado.
      */
     private VBox crearPlaylistCard(PlaylistDTO playlist) {
-        ImageView portadaView = new ImageView(playlist.getImagenPortada() != null ? new Image(new ByteArrayInputStream(playlist.getImagenPortada())) : portadaGenerica);
+        ImageView portadaView = new ImageView();
         portadaView.setFitHeight(180);
         portadaView.setFitWidth(180);
+        CacheImagenes.getInstancia().mostrarPortadaPlaylist(portadaView, playlist, portadaGenerica);
         Label tituloLabel = new Label(playlist.getTituloPlaylist());
         tituloLabel.setStyle("-fx-text-fill: white; -fx-font-weight: bold;");
         VBox card = new VBox(10, portadaView, tituloLabel);
@@ -149,9 +148,10 @@ public class ReproduccionVariasCancionesController implements Initializable {
                 super.updateItem(item, empty);
                 if (empty || item == null) setGraphic(null);
                 else {
-                    ImageView img = new ImageView(item.getImagenPortada() != null ? new Image(new ByteArrayInputStream(item.getImagenPortada())) : portadaGenerica);
+                    ImageView img = new ImageView();
                     img.setFitHeight(40);
                     img.setFitWidth(40);
+                    CacheImagenes.getInstancia().mostrarPortadaPlaylist(img, item, portadaGenerica);
                     Label lbl = new Label(item.getTituloPlaylist());
                     lbl.setStyle("-fx-text-fill: #AFAFC7;");
                     HBox cellBox = new HBox(10, img, lbl);
@@ -171,9 +171,10 @@ public class ReproduccionVariasCancionesController implements Initializable {
      */
     private void configurarTablaCanciones() {
         colPortada.setCellValueFactory(cellData -> {
-            ImageView imgView = new ImageView(cellData.getValue().getPortada() != null ? new Image(new ByteArrayInputStream(cellData.getValue().getPortada())) : portadaGenerica);
+            ImageView imgView = new ImageView();
             imgView.setFitHeight(40);
             imgView.setFitWidth(40);
+            CacheImagenes.getInstancia().mostrarPortadaCancion(imgView, cellData.getValue().getIdCancion(), portadaGenerica);
             return new SimpleObjectProperty<>(imgView);
         });
         colTitulo.setCellValueFactory(cellData -> new SimpleObjectProperty<>(cellData.getValue().getTitulo()));
@@ -244,8 +245,8 @@ public class ReproduccionVariasCancionesController implements Initializable {
     private void iniciarReproduccion(CancionDTO cancionSeleccionada) {
         cancionesMostradas = tablaCanciones.getItems();
         if (cancionesMostradas.isEmpty()) return;
-        List<byte[]> archivosMp3 = cancionesMostradas.stream().map(CancionDTO::getArchivoMP3).collect(Collectors.toList());
-        reproductor.cambiarPlaylist(archivosMp3);
+        List<Integer> idsCanciones = cancionesMostradas.stream().map(CancionDTO::getIdCancion).collect(Collectors.toList());
+        reproductor.cambiarPlaylist(idsCanciones);
         int indiceSeleccionado = cancionesMostradas.indexOf(cancionSeleccionada);
         if (indiceSeleccionado == -1) return;
         reproductor.getPlaylist().setIndiceActual(indiceSeleccionado);
@@ -284,7 +285,7 @@ public class ReproduccionVariasCancionesController implements Initializable {
      */
     @FXML
     void clickReproducir(ActionEvent event) {
-        if (reproductor.getPlaylist() == null || reproductor.getPlaylist().getCanciones().isEmpty()) return;
+        if (reproductor.getPlaylist() == null || reproductor.getPlaylist().getIdsCanciones().isEmpty()) return;
         if (reproductor.estaReproduciendo()) {
             reproductor.pausar();
             timeline.stop();
@@ -300,14 +301,14 @@ public class ReproduccionVariasCancionesController implements Initializable {
      * Actualiza la información de la canción que se muestra en la barra de reproducción inferior.
      */
     private void actualizarInfoCancionActual() {
-        if (reproductor.getPlaylist() == null || reproductor.getPlaylist().getCanciones().isEmpty() || cancionesMostradas == null || cancionesMostradas.isEmpty()) return;
+        if (reproductor.getPlaylist() == null || reproductor.getPlaylist().getIdsCanciones().isEmpty() || cancionesMostradas == null || cancionesMostradas.isEmpty()) return;
         int indiceActual = reproductor.getPlaylist().getIndiceActual();
         if (indiceActual == indiceCancionAnterior) return;
         if (indiceActual < 0 || indiceActual >= cancionesMostradas.size()) return;
         CancionDTO cancionActual = cancionesMostradas.get(indiceActual);
         lblNombreCancionActual.setText(cancionActual.getTitulo());
         lblArtistaActual.setText(cancionActual.getArtistas().stream().map(a -> a.getNombre()).collect(Collectors.joining(", ")));
-        imgAlbumActual.setImage(cancionActual.getPortada() != null ? new Image(new ByteArrayInputStream(cancionActual.getPortada())) : portadaGenerica);
+        CacheImagenes.getInstancia().mostrarPortadaCancion(imgAlbumActual, cancionActual.getIdCancion(), portadaGenerica);
         indiceCancionAnterior = indiceActual;
     }
 
@@ -326,6 +327,6 @@ public class ReproduccionVariasCancionesController implements Initializable {
      * @param aPlay true para mostrar el icono de 'play', false para mostrar el de 'pausa'.
      */
     private void cambiarIconoPlay(boolean aPlay) {
-        imgPlayPause.setImage(new Image(getClass().getResourceAsStream("/UserInterface/Resources//img/" + (aPlay ? "boton-de-play.png" : "boton-de-pausa.png"))));
+        imgPlayPause.setImage(CacheImagenes.getInstancia().recurso("/UserInterface/Resources/img/" + (aPlay ? "boton-de-play.png" : "boton-de-pausa.png")));
     }
 }
@@ -1,5 +1,6 @@
 package UserInterface.GUI;
 
+import UserInterface.Utils.VigilanteHiloFx;
 import javafx.application.Application;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Scene;
@@ -10,6 +11,9 @@ public class Login extends Application {
 
     @Override
     public void start(Stage primaryStage) throws Exception {
+        // Informa cuando algo bloquea el hilo de JavaFX más de un cuadro
+        VigilanteHiloFx.iniciar();
+
         // Cargar el FXML
         Parent root = FXMLLoader.load(getClass().getResource(
             "/UserInterface/GUI/AdminUserControl/login.fxml"));
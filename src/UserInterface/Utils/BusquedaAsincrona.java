@@ -0,0 +1,154 @@
+package UserInterface.Utils;
+
+import BusinessLogic.utilities.HistogramaLatencias;
+import javafx.application.Platform;
+
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Búsqueda mientras se escribe que no bloquea el hilo de JavaFX.
+ *
+ * <p>Cada llamada a {@link #solicitar(String)} reemplaza a la anterior:</p>
+ * <ul>
+ *   <li>La consulta espera {@link #RETARDO_MS} sin nuevas teclas antes de ejecutarse
+ *       (con el texto vacío se ejecuta enseguida, para restaurar la lista completa).</li>
+ *   <li>Se ejecuta en un hilo de fondo compartido por todas las pantallas.</li>
+ *   <li>Una consulta pendiente o en curso que queda superada se cancela; si ya terminó, su
+ *       resultado se descarta. Solo se publica el resultado del último texto.</li>
+ *   <li>El resultado se entrega en el hilo de JavaFX y el tiempo desde la tecla hasta que
+ *       se publica se registra en {@link HistogramaLatencias#de(String)} con el nombre
+ *       {@code busqueda.<nombre>}.</li>
+ * </ul>
+ *
+ * <p>La consulta no debe tocar controles de JavaFX; si lee listas del controlador, estas no
+ * deben modificarse mientras tanto (las pantallas reemplazan la lista al recargar).</p>
+ *
+ * @param <T> Tipo del resultado
+ *
+ * @author Grupo B
+ * @version 1.0
+ * @since 25-07-2025
+ */
+public final class BusquedaAsincrona<T> {
+
+    /** Espera tras la última tecla, configurable con {@code -Dinkharmony.busqueda.retardo.ms} */
+    public static final long RETARDO_MS = Long.getLong("inkharmony.busqueda.retardo.ms", 150);
+
+    /**
+     * Consulta que se ejecuta en segundo plano.
+     *
+     * @param <T> Tipo del resultado
+     */
+    @FunctionalInterface
+    public interface Consulta<T> {
+        T ejecutar(String texto) throws Exception;
+    }
+
+    /** Hilo único para esperas y consultas: una consulta nueva nunca compite con la anterior */
+    private static final ScheduledExecutorService EJECUTOR = crearEjecutor();
+
+    private final Consulta<T> consulta;
+    private final Consumer<T> publicar;
+    private final HistogramaLatencias latencias;
+
+    /** Número de la última solicitud; una consulta con otro número ya está superada */
+    private final AtomicLong ultima = new AtomicLong();
+    private final AtomicLong publicadas = new AtomicLong();
+
+    private Future<?> pendiente;
+
+    /**
+     * @param nombre Nombre de la pantalla, para el histograma de latencias
+     * @param consulta Consulta que se ejecuta en segundo plano con el texto ingresado
+     * @param publicar Acción que muestra el resultado, ejecutada en el hilo de JavaFX
+     */
+    public BusquedaAsincrona(String nombre, Consulta<T> consulta, Consumer<T> publicar) {
+        this.consulta = consulta;
+        this.publicar = publicar;
+        this.latencias = HistogramaLatencias.de("busqueda." + nombre);
+    }
+
+    /**
+     * Programa una búsqueda y cancela la anterior. Se llama desde el hilo de JavaFX,
+     * normalmente en el listener del campo de búsqueda.
+     *
+     * @param texto Texto ingresado; null se trata como vacío
+     */
+    public void solicitar(String texto) {
+        long inicio = System.nanoTime();
+        long numero = ultima.incrementAndGet();
+        String valor = texto != null ? texto : "";
+        if (pendiente != null) {
+            pendiente.cancel(true);
+        }
+        long retardo = valor.isBlank() ? 0 : RETARDO_MS;
+        pendiente = EJECUTOR.schedule(() -> ejecutar(numero, valor, inicio), retardo, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Cancela la búsqueda pendiente sin publicar nada, por ejemplo al cerrar la pantalla.
+     */
+    public void cancelar() {
+        ultima.incrementAndGet();
+        if (pendiente != null) {
+            pendiente.cancel(true);
+        }
+    }
+
+    /**
+     * @return Histograma del tiempo entre la tecla y la publicación del resultado
+     */
+    public HistogramaLatencias getLatencias() {
+        return latencias;
+    }
+
+    /**
+     * @return Resumen legible de latencias y de cuántas solicitudes llegaron a publicarse
+     */
+    public String resumen() {
+        return latencias.resumen() + " solicitudes=" + ultima.get() + " publicadas=" + publicadas.get();
+    }
+
+    private void ejecutar(long numero, String texto, long inicio) {
+        if (numero != ultima.get()) {
+            return;
+        }
+        T resultado;
+        try {
+            resultado = consulta.ejecutar(texto);
+        } catch (Exception e) {
+            if (numero == ultima.get()) {
+                System.err.println("Error en la búsqueda \"" + texto + "\": " + e.getMessage());
+            }
+            return;
+        }
+        if (numero != ultima.get() || Thread.currentThread().isInterrupted()) {
+            return;
+        }
+        Platform.runLater(() -> {
+            // Puede haber llegado otra tecla mientras se esperaba el hilo de JavaFX
+            if (numero != ultima.get()) {
+                return;
+            }
+            publicar.accept(resultado);
+            publicadas.incrementAndGet();
+            latencias.registrar(System.nanoTime() - inicio);
+        });
+    }
+
+    private static ScheduledExecutorService crearEjecutor() {
+        ScheduledThreadPoolExecutor ejecutor = new ScheduledThreadPoolExecutor(1, tarea -> {
+            Thread hilo = new Thread(tarea, "busqueda-asincrona");
+            hilo.setDaemon(true);
+            return hilo;
+        });
+        // Las esperas canceladas salen de la cola en lugar de acumularse mientras se escribe
+        ejecutor.setRemoveOnCancelPolicy(true);
+        return ejecutor;
+    }
+}
@@ -0,0 +1,237 @@
+package UserInterface.Utils;
+
+import BusinessLogic.EjecutorDatos;
+import DataAccessComponent.DAO.IPaginable;
+import javafx.application.Platform;
+import javafx.collections.ObservableListBase;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.ToIntFunction;
+
+/**
+ * Lista de solo lectura para un {@code TableView} que trae las filas de la base de datos por
+ * páginas a medida que se muestran, en lugar de cargar la tabla completa al abrir la pantalla.
+ *
+ * <p>El {@code TableView} solo pide las filas visibles, así que con miles de registros la
+ * pantalla abre tras contar las filas y leer la primera página:</p>
+ * <ul>
+ *   <li>Las páginas tienen {@link #TAMANIO_PAGINA} filas y se guardan como mucho
+ *       {@link #PAGINAS_EN_MEMORIA}; al pasar ese límite se descarta la usada hace más tiempo.</li>
+ *   <li>Una página se pide por clave a partir del último ID de la anterior. Si la anterior no
+ *       se leyó (al arrastrar la barra de desplazamiento), primero se busca el ID en esa
+ *       posición con {@link IPaginable#buscarIdEnPosicion(int)}.</li>
+ *   <li>Las páginas se leen con {@link EjecutorDatos}, nunca en el hilo de JavaFX. Mientras
+ *       la página de una fila no está en memoria, {@link #get(int)} devuelve null (la tabla
+ *       muestra la fila vacía) y, cuando llega, la lista avisa a la tabla que esas posiciones
+ *       cambiaron. Las páginas vecinas se leen por adelantado, de modo que al desplazarse
+ *       normalmente la siguiente ya está en memoria.</li>
+ * </ul>
+ *
+ * <p>El tamaño se cuenta al crear la lista. Si se eliminaron filas desde entonces, las
+ * posiciones que ya no existen también devuelven null y la lista se vuelve a contar con
+ * {@link #refrescar()}. La lista no admite cambios ni ordenamiento; las
+ * pantallas la reemplazan al recargar.</p>
+ *
+ * <p>Solo debe usarse desde el hilo de JavaFX.</p>
+ *
+ * @param <T> Tipo de cada fila
+ *
+ * @author Grupo B
+ * @version 1.0
+ * @since 25-07-2025
+ */
+public final class ListaPaginada<T> extends ObservableListBase<T> {
+
+    /** Filas por página; cubre varias pantallas de una tabla */
+    public static final int TAMANIO_PAGINA = 100;
+
+    /** Páginas que se mantienen en memoria */
+    public static final int PAGINAS_EN_MEMORIA = 10;
+
+    private final IPaginable<T> fuente;
+    private final ToIntFunction<T> id;
+    private int tamanio;
+
+    /** Páginas en memoria, de la usada hace más tiempo a la más reciente */
+    private final LinkedHashMap<Integer, List<T>> paginas = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, List<T>> mayor) {
+            return size() > PAGINAS_EN_MEMORIA;
+        }
+    };
+
+    /** Último ID de cada página leída, para continuar por clave sin volver a leerla */
+    private final Map<Integer, Integer> ultimoId = new HashMap<>();
+
+    /** Páginas que se están leyendo en segundo plano */
+    private final Set<Integer> enLectura = new HashSet<>();
+
+    /** Páginas en lectura que la tabla ya pidió; al llegar se avisa el cambio de sus filas */
+    private final Set<Integer> pedidas = new HashSet<>();
+
+    /** Cambia con cada {@link #refrescar()}; descarta lecturas anticipadas anteriores */
+    private int generacion;
+
+    private boolean refrescoPendiente;
+
+    /**
+     * Crea la lista y cuenta las filas. Las páginas se leen recién cuando se piden.
+     *
+     * @param fuente DAO que entrega las filas en orden de ID
+     * @param id Función que devuelve el ID de una fila
+     * @throws Exception si no se pudieron contar las filas
+     */
+    public ListaPaginada(IPaginable<T> fuente, ToIntFunction<T> id) throws Exception {
+        this.fuente = fuente;
+        this.id = id;
+        this.tamanio = fuente.contar();
+    }
+
+    @Override
+    public int size() {
+        return tamanio;
+    }
+
+    /**
+     * Devuelve una fila si su página está en memoria. Si no, pide la página en segundo plano
+     * y devuelve null; al llegar, la lista avisa que esas filas cambiaron.
+     *
+     * @param indice Posición de la fila
+     * @return La fila, o null si su página se está leyendo o si ya no existe en la base de datos
+     */
+    @Override
+    public T get(int indice) {
+        Objects.checkIndex(indice, tamanio);
+        int numero = indice / TAMANIO_PAGINA;
+        List<T> pagina = paginas.get(numero);
+        if (pagina == null) {
+            pedidas.add(numero);
+            anticipar(numero);
+            anticipar(numero + 1);
+            anticipar(numero - 1);
+            return null;
+        }
+        int posicion = indice % TAMANIO_PAGINA;
+        if (posicion >= pagina.size()) {
+            programarRefresco();
+            return null;
+        }
+        return pagina.get(posicion);
+    }
+
+    /**
+     * Descarta las páginas en memoria, vuelve a contar las filas y avisa a la tabla para
+     * que pida de nuevo las visibles.
+     */
+    public void refrescar() {
+        refrescoPendiente = false;
+        int anterior = tamanio;
+        int nuevo;
+        try {
+            nuevo = fuente.contar();
+        } catch (Exception e) {
+            System.err.println("Error al contar las filas: " + e.getMessage());
+            return;
+        }
+        generacion++;
+        paginas.clear();
+        ultimoId.clear();
+        enLectura.clear();
+        pedidas.clear();
+        tamanio = nuevo;
+        beginChange();
+        nextRemove(0, Collections.nCopies(anterior, null));
+        nextAdd(0, nuevo);
+        endChange();
+    }
+
+    /**
+     * ID después del cual empieza una página si se conoce sin consultar la base de datos:
+     * 0 para la primera, o el último de la anterior si está leída. Si no, null.
+     */
+    private Integer despuesDeConocido(int numero) {
+        return numero == 0 ? Integer.valueOf(0) : ultimoId.get(numero - 1);
+    }
+
+    /**
+     * Lee una página de la fuente. Puede ejecutarse fuera del hilo de JavaFX.
+     *
+     * @param despuesDe ID tras el que empieza la página, o null para buscarlo por posición
+     */
+    private List<T> leer(int numero, Integer despuesDe) throws Exception {
+        if (despuesDe == null) {
+            despuesDe = fuente.buscarIdEnPosicion(numero * TAMANIO_PAGINA - 1);
+            if (despuesDe == null) {
+                return Collections.emptyList();
+            }
+        }
+        return fuente.buscarPagina(despuesDe, TAMANIO_PAGINA);
+    }
+
+    private void instalar(int numero, List<T> pagina) {
+        paginas.put(numero, pagina);
+        if (!pagina.isEmpty()) {
+            ultimoId.put(numero, id.applyAsInt(pagina.get(pagina.size() - 1)));
+        }
+        int desde = numero * TAMANIO_PAGINA;
+        int esperadas = Math.min(TAMANIO_PAGINA, tamanio - desde);
+        if (pedidas.remove(numero) && esperadas > 0) {
+            // Las filas de la página pasan de null a su valor; la tabla vuelve a pedirlas
+            beginChange();
+            nextReplace(desde, desde + esperadas, Collections.nCopies(esperadas, null));
+            endChange();
+        }
+        if (pagina.size() < esperadas) {
+            programarRefresco();
+        }
+    }
+
+    /**
+     * Lee una página en segundo plano si existe y no está en memoria ni en lectura.
+     */
+    private void anticipar(int numero) {
+        if (numero < 0 || numero * TAMANIO_PAGINA >= tamanio
+                || paginas.containsKey(numero) || !enLectura.add(numero)) {
+            return;
+        }
+        int generacionLectura = generacion;
+        Integer despuesDe = despuesDeConocido(numero);
+        EjecutorDatos.getInstancia().cargar("lista-paginada", () -> leer(numero, despuesDe),
+                leida -> {
+                    if (generacionLectura != generacion) {
+                        return;
+                    }
+                    enLectura.remove(numero);
+                    if (!paginas.containsKey(numero)) {
+                        instalar(numero, leida);
+                    }
+                },
+                e -> {
+                    if (generacionLectura != generacion) {
+                        return;
+                    }
+                    // La página se vuelve a pedir la próxima vez que la tabla muestre sus filas
+                    enLectura.remove(numero);
+                    pedidas.remove(numero);
+                    System.err.println("Error al leer la página " + numero + ": " + e.getMessage());
+                });
+    }
+
+    /**
+     * Programa un {@link #refrescar()} para después de la pasada actual de la tabla, que no
+     * admite cambios en su lista mientras se dibuja.
+     */
+    private void programarRefresco() {
+        if (!refrescoPendiente) {
+            refrescoPendiente = true;
+            Platform.runLater(this::refrescar);
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package UserInterface.Utils;
+
+import BusinessLogic.EjecutorDatos;
+import BusinessLogic.utilities.HistogramaLatencias;
+import javafx.application.Platform;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Vigila que el hilo de JavaFX no quede bloqueado, por ejemplo por una consulta a la base
+ * de datos que todavía se hace en un manejador de eventos.
+ *
+ * <p>Cada {@link #INTERVALO_MS} ms un hilo de fondo encola una tarea vacía con
+ * {@code Platform.runLater} y mide cuánto tarda en ejecutarse. Si pasan más de
+ * {@link EjecutorDatos#UMBRAL_HILO_FX_MS} ms, el hilo de JavaFX está ocupado en otra cosa:
+ * se toma su pila en ese momento y, cuando la tarea por fin se ejecuta, se informa por
+ * consola el tiempo bloqueado junto con los métodos de la aplicación que lo ocupaban.</p>
+ *
+ * <p>Los retrasos se registran en {@link HistogramaLatencias#de(String)} con el nombre
+ * {@code hilo-fx.retraso}. Se desactiva con {@code -Dinkharmony.fx.vigilante=false}.</p>
+ *
+ * @author Grupo B
+ * @version 1.0
+ * @since 25-07-2025
+ */
+public final class VigilanteHiloFx {
+
+    /** Tiempo entre dos mediciones */
+    public static final long INTERVALO_MS = 100;
+
+    /** Métodos de la pila que se muestran al informar un bloqueo */
+    private static final int MARCOS_INFORMADOS = 6;
+
+    private static final HistogramaLatencias RETRASOS = HistogramaLatencias.de("hilo-fx.retraso");
+    private static final AtomicLong BLOQUEOS = new AtomicLong();
+
+    private static Thread vigilante;
+    private static volatile Thread hiloFx;
+
+    private VigilanteHiloFx() {}
+
+    /**
+     * Inicia la vigilancia si no está iniciada ni desactivada. Se llama una vez al arrancar
+     * la aplicación.
+     */
+    public static synchronized void iniciar() {
+        if (vigilante != null || !Boolean.parseBoolean(System.getProperty("inkharmony.fx.vigilante", "true"))) {
+            return;
+        }
+        vigilante = new Thread(VigilanteHiloFx::vigilar, "vigilante-hilo-fx");
+        vigilante.setDaemon(true);
+        vigilante.start();
+    }
+
+    /**
+     * @return Resumen legible de los retrasos medidos y de los bloqueos informados
+     */
+    public static String resumen() {
+        return RETRASOS.resumen() + " bloqueos=" + BLOQUEOS.get();
+    }
+
+    private static void vigilar() {
+        long umbralNanos = EjecutorDatos.UMBRAL_HILO_FX_MS * 1_000_000;
+        try {
+            while (true) {
+                CountDownLatch atendida = new CountDownLatch(1);
+                long enviada = System.nanoTime();
+                Platform.runLater(() -> {
+                    hiloFx = Thread.currentThread();
+                    atendida.countDown();
+                });
+                StackTraceElement[] pila = null;
+                if (!atendida.await(EjecutorDatos.UMBRAL_HILO_FX_MS, TimeUnit.MILLISECONDS)) {
+                    Thread fx = hiloFx;
+                    pila = fx != null ? fx.getStackTrace() : null;
+                    atendida.await();
+                }
+                long retraso = System.nanoTime() - enviada;
+                RETRASOS.registrar(retraso);
+                if (retraso > umbralNanos) {
+                    BLOQUEOS.incrementAndGet();
+                    informar(retraso, pila);
+                }
+                Thread.sleep(INTERVALO_MS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IllegalStateException e) {
+            // JavaFX se cerró: no hay nada más que vigilar
+        }
+    }
+
+    /**
+     * Informa un bloqueo con los primeros métodos de la aplicación que había en la pila del
+     * hilo de JavaFX, o con los primeros de la pila si ninguno es de la aplicación.
+     */
+    private static void informar(long retraso, StackTraceElement[] pila) {
+        StringBuilder sb = new StringBuilder(String.format("Hilo de JavaFX bloqueado %.1f ms", retraso / 1e6));
+        if (pila != null && pila.length > 0) {
+            int mostrados = 0;
+            for (StackTraceElement marco : pila) {
+                if (esDeLaAplicacion(marco) && mostrados < MARCOS_INFORMADOS) {
+                    sb.append("\n    en ").append(marco);
+                    mostrados++;
+                }
+            }
+            for (int i = 0; mostrados == 0 && i < Math.min(MARCOS_INFORMADOS, pila.length); i++) {
+                sb.append("\n    en ").append(pila[i]);
+            }
+        }
+        System.err.println(sb);
+    }
+
+    private static boolean esDeLaAplicacion(StackTraceElement marco) {
+        String clase = marco.getClassName();
+        return (clase.startsWith("UserInterface.") || clase.startsWith("BusinessLogic.")
+                || clase.startsWith("DataAccessComponent.")) && !clase.startsWith(VigilanteHiloFx.class.getName());
+    }
+}